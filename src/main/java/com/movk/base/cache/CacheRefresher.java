@@ -0,0 +1,26 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.cache;
+
+/**
+ * 缓存提前刷新加载器
+ * 由缓存数据的所属服务实现并注册为 Bean，TwoLevelCache 提前刷新时通过服务代理调用，
+ * 事务等切面照常生效；不复用触发刷新的请求所捕获的加载函数
+ */
+public interface CacheRefresher {
+
+    /**
+     * 负责刷新的缓存名称
+     */
+    String cacheName();
+
+    /**
+     * 按缓存键重新加载最新值（不经过缓存）
+     *
+     * @return 最新值，返回 null 时不写回缓存
+     */
+    Object reload(Object key);
+}
@@ -0,0 +1,65 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 按阈值压缩的编解码器
+ * 序列化结果超过阈值时使用 GZIP 压缩；反序列化时根据 GZIP 魔数识别，
+ * 未压缩的数据（含历史数据）直接交给被装饰的编解码器
+ */
+public class GzipRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte GZIP_MAGIC_0 = (byte) 0x1f;
+    private static final byte GZIP_MAGIC_1 = (byte) 0x8b;
+
+    private final RedisSerializer<Object> delegate;
+    private final int threshold;
+
+    /**
+     * @param delegate  被装饰的编解码器
+     * @param threshold 压缩阈值（字节）
+     */
+    public GzipRedisSerializer(RedisSerializer<Object> delegate, int threshold) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] bytes = delegate.serialize(value);
+        if (bytes == null || bytes.length < threshold) {
+            return bytes;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new SerializationException("缓存压缩失败", e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < 2 || bytes[0] != GZIP_MAGIC_0 || bytes[1] != GZIP_MAGIC_1) {
+            return delegate.deserialize(bytes);
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return delegate.deserialize(gzip.readAllBytes());
+        } catch (IOException e) {
+            throw new SerializationException("缓存解压失败", e);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * 进程内有界 TTL 缓存
+ * 基于 ConcurrentHashMap，读写不加全局锁；条目记录过期时间与最近访问时间，到期后读取时惰性清除。
+ * 条目数超过上限时由单个写线程批量淘汰：先清除已过期条目，仍超限时按最近访问时间淘汰至上限的 90%（近似 LRU）。
+ * 指定分组函数时维护 分组 → 键 的二级索引，{@link #removeGroup} 只处理该分组的条目
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public class LocalTtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * 分组函数，为 null 时不维护分组索引
+     */
+    private final BiFunction<? super K, ? super V, ?> groupBy;
+
+    /**
+     * 分组 → 键；同一分组的增删与带分组条目的写入在 compute 中串行执行
+     */
+    private final ConcurrentHashMap<Object, Set<K>> groups = new ConcurrentHashMap<>();
+
+    public LocalTtlCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, null);
+    }
+
+    /**
+     * @param groupBy 根据键值计算分组（如用户ID），用于按分组批量失效
+     */
+    public LocalTtlCache(int maxSize, Duration ttl, BiFunction<? super K, ? super V, ?> groupBy) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize 必须大于 0");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.groupBy = groupBy;
+    }
+
+    /**
+     * 获取缓存值，不存在或已过期时返回 null
+     */
+    public V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (entry.expiresAt <= now) {
+            removeEntry(key, entry);
+            return null;
+        }
+        entry.accessedAt = System.nanoTime();
+        return entry.value;
+    }
+
+    /**
+     * 写入缓存，使用默认 TTL
+     */
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * 写入缓存并指定绝对过期时间（毫秒时间戳）
+     * 实际过期时间不会晚于默认 TTL
+     */
+    public void put(K key, V value, long expiresAt) {
+        long now = System.currentTimeMillis();
+        Object group = groupBy != null ? groupBy.apply(key, value) : null;
+        Entry<V> entry = new Entry<>(value, Math.min(expiresAt, now + ttlMillis), System.nanoTime(), group);
+        Entry<V> previous;
+        if (group == null) {
+            previous = map.put(key, entry);
+        } else {
+            // 索引与写入在分组的 compute 中一起完成，与 removeGroup 对同一分组串行：
+            // 失效要么发生在写入之前，要么取到的键集合已包含该键并清除新条目
+            List<Entry<V>> replaced = new ArrayList<>(1);
+            groups.compute(group, (g, keys) -> {
+                Set<K> set = keys != null ? keys : new HashSet<>();
+                set.add(key);
+                replaced.add(map.put(key, entry));
+                return set;
+            });
+            previous = replaced.get(0);
+        }
+        if (previous != null && previous.group != null && !previous.group.equals(group)) {
+            unindex(key, previous.group);
+        }
+        if (map.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * 移除指定键
+     */
+    public void remove(K key) {
+        Entry<V> removed = map.remove(key);
+        if (removed != null && removed.group != null) {
+            unindex(key, removed.group);
+        }
+    }
+
+    /**
+     * 移除指定分组的全部条目，耗时与该分组的条目数成正比
+     *
+     * @return 移除的条目数
+     */
+    public int removeGroup(Object group) {
+        Set<K> keys = group != null ? groups.remove(group) : null;
+        if (keys == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (K key : keys) {
+            Entry<V> entry = map.get(key);
+            if (entry != null && group.equals(entry.group) && map.remove(key, entry)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        map.clear();
+        groups.clear();
+    }
+
+    /**
+     * 当前条目数（含尚未清除的过期条目）
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * 批量淘汰；已有线程在淘汰时直接返回，写入方不排队等待
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // 淘汰期间其他线程的写入不会触发淘汰，退出前再检查一次
+            while (map.size() > maxSize) {
+                long now = System.currentTimeMillis();
+                map.forEach((key, entry) -> {
+                    if (entry.expiresAt <= now) {
+                        removeEntry(key, entry);
+                    }
+                });
+                int excess = map.size() - (maxSize - maxSize / 10);
+                if (map.size() <= maxSize) {
+                    return;
+                }
+                // 访问时间在排序期间仍会被读线程更新，先取快照
+                List<Candidate<K, V>> candidates = new ArrayList<>(map.size());
+                map.forEach((key, entry) -> candidates.add(new Candidate<>(key, entry, entry.accessedAt)));
+                candidates.sort(Comparator.comparingLong(Candidate::accessedAt));
+                for (int i = 0; i < excess && i < candidates.size(); i++) {
+                    removeEntry(candidates.get(i).key(), candidates.get(i).entry());
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean removeEntry(K key, Entry<V> entry) {
+        if (!map.remove(key, entry)) {
+            return false;
+        }
+        if (entry.group != null) {
+            unindex(key, entry.group);
+        }
+        return true;
+    }
+
+    /**
+     * 从分组索引中移除键；键已被同组的新条目占用时保留
+     */
+    private void unindex(K key, Object group) {
+        groups.computeIfPresent(group, (g, keys) -> {
+            Entry<V> current = map.get(key);
+            if (current == null || !group.equals(current.group)) {
+                keys.remove(key);
+            }
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private record Candidate<K, V>(K key, Entry<V> entry, long accessedAt) {
+    }
+
+    private static final class Entry<V> {
+
+        final V value;
+        final long expiresAt;
+        final Object group;
+        volatile long accessedAt;
+
+        Entry(V value, long expiresAt, long accessedAt, Object group) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.accessedAt = accessedAt;
+            this.group = group;
+        }
+    }
+}
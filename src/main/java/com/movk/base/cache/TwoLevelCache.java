@@ -0,0 +1,372 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 二级缓存
+ * L1 为进程内 LocalTtlCache，L2 为 Redis 缓存；读取优先命中 L1，未命中时读取 L2 并回填。
+ * 写入与失效同时作用于两级，并通过 TwoLevelCacheManager 广播使其他节点的 L1 失效。
+ * L1 中的值为共享引用，调用方不得修改缓存返回的对象。
+ * <p>
+ * 同步加载（@Cacheable(sync = true)）时：同一节点同一键只有一个线程回源（single-flight），
+ * 跨节点通过 Redis 锁保证只有一个节点回源，其余节点等待其加载完成广播（有界等待，超时后自行回源）；
+ * 配置了提前刷新窗口的缓存在 L2 剩余有效期进入窗口后，在独立线程池中通过所属服务注册的 {@link CacheRefresher}
+ * 重新加载，热点键不会过期变冷；线程池已满时跳过本次刷新。
+ * <p>
+ * 回填 L1 前后校验键的失效代数：读取 L2 期间若有本地写入/失效或收到失效广播，放弃回填，
+ * 避免失效先于回填到达时旧值在 L1 中驻留到过期。
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final String name;
+    private final Cache remote;
+    private final LocalTtlCache<String, Object> local;
+    private final TwoLevelCacheManager manager;
+
+    /**
+     * 提前刷新窗口，为 null 时不提前刷新
+     */
+    private final Duration refreshAhead;
+
+    /**
+     * 正在加载中的键
+     */
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 正在提前刷新中的键
+     */
+    private final Map<String, Boolean> refreshing = new ConcurrentHashMap<>();
+
+    /**
+     * 按键哈希分段的失效代数，每次失效递增；分段冲突只会导致多放弃一次回填
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * 整体清空的代数
+     */
+    private final AtomicLong clearGeneration = new AtomicLong();
+
+    TwoLevelCache(String name, Cache remote, LocalTtlCache<String, Object> local,
+                  Duration refreshAhead, TwoLevelCacheManager manager) {
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.refreshAhead = refreshAhead;
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.get(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        long generation = generation(localKey);
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            fillLocal(localKey, wrapper.get(), generation);
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("缓存值类型不匹配 - 期望: " + type.getName() + ", 实际: " + value.getClass().getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object value = local.get(localKey);
+        if (value != null) {
+            return (T) value;
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(localKey, future);
+        if (existing != null) {
+            return (T) await(existing, key, valueLoader);
+        }
+        try {
+            Object loaded = loadThrough(key, localKey, valueLoader);
+            future.complete(loaded);
+            return (T) loaded;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, future);
+        }
+    }
+
+    /**
+     * 读取 L2，未命中时在跨节点锁保护下回源
+     */
+    private Object loadThrough(Object key, String localKey, Callable<?> valueLoader) {
+        long generation = generation(localKey);
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            fillLocal(localKey, wrapper.get(), generation);
+            refreshAheadIfDue(key, localKey);
+            return wrapper.get();
+        }
+
+        String lockToken = manager.tryLock(name, localKey);
+        if (lockToken == null) {
+            // 其他节点正在回源，等待其加载完成通知，超时后自行加载
+            Object loaded = awaitRemote(key, localKey);
+            if (loaded != null) {
+                fillLocal(localKey, loaded, generation);
+                return loaded;
+            }
+        }
+        try {
+            if (lockToken != null) {
+                wrapper = remote.get(key);
+                if (wrapper != null && wrapper.get() != null) {
+                    fillLocal(localKey, wrapper.get(), generation);
+                    return wrapper.get();
+                }
+            }
+            Object loaded = call(key, valueLoader);
+            if (loaded != null) {
+                remote.put(key, loaded);
+                fillLocal(localKey, loaded, generation);
+                manager.publishLoaded(name, localKey);
+            }
+            return loaded;
+        } finally {
+            manager.unlock(name, localKey, lockToken);
+        }
+    }
+
+    /**
+     * L2 剩余有效期进入提前刷新窗口时，异步重新加载并写回两级缓存
+     * 通过缓存的刷新加载器回源，不在请求结束后再次调用该请求捕获的 valueLoader
+     */
+    private void refreshAheadIfDue(Object key, String localKey) {
+        if (refreshAhead == null) {
+            return;
+        }
+        CacheRefresher refresher = manager.refresher(name);
+        if (refresher == null) {
+            return;
+        }
+        long remainingMillis = manager.remainingTtlMillis(remote, localKey);
+        if (remainingMillis < 0 || remainingMillis > refreshAhead.toMillis()) {
+            return;
+        }
+        if (refreshing.putIfAbsent(localKey, Boolean.TRUE) != null) {
+            return;
+        }
+        boolean submitted = manager.refreshAsync(() -> {
+            String lockToken = manager.tryLock(name, localKey);
+            try {
+                if (lockToken == null) {
+                    return;
+                }
+                Object loaded = refresher.reload(key);
+                if (loaded != null) {
+                    put(key, loaded);
+                }
+            } finally {
+                manager.unlock(name, localKey, lockToken);
+                refreshing.remove(localKey);
+            }
+        });
+        if (!submitted) {
+            refreshing.remove(localKey);
+        }
+    }
+
+    /**
+     * 等待持锁节点的加载完成广播，最多读取两次 L2：登记后一次（防止通知先于登记到达），被唤醒或超时后一次
+     * 同节点的其他请求线程等待 single-flight future，不会进入这里
+     */
+    private Object awaitRemote(Object key, String localKey) {
+        CompletableFuture<Void> loaded = manager.awaitLoaded(name, localKey);
+        try {
+            ValueWrapper wrapper = remote.get(key);
+            if (wrapper != null && wrapper.get() != null) {
+                return wrapper.get();
+            }
+            try {
+                loaded.get(TwoLevelCacheManager.LOCK_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                // 超时后读取最后一次，仍未命中时由调用方回源
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            wrapper = remote.get(key);
+            return wrapper != null ? wrapper.get() : null;
+        } finally {
+            manager.cancelAwait(name, localKey, loaded);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future, Object key, Callable<?> valueLoader) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    private static Object call(Object key, Callable<?> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = localKey(key);
+        invalidated(localKey);
+        if (value != null) {
+            local.put(localKey, value);
+        } else {
+            local.remove(localKey);
+        }
+        manager.publishEvict(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        String localKey = localKey(key);
+        if (existing == null) {
+            invalidated(localKey);
+            local.remove(localKey);
+            manager.publishEvict(name, localKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        invalidated(localKey);
+        local.remove(localKey);
+        manager.publishEvict(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        String localKey = localKey(key);
+        invalidated(localKey);
+        local.remove(localKey);
+        manager.publishEvict(name, localKey);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearGeneration.incrementAndGet();
+        local.clear();
+        manager.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        clearGeneration.incrementAndGet();
+        local.clear();
+        manager.publishClear(name);
+        return invalidated;
+    }
+
+    /**
+     * 仅失效本地 L1（接收到其他节点的失效广播时调用）
+     */
+    void evictLocal(String localKey) {
+        invalidated(localKey);
+        local.remove(localKey);
+    }
+
+    void clearLocal() {
+        clearGeneration.incrementAndGet();
+        local.clear();
+    }
+
+    /**
+     * 读取 L2 之前取得的代数未变化时才回填 L1；回填后再校验一次，期间发生失效则撤销回填
+     */
+    private void fillLocal(String localKey, Object value, long generation) {
+        if (generation(localKey) != generation) {
+            return;
+        }
+        local.put(localKey, value);
+        if (generation(localKey) != generation) {
+            local.remove(localKey);
+        }
+    }
+
+    private long generation(String localKey) {
+        return clearGeneration.get() + generations.get(stripe(localKey));
+    }
+
+    private void invalidated(String localKey) {
+        generations.incrementAndGet(stripe(localKey));
+    }
+
+    private static int stripe(String localKey) {
+        return (localKey.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 二级缓存管理器
+ * 在 Redis 缓存管理器之前为指定缓存增加进程内 L1，未配置 L1 的缓存直接使用 Redis。
+ * L1 的失效通过 Redis 发布订阅广播到其他节点，消息格式：节点ID|操作|缓存名称|键
+ * 同时提供回源加载使用的跨节点 Redis 锁与提前刷新所需的执行器和加载器；
+ * 持锁节点回源写入 L2 后广播加载完成，未获取到锁的节点等待该通知而不是轮询 L2
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String CHANNEL = "movk:cache:evict";
+
+    private static final String OP_EVICT = "E";
+    private static final String OP_CLEAR = "C";
+    private static final String OP_LOADED = "L";
+
+    private static final String LOCK_PREFIX = "movk:cache:lock:";
+
+    /**
+     * 回源锁租期，超过后自动释放，防止持锁节点宕机导致死锁
+     */
+    static final long LOCK_LEASE_MILLIS = 30_000;
+
+    /**
+     * 未获取到锁时等待其他节点写入 L2 的最长时间
+     */
+    static final long LOCK_WAIT_MILLIS = 3_000;
+
+    /**
+     * Redis 锁获取失败（Redis 不可用）时返回的令牌，调用方直接回源
+     */
+    private static final String LOCK_UNAVAILABLE = "";
+
+    private static final DefaultRedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+
+    private final CacheManager remoteCacheManager;
+    private final Map<String, LocalSpec> localSpecs;
+    private final StringRedisTemplate redisTemplate;
+    private final Executor refreshExecutor;
+    private final Supplier<? extends Collection<CacheRefresher>> refreshers;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * 等待其他节点回源完成的键（缓存名称|键）
+     */
+    private final Map<String, CompletableFuture<Void>> loadWaiters = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存名称 → 刷新加载器，首次提前刷新时解析（加载器所属服务晚于缓存管理器创建）
+     */
+    private volatile Map<String, CacheRefresher> refresherIndex;
+
+    /**
+     * @param remoteCacheManager L2 缓存管理器（已初始化）
+     * @param localSpecs         启用 L1 的缓存名称及其容量、过期时间
+     * @param redisTemplate      用于广播失效消息与回源锁
+     * @param refreshExecutor    提前刷新执行器，拒绝任务时跳过本次刷新；为 null 时不提前刷新
+     * @param refreshers         提前刷新加载器，为 null 时不提前刷新
+     */
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                Map<String, LocalSpec> localSpecs,
+                                StringRedisTemplate redisTemplate,
+                                Executor refreshExecutor,
+                                Supplier<? extends Collection<CacheRefresher>> refreshers) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localSpecs = Map.copyOf(localSpecs);
+        this.redisTemplate = redisTemplate;
+        this.refreshExecutor = refreshExecutor;
+        this.refreshers = refreshers;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> {
+            LocalSpec spec = localSpecs.get(n);
+            if (spec == null) {
+                return remote;
+            }
+            Duration refreshAhead = refreshExecutor != null && refreshers != null ? spec.refreshAhead() : null;
+            return new TwoLevelCache(n, remote, new LocalTtlCache<>(spec.maxSize(), spec.ttl()), refreshAhead, this);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    /**
+     * 尝试获取回源锁
+     *
+     * @return 锁令牌；锁被其他节点持有时返回 null；Redis 不可用时返回空串（视为无需加锁）
+     */
+    String tryLock(String cacheName, String localKey) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue()
+                .setIfAbsent(LOCK_PREFIX + cacheName + ":" + localKey, token, Duration.ofMillis(LOCK_LEASE_MILLIS));
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            log.warn("获取缓存回源锁失败，直接回源 - cache: {}, key: {}, error: {}", cacheName, localKey, e.getMessage());
+            return LOCK_UNAVAILABLE;
+        }
+    }
+
+    /**
+     * 释放回源锁（仅释放自己持有的锁）
+     */
+    void unlock(String cacheName, String localKey, String token) {
+        if (token == null || LOCK_UNAVAILABLE.equals(token)) {
+            return;
+        }
+        try {
+            redisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_PREFIX + cacheName + ":" + localKey), token);
+        } catch (Exception e) {
+            log.warn("释放缓存回源锁失败，等待租期到期 - cache: {}, key: {}, error: {}", cacheName, localKey, e.getMessage());
+        }
+    }
+
+    /**
+     * 查询 L2 条目剩余有效期（毫秒）
+     *
+     * @return 剩余毫秒数；非 Redis 缓存、键不存在或查询失败时返回 -1
+     */
+    long remainingTtlMillis(Cache remote, String localKey) {
+        if (!(remote instanceof RedisCache redisCache)) {
+            return -1;
+        }
+        try {
+            String redisKey = redisCache.getCacheConfiguration().getKeyPrefixFor(remote.getName()) + localKey;
+            Long ttl = redisTemplate.getExpire(redisKey, TimeUnit.MILLISECONDS);
+            return ttl != null ? ttl : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 登记等待其他节点回源完成，收到该键的加载完成或失效广播时完成
+     */
+    CompletableFuture<Void> awaitLoaded(String cacheName, String localKey) {
+        return loadWaiters.computeIfAbsent(cacheName + "|" + localKey, k -> new CompletableFuture<>());
+    }
+
+    void cancelAwait(String cacheName, String localKey, CompletableFuture<Void> waiter) {
+        loadWaiters.remove(cacheName + "|" + localKey, waiter);
+    }
+
+    void publishLoaded(String cacheName, String localKey) {
+        publish(OP_LOADED, cacheName, localKey);
+    }
+
+    /**
+     * 获取缓存的刷新加载器，未注册时返回 null
+     */
+    CacheRefresher refresher(String cacheName) {
+        Map<String, CacheRefresher> index = refresherIndex;
+        if (index == null) {
+            index = new HashMap<>();
+            for (CacheRefresher refresher : refreshers.get()) {
+                index.putIfAbsent(refresher.cacheName(), refresher);
+            }
+            refresherIndex = index;
+        }
+        return index.get(cacheName);
+    }
+
+    /**
+     * 提交提前刷新任务
+     *
+     * @return 执行器已满拒绝时返回 false，本次刷新跳过，不由请求线程代为执行
+     */
+    boolean refreshAsync(Runnable task) {
+        try {
+            refreshExecutor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.debug("缓存提前刷新线程池已满，跳过本次刷新");
+            return false;
+        }
+    }
+
+    void publishEvict(String cacheName, String localKey) {
+        publish(OP_EVICT, cacheName, localKey);
+    }
+
+    void publishClear(String cacheName) {
+        publish(OP_CLEAR, cacheName, "");
+    }
+
+    private void publish(String op, String cacheName, String localKey) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, String.join("|", nodeId, op, cacheName, localKey));
+        } catch (Exception e) {
+            // 广播失败时其他节点依赖 L1 过期时间兜底
+            log.warn("广播缓存失效消息失败 - cache: {}, key: {}, error: {}", cacheName, localKey, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        CompletableFuture<Void> waiter = loadWaiters.get(parts[2] + "|" + parts[3]);
+        if (waiter != null) {
+            waiter.complete(null);
+        }
+        if (OP_LOADED.equals(parts[1]) || !(caches.get(parts[2]) instanceof TwoLevelCache cache)) {
+            return;
+        }
+        if (OP_CLEAR.equals(parts[1])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[3]);
+        }
+    }
+
+    /**
+     * L1 配置
+     *
+     * @param maxSize      最大条目数
+     * @param ttl          过期时间，应明显短于 L2 以限制广播丢失时的不一致窗口
+     * @param refreshAhead 提前刷新窗口：L2 剩余有效期小于该值时异步刷新，为 null 时不提前刷新；
+     *                     仅在 L1 未命中时检查，因此应大于 ttl
+     */
+    public record LocalSpec(int maxSize, Duration ttl, Duration refreshAhead) {
+
+        public LocalSpec(int maxSize, Duration ttl) {
+            this(maxSize, ttl, null);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+
+/**
+ * 按固定类型序列化的 JSON 编解码器
+ * 不启用默认类型信息，序列化结果不含 @class 标签，适用于值类型确定的缓存
+ */
+public class TypedJsonRedisSerializer implements RedisSerializer<Object> {
+
+    private final ObjectMapper objectMapper;
+    private final JavaType type;
+
+    public TypedJsonRedisSerializer(ObjectMapper objectMapper, JavaType type) {
+        this.objectMapper = objectMapper;
+        this.type = type;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("缓存序列化失败: " + type, e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(bytes, type);
+        } catch (IOException e) {
+            throw new SerializationException("缓存反序列化失败: " + type, e);
+        }
+    }
+}
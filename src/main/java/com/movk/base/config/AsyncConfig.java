@@ -24,7 +24,7 @@ public class AsyncConfig {
 
     /**
      * 异步任务线程池
-     * 主要用于操作日志异步保存、邮件发送等非关键性异步任务
+     * 主要用于邮件发送等非关键性异步任务（操作/登录日志已改由 BatchLogBuffer 批量写入，缓存提前刷新使用独立线程池）
      */
     @Bean("asyncExecutor")
     public Executor asyncExecutor() {
@@ -50,4 +50,56 @@ public class AsyncConfig {
             executor.getCorePoolSize(), executor.getMaxPoolSize(), executor.getQueueCapacity());
         return executor;
     }
+
+    /**
+     * 缓存提前刷新线程池
+     * 跳过一次刷新无害：队列满时拒绝（AbortPolicy），由 TwoLevelCacheManager 丢弃该任务，
+     * 不能像 CallerRunsPolicy 那样在请求线程上持有跨节点回源锁同步刷新
+     */
+    @Bean("cacheRefreshExecutor")
+    public Executor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(32);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 文件批量上传线程池
+     * 固定线程数限制同时进行的摘要计算与磁盘写入；队列满时由请求线程自行处理，形成背压
+     */
+    @Bean("fileUploadExecutor")
+    public Executor fileUploadExecutor(FileProperties fileProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fileProperties.getBatchConcurrency());
+        executor.setMaxPoolSize(fileProperties.getBatchConcurrency());
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("file-upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 图片变体生成线程池
+     * 解码与缩放占用 CPU 与内存，固定少量线程；队列满时拒绝（AbortPolicy），请求快速失败而不是占住请求线程排队
+     */
+    @Bean("imageVariantExecutor")
+    public Executor imageVariantExecutor(FileProperties fileProperties) {
+        FileProperties.Preview preview = fileProperties.getPreview();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(preview.getWorkers());
+        executor.setMaxPoolSize(preview.getWorkers());
+        executor.setQueueCapacity(preview.getQueueCapacity());
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
 }
@@ -6,13 +6,26 @@
 package com.movk.base.config;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.movk.base.cache.CacheRefresher;
+import com.movk.base.cache.GzipRedisSerializer;
+import com.movk.base.cache.TwoLevelCacheManager;
+import com.movk.base.cache.TypedJsonRedisSerializer;
+import com.movk.base.cache.TwoLevelCacheManager.LocalSpec;
+import com.movk.dto.dept.DeptResp;
+import com.movk.dto.menu.MenuTreeResp;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
@@ -23,6 +36,9 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
@@ -31,8 +47,11 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.Executor;
 
 /**
  * Redis 缓存配置
@@ -72,6 +91,21 @@ public class CacheConfig implements CachingConfigurer {
      */
     private static final long CONFIG_TTL_HOURS = 24;
 
+    /**
+     * 本地 L1 缓存过期时间（分钟），跨节点失效广播丢失时的最大不一致窗口
+     */
+    private static final long LOCAL_TTL_MINUTES = 5;
+
+    /**
+     * 提前刷新窗口（分钟），需大于本地缓存过期时间
+     */
+    private static final long REFRESH_AHEAD_MINUTES = 15;
+
+    /**
+     * 缓存值压缩阈值（字节）
+     */
+    private static final int COMPRESS_THRESHOLD_BYTES = 1024;
+
     /**
      * RedisTemplate 配置
      */
@@ -97,39 +131,75 @@ public class CacheConfig implements CachingConfigurer {
 
     /**
      * 缓存管理器配置
+     * Redis 作为 L2，热点小体积缓存额外启用进程内 L1
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        // 默认缓存配置（使用容错序列化器）
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+                                     ObjectProvider<CacheRefresher> cacheRefreshers) {
+        // 默认缓存配置（使用容错序列化器，值类型不固定的缓存保留类型信息）
+        RedisSerializer<Object> defaultCodec = new GzipRedisSerializer(
+            new GenericJackson2JsonRedisSerializer(objectMapper()), COMPRESS_THRESHOLD_BYTES);
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofHours(DEFAULT_TTL_HOURS))
             .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(faultTolerantJsonSerializer()))
+            .serializeValuesWith(valueSerializer(defaultCodec))
             .disableCachingNullValues();
 
+        // 值类型固定的缓存使用无类型标签的 JSON 编解码
+        TypeFactory typeFactory = TypeFactory.defaultInstance();
+        RedisSerializer<Object> permissionCodec = typedCodec(typeFactory.constructCollectionType(Set.class, String.class));
+        RedisSerializer<Object> menuTreeCodec = typedCodec(typeFactory.constructCollectionType(List.class, MenuTreeResp.class));
+        RedisSerializer<Object> deptTreeCodec = typedCodec(typeFactory.constructCollectionType(List.class, DeptResp.class));
+        RedisSerializer<Object> configCodec = typedCodec(typeFactory.constructType(String.class));
+
         // 不同缓存的个性化配置
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
 
         // 权限缓存：1小时过期
-        cacheConfigurations.put(USER_PERMISSIONS, defaultConfig.entryTtl(Duration.ofHours(PERMISSION_TTL_HOURS)));
-        cacheConfigurations.put(USER_MENUS, defaultConfig.entryTtl(Duration.ofHours(PERMISSION_TTL_HOURS)));
+        cacheConfigurations.put(USER_PERMISSIONS, defaultConfig.entryTtl(Duration.ofHours(PERMISSION_TTL_HOURS))
+            .serializeValuesWith(valueSerializer(permissionCodec)));
+        cacheConfigurations.put(USER_MENUS, defaultConfig.entryTtl(Duration.ofHours(PERMISSION_TTL_HOURS))
+            .serializeValuesWith(valueSerializer(menuTreeCodec)));
 
-        // 字典缓存：24小时过期
+        // 字典缓存：24小时过期（字典数据缓存同时存放列表与标签/值字符串，使用默认编解码）
         cacheConfigurations.put(DICT_TYPE, defaultConfig.entryTtl(Duration.ofHours(DICT_TTL_HOURS)));
         cacheConfigurations.put(DICT_DATA, defaultConfig.entryTtl(Duration.ofHours(DICT_TTL_HOURS)));
 
         // 配置缓存：24小时过期
-        cacheConfigurations.put(CONFIG, defaultConfig.entryTtl(Duration.ofHours(CONFIG_TTL_HOURS)));
+        cacheConfigurations.put(CONFIG, defaultConfig.entryTtl(Duration.ofHours(CONFIG_TTL_HOURS))
+            .serializeValuesWith(valueSerializer(configCodec)));
 
         // 部门树缓存：2小时过期
-        cacheConfigurations.put(DEPT_TREE, defaultConfig.entryTtl(Duration.ofHours(DEFAULT_TTL_HOURS)));
+        cacheConfigurations.put(DEPT_TREE, defaultConfig.entryTtl(Duration.ofHours(DEFAULT_TTL_HOURS))
+            .serializeValuesWith(valueSerializer(deptTreeCodec)));
 
-        RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(defaultConfig)
             .withInitialCacheConfigurations(cacheConfigurations)
             .build();
+        redisCacheManager.afterPropertiesSet();
 
-        log.info("Redis CacheManager 配置完成，已配置缓存: {}", cacheConfigurations.keySet());
+        // 本地 L1：字典、配置、权限、部门树读多写少且体积小
+        // 部门树、字典数据为热点键，L2 到期前由所属服务（CacheRefresher）提前异步刷新
+        Duration localTtl = Duration.ofMinutes(LOCAL_TTL_MINUTES);
+        Duration refreshAhead = Duration.ofMinutes(REFRESH_AHEAD_MINUTES);
+        Map<String, LocalSpec> localSpecs = new HashMap<>();
+        localSpecs.put(USER_PERMISSIONS, new LocalSpec(1000, localTtl));
+        localSpecs.put(DICT_TYPE, new LocalSpec(500, localTtl));
+        localSpecs.put(DICT_DATA, new LocalSpec(2000, localTtl, refreshAhead));
+        localSpecs.put(CONFIG, new LocalSpec(1000, localTtl));
+        localSpecs.put(DEPT_TREE, new LocalSpec(10, localTtl, refreshAhead));
+
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+            redisCacheManager, localSpecs, stringRedisTemplate, cacheRefreshExecutor,
+            () -> cacheRefreshers.orderedStream().toList());
+        listenerContainer.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.CHANNEL));
+
+        log.info("Redis CacheManager 配置完成，已配置缓存: {}，启用本地缓存: {}",
+            cacheConfigurations.keySet(), localSpecs.keySet());
         return cacheManager;
     }
 
@@ -169,11 +239,34 @@ public class CacheConfig implements CachingConfigurer {
     }
 
     /**
-     * 容错的 JSON 序列化器
-     * 当反序列化失败时返回 null，触发缓存重新加载
+     * 无默认类型信息的 ObjectMapper，用于值类型固定的缓存
+     */
+    private ObjectMapper typedObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // 保留原始时区偏移，避免反序列化后 OffsetDateTime 被转换为 UTC
+        mapper.disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE);
+        return mapper;
+    }
+
+    /**
+     * 按固定类型编解码，超过阈值时压缩
+     */
+    private RedisSerializer<Object> typedCodec(JavaType type) {
+        return new GzipRedisSerializer(new TypedJsonRedisSerializer(typedObjectMapper(), type), COMPRESS_THRESHOLD_BYTES);
+    }
+
+    private RedisSerializationContext.SerializationPair<Object> valueSerializer(RedisSerializer<Object> codec) {
+        return RedisSerializationContext.SerializationPair.fromSerializer(faultTolerant(codec));
+    }
+
+    /**
+     * 容错的序列化器
+     * 当反序列化失败时返回 null，触发缓存重新加载（编解码格式变更后的历史数据同样适用）
      */
-    private RedisSerializer<Object> faultTolerantJsonSerializer() {
-        GenericJackson2JsonRedisSerializer delegate = new GenericJackson2JsonRedisSerializer(objectMapper());
+    private RedisSerializer<Object> faultTolerant(RedisSerializer<Object> delegate) {
         return new RedisSerializer<>() {
             @Override
             public byte[] serialize(Object value) throws SerializationException {
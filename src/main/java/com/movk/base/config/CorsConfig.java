@@ -5,6 +5,7 @@
 
 package com.movk.base.config;
 
+import com.movk.base.export.RowStreamWriter;
 import com.movk.base.filter.TraceIdFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -54,7 +55,8 @@ public class CorsConfig {
         configuration.setExposedHeaders(List.of(
                 TraceIdFilter.TRACE_ID_HEADER,
                 jwtHeaderProperties.getName(),
-                "Content-Disposition"
+                "Content-Disposition",
+                RowStreamWriter.TRUNCATED_HEADER
         ));
         configuration.setMaxAge(3600L);
 
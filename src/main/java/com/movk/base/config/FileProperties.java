@@ -9,6 +9,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -45,12 +47,135 @@ public class FileProperties {
     );
 
     /**
-     * 是否按日期分目录存储
+     * 是否按日期分目录存储（仅影响历史文件；新上传的文件按内容哈希存储在 blobs/ 下）
      */
     private Boolean datePathEnabled = true;
 
     /**
-     * 存储类型：local-本地存储
+     * 新文件的存储类型：local-本地存储，s3-S3 兼容对象存储（需配置 file.s3）
      */
     private String storageType = "local";
+
+    /**
+     * 下载/预览响应的 Cache-Control：默认每次向服务端校验，ETag / Last-Modified 未变时返回 304
+     */
+    private String cacheControl = "private, no-cache";
+
+    /**
+     * 分片上传单文件最大大小（字节），默认 10GB
+     */
+    private Long chunkMaxSize = 10L * 1024 * 1024 * 1024;
+
+    /**
+     * 分片上传默认分片大小（字节），默认 8MB；客户端可在 1MB ~ 64MB 之间自定义
+     */
+    private Integer chunkPartSize = 8 * 1024 * 1024;
+
+    /**
+     * 分片上传会话有效期，过期未完成的会话及暂存文件会被清理
+     */
+    private Duration chunkExpire = Duration.ofHours(24);
+
+    /**
+     * 并发批量上传的线程数（全局共享，所有批量请求合计不超过该并发）
+     */
+    private Integer batchConcurrency = 4;
+
+    /**
+     * S3 兼容对象存储配置（AWS S3、MinIO 等），配置 bucket 后启用
+     */
+    private S3 s3 = new S3();
+
+    /**
+     * 图片预览变体（缩略图）配置
+     */
+    private Preview preview = new Preview();
+
+    @Data
+    public static class S3 {
+
+        /**
+         * 服务地址，如 https://s3.us-east-1.amazonaws.com、http://minio:9000
+         */
+        private String endpoint;
+
+        /**
+         * 区域（MinIO 默认 us-east-1）
+         */
+        private String region = "us-east-1";
+
+        /**
+         * 存储桶
+         */
+        private String bucket;
+
+        private String accessKey;
+
+        private String secretKey;
+
+        /**
+         * 是否使用路径风格（endpoint/bucket/key），MinIO 需开启；关闭时使用虚拟主机风格（bucket.endpoint/key）
+         */
+        private Boolean pathStyle = true;
+
+        /**
+         * 分段上传的分段大小（字节），不小于 5MB；不超过该值的文件单次 PUT 上传
+         */
+        private Long partSize = 16 * 1024 * 1024L;
+
+        /**
+         * 连接超时
+         */
+        private Duration connectTimeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Preview {
+
+        /**
+         * 变体缓存目录（相对 base-path，各节点本地磁盘）
+         */
+        private String cacheDir = "variants";
+
+        /**
+         * 变体缓存总大小上限（字节），超出后淘汰最久未访问的变体，默认 1GB
+         */
+        private Long cacheMaxSize = 1024L * 1024 * 1024;
+
+        /**
+         * 变体最大宽高（像素）
+         */
+        private Integer maxDimension = 2048;
+
+        /**
+         * 变体尺寸档位（像素）：请求的宽高向上取整到最近的档位，超过最大档位取最大档位，
+         * 每张图的变体数量有限，匿名请求无法用任意尺寸占满生成线程池或冲刷缓存；为空时不取整
+         */
+        private List<Integer> sizes = new ArrayList<>(List.of(64, 128, 256, 512, 1024, 2048));
+
+        /**
+         * 可处理的原图最大像素数，防止解码超大图片耗尽内存
+         */
+        private Long maxSourcePixels = 40_000_000L;
+
+        /**
+         * 生成变体的工作线程数
+         */
+        private Integer workers = 2;
+
+        /**
+         * 等待生成的任务队列容量，队列满时直接返回服务繁忙
+         */
+        private Integer queueCapacity = 32;
+
+        /**
+         * 请求等待生成完成的最长时间
+         */
+        private Duration timeout = Duration.ofSeconds(15);
+
+        /**
+         * JPEG 输出质量（0 ~ 1）
+         */
+        private Float jpegQuality = 0.85f;
+    }
 }
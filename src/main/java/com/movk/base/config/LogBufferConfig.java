@@ -0,0 +1,91 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movk.base.log.BatchLogBuffer;
+import com.movk.entity.LoginLog;
+import com.movk.entity.OperateLog;
+import com.movk.repository.LogBatchRepository;
+import com.movk.service.LogStatService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 日志缓冲配置
+ * 操作日志与登录日志经有界队列聚合后批量写库，替代逐条 @Async + 事务保存；
+ * 写库失败的批次始终写入有大小上限的本地溢写日志，数据库恢复后按顺序回放（spill-dir 置空时关闭）；
+ * overflow 只决定队列满时的处理：默认 DROP_OLDEST 丢弃最旧记录并计数，SPILL 则同样溢写到本地日志；
+ * 每批入库成功后累加到预聚合统计（回放只累加实际写入的记录）
+ */
+@Configuration
+public class LogBufferConfig {
+
+    @Value("${log.buffer.capacity:10000}")
+    private int capacity;
+
+    @Value("${log.buffer.batch-size:200}")
+    private int batchSize;
+
+    @Value("${log.buffer.flush-interval:1s}")
+    private Duration flushInterval;
+
+    @Value("${log.buffer.overflow:DROP_OLDEST}")
+    private BatchLogBuffer.OverflowPolicy overflow;
+
+    @Value("${log.buffer.block-timeout:50ms}")
+    private Duration blockTimeout;
+
+    @Value("${log.buffer.spill-dir:${java.io.tmpdir}/movk-log-spill}")
+    private String spillDir;
+
+    @Value("${log.buffer.segment-size:16MB}")
+    private DataSize segmentSize;
+
+    @Value("${log.buffer.spill-max-size:1GB}")
+    private DataSize spillMaxSize;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public BatchLogBuffer<OperateLog> operateLogBuffer(LogBatchRepository logBatchRepository,
+                                                       LogStatService logStatService,
+                                                       ObjectMapper objectMapper,
+                                                       MeterRegistry meterRegistry) {
+        return new BatchLogBuffer<>("operate-log", options(),
+            batch -> {
+                logBatchRepository.insertOperateLogs(batch);
+                logStatService.recordOperateLogs(batch);
+            },
+            batch -> logStatService.recordOperateLogs(logBatchRepository.replayOperateLogs(batch)),
+            objectMapper, OperateLog.class, meterRegistry);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public BatchLogBuffer<LoginLog> loginLogBuffer(LogBatchRepository logBatchRepository,
+                                                   LogStatService logStatService,
+                                                   ObjectMapper objectMapper,
+                                                   MeterRegistry meterRegistry) {
+        return new BatchLogBuffer<>("login-log", options(),
+            batch -> {
+                logBatchRepository.insertLoginLogs(batch);
+                logStatService.recordLoginLogs(batch);
+            },
+            batch -> logStatService.recordLoginLogs(logBatchRepository.replayLoginLogs(batch)),
+            objectMapper, LoginLog.class, meterRegistry);
+    }
+
+    private BatchLogBuffer.Options options() {
+        return new BatchLogBuffer.Options(capacity, batchSize, flushInterval, overflow, blockTimeout,
+            StringUtils.hasText(spillDir) ? Path.of(spillDir) : null, (int) segmentSize.toBytes(),
+            spillMaxSize.toBytes());
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 行式流式导出写入器
+ * 逐行写出 CSV 或 NDJSON，不缓存整批数据，内存占用与导出行数无关
+ */
+public class RowStreamWriter implements Closeable {
+
+    /**
+     * 响应头：匹配行多于导出行数、结果被截断时为 true（写出前确定）
+     */
+    public static final String TRUNCATED_HEADER = "X-Export-Truncated";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ExportFormat format;
+    private final String[] columns;
+    private final Writer writer;
+    private final JsonGenerator generator;
+    private long rows;
+
+    public RowStreamWriter(OutputStream out, ExportFormat format, String[] columns) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        if (format == ExportFormat.NDJSON) {
+            this.generator = JSON_FACTORY.createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 每行 flush 只清空生成器自身缓冲，不逐行刷到底层流
+            this.generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            // 行分隔由 '\n' 负责，去掉根值之间默认的空格分隔
+            this.generator.setRootValueSeparator(null);
+        } else {
+            this.generator = null;
+            writeCsvRow(columns);
+        }
+    }
+
+    /**
+     * 设置下载响应头并打开输出流（可选 gzip 压缩为 .gz 文件）
+     *
+     * @param response  响应
+     * @param baseName  文件名前缀
+     * @param format    导出格式
+     * @param gzip      是否 gzip 压缩
+     * @param truncated 结果是否被行数上限截断，写入 X-Export-Truncated 响应头
+     */
+    public static OutputStream openDownload(HttpServletResponse response, String baseName,
+                                            ExportFormat format, boolean gzip, boolean truncated) throws IOException {
+        String fileName = baseName + "-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE)
+            + "." + format.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : format.getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(TRUNCATED_HEADER, String.valueOf(truncated));
+        OutputStream out = response.getOutputStream();
+        return gzip ? new GZIPOutputStream(out, 8 * 1024) : out;
+    }
+
+    /**
+     * 导出中途失败时调用，调用方随后重新抛出原异常，且不得再 close() 写入器：
+     * 响应未提交时清空已缓冲的内容与下载响应头，由全局异常处理返回错误响应；
+     * 已提交时抛出 StreamAbortedException，不写 gzip 尾部也不结束分块响应，由容器中断连接，
+     * 避免客户端收到 200 与格式完整但被截断的文件
+     */
+    public static void abort(HttpServletResponse response, Exception cause) {
+        if (response.isCommitted()) {
+            throw new StreamAbortedException(cause);
+        }
+        response.reset();
+    }
+
+    /**
+     * 写出一行，值与列一一对应
+     */
+    public void writeRow(Object[] values) throws IOException {
+        if (generator != null) {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                Object value = values[i];
+                generator.writeFieldName(columns[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.toString());
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        } else {
+            writeCsvRow(values);
+        }
+        rows++;
+    }
+
+    /**
+     * 已写出的行数
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+        writer.close();
+    }
+
+    private void writeCsvRow(Object[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvCell(cells[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180 转义；以 = + - @ 制表符 回车开头的值加单引号前缀，防止在表格软件中被当作公式执行（OWASP CSV Injection）
+     */
+    private void writeCsvCell(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            writer.write(value.toString());
+            return;
+        }
+        String cell = value.toString();
+        if (cell.isEmpty()) {
+            return;
+        }
+        char first = cell.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@'
+            || first == '\t' || first == '\r';
+        boolean quote = formula || cell.indexOf(',') >= 0 || cell.indexOf('"') >= 0
+            || cell.indexOf('\n') >= 0 || cell.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(cell);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        for (int i = 0; i < cell.length(); i++) {
+            char c = cell.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
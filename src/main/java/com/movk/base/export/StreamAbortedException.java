@@ -0,0 +1,17 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.export;
+
+/**
+ * 流式导出在响应已提交后失败
+ * 此时无法再返回错误响应，异常交给容器中断连接，客户端据此识别文件不完整
+ */
+public class StreamAbortedException extends RuntimeException {
+
+    public StreamAbortedException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 按总大小淘汰的磁盘 LRU 缓存
+ * 文件保存在 root 下（key 为相对路径），内存中只保留 key → 大小的访问顺序索引；
+ * 启动时扫描目录按最后修改时间重建索引。写入先落到 {@link #tempDir()} 再原子移动，读者不会看到半成品。
+ * 淘汰的条目立即移出索引，文件在宽限期后才删除：{@link #get} 返回的路径在宽限期内仍可打开
+ * （已打开的文件删除后仍可读完），期间重新写入同一 key 时取消删除
+ */
+@Slf4j
+public class DiskLruCache {
+
+    private static final String TEMP_DIR = ".tmp";
+
+    /**
+     * 默认删除宽限期
+     */
+    private static final Duration DEFAULT_DELETE_GRACE = Duration.ofMinutes(1);
+
+    private final Path root;
+    private final long maxBytes;
+    private final long deleteGraceNanos;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    /**
+     * 已淘汰、等待删除的文件，按截止时间先后排列
+     */
+    private final ArrayDeque<PendingDelete> pendingDeletes = new ArrayDeque<>();
+    private long totalBytes;
+
+    public DiskLruCache(Path root, long maxBytes) {
+        this(root, maxBytes, DEFAULT_DELETE_GRACE);
+    }
+
+    /**
+     * @param deleteGrace 淘汰后延迟删除文件的时间，应覆盖从 get 返回到读者打开文件的间隔
+     */
+    public DiskLruCache(Path root, long maxBytes, Duration deleteGrace) {
+        this.root = root.toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        this.deleteGraceNanos = deleteGrace.toNanos();
+        try {
+            Files.createDirectories(tempDir());
+            rebuild();
+        } catch (IOException e) {
+            throw new UncheckedIOException("初始化磁盘缓存失败: " + root, e);
+        }
+    }
+
+    /**
+     * 临时文件目录（与缓存位于同一文件系统）
+     */
+    public Path tempDir() {
+        return root.resolve(TEMP_DIR);
+    }
+
+    /**
+     * 命中时返回文件路径并刷新访问顺序，未命中返回 null
+     * 返回的路径在条目被淘汰后的宽限期内仍然有效
+     */
+    public synchronized Path get(String key) {
+        if (entries.get(key) == null) {
+            return null;
+        }
+        Path path = root.resolve(key);
+        if (!Files.exists(path)) {
+            totalBytes -= entries.remove(key);
+            return null;
+        }
+        return path;
+    }
+
+    /**
+     * 将临时文件移动到 key 对应位置并按需淘汰最久未访问的条目
+     *
+     * @param key    相对路径
+     * @param source tempDir() 下的临时文件
+     * @return 缓存文件路径
+     */
+    public synchronized Path put(String key, Path source) throws IOException {
+        Path target = root.resolve(key).normalize();
+        if (!target.startsWith(root)) {
+            throw new IllegalArgumentException("非法的缓存 key: " + key);
+        }
+        Files.createDirectories(target.getParent());
+        // 宽限期内重新写入：取消对旧文件的延迟删除，避免删掉新文件
+        pendingDeletes.removeIf(pending -> pending.key().equals(key));
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Long previous = entries.put(key, Files.size(target));
+        totalBytes += entries.get(key) - (previous == null ? 0 : previous);
+        evict(key);
+        deletePending(false);
+        return target;
+    }
+
+    /**
+     * 当前缓存总大小（字节）
+     */
+    public synchronized long size() {
+        return totalBytes;
+    }
+
+    /**
+     * 淘汰最久未访问的条目直到不超过上限（刚写入的条目保留），文件在宽限期后删除
+     */
+    private void evict(String keep) {
+        long deadline = System.nanoTime() + deleteGraceNanos;
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            pendingDeletes.add(new PendingDelete(eldest.getKey(), deadline));
+            totalBytes -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 删除已过宽限期的淘汰文件
+     *
+     * @param all 忽略宽限期，删除全部
+     */
+    private void deletePending(boolean all) {
+        long now = System.nanoTime();
+        while (!pendingDeletes.isEmpty() && (all || pendingDeletes.peekFirst().deadline() - now <= 0)) {
+            String key = pendingDeletes.pollFirst().key();
+            try {
+                Files.deleteIfExists(root.resolve(key));
+            } catch (IOException e) {
+                log.warn("删除缓存文件失败: {}", key, e);
+            }
+        }
+    }
+
+    private void rebuild() throws IOException {
+        Path temp = tempDir();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(path -> !path.startsWith(temp))
+                .filter(Files::isRegularFile)
+                .map(path -> Map.entry(path, attributes(path)))
+                .sorted(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()))
+                .forEach(entry -> {
+                    entries.put(root.relativize(entry.getKey()).toString().replace('\\', '/'), entry.getValue().size());
+                    totalBytes += entry.getValue().size();
+                });
+        }
+        try (Stream<Path> stale = Files.list(temp)) {
+            for (Path path : (Iterable<Path>) stale::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+        // 启动时没有读者，超出上限的文件直接删除
+        evict(null);
+        deletePending(true);
+    }
+
+    private record PendingDelete(String key, long deadline) {
+    }
+
+    private static BasicFileAttributes attributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.file;
+
+import com.movk.base.exception.BusinessException;
+import com.movk.base.result.RCode;
+import com.movk.dto.file.FileContent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 文件响应输出
+ * <ul>
+ *   <li>ETag（MD5）与 Last-Modified：If-None-Match / If-Modified-Since 命中时直接返回 304，不访问磁盘</li>
+ *   <li>单段 Range 返回 206，多段或 If-Range 不匹配时返回完整内容，越界返回 416</li>
+ *   <li>本地文件：容器支持 sendfile（Tomcat NIO）时交由容器零拷贝输出，否则使用 FileChannel.transferTo</li>
+ *   <li>远程存储：按区间从存储后端流式读取并复制到响应</li>
+ * </ul>
+ */
+public final class FileResponseWriter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileResponseWriter() {
+    }
+
+    /**
+     * 输出文件
+     *
+     * @param content      文件描述
+     * @param attachment   true 为下载（attachment），false 为在线预览（inline）
+     * @param cacheControl Cache-Control 响应头
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response, FileContent content,
+                             boolean attachment, String cacheControl) throws IOException {
+        String etag = content.getMd5() != null ? "\"" + content.getMd5() + "\"" : null;
+        long lastModified = content.getLastModified() != null ? content.getLastModified().toInstant().toEpochMilli() : -1;
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long size = content.getSize();
+        if (content.getPath() != null && !Files.isReadable(content.getPath())) {
+            throw new BusinessException(RCode.NOT_FOUND, "文件不存在或不可读");
+        }
+
+        long start = 0;
+        long length = size;
+        List<HttpRange> ranges = rangesToServe(request, etag, lastModified);
+        if (ranges.size() == 1) {
+            HttpRange range = ranges.get(0);
+            start = range.getRangeStart(size);
+            long end = range.getRangeEnd(size);
+            if (size == 0 || start >= size || start > end) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            length = end - start + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        response.setContentType(content.getContentType() != null ? content.getContentType() : "application/octet-stream");
+        response.setContentLengthLong(length);
+        String encodedFilename = URLEncoder.encode(content.getOriginalName(), StandardCharsets.UTF_8).replace("+", "%20");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, (attachment ? "attachment" : "inline")
+            + "; filename=\"" + encodedFilename + "\"; filename*=UTF-8''" + encodedFilename);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (content.getPath() == null) {
+            copyFromStorage(content, start, length, response);
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, content.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        transfer(content, start, length, Channels.newChannel(response.getOutputStream()));
+    }
+
+    /**
+     * 解析 Range：If-Range 与当前 ETag / Last-Modified 不一致、格式错误或多段时返回空（输出完整内容）
+     */
+    static List<HttpRange> rangesToServe(HttpServletRequest request, String etag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return List.of();
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            long ifRangeDate;
+            try {
+                ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            } catch (IllegalArgumentException e) {
+                return List.of();
+            }
+            if (ifRangeDate == -1 || lastModified == -1 || lastModified / 1000 != ifRangeDate / 1000) {
+                return List.of();
+            }
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges : List.of();
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private static void copyFromStorage(FileContent content, long start, long length, HttpServletResponse response)
+            throws IOException {
+        InputStream in;
+        try {
+            in = length == content.getSize()
+                ? content.getStorage().get(content.getKey())
+                : content.getStorage().get(content.getKey(), start, length);
+        } catch (NoSuchFileException e) {
+            throw new BusinessException(RCode.NOT_FOUND, "文件不存在或不可读");
+        }
+        try (in) {
+            StreamUtils.copy(in, response.getOutputStream());
+        }
+    }
+
+    private static void transfer(FileContent content, long start, long length, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(content.getPath(), StandardOpenOption.READ)) {
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        } catch (NoSuchFileException e) {
+            throw new BusinessException(RCode.NOT_FOUND, "文件不存在或不可读");
+        }
+    }
+}
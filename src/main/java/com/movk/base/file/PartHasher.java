@@ -0,0 +1,132 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+
+/**
+ * 分片增量摘要
+ * 分片可乱序、并发写入文件的不同位置，摘要只能按顺序计算：每次写入后沿"已连续到达的前缀"向前推进，
+ * 从文件读取刚写入的分片（通常命中页缓存）更新 MD5 与 SHA-256；合并时只需处理尚未推进的剩余部分。
+ * 实例仅存在于内存，重启后新建的实例从头推进，结果一致。
+ * MessageDigest.digest() 会重置摘要状态，因此结果在首次 finish 时缓存，合并失败后重试仍返回相同摘要。
+ */
+public class PartHasher {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final long size;
+    private final int partSize;
+    private final int partCount;
+    private final MessageDigest md5;
+    private final MessageDigest sha256;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int nextPart = 1;
+    private long hashedBytes;
+    private String[] digests;
+
+    public PartHasher(long size, int partSize, int partCount) {
+        this.size = size;
+        this.partSize = partSize;
+        this.partCount = partCount;
+        this.md5 = digest("MD5");
+        this.sha256 = digest("SHA-256");
+    }
+
+    /**
+     * 尝试推进：已有其他线程在推进时直接返回（由该线程或最终合并时处理）
+     *
+     * @param channel  文件通道
+     * @param received 分片是否已到达（分片号从 1 开始）
+     */
+    public void tryAdvance(FileChannel channel, IntPredicate received) throws IOException {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            advance(channel, received);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 推进到末尾并返回 [MD5, SHA-256]，可重复调用
+     *
+     * @throws IllegalStateException 存在未到达的分片
+     */
+    public String[] finish(FileChannel channel, IntPredicate received) throws IOException {
+        lock.lock();
+        try {
+            if (digests == null) {
+                advance(channel, received);
+                if (hashedBytes != size) {
+                    throw new IllegalStateException("分片不完整，已连续到达 " + (nextPart - 1) + "/" + partCount);
+                }
+                HexFormat hex = HexFormat.of();
+                digests = new String[]{hex.formatHex(md5.digest()), hex.formatHex(sha256.digest())};
+            }
+            return digests.clone();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 已完成的摘要 [MD5, SHA-256]，尚未 finish 时返回 null
+     */
+    public String[] digests() {
+        lock.lock();
+        try {
+            return digests != null ? digests.clone() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 已计入摘要的字节数
+     */
+    public long getHashedBytes() {
+        return hashedBytes;
+    }
+
+    private void advance(FileChannel channel, IntPredicate received) throws IOException {
+        ByteBuffer buffer = null;
+        while (nextPart <= partCount && received.test(nextPart)) {
+            if (buffer == null) {
+                buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            }
+            long end = Math.min(hashedBytes + partSize, size);
+            while (hashedBytes < end) {
+                buffer.clear().limit((int) Math.min(BUFFER_SIZE, end - hashedBytes));
+                int read = channel.read(buffer, hashedBytes);
+                if (read <= 0) {
+                    throw new IOException("分片数据不足: part " + nextPart);
+                }
+                md5.update(buffer.array(), 0, read);
+                sha256.update(buffer.array(), 0, read);
+                hashedBytes += read;
+            }
+            nextPart++;
+        }
+    }
+
+    private static MessageDigest digest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
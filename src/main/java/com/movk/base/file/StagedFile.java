@@ -0,0 +1,142 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 暂存文件
+ * 单次读取输入流：边写入目标目录下的临时文件边计算 MD5 与 SHA-256，确认保留后原子移动到最终路径；
+ * 未移动时 close() 删除临时文件，便于 try-with-resources 在秒传命中或异常时清理
+ */
+public final class StagedFile implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_PREFIX = ".upload-";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path path;
+    private final String md5;
+    private final String sha256;
+    private final long size;
+    private boolean moved;
+
+    private StagedFile(Path path, String md5, String sha256, long size) {
+        this.path = path;
+        this.md5 = md5;
+        this.sha256 = sha256;
+        this.size = size;
+    }
+
+    /**
+     * 将输入流写入 dir 下的临时文件并计算 MD5 与 SHA-256
+     *
+     * @param in  输入流（不负责关闭）
+     * @param dir 目标目录，与最终路径同一文件系统以保证原子移动
+     */
+    public static StagedFile stage(InputStream in, Path dir) throws IOException {
+        MessageDigest md5 = digest("MD5");
+        MessageDigest sha256 = digest("SHA-256");
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, TEMP_PREFIX, TEMP_SUFFIX);
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                md5.update(buffer, 0, read);
+                sha256.update(buffer, 0, read);
+                wrapper.clear().limit(read);
+                while (wrapper.hasRemaining()) {
+                    channel.write(wrapper);
+                }
+                size += read;
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        HexFormat hex = HexFormat.of();
+        return new StagedFile(temp, hex.formatHex(md5.digest()), hex.formatHex(sha256.digest()), size);
+    }
+
+    /**
+     * 包装已写入完成并已计算摘要的文件（如分片上传合并后的文件）
+     *
+     * @param path   文件路径，须与最终路径位于同一文件系统
+     * @param md5    MD5（小写十六进制）
+     * @param sha256 SHA-256（小写十六进制）
+     * @param size   文件大小
+     */
+    public static StagedFile of(Path path, String md5, String sha256, long size) {
+        return new StagedFile(path, md5, sha256, size);
+    }
+
+    /**
+     * 移动到最终路径（同目录下优先原子移动）
+     */
+    public void moveTo(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        moved = true;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 文件 MD5（小写十六进制）
+     */
+    public String getMd5() {
+        return md5;
+    }
+
+    /**
+     * 文件 SHA-256（小写十六进制，内容寻址键）
+     */
+    public String getSha256() {
+        return sha256;
+    }
+
+    /**
+     * 实际写入的字节数
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!moved) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static MessageDigest digest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
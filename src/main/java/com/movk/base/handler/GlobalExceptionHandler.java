@@ -6,6 +6,7 @@
 package com.movk.base.handler;
 
 import com.movk.base.exception.BusinessException;
+import com.movk.base.export.StreamAbortedException;
 import com.movk.base.result.R;
 import com.movk.base.result.RCode;
 import jakarta.persistence.EntityNotFoundException;
@@ -52,6 +53,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(R.error(ex.getCode(), ex.getMessage()));
     }
 
+    /**
+     * 处理流式导出在响应提交后的失败
+     * 响应已部分写出，不能再返回错误体；原样抛出交给容器中断连接，客户端据此识别下载不完整
+     */
+    @ExceptionHandler(StreamAbortedException.class)
+    public void handleStreamAborted(StreamAbortedException ex, HttpServletRequest req) {
+        log.error("StreamAborted: method={}, uri={}", req.getMethod(), req.getRequestURI(), ex.getCause());
+        throw ex;
+    }
+
     /**
      * 处理缺少请求参数异常
      */
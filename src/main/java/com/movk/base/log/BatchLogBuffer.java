@@ -0,0 +1,420 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 批量日志缓冲
+ * 调用线程只做入队（有界环形队列），由单个后台线程按批量大小或时间间隔聚合后批量写入，
+ * 写库失败的批次与队列满无关：只要配置了溢写目录，就写入本地溢写日志而不是丢弃；
+ * 溢写日志非空时新批次排在其后，由后台按顺序回放，回放批次交给 replayWriter（按业务键去重），
+ * 确认写库成功后才推进读取位置。
+ * 队列满时按溢出策略处理：丢弃最旧、限时阻塞或溢写到本地日志。
+ * SPILL 策略下调用线程只把溢出记录放入有界的溢出队列，由独立的溢写线程序列化并追加到溢写日志，
+ * 请求线程不承担序列化与缺页开销；溢出队列满或溢写日志达到大小上限时丢弃并计数。
+ *
+ * @param <T> 日志类型
+ */
+@Slf4j
+public class BatchLogBuffer<T> {
+
+    /**
+     * 队列满时的溢出策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 丢弃最旧的记录
+         */
+        DROP_OLDEST,
+        /**
+         * 调用线程限时阻塞等待，超时丢弃
+         */
+        BLOCK,
+        /**
+         * 溢写到本地日志（有大小上限），数据库恢复后按顺序回放；未配置溢写目录时丢弃
+         */
+        SPILL
+    }
+
+    /**
+     * 缓冲配置
+     *
+     * @param capacity      队列容量
+     * @param batchSize     单批最大条数
+     * @param flushInterval 最长刷新间隔
+     * @param overflow      队列满时的溢出策略
+     * @param blockTimeout  BLOCK 策略的最长等待时间
+     * @param spillDir      溢写目录，写库失败的批次与 SPILL 策略的溢出记录写入此处；为 null 时不溢写
+     * @param segmentSize   溢写日志段文件大小（字节）
+     * @param spillMaxBytes 溢写日志总大小上限（字节）
+     */
+    public record Options(int capacity, int batchSize, Duration flushInterval,
+                          OverflowPolicy overflow, Duration blockTimeout, Path spillDir, int segmentSize,
+                          long spillMaxBytes) {
+    }
+
+    /**
+     * 后台线程单次等待上限，保证停止时能及时退出
+     */
+    private static final long MAX_POLL_MILLIS = 200L;
+
+    private final String name;
+    private final ArrayBlockingQueue<T> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final OverflowPolicy overflow;
+    private final long blockTimeoutMillis;
+    private final Consumer<List<T>> writer;
+    private final Consumer<List<T>> replayWriter;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+
+    private final SpillJournal journal;
+    private long nextReplayAt;
+
+    /**
+     * SPILL 策略的溢出队列，由溢写线程写入溢写日志
+     */
+    private final ArrayBlockingQueue<T> overflowQueue;
+
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+    private final Counter spillRejectedCounter;
+    private final Counter writtenCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread drainThread;
+    private Thread spillThread;
+
+    /**
+     * @param writer       正常批量写入
+     * @param replayWriter 溢写日志回放写入（须按业务键幂等，崩溃后重放同一批不会重复入库）
+     */
+    public BatchLogBuffer(String name, Options options, Consumer<List<T>> writer, Consumer<List<T>> replayWriter,
+                          ObjectMapper objectMapper, Class<T> type, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(options.capacity());
+        this.batchSize = options.batchSize();
+        this.flushIntervalMillis = options.flushInterval().toMillis();
+        this.overflow = options.overflow();
+        this.blockTimeoutMillis = options.blockTimeout().toMillis();
+        this.writer = writer;
+        this.replayWriter = replayWriter;
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.journal = options.spillDir() != null
+            ? openJournal(options.spillDir().resolve(name), options.segmentSize(), options.spillMaxBytes())
+            : null;
+        this.overflowQueue = overflow == OverflowPolicy.SPILL && journal != null
+            ? new ArrayBlockingQueue<>(options.capacity())
+            : null;
+
+        Gauge.builder("movk.log.buffer.depth", queue, ArrayBlockingQueue::size)
+            .description("日志缓冲队列当前长度")
+            .tag("buffer", name)
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder("movk.log.buffer.dropped")
+            .description("日志缓冲丢弃条数")
+            .tag("buffer", name)
+            .register(meterRegistry);
+        this.spilledCounter = Counter.builder("movk.log.buffer.spilled")
+            .description("日志缓冲溢写到本地日志的条数")
+            .tag("buffer", name)
+            .register(meterRegistry);
+        this.spillRejectedCounter = Counter.builder("movk.log.buffer.spill.rejected")
+            .description("溢写日志达到大小上限而丢弃的条数")
+            .tag("buffer", name)
+            .register(meterRegistry);
+        this.writtenCounter = Counter.builder("movk.log.buffer.written")
+            .description("日志缓冲成功写入条数")
+            .tag("buffer", name)
+            .register(meterRegistry);
+        this.flushTimer = Timer.builder("movk.log.buffer.flush")
+            .description("日志缓冲单批写入耗时")
+            .tag("buffer", name)
+            .register(meterRegistry);
+    }
+
+    private SpillJournal openJournal(Path dir, int segmentSize, long maxBytes) {
+        try {
+            return new SpillJournal(dir, segmentSize, maxBytes);
+        } catch (IOException e) {
+            log.error("溢写日志打开失败，写库失败与溢出的记录将被丢弃 - name: {}, dir: {}, error: {}", name, dir, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 启动后台写入线程，上次遗留的溢写记录随后按顺序回放
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        drainThread = new Thread(this::drainLoop, "log-buffer-" + name);
+        drainThread.setDaemon(true);
+        drainThread.start();
+        if (overflowQueue != null) {
+            spillThread = new Thread(this::spillLoop, "log-spill-" + name);
+            spillThread.setDaemon(true);
+            spillThread.start();
+        }
+        log.info("日志缓冲启动 - name: {}, 溢出策略: {}, 待回放溢写: {}", name, overflow, hasSpillPending());
+    }
+
+    /**
+     * 停止后台线程并写出队列中剩余的记录
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            drainThread.join(Math.max(flushIntervalMillis * 2, 5000L));
+            if (spillThread != null) {
+                spillThread.join(Math.max(flushIntervalMillis * 2, 5000L));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * 提交一条日志（不阻塞，BLOCK 策略下最多等待 blockTimeout）
+     */
+    public void offer(T item) {
+        if (queue.offer(item)) {
+            return;
+        }
+        switch (overflow) {
+            case DROP_OLDEST -> {
+                while (!queue.offer(item)) {
+                    if (queue.poll() != null) {
+                        droppedCounter.increment();
+                    }
+                }
+            }
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(item, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        droppedCounter.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedCounter.increment();
+                }
+            }
+            case SPILL -> {
+                if (overflowQueue == null || !overflowQueue.offer(item)) {
+                    droppedCounter.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * 溢写日志中是否有待回放的记录
+     */
+    public boolean hasSpillPending() {
+        return journal != null && journal.hasPending();
+    }
+
+    /**
+     * 当前队列长度
+     */
+    public int depth() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<T> batch = new ArrayList<>(batchSize);
+        long firstAt = 0L;
+        while (running) {
+            try {
+                long wait = batch.isEmpty()
+                    ? flushIntervalMillis
+                    : Math.max(0L, firstAt + flushIntervalMillis - System.currentTimeMillis());
+                T item = queue.poll(Math.min(wait, MAX_POLL_MILLIS), TimeUnit.MILLISECONDS);
+                if (item != null) {
+                    if (batch.isEmpty()) {
+                        firstAt = System.currentTimeMillis();
+                    }
+                    batch.add(item);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                if (batch.size() >= batchSize
+                    || (!batch.isEmpty() && System.currentTimeMillis() - firstAt >= flushIntervalMillis)) {
+                    flush(batch);
+                    batch.clear();
+                }
+                if (System.currentTimeMillis() >= nextReplayAt && hasSpillPending()) {
+                    replaySpill();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("日志缓冲写入线程异常 - name: {}, error: {}", name, e.getMessage(), e);
+            }
+        }
+
+        // 关闭时写出剩余记录
+        queue.drainTo(batch);
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            flush(batch.subList(from, Math.min(from + batchSize, batch.size())));
+        }
+    }
+
+    /**
+     * 溢写线程：将溢出队列中的记录批量追加到溢写日志，停止时写出剩余记录
+     */
+    private void spillLoop() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                T item = overflowQueue.poll(MAX_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (item == null) {
+                    continue;
+                }
+                batch.add(item);
+                overflowQueue.drainTo(batch, batchSize - 1);
+                spill(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("日志溢写线程异常 - name: {}, error: {}", name, e.getMessage(), e);
+                batch.clear();
+            }
+        }
+        overflowQueue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            spill(batch);
+        }
+    }
+
+    private void flush(List<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // 溢写日志非空时新批次排在其后，保证写库顺序
+        if (hasSpillPending()) {
+            spill(batch);
+            return;
+        }
+        if (!write(writer, batch)) {
+            if (journal != null) {
+                spill(batch);
+            } else {
+                droppedCounter.increment(batch.size());
+            }
+        }
+    }
+
+    private boolean write(Consumer<List<T>> target, List<T> batch) {
+        long start = System.nanoTime();
+        try {
+            target.accept(batch);
+            writtenCounter.increment(batch.size());
+            return true;
+        } catch (Exception e) {
+            log.error("日志批量写入失败 - name: {}, size: {}, error: {}", name, batch.size(), e.getMessage());
+            return false;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void spill(List<T> items) {
+        if (journal == null) {
+            droppedCounter.increment(items.size());
+            return;
+        }
+        try {
+            List<byte[]> records = new ArrayList<>(items.size());
+            for (T item : items) {
+                records.add(objectMapper.writeValueAsBytes(item));
+            }
+            int appended = journal.append(records);
+            spilledCounter.increment(appended);
+            if (appended < records.size()) {
+                int rejected = records.size() - appended;
+                droppedCounter.increment(rejected);
+                spillRejectedCounter.increment(rejected);
+                log.warn("溢写日志已达大小上限，丢弃 {} 条日志 - name: {}", rejected, name);
+            }
+        } catch (IOException e) {
+            log.error("日志溢写失败 - name: {}, size: {}, error: {}", name, items.size(), e.getMessage());
+            droppedCounter.increment(items.size());
+        }
+    }
+
+    /**
+     * 按顺序回放溢写日志，写库失败时停止并在一个刷新间隔后重试
+     */
+    private void replaySpill() {
+        while (true) {
+            SpillJournal.Batch spilled = journal.peek(batchSize);
+            if (spilled.records().isEmpty()) {
+                commitQuietly(spilled.end());
+                return;
+            }
+            List<T> batch = new ArrayList<>(spilled.records().size());
+            for (byte[] record : spilled.records()) {
+                try {
+                    batch.add(objectMapper.readValue(record, type));
+                } catch (IOException e) {
+                    log.warn("跳过无法解析的溢写记录 - name: {}, error: {}", name, e.getMessage());
+                    droppedCounter.increment();
+                }
+            }
+            if (!batch.isEmpty() && !write(replayWriter, batch)) {
+                nextReplayAt = System.currentTimeMillis() + flushIntervalMillis;
+                return;
+            }
+            if (!commitQuietly(spilled.end())) {
+                return;
+            }
+            // 回放期间不阻塞新记录入库：队列有积压时让出给主循环
+            if (!running || !queue.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private boolean commitQuietly(SpillJournal.Position position) {
+        try {
+            journal.commit(position);
+            return true;
+        } catch (IOException e) {
+            log.error("溢写日志确认失败 - name: {}, error: {}", name, e.getMessage());
+            nextReplayAt = System.currentTimeMillis() + flushIntervalMillis;
+            return false;
+        }
+    }
+}
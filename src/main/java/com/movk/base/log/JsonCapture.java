@@ -0,0 +1,193 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.log;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+
+/**
+ * 日志 JSON 采集
+ * 通过单个 Jackson 生成器流式写入有长度上限的缓冲区：达到上限即中止序列化，
+ * 脱敏字段由属性过滤器在写出时替换，不再经过 "序列化 -> 解析为 Map -> 再序列化" 的往返。
+ */
+@Component
+public class JsonCapture {
+
+    /**
+     * 脱敏字段占位值
+     */
+    public static final String FILTERED = "[FILTERED]";
+
+    /**
+     * 截断标记
+     */
+    public static final String TRUNCATED = "...[TRUNCATED]";
+
+    private static final String FILTER_ID = "logCapture";
+    private static final String EXCLUDE_ATTRIBUTE = "logCapture.excludeNames";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+
+    public JsonCapture(ObjectMapper objectMapper) {
+        // 复制一份映射器，全局混入过滤器，不影响 MVC 等其他场景的序列化
+        this.objectMapper = objectMapper.copy().addMixIn(Object.class, CaptureFilterMixin.class);
+        this.objectWriter = this.objectMapper.writer(
+            new SimpleFilterProvider().addFilter(FILTER_ID, new ExcludeNamesFilter()));
+    }
+
+    /**
+     * 将方法参数按 {参数名: 值} 写为 JSON 对象
+     *
+     * @param names        参数名（与 args 对应，null 表示跳过该参数）
+     * @param args         参数值
+     * @param excludeNames 脱敏字段名（参数名及对象内任意层级的同名属性）
+     * @param maxLength    最大字符数
+     * @return JSON 字符串，无参数可写时返回 null
+     */
+    public String captureArgs(String[] names, Object[] args, Set<String> excludeNames, int maxLength) {
+        BoundedWriter out = new BoundedWriter(maxLength);
+        ObjectWriter writer = objectWriter.withAttribute(EXCLUDE_ATTRIBUTE, excludeNames);
+        boolean written = false;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            for (int i = 0; i < args.length; i++) {
+                if (names[i] == null) {
+                    continue;
+                }
+                generator.writeFieldName(names[i]);
+                if (excludeNames.contains(names[i])) {
+                    generator.writeString(FILTERED);
+                } else {
+                    writer.writeValue(generator, args[i]);
+                }
+                written = true;
+            }
+            generator.writeEndObject();
+        } catch (BudgetExceededException e) {
+            return out.truncated();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return written ? out.toString() : null;
+    }
+
+    /**
+     * 将对象写为 JSON
+     *
+     * @param value     对象
+     * @param maxLength 最大字符数
+     */
+    public String capture(Object value, int maxLength) {
+        BoundedWriter out = new BoundedWriter(maxLength);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            objectWriter.withAttribute(EXCLUDE_ATTRIBUTE, Set.of()).writeValue(generator, value);
+        } catch (BudgetExceededException e) {
+            return out.truncated();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    @JsonFilter(FILTER_ID)
+    private abstract static class CaptureFilterMixin {
+    }
+
+    /**
+     * 按调用时传入的字段名集合替换属性值
+     */
+    private static class ExcludeNamesFilter extends SimpleBeanPropertyFilter {
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            Object excludeNames = provider.getAttribute(EXCLUDE_ATTRIBUTE);
+            if (excludeNames instanceof Set<?> names && names.contains(writer.getName())) {
+                gen.writeStringField(writer.getName(), FILTERED);
+                return;
+            }
+            writer.serializeAsField(pojo, gen, provider);
+        }
+    }
+
+    /**
+     * 超出长度上限
+     */
+    private static class BudgetExceededException extends IOException {
+
+        BudgetExceededException() {
+            super(null, null);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * 有长度上限的字符缓冲：写满后抛出异常中止生成器
+     */
+    private static class BoundedWriter extends Writer {
+
+        private final StringBuilder buffer;
+        private final int limit;
+
+        BoundedWriter(int limit) {
+            this.limit = limit;
+            this.buffer = new StringBuilder(Math.min(limit, 256));
+        }
+
+        @Override
+        public void write(char[] chars, int off, int len) throws IOException {
+            int room = limit - buffer.length();
+            if (len > room) {
+                buffer.append(chars, off, Math.max(room, 0));
+                throw new BudgetExceededException();
+            }
+            buffer.append(chars, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            int room = limit - buffer.length();
+            if (len > room) {
+                buffer.append(str, off, off + Math.max(room, 0));
+                throw new BudgetExceededException();
+            }
+            buffer.append(str, off, off + len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        String truncated() {
+            return buffer + TRUNCATED;
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+}
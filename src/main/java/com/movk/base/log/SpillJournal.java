@@ -0,0 +1,331 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.log;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 本地溢写日志（仅追加，内存映射）
+ * 记录按段文件顺序追加，帧格式为 [长度][CRC32][内容]，长度最后写入，进程崩溃时未写完的帧长度为 0 会被忽略；
+ * 读取位置写入 checkpoint 文件（临时文件 + 原子改名），读取方确认写库成功后才推进，已读完的段文件随即解除映射并删除。
+ * 映射的段总大小不超过 maxBytes，超出时 append 拒绝剩余记录（由调用方计为丢弃），磁盘与地址空间占用有上限。
+ * 仅由单个读取方（日志缓冲的写入线程）调用 peek/commit。
+ */
+@Slf4j
+public class SpillJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * sun.misc.Unsafe#invokeCleaner，用于立即解除段文件映射；不可用时退回等待 GC 回收
+     */
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("无法显式解除内存映射，段文件映射将在 GC 时释放: {}", e.getMessage());
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    /**
+     * 日志位置
+     *
+     * @param segment 段序号
+     * @param offset  段内偏移
+     */
+    public record Position(long segment, int offset) {
+    }
+
+    /**
+     * 一次读取的记录及其结束位置
+     *
+     * @param records 记录内容
+     * @param end     读取结束位置（commit 时使用）
+     */
+    public record Batch(List<byte[]> records, Position end) {
+    }
+
+    private final Path dir;
+    private final int segmentSize;
+    private final long maxBytes;
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+
+    /**
+     * 当前映射的段总大小
+     */
+    private long mappedBytes;
+
+    private long writeSegment;
+    private int writeOffset;
+    private long readSegment;
+    private int readOffset;
+
+    /**
+     * @param segmentSize 段文件大小
+     * @param maxBytes    映射的段总大小上限（不小于一个段）
+     */
+    public SpillJournal(Path dir, int segmentSize, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.maxBytes = Math.max(maxBytes, segmentSize);
+        Files.createDirectories(dir);
+        open();
+    }
+
+    /**
+     * 顺序追加记录，达到大小上限时停止
+     *
+     * @return 实际追加的条数（其余记录未写入）
+     */
+    public synchronized int append(List<byte[]> records) throws IOException {
+        int appended = 0;
+        for (byte[] record : records) {
+            int frameSize = HEADER_SIZE + record.length;
+            MappedByteBuffer buffer = segments.get(writeSegment);
+            if (writeOffset + frameSize > buffer.capacity()) {
+                int nextSize = Math.max(segmentSize, frameSize);
+                if (mappedBytes + nextSize > maxBytes) {
+                    return appended;
+                }
+                buffer.force();
+                writeSegment++;
+                writeOffset = 0;
+                buffer = mapSegment(writeSegment, nextSize);
+                segments.put(writeSegment, buffer);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            buffer.put(writeOffset + HEADER_SIZE, record);
+            buffer.putInt(writeOffset + 4, (int) crc.getValue());
+            // 长度最后写入，作为帧完整的标记
+            buffer.putInt(writeOffset, record.length);
+            writeOffset += frameSize;
+            appended++;
+        }
+        return appended;
+    }
+
+    /**
+     * 当前映射的段总大小（字节）
+     */
+    public synchronized long mappedBytes() {
+        return mappedBytes;
+    }
+
+    /**
+     * 是否存在未确认的记录
+     */
+    public synchronized boolean hasPending() {
+        return readSegment != writeSegment || readOffset != writeOffset;
+    }
+
+    /**
+     * 从读取位置起按顺序读取至多 max 条记录，不推进读取位置
+     */
+    public synchronized Batch peek(int max) {
+        List<byte[]> records = new ArrayList<>(Math.min(max, 256));
+        long segment = readSegment;
+        int offset = readOffset;
+        while (records.size() < max) {
+            if (segment == writeSegment && offset >= writeOffset) {
+                break;
+            }
+            ByteBuffer buffer = segments.get(segment);
+            int length = buffer == null ? 0 : frameLength(buffer, offset);
+            if (length <= 0) {
+                if (segment < writeSegment) {
+                    if (length < 0) {
+                        log.warn("溢写日志段损坏，跳过剩余内容 - segment: {}, offset: {}", segment, offset);
+                    }
+                    segment++;
+                    offset = 0;
+                    continue;
+                }
+                break;
+            }
+            byte[] record = new byte[length];
+            buffer.get(offset + HEADER_SIZE, record);
+            records.add(record);
+            offset += HEADER_SIZE + length;
+        }
+        return new Batch(records, new Position(segment, offset));
+    }
+
+    /**
+     * 确认读取到指定位置：持久化 checkpoint 并删除已读完的段文件
+     */
+    public synchronized void commit(Position position) throws IOException {
+        readSegment = position.segment();
+        readOffset = position.offset();
+        if (!hasPending() && writeOffset > 0) {
+            // 全部确认后切换到新段，旧段整体删除，避免段文件无限增长且不会残留可被误读的旧帧
+            segments.get(writeSegment).force();
+            writeSegment++;
+            writeOffset = 0;
+            segments.put(writeSegment, mapSegment(writeSegment, segmentSize));
+            readSegment = writeSegment;
+            readOffset = 0;
+        }
+        writeCheckpoint();
+        releaseBefore(readSegment);
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.values().forEach(buffer -> {
+            buffer.force();
+            unmap(buffer);
+        });
+        segments.clear();
+        mappedBytes = 0;
+    }
+
+    /**
+     * 解除映射并删除 segment 之前的段
+     */
+    private void releaseBefore(long segment) throws IOException {
+        while (!segments.isEmpty() && segments.firstKey() < segment) {
+            Map.Entry<Long, MappedByteBuffer> first = segments.pollFirstEntry();
+            mappedBytes -= first.getValue().capacity();
+            unmap(first.getValue());
+            Files.deleteIfExists(segmentPath(first.getKey()));
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            log.warn("解除内存映射失败: {}", e.getMessage());
+        }
+    }
+
+    private void writeCheckpoint() throws IOException {
+        Path tmp = dir.resolve(CHECKPOINT + ".tmp");
+        ByteBuffer data = ByteBuffer.allocate(12).putLong(readSegment).putInt(readOffset).flip();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(data);
+            channel.force(true);
+        }
+        Files.move(tmp, dir.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void open() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    long seq = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(seq, mapSegment(seq, (int) Files.size(file)));
+                }
+            }
+        }
+
+        Path checkpoint = dir.resolve(CHECKPOINT);
+        if (Files.exists(checkpoint)) {
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+            readSegment = data.getLong();
+            readOffset = data.getInt();
+        } else {
+            readSegment = segments.isEmpty() ? 0L : segments.firstKey();
+            readOffset = 0;
+        }
+
+        // 丢弃 checkpoint 之前的段
+        releaseBefore(readSegment);
+
+        if (segments.isEmpty()) {
+            writeSegment = readSegment;
+            writeOffset = 0;
+            readOffset = 0;
+            segments.put(writeSegment, mapSegment(writeSegment, segmentSize));
+            return;
+        }
+
+        // 扫描最后一段恢复写入位置（遇到未写完或损坏的帧即停止）
+        writeSegment = segments.lastKey();
+        MappedByteBuffer buffer = segments.get(writeSegment);
+        int offset = writeSegment == readSegment ? readOffset : 0;
+        int length;
+        while ((length = frameLength(buffer, offset)) > 0) {
+            offset += HEADER_SIZE + length;
+        }
+        writeOffset = offset;
+        if (hasPending()) {
+            log.info("溢写日志存在待回放记录 - dir: {}, segment: {}..{}", dir, readSegment, writeSegment);
+        }
+    }
+
+    /**
+     * 读取帧长度：0 表示无数据，-1 表示帧损坏
+     */
+    private static int frameLength(ByteBuffer buffer, int offset) {
+        if (offset + HEADER_SIZE > buffer.capacity()) {
+            return 0;
+        }
+        int length = buffer.getInt(offset);
+        if (length == 0) {
+            return 0;
+        }
+        if (length < 0 || offset + HEADER_SIZE + length > buffer.capacity()) {
+            return -1;
+        }
+        byte[] content = new byte[length];
+        buffer.get(offset + HEADER_SIZE, content);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return (int) crc.getValue() == buffer.getInt(offset + 4) ? length : -1;
+    }
+
+    private MappedByteBuffer mapSegment(long seq, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(seq), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            mappedBytes += size;
+            return buffer;
+        }
+    }
+
+    private Path segmentPath(long seq) {
+        return dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, seq, SEGMENT_SUFFIX));
+    }
+}
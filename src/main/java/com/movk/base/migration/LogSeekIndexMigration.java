@@ -0,0 +1,30 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.migration;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * V11 日志游标分页索引：按 (created_at, id) 倒序定位游标位置，同一时间的行按 id 续读
+ * 逐分区在线构建，后续新建的分区随父表索引自动创建
+ */
+@Component
+public class LogSeekIndexMigration extends PartitionedIndexMigration {
+
+    public LogSeekIndexMigration() {
+        super("11", "log seek index");
+    }
+
+    @Override
+    protected List<PartitionedIndex> indexes() {
+        return List.of(
+            new PartitionedIndex("sys_operate_log", "idx_operate_log_seek", "(created_at DESC, id DESC)"),
+            new PartitionedIndex("sys_login_log", "idx_login_log_seek", "(created_at DESC, id DESC)")
+        );
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * V7 审计日志模糊搜索索引：pg_trgm GIN 索引支持前导通配的 LIKE / ILIKE（关键字至少 3 个字符）
+ * 逐分区在线构建，后续新建的分区随父表索引自动创建
+ */
+@Component
+public class LogTrigramSearchMigration extends PartitionedIndexMigration {
+
+    public LogTrigramSearchMigration() {
+        super("7", "log trigram search");
+    }
+
+    @Override
+    protected void prepare(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+    }
+
+    @Override
+    protected List<PartitionedIndex> indexes() {
+        return List.of(
+            new PartitionedIndex("sys_operate_log", "idx_operate_log_module_trgm", "USING gin (module gin_trgm_ops)"),
+            new PartitionedIndex("sys_operate_log", "idx_operate_log_request_url_trgm", "USING gin (request_url gin_trgm_ops)"),
+            new PartitionedIndex("sys_operate_log", "idx_operate_log_error_msg_trgm", "USING gin (error_msg gin_trgm_ops)"),
+            new PartitionedIndex("sys_login_log", "idx_login_log_username_trgm", "USING gin (username gin_trgm_ops)"),
+            new PartitionedIndex("sys_login_log", "idx_login_log_login_ip_trgm", "USING gin (login_ip gin_trgm_ops)")
+        );
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.migration;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+
+/**
+ * 分区表在线建索引迁移
+ * PostgreSQL 不支持在分区父表上 CREATE INDEX CONCURRENTLY，直接建索引会在构建期间阻塞所有分区的写入。
+ * 先以 ON ONLY 在父表上创建索引（此时无效），再逐个分区 CONCURRENTLY 建索引并 ATTACH，全部挂接后父表索引自动生效；
+ * 迁移不在事务中执行，建索引期间日志照常写入。中断后可重跑：残留的无效分区索引先删除再重建，已挂接的分区跳过。
+ * 需关闭 Flyway 的事务级咨询锁（spring.flyway.postgresql.transactional-lock=false），否则 CONCURRENTLY 会等待持锁事务而挂起
+ */
+public abstract class PartitionedIndexMigration implements JavaMigration {
+
+    private static final String PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+        + "WHERE i.inhparent = ?::regclass ORDER BY c.relname";
+    private static final String ATTACHED_SQL = "SELECT 1 FROM pg_inherits i JOIN pg_index x ON x.indexrelid = i.inhrelid "
+        + "WHERE i.inhparent = ?::regclass AND x.indrelid = ?::regclass";
+    private static final String VALID_SQL = "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)";
+
+    private final MigrationVersion version;
+    private final String description;
+
+    protected PartitionedIndexMigration(String version, String description) {
+        this.version = MigrationVersion.fromVersion(version);
+        this.description = description;
+    }
+
+    /**
+     * 需要创建的分区表索引
+     */
+    protected abstract List<PartitionedIndex> indexes();
+
+    /**
+     * 建索引前执行的语句（如创建扩展），默认无
+     */
+    protected void prepare(JdbcTemplate jdbcTemplate) {
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return version;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        migrate(new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true)));
+    }
+
+    public void migrate(JdbcTemplate jdbcTemplate) {
+        prepare(jdbcTemplate);
+        for (PartitionedIndex index : indexes()) {
+            createIndex(jdbcTemplate, index);
+        }
+    }
+
+    private static void createIndex(JdbcTemplate jdbcTemplate, PartitionedIndex index) {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + index.name() + " ON ONLY " + index.table()
+            + " " + index.definition());
+        List<String> partitions = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, index.table());
+        for (String partition : partitions) {
+            // 迁移期间新建的分区已随父表索引自动建好并挂接
+            if (!jdbcTemplate.queryForList(ATTACHED_SQL, Integer.class, index.name(), partition).isEmpty()) {
+                continue;
+            }
+            String child = childName(index, partition);
+            // 上次中断的 CONCURRENTLY 会留下无效索引，IF NOT EXISTS 会跳过它，需先删除
+            if (jdbcTemplate.queryForList(VALID_SQL, Boolean.class, child).contains(Boolean.FALSE)) {
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + child);
+            }
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + child + " ON " + partition
+                + " " + index.definition());
+            jdbcTemplate.execute("ALTER INDEX " + index.name() + " ATTACH PARTITION " + child);
+        }
+    }
+
+    /**
+     * 分区索引命名：{父索引}_{分区后缀}，如 idx_operate_log_seek_p202610
+     */
+    private static String childName(PartitionedIndex index, String partition) {
+        String prefix = index.table() + "_";
+        String suffix = partition.startsWith(prefix) ? partition.substring(prefix.length()) : partition;
+        return index.name() + "_" + suffix;
+    }
+
+    /**
+     * 分区表索引定义
+     *
+     * @param table      分区父表
+     * @param name       父表索引名
+     * @param definition 表名之后的索引定义，如 USING gin (module gin_trgm_ops)
+     */
+    public record PartitionedIndex(String table, String name, String definition) {
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.result;
+
+/**
+ * 游标分页总数计算方式
+ */
+public enum CountMode {
+
+    /**
+     * 不计算总数
+     */
+    NONE,
+
+    /**
+     * 取查询计划器的估算行数（基于表统计信息，不扫描数据）
+     */
+    ESTIMATE,
+
+    /**
+     * 精确 COUNT(*)
+     */
+    EXACT
+}
@@ -0,0 +1,68 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果
+ * 通过 nextCursor 继续获取下一页，不使用 OFFSET，深翻页代价与首页相同
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /**
+     * 当前页数据
+     */
+    private List<T> items;
+
+    /**
+     * 下一页游标，为 null 表示没有更多数据
+     */
+    private String nextCursor;
+
+    /**
+     * 总数（CountMode.NONE 时为 null）
+     */
+    private Long total;
+
+    /**
+     * 总数是否为估算值
+     */
+    private boolean totalEstimated;
+
+    /**
+     * 转换数据类型，保留游标与总数
+     */
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(items.stream().<R>map(mapper).toList(), nextCursor, total, totalEstimated);
+    }
+
+    /**
+     * 由多取一行的查询结果构造分页：结果超过 size 时截断并以第 size 行生成下一页游标
+     *
+     * @param rows     查询结果（至多 size + 1 行）
+     * @param size     每页条数
+     * @param cursorOf 由行生成游标
+     * @param total    总数（可为 null）
+     * @param estimated 总数是否为估算值
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, SeekCursor> cursorOf,
+                                       Long total, boolean estimated) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null, total, estimated);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)).encode(), total, estimated);
+    }
+}
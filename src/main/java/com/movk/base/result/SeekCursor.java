@@ -0,0 +1,71 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.result;
+
+import com.movk.base.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * 键集分页游标：上一页最后一行的 (时间, ID)
+ * 编码为 URL 安全的 Base64 字符串，时间精确到微秒（与 TIMESTAMPTZ 精度一致）
+ *
+ * @param time 排序时间（created_at / issued_at）
+ * @param id   行 ID（时间相同时的次级排序键）
+ */
+public record SeekCursor(OffsetDateTime time, String id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * 编码为游标字符串
+     */
+    public String encode() {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, time.toInstant());
+        return ENCODER.encodeToString((micros + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串，空值表示第一页
+     *
+     * @throws BusinessException 游标格式错误
+     */
+    public static SeekCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String text = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int sep = text.indexOf(':');
+            long micros = Long.parseLong(text.substring(0, sep));
+            String id = text.substring(sep + 1);
+            if (id.isEmpty()) {
+                throw new IllegalArgumentException(cursor);
+            }
+            OffsetDateTime time = Instant.EPOCH.plus(micros, ChronoUnit.MICROS).atOffset(ZoneOffset.UTC);
+            return new SeekCursor(time, id);
+        } catch (RuntimeException e) {
+            throw new BusinessException(RCode.BAD_REQUEST, "无效的分页游标");
+        }
+    }
+
+    /**
+     * 次级排序键按 Long 解析（日志表）
+     */
+    public long longId() {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new BusinessException(RCode.BAD_REQUEST, "无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.storage;
+
+import com.movk.base.file.StagedFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+/**
+ * 文件存储后端 SPI
+ * key 为相对路径（如 blobs/ab/cd/{sha256}），与 sys_file.path 一致；sys_file.storage_type 记录文件所在后端。
+ * 对象不存在时 get 抛出 {@link NoSuchFileException}，stat 返回 null
+ */
+public interface FileStorage {
+
+    /**
+     * 存储类型（与 file.storage-type、sys_file.storage_type 取值一致）
+     */
+    String getType();
+
+    /**
+     * 写入对象：本地存储直接移动暂存文件，远程存储上传暂存文件内容（暂存文件由调用方关闭）
+     */
+    void put(String key, StagedFile staged) throws IOException;
+
+    /**
+     * 读取完整对象（调用方负责关闭）
+     */
+    InputStream get(String key) throws IOException;
+
+    /**
+     * 读取对象的一段
+     *
+     * @param offset 起始偏移
+     * @param length 长度（字节）
+     */
+    InputStream get(String key, long offset, long length) throws IOException;
+
+    /**
+     * 删除对象
+     *
+     * @return 对象原先是否存在（远程存储无法区分时返回 true）
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * 查询对象元数据
+     *
+     * @return 对象不存在时返回 null
+     */
+    StorageObject stat(String key) throws IOException;
+
+    /**
+     * 本地文件路径，供容器 sendfile 零拷贝输出；远程存储返回 null
+     */
+    default Path localPath(String key) {
+        return null;
+    }
+}
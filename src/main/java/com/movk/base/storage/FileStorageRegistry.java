@@ -0,0 +1,56 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.storage;
+
+import com.movk.base.config.FileProperties;
+import com.movk.base.exception.BusinessException;
+import com.movk.base.result.RCode;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 存储后端注册表
+ * 新文件写入 file.storage-type 指定的主存储；读取与删除按 sys_file.storage_type 选择后端，
+ * 切换主存储后历史文件仍从原后端读取（需保留原后端配置）
+ */
+@Component
+public class FileStorageRegistry {
+
+    private final Map<String, FileStorage> storages;
+    private final FileStorage primary;
+
+    public FileStorageRegistry(List<FileStorage> storages, FileProperties fileProperties) {
+        this.storages = storages.stream().collect(Collectors.toMap(FileStorage::getType, Function.identity()));
+        this.primary = this.storages.get(fileProperties.getStorageType());
+        if (primary == null) {
+            throw new IllegalStateException("未配置存储后端: " + fileProperties.getStorageType()
+                + "，可用: " + this.storages.keySet());
+        }
+    }
+
+    /**
+     * 新文件写入的主存储
+     */
+    public FileStorage primary() {
+        return primary;
+    }
+
+    /**
+     * 按存储类型获取后端，为空时视为本地存储
+     */
+    public FileStorage get(String type) {
+        FileStorage storage = storages.get(StringUtils.hasText(type) ? type : LocalFileStorage.TYPE);
+        if (storage == null) {
+            throw new BusinessException(RCode.INTERNAL_ERROR, "未配置存储后端: " + type);
+        }
+        return storage;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.storage;
+
+import com.movk.base.config.FileProperties;
+import com.movk.base.file.StagedFile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * 本地磁盘存储：key 相对于 file.base-path
+ */
+@Component
+public class LocalFileStorage implements FileStorage {
+
+    public static final String TYPE = "local";
+
+    private final FileProperties fileProperties;
+
+    public LocalFileStorage(FileProperties fileProperties) {
+        this.fileProperties = fileProperties;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public void put(String key, StagedFile staged) throws IOException {
+        staged.moveTo(resolve(key));
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public InputStream get(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ).position(offset);
+        return new LimitedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public StorageObject stat(String key) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            return new StorageObject(attributes.size(), attributes.lastModifiedTime().toInstant(), null);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return resolve(key);
+    }
+
+    /**
+     * 解析为绝对路径，拒绝越出根目录的 key
+     */
+    private Path resolve(String key) {
+        Path base = Paths.get(fileProperties.getBasePath()).toAbsolutePath().normalize();
+        Path path = base.resolve(key).normalize();
+        if (!path.startsWith(base)) {
+            throw new IllegalArgumentException("非法的存储路径: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.storage;
+
+import com.movk.base.config.FileProperties;
+import com.movk.base.file.StagedFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * S3 兼容对象存储（AWS S3、MinIO 等）
+ * 基于 JDK HttpClient 与 SigV4 签名，不引入 SDK：
+ * <ul>
+ *   <li>不超过 partSize 的文件单次 PUT，签名使用暂存时已计算的 SHA-256</li>
+ *   <li>更大的文件使用分段上传，各分段直接从暂存文件对应区间流式发送，失败时中止分段上传</li>
+ *   <li>GET 以流的形式返回响应体，区间读取使用 Range 请求</li>
+ * </ul>
+ * 多个后端节点配置同一存储桶即可共享文件，无需共享文件系统
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "file.s3", name = "bucket")
+public class S3FileStorage implements FileStorage {
+
+    public static final String TYPE = "s3";
+
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+
+    private final FileProperties.S3 config;
+    private final S3RequestSigner signer;
+    private final HttpClient httpClient;
+    private final URI endpoint;
+
+    public S3FileStorage(FileProperties fileProperties) {
+        this.config = fileProperties.getS3();
+        this.signer = new S3RequestSigner(config.getAccessKey(), config.getSecretKey(), config.getRegion());
+        this.endpoint = URI.create(config.getEndpoint());
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(config.getConnectTimeout())
+            .build();
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public void put(String key, StagedFile staged) throws IOException {
+        if (staged.getSize() <= config.getPartSize()) {
+            HttpResponse<String> response = send("PUT", key, Map.of(), Map.of(),
+                HttpRequest.BodyPublishers.ofFile(staged.getPath()), staged.getSha256(),
+                HttpResponse.BodyHandlers.ofString());
+            expect(response, key, 200);
+            return;
+        }
+        putMultipart(key, staged.getPath(), staged.getSize());
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return getStream(key, Map.of());
+    }
+
+    @Override
+    public InputStream get(String key, long offset, long length) throws IOException {
+        return getStream(key, Map.of("range", "bytes=" + offset + "-" + (offset + length - 1)));
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        HttpResponse<String> response = send("DELETE", key, Map.of(), Map.of(), HttpRequest.BodyPublishers.noBody(),
+            S3RequestSigner.EMPTY_SHA256, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) {
+            return false;
+        }
+        expect(response, key, 204, 200);
+        return true;
+    }
+
+    @Override
+    public StorageObject stat(String key) throws IOException {
+        HttpResponse<Void> response = send("HEAD", key, Map.of(), Map.of(), HttpRequest.BodyPublishers.noBody(),
+            S3RequestSigner.EMPTY_SHA256, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("S3 HEAD " + key + " 失败: HTTP " + response.statusCode());
+        }
+        long size = response.headers().firstValueAsLong("content-length").orElse(0);
+        Instant lastModified = response.headers().firstValue("last-modified")
+            .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant())
+            .orElse(null);
+        return new StorageObject(size, lastModified, response.headers().firstValue("etag").orElse(null));
+    }
+
+    private InputStream getStream(String key, Map<String, String> headers) throws IOException {
+        HttpResponse<InputStream> response = send("GET", key, Map.of(), headers, HttpRequest.BodyPublishers.noBody(),
+            S3RequestSigner.EMPTY_SHA256, HttpResponse.BodyHandlers.ofInputStream());
+        int status = response.statusCode();
+        if (status == 200 || status == 206) {
+            return response.body();
+        }
+        String body;
+        try (InputStream in = response.body()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (status == 404) {
+            throw new NoSuchFileException(key);
+        }
+        throw new IOException("S3 GET " + key + " 失败: HTTP " + status + " " + body);
+    }
+
+    /**
+     * 分段上传：初始化 → 逐段 PUT（分段内容从暂存文件区间流式读取）→ 合并；任一步失败时中止
+     */
+    private void putMultipart(String key, Path source, long size) throws IOException {
+        HttpResponse<String> init = send("POST", key, Map.of("uploads", ""), Map.of(),
+            HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_SHA256, HttpResponse.BodyHandlers.ofString());
+        expect(init, key, 200);
+        Matcher matcher = UPLOAD_ID.matcher(init.body());
+        if (!matcher.find()) {
+            throw new IOException("S3 初始化分段上传失败: " + init.body());
+        }
+        String uploadId = matcher.group(1);
+
+        try {
+            long partSize = config.getPartSize();
+            List<String> etags = new ArrayList<>();
+            for (long offset = 0; offset < size; offset += partSize) {
+                long length = Math.min(partSize, size - offset);
+                long start = offset;
+                HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(
+                    HttpRequest.BodyPublishers.ofInputStream(() -> openSlice(source, start, length)), length);
+                HttpResponse<String> part = send("PUT", key,
+                    Map.of("partNumber", String.valueOf(etags.size() + 1), "uploadId", uploadId), Map.of(),
+                    body, S3RequestSigner.UNSIGNED_PAYLOAD, HttpResponse.BodyHandlers.ofString());
+                expect(part, key, 200);
+                etags.add(part.headers().firstValue("etag")
+                    .orElseThrow(() -> new IOException("S3 分段上传未返回 ETag: " + key)));
+            }
+
+            StringBuilder xml = new StringBuilder("<CompleteMultipartUpload>");
+            for (int i = 0; i < etags.size(); i++) {
+                xml.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                    .append(etags.get(i).replace("\"", "&quot;")).append("</ETag></Part>");
+            }
+            byte[] payload = xml.append("</CompleteMultipartUpload>").toString().getBytes(StandardCharsets.UTF_8);
+            HttpResponse<String> complete = send("POST", key, Map.of("uploadId", uploadId), Map.of(),
+                HttpRequest.BodyPublishers.ofByteArray(payload), S3RequestSigner.sha256Hex(payload),
+                HttpResponse.BodyHandlers.ofString());
+            // 合并失败时 S3 可能返回 200 且响应体为 Error
+            if (complete.statusCode() != 200 || complete.body().contains("<Error>")) {
+                throw new IOException("S3 合并分段失败: HTTP " + complete.statusCode() + " " + complete.body());
+            }
+        } catch (IOException | RuntimeException e) {
+            abortMultipart(key, uploadId);
+            throw e;
+        }
+    }
+
+    private void abortMultipart(String key, String uploadId) {
+        try {
+            send("DELETE", key, Map.of("uploadId", uploadId), Map.of(), HttpRequest.BodyPublishers.noBody(),
+                S3RequestSigner.EMPTY_SHA256, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            log.warn("S3 中止分段上传失败: {} {}", key, uploadId, e);
+        }
+    }
+
+    private static InputStream openSlice(Path source, long offset, long length) {
+        try {
+            FileChannel channel = FileChannel.open(source, StandardOpenOption.READ).position(offset);
+            return new LimitedInputStream(Channels.newInputStream(channel), length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> HttpResponse<T> send(String method, String key, Map<String, String> query, Map<String, String> headers,
+                                     HttpRequest.BodyPublisher body, String payloadHash,
+                                     HttpResponse.BodyHandler<T> handler) throws IOException {
+        URI uri = objectUri(key, query);
+        SortedMap<String, String> signed = new TreeMap<>(headers);
+        signed.put("host", hostHeader(uri));
+        signed.put("x-amz-content-sha256", payloadHash);
+        signed.put("x-amz-date", S3RequestSigner.amzDate(Instant.now()));
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).method(method, body);
+        signed.forEach((name, value) -> {
+            if (!"host".equals(name)) {
+                request.header(name, value);
+            }
+        });
+        request.header("authorization", signer.authorization(method, uri.getRawPath(), uri.getRawQuery(), signed,
+            payloadHash));
+        try {
+            return httpClient.send(request.build(), handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("S3 请求被中断: " + method + " " + key);
+        }
+    }
+
+    /**
+     * 对象地址：路径风格 endpoint/bucket/key，虚拟主机风格 bucket.endpoint/key
+     */
+    URI objectUri(String key, Map<String, String> query) {
+        String path = S3RequestSigner.uriEncode(key, false);
+        String authority = endpoint.getRawAuthority();
+        String prefix = endpoint.getRawPath() == null ? "" : endpoint.getRawPath().replaceAll("/+$", "");
+        String uri = config.getPathStyle()
+            ? endpoint.getScheme() + "://" + authority + prefix + "/" + config.getBucket() + "/" + path
+            : endpoint.getScheme() + "://" + config.getBucket() + "." + authority + prefix + "/" + path;
+        return URI.create(query.isEmpty() ? uri : uri + "?" + S3RequestSigner.canonicalQuery(query));
+    }
+
+    /**
+     * 与 HttpClient 实际发送的 Host 一致：默认端口时不带端口
+     */
+    private static String hostHeader(URI uri) {
+        int port = uri.getPort();
+        boolean defaultPort = port == -1
+            || ("http".equals(uri.getScheme()) && port == 80)
+            || ("https".equals(uri.getScheme()) && port == 443);
+        return defaultPort ? uri.getHost() : uri.getHost() + ":" + port;
+    }
+
+    private static void expect(HttpResponse<?> response, String key, int... statuses) throws IOException {
+        for (int status : statuses) {
+            if (response.statusCode() == status) {
+                return;
+            }
+        }
+        throw new IOException("S3 请求失败: " + response.request().method() + " " + key + " HTTP "
+            + response.statusCode() + " " + response.body());
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.storage;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+/**
+ * AWS Signature Version 4 请求签名（S3）
+ * 调用方负责把 host、x-amz-date、x-amz-content-sha256 及其他需签名的请求头（小写名）放入 headers，
+ * 路径与查询串须已按 {@link #uriEncode} 编码，签名与实际发送使用同一份字符串
+ */
+final class S3RequestSigner {
+
+    static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+        .withZone(ZoneOffset.UTC);
+
+    private final String accessKey;
+    private final String secretKey;
+    private final String region;
+
+    S3RequestSigner(String accessKey, String secretKey, String region) {
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+    }
+
+    /**
+     * 计算 Authorization 请求头
+     *
+     * @param rawPath     已编码的路径
+     * @param rawQuery    已编码的查询串，可为 null
+     * @param headers     参与签名的请求头（小写名，按名称排序）
+     * @param payloadHash 请求体 SHA-256（十六进制）或 UNSIGNED-PAYLOAD
+     */
+    String authorization(String method, String rawPath, String rawQuery, SortedMap<String, String> headers,
+                         String payloadHash) {
+        String amzDate = headers.get("x-amz-date");
+        String date = amzDate.substring(0, 8);
+        String signedHeaders = String.join(";", headers.keySet());
+        String canonicalRequest = method + "\n"
+            + rawPath + "\n"
+            + canonicalQuery(rawQuery) + "\n"
+            + headers.entrySet().stream().map(e -> e.getKey() + ":" + e.getValue().trim() + "\n")
+                .collect(Collectors.joining()) + "\n"
+            + signedHeaders + "\n"
+            + payloadHash;
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n"
+            + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        key = hmac(key, region);
+        key = hmac(key, "s3");
+        key = hmac(key, "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(key, stringToSign));
+        return ALGORITHM + " Credential=" + accessKey + "/" + scope
+            + ",SignedHeaders=" + signedHeaders + ",Signature=" + signature;
+    }
+
+    static String amzDate(Instant instant) {
+        return AMZ_DATE.format(instant);
+    }
+
+    /**
+     * S3 要求的 URI 编码：仅保留 A-Z a-z 0-9 - _ . ~，encodeSlash 为 false 时保留 /
+     */
+    static String uriEncode(String value, boolean encodeSlash) {
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                    .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * 按参数名排序的查询串（参数名与值均已编码）
+     */
+    static String canonicalQuery(Map<String, String> params) {
+        return params.entrySet().stream()
+            .map(e -> uriEncode(e.getKey(), true) + "=" + uriEncode(e.getValue(), true))
+            .sorted()
+            .collect(Collectors.joining("&"));
+    }
+
+    static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        return Arrays.stream(rawQuery.split("&"))
+            .map(param -> param.contains("=") ? param : param + "=")
+            .sorted()
+            .collect(Collectors.joining("&"));
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
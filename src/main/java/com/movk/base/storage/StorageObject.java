@@ -0,0 +1,18 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.storage;
+
+import java.time.Instant;
+
+/**
+ * 存储对象元数据
+ *
+ * @param size         大小（字节）
+ * @param lastModified 最后修改时间
+ * @param etag         后端返回的 ETag，本地存储为 null
+ */
+public record StorageObject(long size, Instant lastModified, String etag) {
+}
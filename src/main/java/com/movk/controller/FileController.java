@@ -5,32 +5,39 @@
 
 package com.movk.controller;
 
+import com.movk.base.config.FileProperties;
+import com.movk.base.file.FileResponseWriter;
 import com.movk.base.result.R;
+import com.movk.dto.file.ChunkUploadInitReq;
+import com.movk.dto.file.ChunkUploadResp;
+import com.movk.dto.file.FileContent;
+import com.movk.dto.file.FileBatchUploadItem;
 import com.movk.dto.file.FileQueryReq;
 import com.movk.dto.file.FileResp;
 import com.movk.dto.file.FileUploadResp;
 import com.movk.security.annotation.Log;
 import com.movk.security.annotation.RequiresPermission;
+import com.movk.service.ChunkUploadService;
 import com.movk.service.FileService;
+import com.movk.service.ImageVariantService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -47,6 +54,9 @@ import static com.movk.common.enums.OperationType.*;
 public class FileController {
 
     private final FileService fileService;
+    private final FileProperties fileProperties;
+    private final ChunkUploadService chunkUploadService;
+    private final ImageVariantService imageVariantService;
 
     /**
      * 上传单个文件
@@ -76,38 +86,104 @@ public class FileController {
         return R.success(fileService.uploadBatch(files, category));
     }
 
+    /**
+     * 并发批量上传文件
+     */
+    @Operation(summary = "并发批量上传文件", description = "多个文件并发处理，逐个返回结果，单个文件失败不影响其他文件")
+    @PostMapping(value = "/upload/batch/parallel", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @RequiresPermission("system:file:create")
+    @Log(module = "文件管理", operation = CREATE)
+    public R<List<FileBatchUploadItem>> uploadBatchParallel(
+            @Parameter(description = "文件列表") @RequestParam("files") MultipartFile[] files,
+            @Parameter(description = "文件分类") @RequestParam(value = "category", required = false) String category
+    ) {
+        return R.success(fileService.uploadBatchParallel(files, category));
+    }
+
+    /**
+     * 初始化分片上传
+     */
+    @Operation(summary = "初始化分片上传", description = "创建上传会话，返回会话 ID、分片大小与分片数")
+    @PostMapping("/uploads")
+    @RequiresPermission("system:file:create")
+    public R<ChunkUploadResp> initChunkUpload(@Valid @RequestBody ChunkUploadInitReq req) {
+        return R.success(chunkUploadService.init(req));
+    }
+
+    /**
+     * 上传分片
+     */
+    @Operation(summary = "上传分片", description = "请求体为分片原始字节，分片可并发、乱序上传，已接收的分片重复上传时忽略")
+    @PutMapping("/uploads/{uploadId}/parts/{partNumber}")
+    @RequiresPermission("system:file:create")
+    public R<Void> uploadPart(@PathVariable UUID uploadId, @PathVariable int partNumber, HttpServletRequest request)
+            throws IOException {
+        chunkUploadService.putPart(uploadId, partNumber, request.getInputStream(), request.getContentLengthLong());
+        return R.ok();
+    }
+
+    /**
+     * 查询分片上传状态
+     */
+    @Operation(summary = "查询分片上传状态", description = "返回已接收的分片号，中断后据此续传缺失分片")
+    @GetMapping("/uploads/{uploadId}")
+    @RequiresPermission("system:file:create")
+    public R<ChunkUploadResp> getChunkUpload(@PathVariable UUID uploadId) {
+        return R.success(chunkUploadService.status(uploadId));
+    }
+
+    /**
+     * 完成分片上传
+     */
+    @Operation(summary = "完成分片上传", description = "校验分片齐全后合并为文件，返回文件信息")
+    @PostMapping("/uploads/{uploadId}/complete")
+    @RequiresPermission("system:file:create")
+    @Log(module = "文件管理", operation = CREATE)
+    public R<FileUploadResp> completeChunkUpload(@PathVariable UUID uploadId) {
+        return R.success(chunkUploadService.complete(uploadId));
+    }
+
+    /**
+     * 取消分片上传
+     */
+    @Operation(summary = "取消分片上传", description = "删除上传会话及已上传的分片")
+    @DeleteMapping("/uploads/{uploadId}")
+    @RequiresPermission("system:file:create")
+    public R<Void> abortChunkUpload(@PathVariable UUID uploadId) {
+        chunkUploadService.abort(uploadId);
+        return R.ok();
+    }
+
     /**
      * 下载文件
      */
-    @Operation(summary = "下载文件", description = "根据文件 ID 下载文件")
+    @Operation(summary = "下载文件", description = "根据文件 ID 下载文件，支持 Range 断点续传与 ETag / Last-Modified 条件请求")
     @GetMapping("/download/{id}")
-    public ResponseEntity<Resource> download(@PathVariable UUID id) {
-        Resource resource = fileService.download(id);
-        String originalName = fileService.getOriginalName(id);
-        String contentType = fileService.getContentType(id);
-
-        String encodedFilename = URLEncoder.encode(originalName, StandardCharsets.UTF_8)
-                .replace("+", "%20");
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + encodedFilename + "\"; filename*=UTF-8''" + encodedFilename)
-                .body(resource);
+    public void download(@PathVariable UUID id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        FileResponseWriter.write(request, response, fileService.getFileContent(id), true,
+                fileProperties.getCacheControl());
     }
 
     /**
      * 预览文件（在线查看，不触发下载）
      */
-    @Operation(summary = "预览文件", description = "在线预览文件，适用于图片、PDF 等")
+    @Operation(summary = "预览文件", description = "在线预览文件，适用于图片、PDF、视频等，支持 Range 拖动定位；"
+            + "图片可通过 w / h / fmt 获取缩放后的缩略图，宽高向上取整到配置的尺寸档位，缩略图生成一次后缓存")
     @GetMapping("/preview/{id}")
-    public ResponseEntity<Resource> preview(@PathVariable UUID id) {
-        Resource resource = fileService.download(id);
-        String contentType = fileService.getContentType(id);
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(resource);
+    public void preview(
+            @PathVariable UUID id,
+            @Parameter(description = "最大宽度") @RequestParam(value = "w", required = false) Integer width,
+            @Parameter(description = "最大高度") @RequestParam(value = "h", required = false) Integer height,
+            @Parameter(description = "输出格式：jpeg / png / auto") @RequestParam(value = "fmt", required = false) String format,
+            HttpServletRequest request, HttpServletResponse response
+    ) throws IOException {
+        FileContent content = width == null && height == null ? null
+                : imageVariantService.getVariant(id, width, height, format);
+        if (content == null) {
+            content = fileService.getFileContent(id);
+        }
+        FileResponseWriter.write(request, response, content, false, fileProperties.getCacheControl());
     }
 
     /**
@@ -5,17 +5,26 @@
 
 package com.movk.controller;
 
+import com.movk.base.export.ExportFormat;
+import com.movk.base.export.RowStreamWriter;
+import com.movk.base.result.CountMode;
+import com.movk.base.result.CursorPage;
 import com.movk.base.result.R;
 import com.movk.base.result.RCode;
 import com.movk.common.enums.BusinessStatus;
 import com.movk.dto.log.LoginLogQuery;
 import com.movk.dto.log.LoginLogResp;
+import com.movk.dto.log.LoginLogStatResp;
 import com.movk.entity.LoginLog;
+import com.movk.repository.LogExportRepository;
 import com.movk.security.annotation.RequiresPermission;
+import com.movk.service.LogStatService;
 import com.movk.service.LoginLogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
@@ -23,9 +32,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 /**
@@ -39,6 +52,7 @@ import java.util.List;
 public class LoginLogController {
 
     private final LoginLogService loginLogService;
+    private final LogStatService logStatService;
 
     @Operation(summary = "分页查询登录日志")
     @GetMapping
@@ -54,6 +68,39 @@ public class LoginLogController {
         return R.success(logPage.map(this::toResp));
     }
 
+    @Operation(summary = "游标分页查询登录日志", description = "按时间倒序，以上一页返回的 nextCursor 获取下一页；总数可不计算、估算或精确统计")
+    @GetMapping("/scroll")
+    @RequiresPermission("monitor:loginLog:list")
+    public R<CursorPage<LoginLogResp>> scroll(
+            LoginLogQuery query,
+            @Parameter(description = "分页游标，首页为空") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "20") @Min(1) @Max(500) int size,
+            @Parameter(description = "总数计算方式") @RequestParam(defaultValue = "NONE") CountMode count
+    ) {
+        BusinessStatus status = query.getStatus() != null ? BusinessStatus.fromCode(query.getStatus()) : null;
+        CursorPage<LoginLog> page = loginLogService.scrollLoginLogs(
+                query.getUsername(), query.getLoginIp(), status,
+                query.getStartTime(), query.getEndTime(), query.getKeyword(), cursor, size, count);
+        return R.success(page.map(this::toResp));
+    }
+
+    @Operation(summary = "登录统计（10 分钟）", description = "按 10 分钟、登录 IP 返回登录次数，默认只看失败；读取预聚合统计表")
+    @GetMapping("/stats")
+    @RequiresPermission("monitor:loginLog:list")
+    public R<List<LoginLogStatResp>> stats(
+            @Parameter(description = "开始时间，默认 1 小时前")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime startTime,
+            @Parameter(description = "结束时间，默认当前时间")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime endTime,
+            @Parameter(description = "登录 IP") @RequestParam(required = false) String loginIp,
+            @Parameter(description = "状态：1-成功 2-失败") @RequestParam(defaultValue = "2") Short status,
+            @Parameter(description = "单个时段最少次数") @RequestParam(defaultValue = "1") @Min(1) long minCount
+    ) {
+        OffsetDateTime end = endTime != null ? endTime : OffsetDateTime.now();
+        OffsetDateTime start = startTime != null ? startTime : end.minusHours(1);
+        return R.success(logStatService.loginStats(start, end, loginIp, BusinessStatus.fromCode(status), minCount));
+    }
+
     @Operation(summary = "查询登录日志详情")
     @GetMapping("/{id}")
     @RequiresPermission("monitor:loginLog:query")
@@ -65,7 +112,7 @@ public class LoginLogController {
         return R.success(toResp(log));
     }
 
-    @Operation(summary = "导出登录日志")
+    @Operation(summary = "导出登录日志", description = "结果超过列表导出上限时返回错误而不截断，大批量导出请使用流式导出")
     @GetMapping("/export")
     @RequiresPermission("monitor:loginLog:export")
     public R<List<LoginLogResp>> export(LoginLogQuery query) {
@@ -76,6 +123,35 @@ public class LoginLogController {
         return R.success(logs.stream().map(this::toResp).toList());
     }
 
+    @Operation(summary = "流式导出登录日志", description = "按时间倒序逐行写出 CSV 或 NDJSON，可选 gzip 压缩，行数受配置上限约束；"
+            + "结果被截断时响应头 X-Export-Truncated 为 true，导出中途失败时连接被中断")
+    @GetMapping("/export/stream")
+    @RequiresPermission("monitor:loginLog:export")
+    public void exportStream(
+            LoginLogQuery query,
+            @Parameter(description = "导出格式") @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @Parameter(description = "是否 gzip 压缩") @RequestParam(defaultValue = "false") boolean gzip,
+            @Parameter(description = "最大导出行数") @RequestParam(required = false) @Min(1) Integer limit,
+            HttpServletResponse response
+    ) throws IOException {
+        BusinessStatus status = query.getStatus() != null ? BusinessStatus.fromCode(query.getStatus()) : null;
+        boolean truncated = loginLogService.isExportTruncated(
+                query.getUsername(), query.getLoginIp(), status,
+                query.getStartTime(), query.getEndTime(), limit);
+        OutputStream out = RowStreamWriter.openDownload(response, "login-log", format, gzip, truncated);
+        RowStreamWriter writer = new RowStreamWriter(out, format, LogExportRepository.LOGIN_LOG_COLUMNS);
+        try {
+            loginLogService.streamExport(
+                    query.getUsername(), query.getLoginIp(), status,
+                    query.getStartTime(), query.getEndTime(), limit, writer);
+        } catch (IOException | RuntimeException e) {
+            // 失败时不 close()：已提交的响应由容器中断连接，不以完整文件结束
+            RowStreamWriter.abort(response, e);
+            throw e;
+        }
+        writer.close();
+    }
+
     @Operation(summary = "清理登录日志")
     @DeleteMapping
     @RequiresPermission("monitor:loginLog:delete")
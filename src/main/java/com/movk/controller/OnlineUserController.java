@@ -1,6 +1,11 @@
 package com.movk.controller;
 
+import com.movk.base.exception.BusinessException;
+import com.movk.base.result.CountMode;
+import com.movk.base.result.CursorPage;
 import com.movk.base.result.R;
+import com.movk.base.result.RCode;
+import com.movk.base.result.SeekCursor;
 import com.movk.dto.log.OnlineUserQuery;
 import com.movk.dto.log.OnlineUserResp;
 import com.movk.entity.RefreshToken;
@@ -8,8 +13,12 @@ import com.movk.repository.RefreshTokenRepository;
 import com.movk.security.annotation.RequiresPermission;
 import com.movk.security.service.TokenService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -46,6 +55,26 @@ public class OnlineUserController {
         return R.success(page.map(this::toResp));
     }
 
+    @Operation(summary = "游标分页查询在线用户", description = "按签发时间倒序，以上一页返回的 nextCursor 获取下一页")
+    @GetMapping("/scroll")
+    @RequiresPermission("monitor:online:list")
+    public R<CursorPage<OnlineUserResp>> scroll(
+            @Parameter(description = "分页游标，首页为空") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "20") @Min(1) @Max(500) int size,
+            @Parameter(description = "总数计算方式（有效会话数走 expires_at 索引，ESTIMATE 与 EXACT 相同）")
+            @RequestParam(defaultValue = "NONE") CountMode count
+    ) {
+        OffsetDateTime now = OffsetDateTime.now();
+        SeekCursor seek = SeekCursor.decode(cursor);
+        List<RefreshToken> rows = seek == null
+                ? refreshTokenRepository.findActiveFirst(now, Limit.of(size + 1))
+                : refreshTokenRepository.findActiveAfter(now, seek.time(), parseTokenId(seek), Limit.of(size + 1));
+        Long total = count == CountMode.NONE ? null : refreshTokenRepository.countAllActive(now);
+        CursorPage<RefreshToken> page = CursorPage.of(rows, size,
+                token -> new SeekCursor(token.getIssuedAt(), token.getId().toString()), total, false);
+        return R.success(page.map(this::toResp));
+    }
+
     @Operation(summary = "统计在线用户数")
     @GetMapping("/count")
     @RequiresPermission("monitor:online:list")
@@ -53,14 +82,11 @@ public class OnlineUserController {
         return R.success(refreshTokenRepository.countAllActive(OffsetDateTime.now()));
     }
 
-    @Operation(summary = "强制下线（通过 RefreshToken ID）")
+    @Operation(summary = "强制下线（通过 RefreshToken ID）", description = "撤销该会话，会话已签发的 AccessToken 立即失效")
     @DeleteMapping("/sessions/{tokenId}")
     @RequiresPermission("monitor:online:kick")
     public R<Void> forceLogoutBySession(@PathVariable UUID tokenId) {
-        refreshTokenRepository.findById(tokenId).ifPresent(token -> {
-            token.revoke("管理员强制下线");
-            refreshTokenRepository.save(token);
-        });
+        tokenService.revokeSession(tokenId, "管理员强制下线");
         return R.ok();
     }
 
@@ -72,16 +98,11 @@ public class OnlineUserController {
         return R.ok();
     }
 
-    @Operation(summary = "批量强制下线")
+    @Operation(summary = "批量强制下线", description = "撤销指定会话，会话已签发的 AccessToken 立即失效")
     @DeleteMapping("/sessions")
     @RequiresPermission("monitor:online:kick")
     public R<Void> batchForceLogout(@RequestBody List<UUID> tokenIds) {
-        tokenIds.forEach(tokenId ->
-            refreshTokenRepository.findById(tokenId).ifPresent(token -> {
-                token.revoke("管理员批量强制下线");
-                refreshTokenRepository.save(token);
-            })
-        );
+        tokenIds.forEach(tokenId -> tokenService.revokeSession(tokenId, "管理员批量强制下线"));
         return R.ok();
     }
 
@@ -93,6 +114,14 @@ public class OnlineUserController {
         return R.success(sessions.stream().map(this::toResp).toList());
     }
 
+    private static UUID parseTokenId(SeekCursor seek) {
+        try {
+            return UUID.fromString(seek.id());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(RCode.BAD_REQUEST, "无效的分页游标");
+        }
+    }
+
     private OnlineUserResp toResp(RefreshToken token) {
         return OnlineUserResp.builder()
                 .id(token.getId())
@@ -0,0 +1,42 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.dto.file;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * 分片上传初始化请求
+ */
+@Data
+@Schema(description = "分片上传初始化请求")
+public class ChunkUploadInitReq {
+
+    @NotBlank(message = "文件名不能为空")
+    @Size(max = 255, message = "文件名不能超过 255 个字符")
+    @Schema(description = "原始文件名")
+    private String fileName;
+
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于 0")
+    @Schema(description = "文件大小（字节）")
+    private Long size;
+
+    @Size(max = 100, message = "MIME 类型不能超过 100 个字符")
+    @Schema(description = "文件 MIME 类型")
+    private String contentType;
+
+    @Size(max = 50, message = "文件分类不能超过 50 个字符")
+    @Schema(description = "文件分类")
+    private String category;
+
+    @Schema(description = "分片大小（字节），为空时使用服务端默认值")
+    private Integer partSize;
+}
@@ -0,0 +1,44 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.dto.file;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 分片上传会话响应
+ */
+@Data
+@Builder
+@Schema(description = "分片上传会话响应")
+public class ChunkUploadResp {
+
+    @Schema(description = "上传会话 ID")
+    private UUID uploadId;
+
+    @Schema(description = "原始文件名")
+    private String fileName;
+
+    @Schema(description = "文件大小（字节）")
+    private Long size;
+
+    @Schema(description = "分片大小（字节），最后一个分片可小于该值")
+    private Integer partSize;
+
+    @Schema(description = "分片总数，分片号从 1 开始")
+    private Integer partCount;
+
+    @Schema(description = "已接收的分片号（升序），续传时只需上传缺失的分片")
+    private List<Integer> receivedParts;
+
+    @Schema(description = "会话过期时间")
+    private OffsetDateTime expiresAt;
+}
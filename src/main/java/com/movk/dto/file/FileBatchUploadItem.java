@@ -0,0 +1,31 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.dto.file;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 批量上传单个文件结果
+ */
+@Data
+@Builder
+@Schema(description = "批量上传单个文件结果")
+public class FileBatchUploadItem {
+
+    @Schema(description = "原始文件名")
+    private String originalName;
+
+    @Schema(description = "是否成功")
+    private Boolean success;
+
+    @Schema(description = "上传成功时的文件信息")
+    private FileUploadResp file;
+
+    @Schema(description = "失败原因")
+    private String error;
+}
@@ -0,0 +1,62 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.dto.file;
+
+import com.movk.base.storage.FileStorage;
+import lombok.Builder;
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+
+/**
+ * 文件内容描述（下载用）
+ * 一次查询得到输出响应所需的全部元数据，条件请求命中时无需访问磁盘
+ */
+@Data
+@Builder
+public class FileContent {
+
+    /**
+     * 本地文件绝对路径（可零拷贝输出）；远程存储为 null，从 storage 按 key 流式读取
+     */
+    private Path path;
+
+    /**
+     * 文件所在存储后端
+     */
+    private FileStorage storage;
+
+    /**
+     * 存储 key
+     */
+    private String key;
+
+    /**
+     * 原始文件名
+     */
+    private String originalName;
+
+    /**
+     * MIME 类型
+     */
+    private String contentType;
+
+    /**
+     * 文件大小（字节）
+     */
+    private long size;
+
+    /**
+     * 内容摘要（用作强 ETag）：原文件为 MD5，图片变体为由原文件 SHA-256 与变体参数组成的变体标识
+     */
+    private String md5;
+
+    /**
+     * 最后修改时间（文件内容写入后不变，取创建时间）
+     */
+    private OffsetDateTime lastModified;
+}
@@ -26,6 +26,11 @@ public class LoginLogQuery {
      */
     private String loginIp;
 
+    /**
+     * 关键字：用户名、登录 IP 任一包含（忽略大小写，至少 3 个字符，仅游标分页支持）
+     */
+    private String keyword;
+
     /**
      * 状态：1-成功 2-失败
      */
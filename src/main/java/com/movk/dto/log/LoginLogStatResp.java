@@ -0,0 +1,42 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.dto.log;
+
+import com.movk.common.enums.BusinessStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 登录日志 10 分钟统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginLogStatResp {
+
+    /**
+     * 统计时段起点（10 分钟对齐）
+     */
+    private OffsetDateTime bucket;
+
+    /**
+     * 登录 IP
+     */
+    private String loginIp;
+
+    /**
+     * 状态
+     */
+    private BusinessStatus status;
+
+    /**
+     * 登录次数
+     */
+    private long count;
+}
@@ -32,6 +32,11 @@ public class OperateLogQuery {
      */
     private String operation;
 
+    /**
+     * 关键字：模块、请求 URL、错误信息任一包含（忽略大小写，至少 3 个字符，仅游标分页支持）
+     */
+    private String keyword;
+
     /**
      * 状态：1-成功 2-失败
      */
@@ -0,0 +1,47 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.dto.log;
+
+import com.movk.common.enums.BusinessStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 操作日志小时统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperateLogStatResp {
+
+    /**
+     * 统计时段起点（整点，UTC 对齐）
+     */
+    private OffsetDateTime bucket;
+
+    /**
+     * 操作模块
+     */
+    private String module;
+
+    /**
+     * 状态
+     */
+    private BusinessStatus status;
+
+    /**
+     * 操作次数
+     */
+    private long count;
+
+    /**
+     * 平均执行时长（毫秒）
+     */
+    private long avgTime;
+}
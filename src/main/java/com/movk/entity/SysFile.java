@@ -69,6 +69,12 @@ public class SysFile extends BaseEntity {
     @Column(name = "md5", length = 32)
     private String md5;
 
+    /**
+     * 文件 SHA-256 哈希值（内容寻址 blob 键，历史文件为空）
+     */
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
     /**
      * 存储类型：local-本地存储，oss-对象存储
      */
@@ -0,0 +1,194 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.repository;
+
+import com.movk.entity.LoginLog;
+import com.movk.entity.OperateLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 日志批量写入 Repository
+ * 绕过 JPA 逐条 persist，每批使用一条多行 VALUES 的 INSERT 语句写入；
+ * 溢写回放时先按 (traceId, createdAt) 过滤已入库的记录，保证重放同一批不会重复写入
+ */
+@Repository
+@RequiredArgsConstructor
+public class LogBatchRepository {
+
+    /**
+     * PostgreSQL 单条语句最多 65535 个绑定参数
+     */
+    private static final int MAX_BIND_PARAMS = 65535;
+
+    private static final String OPERATE_LOG_INSERT = "INSERT INTO sys_operate_log (trace_id, user_id, username, module, "
+        + "operation, method, request_method, request_url, request_params, request_body, response_data, user_ip, "
+        + "user_agent, operation_time, status, error_msg, created_at) VALUES ";
+    private static final int OPERATE_LOG_COLUMNS = 17;
+
+    private static final String LOGIN_LOG_INSERT = "INSERT INTO sys_login_log (trace_id, user_id, username, login_type, "
+        + "login_ip, login_location, browser, os, user_agent, status, message, created_at) VALUES ";
+    private static final int LOGIN_LOG_COLUMNS = 12;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量写入操作日志
+     */
+    public void insertOperateLogs(List<OperateLog> logs) {
+        int maxRows = MAX_BIND_PARAMS / OPERATE_LOG_COLUMNS;
+        for (int from = 0; from < logs.size(); from += maxRows) {
+            List<OperateLog> chunk = logs.subList(from, Math.min(from + maxRows, logs.size()));
+            jdbcTemplate.update(multiRowSql(OPERATE_LOG_INSERT, OPERATE_LOG_COLUMNS, chunk.size()), ps -> {
+                int i = 1;
+                for (OperateLog log : chunk) {
+                    ps.setString(i++, log.getTraceId());
+                    ps.setObject(i++, log.getUserId());
+                    ps.setString(i++, log.getUsername());
+                    ps.setString(i++, log.getModule());
+                    ps.setString(i++, log.getOperation());
+                    ps.setString(i++, log.getMethod());
+                    ps.setString(i++, log.getRequestMethod());
+                    ps.setString(i++, log.getRequestUrl());
+                    ps.setString(i++, log.getRequestParams());
+                    ps.setString(i++, log.getRequestBody());
+                    ps.setString(i++, log.getResponseData());
+                    ps.setString(i++, log.getUserIp());
+                    ps.setString(i++, log.getUserAgent());
+                    setInteger(ps, i++, log.getOperationTime());
+                    ps.setShort(i++, log.getStatus().getCode());
+                    ps.setString(i++, log.getErrorMsg());
+                    ps.setObject(i++, createdAt(log.getCreatedAt()));
+                }
+            });
+        }
+    }
+
+    /**
+     * 批量写入登录日志
+     */
+    public void insertLoginLogs(List<LoginLog> logs) {
+        int maxRows = MAX_BIND_PARAMS / LOGIN_LOG_COLUMNS;
+        for (int from = 0; from < logs.size(); from += maxRows) {
+            List<LoginLog> chunk = logs.subList(from, Math.min(from + maxRows, logs.size()));
+            jdbcTemplate.update(multiRowSql(LOGIN_LOG_INSERT, LOGIN_LOG_COLUMNS, chunk.size()), ps -> {
+                int i = 1;
+                for (LoginLog log : chunk) {
+                    ps.setString(i++, log.getTraceId());
+                    ps.setObject(i++, log.getUserId());
+                    ps.setString(i++, log.getUsername());
+                    ps.setShort(i++, log.getLoginType().getCode());
+                    ps.setString(i++, log.getLoginIp());
+                    ps.setString(i++, log.getLoginLocation());
+                    ps.setString(i++, log.getBrowser());
+                    ps.setString(i++, log.getOs());
+                    ps.setString(i++, log.getUserAgent());
+                    ps.setShort(i++, log.getStatus().getCode());
+                    ps.setString(i++, log.getMessage());
+                    ps.setObject(i++, createdAt(log.getCreatedAt()));
+                }
+            });
+        }
+    }
+
+    /**
+     * 回放写入操作日志（跳过已入库的记录）
+     *
+     * @return 本次实际写入的记录
+     */
+    public List<OperateLog> replayOperateLogs(List<OperateLog> logs) {
+        List<OperateLog> pending = filterPersisted("sys_operate_log", logs, OperateLog::getTraceId, OperateLog::getCreatedAt);
+        if (!pending.isEmpty()) {
+            insertOperateLogs(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * 回放写入登录日志（跳过已入库的记录）
+     *
+     * @return 本次实际写入的记录
+     */
+    public List<LoginLog> replayLoginLogs(List<LoginLog> logs) {
+        List<LoginLog> pending = filterPersisted("sys_login_log", logs, LoginLog::getTraceId, LoginLog::getCreatedAt);
+        if (!pending.isEmpty()) {
+            insertLoginLogs(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * 过滤已入库的记录：同一请求可能产生多条日志，以 traceId + 发生时间作为去重键；无 traceId 的记录无法去重，直接写入
+     */
+    private <L> List<L> filterPersisted(String table, List<L> logs,
+                                        Function<L, String> traceId, Function<L, OffsetDateTime> createdAt) {
+        String[] traceIds = logs.stream().map(traceId).filter(Objects::nonNull).distinct().toArray(String[]::new);
+        if (traceIds.length == 0) {
+            return logs;
+        }
+
+        Set<String> persisted = new HashSet<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                "SELECT trace_id, created_at FROM " + table + " WHERE trace_id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("varchar", traceIds));
+            return ps;
+        }, (RowCallbackHandler) rs ->
+            persisted.add(dedupeKey(rs.getString(1), rs.getObject(2, OffsetDateTime.class))));
+
+        return logs.stream()
+            .filter(log -> traceId.apply(log) == null
+                || !persisted.contains(dedupeKey(traceId.apply(log), createdAt.apply(log))))
+            .toList();
+    }
+
+    private static String dedupeKey(String traceId, OffsetDateTime createdAt) {
+        // 写入前 createdAt 已截断到微秒，与 timestamptz 精度一致
+        return traceId + '|' + (createdAt != null ? createdAt.toInstant() : "");
+    }
+
+    private static String multiRowSql(String prefix, int columns, int rows) {
+        StringBuilder row = new StringBuilder(columns * 2 + 1).append('(');
+        for (int c = 0; c < columns; c++) {
+            row.append(c == 0 ? "?" : ",?");
+        }
+        row.append(')');
+
+        StringBuilder sql = new StringBuilder(prefix.length() + rows * (row.length() + 1)).append(prefix);
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sql.append(',');
+            }
+            sql.append(row);
+        }
+        return sql.toString();
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+
+    private static OffsetDateTime createdAt(OffsetDateTime value) {
+        return value != null ? value : OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
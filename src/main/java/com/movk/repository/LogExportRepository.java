@@ -0,0 +1,271 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.repository;
+
+import com.movk.common.enums.BusinessStatus;
+import com.movk.common.enums.LoginType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 日志导出 Repository
+ * 以只进游标（fetchSize）逐行读取，调用方须在只读事务内调用（PostgreSQL 仅在非自动提交模式下按批拉取）；
+ * 同时提供基于查询计划器统计信息的条数估算，供游标分页返回近似总数
+ */
+@Repository
+public class LogExportRepository {
+
+    /**
+     * 操作日志导出列
+     */
+    public static final String[] OPERATE_LOG_COLUMNS = {
+        "id", "traceId", "userId", "username", "module", "operation", "method", "requestMethod", "requestUrl",
+        "requestParams", "requestBody", "responseData", "userIp", "userAgent", "operationTime", "status",
+        "errorMsg", "createdAt"
+    };
+
+    /**
+     * 登录日志导出列
+     */
+    public static final String[] LOGIN_LOG_COLUMNS = {
+        "id", "traceId", "userId", "username", "loginType", "loginIp", "loginLocation", "browser", "os",
+        "userAgent", "status", "message", "createdAt"
+    };
+
+    /**
+     * 行处理回调
+     */
+    @FunctionalInterface
+    public interface RowSink {
+        void accept(Object[] row) throws Exception;
+    }
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private final JdbcTemplate cursorTemplate;
+    private final int maxRows;
+
+    public LogExportRepository(DataSource dataSource,
+                               @Value("${log.export.fetch-size:1000}") int fetchSize,
+                               @Value("${log.export.max-rows:1000000}") int maxRows) {
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * 按条件逐行读取操作日志（按时间倒序，至多 limit 行，limit 为空时取配置上限）
+     */
+    public void streamOperateLogs(UUID userId, String module, BusinessStatus status,
+                                  OffsetDateTime startTime, OffsetDateTime endTime, Integer limit, RowSink sink) {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT id, trace_id, user_id, username, module, operation, method, "
+            + "request_method, request_url, request_params, request_body, response_data, user_ip, user_agent, "
+            + "operation_time, status, error_msg, created_at FROM sys_operate_log"
+            + operateLogWhere(userId, module, null, status, startTime, endTime, args)
+            + " ORDER BY created_at DESC LIMIT ?";
+        args.add(clampLimit(limit));
+
+        stream(sql, args, rs -> new Object[]{
+            rs.getLong(1), rs.getString(2), rs.getObject(3), rs.getString(4), rs.getString(5), rs.getString(6),
+            rs.getString(7), rs.getString(8), rs.getString(9), rs.getString(10), rs.getString(11),
+            rs.getString(12), rs.getString(13), rs.getString(14), rs.getObject(15),
+            BusinessStatus.fromCode(rs.getShort(16)).name(), rs.getString(17),
+            rs.getObject(18, OffsetDateTime.class)
+        }, sink);
+    }
+
+    /**
+     * 按条件逐行读取登录日志（按时间倒序，至多 limit 行，limit 为空时取配置上限）
+     */
+    public void streamLoginLogs(String username, String loginIp, BusinessStatus status,
+                                OffsetDateTime startTime, OffsetDateTime endTime, Integer limit, RowSink sink) {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT id, trace_id, user_id, username, login_type, login_ip, "
+            + "login_location, browser, os, user_agent, status, message, created_at FROM sys_login_log"
+            + loginLogWhere(username, loginIp, status, startTime, endTime, args)
+            + " ORDER BY created_at DESC LIMIT ?";
+        args.add(clampLimit(limit));
+
+        stream(sql, args, rs -> new Object[]{
+            rs.getLong(1), rs.getString(2), rs.getObject(3), rs.getString(4),
+            LoginType.fromCode(rs.getShort(5)).name(), rs.getString(6), rs.getString(7), rs.getString(8),
+            rs.getString(9), rs.getString(10), BusinessStatus.fromCode(rs.getShort(11)).name(), rs.getString(12),
+            rs.getObject(13, OffsetDateTime.class)
+        }, sink);
+    }
+
+    /**
+     * 匹配的操作日志是否多于导出行数（跳过前 limit 行后探测一行，不传输数据），用于写出前决定截断标记
+     */
+    public boolean operateLogsExceed(UUID userId, String module, BusinessStatus status,
+                                     OffsetDateTime startTime, OffsetDateTime endTime, Integer limit) {
+        List<Object> args = new ArrayList<>();
+        String where = operateLogWhere(userId, module, null, status, startTime, endTime, args);
+        return exceeds("SELECT 1 FROM sys_operate_log" + where, args, limit);
+    }
+
+    /**
+     * 匹配的登录日志是否多于导出行数（跳过前 limit 行后探测一行，不传输数据），用于写出前决定截断标记
+     */
+    public boolean loginLogsExceed(String username, String loginIp, BusinessStatus status,
+                                   OffsetDateTime startTime, OffsetDateTime endTime, Integer limit) {
+        List<Object> args = new ArrayList<>();
+        String where = loginLogWhere(username, loginIp, status, startTime, endTime, args);
+        return exceeds("SELECT 1 FROM sys_login_log" + where, args, limit);
+    }
+
+    /**
+     * 按查询计划器统计信息估算操作日志条数（EXPLAIN，不扫描数据）
+     */
+    public long estimateOperateLogs(UUID userId, String module, String operation, BusinessStatus status,
+                                    OffsetDateTime startTime, OffsetDateTime endTime, String keyword) {
+        List<Object> args = new ArrayList<>();
+        String where = operateLogWhere(userId, module, operation, status, startTime, endTime, args)
+            + keywordWhere(keyword, args, "module", "request_url", "error_msg");
+        return estimate("SELECT 1 FROM sys_operate_log" + where, args);
+    }
+
+    /**
+     * 按查询计划器统计信息估算登录日志条数（EXPLAIN，不扫描数据）
+     */
+    public long estimateLoginLogs(String username, String loginIp, BusinessStatus status,
+                                  OffsetDateTime startTime, OffsetDateTime endTime, String keyword) {
+        List<Object> args = new ArrayList<>();
+        String where = loginLogWhere(username, loginIp, status, startTime, endTime, args)
+            + keywordWhere(keyword, args, "username", "login_ip");
+        return estimate("SELECT 1 FROM sys_login_log" + where, args);
+    }
+
+    private static String operateLogWhere(UUID userId, String module, String operation, BusinessStatus status,
+                                          OffsetDateTime startTime, OffsetDateTime endTime, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (userId != null) {
+            where.append(" AND user_id = ?");
+            args.add(userId);
+        }
+        if (StringUtils.hasText(module)) {
+            where.append(" AND module LIKE ?");
+            args.add("%" + module + "%");
+        }
+        if (StringUtils.hasText(operation)) {
+            where.append(" AND operation = ?");
+            args.add(operation);
+        }
+        appendCommon(where, args, status, startTime, endTime);
+        return where.toString();
+    }
+
+    private static String loginLogWhere(String username, String loginIp, BusinessStatus status,
+                                        OffsetDateTime startTime, OffsetDateTime endTime, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (StringUtils.hasText(username)) {
+            where.append(" AND username LIKE ?");
+            args.add("%" + username + "%");
+        }
+        if (StringUtils.hasText(loginIp)) {
+            where.append(" AND login_ip LIKE ?");
+            args.add("%" + loginIp + "%");
+        }
+        appendCommon(where, args, status, startTime, endTime);
+        return where.toString();
+    }
+
+    /**
+     * 关键字条件：任一列 ILIKE（与 LogSearchSpecs 一致）
+     */
+    private static String keywordWhere(String keyword, List<Object> args, String... columns) {
+        String pattern = LogSearchSpecs.containsPattern(keyword);
+        if (pattern == null) {
+            return "";
+        }
+        StringBuilder where = new StringBuilder(" AND (");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                where.append(" OR ");
+            }
+            where.append(columns[i]).append(" ILIKE ? ESCAPE '\\'");
+            args.add(pattern);
+        }
+        return where.append(')').toString();
+    }
+
+    private static void appendCommon(StringBuilder sql, List<Object> args, BusinessStatus status,
+                                     OffsetDateTime startTime, OffsetDateTime endTime) {
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.getCode());
+        }
+        if (startTime != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(startTime);
+        }
+        if (endTime != null) {
+            sql.append(" AND created_at <= ?");
+            args.add(endTime);
+        }
+    }
+
+    /**
+     * 取顶层计划节点的估算行数
+     */
+    private long estimate(String sql, List<Object> args) {
+        String plan = cursorTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, args.toArray());
+        Matcher matcher = PLAN_ROWS.matcher(plan == null ? "" : plan);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+
+    private boolean exceeds(String sql, List<Object> args, Integer limit) {
+        args.add(clampLimit(limit));
+        return !cursorTemplate.queryForList(sql + " OFFSET ? LIMIT 1", Integer.class, args.toArray()).isEmpty();
+    }
+
+    /**
+     * 导出行数上限：未指定或超过配置上限时取上限
+     */
+    private int clampLimit(Integer limit) {
+        return limit == null || limit <= 0 || limit > maxRows ? maxRows : limit;
+    }
+
+    private void stream(String sql, List<Object> args, RowReader reader, RowSink sink) {
+        cursorTemplate.query(sql, (RowCallbackHandler) rs -> {
+            try {
+                sink.accept(reader.read(rs));
+            } catch (SQLException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ExportAbortedException(e);
+            }
+        }, args.toArray());
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        Object[] read(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * 写出失败（如客户端断开）时中止读取
+     */
+    public static class ExportAbortedException extends RuntimeException {
+        public ExportAbortedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.repository;
+
+import com.movk.base.exception.BusinessException;
+import com.movk.base.result.RCode;
+import com.movk.base.result.SeekCursor;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+/**
+ * 日志查询条件
+ * 关键字搜索生成 ILIKE '%关键字%'（转义通配符），由 pg_trgm GIN 索引支撑，多列之间为 OR，走 BitmapOr 合并；
+ * 游标分页生成可走 (created_at DESC, id DESC) 索引范围扫描的定位条件
+ */
+public final class LogSearchSpecs {
+
+    /**
+     * 关键字最少字符数：少于 3 个字符时无法提取三元组，索引退化为全量扫描
+     */
+    public static final int MIN_KEYWORD_LENGTH = 3;
+
+    /**
+     * LIKE 转义字符
+     */
+    public static final char ESCAPE = '\\';
+
+    private LogSearchSpecs() {
+    }
+
+    /**
+     * 任一字段包含关键字（忽略大小写），关键字为空时不附加条件
+     *
+     * @throws BusinessException 关键字不足 3 个字符
+     */
+    public static <T> Specification<T> keyword(String keyword, String... fields) {
+        String pattern = containsPattern(keyword);
+        return (root, query, cb) -> {
+            if (pattern == null) {
+                return null;
+            }
+            HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+            Predicate[] predicates = new Predicate[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                predicates[i] = hcb.ilike(root.get(fields[i]), pattern, ESCAPE);
+            }
+            return cb.or(predicates);
+        };
+    }
+
+    /**
+     * 游标之后的下一页：(created_at, id) &lt; (游标时间, 游标 ID)，游标为空时不附加条件
+     * 展开为 created_at &lt;= t AND (created_at &lt; t OR id &lt; x)，前一项作为索引范围条件，
+     * 避免顶层 OR 使规划器无法用索引定位起点
+     */
+    public static <T> Specification<T> before(SeekCursor seek) {
+        return (root, query, cb) -> {
+            if (seek == null) {
+                return null;
+            }
+            return cb.and(
+                cb.lessThanOrEqualTo(root.get("createdAt"), seek.time()),
+                cb.or(cb.lessThan(root.get("createdAt"), seek.time()), cb.lessThan(root.get("id"), seek.longId())));
+        };
+    }
+
+    /**
+     * 生成包含匹配模式：转义 % _ \ 后两端加 %，关键字为空时返回 null
+     *
+     * @throws BusinessException 关键字不足 3 个字符
+     */
+    public static String containsPattern(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return null;
+        }
+        String trimmed = keyword.trim();
+        if (trimmed.length() < MIN_KEYWORD_LENGTH) {
+            throw new BusinessException(RCode.BAD_REQUEST, "搜索关键字至少 " + MIN_KEYWORD_LENGTH + " 个字符");
+        }
+        StringBuilder pattern = new StringBuilder(trimmed.length() + 4).append('%');
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                pattern.append(ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
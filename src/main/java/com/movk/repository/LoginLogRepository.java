@@ -10,7 +10,6 @@ import com.movk.common.enums.LoginType;
 import com.movk.entity.LoginLog;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -56,13 +55,6 @@ public interface LoginLogRepository extends JpaRepository<LoginLog, Long>, JpaSp
         @Param("endTime") OffsetDateTime endTime
     );
 
-    /**
-     * 清空登录日志（保留最近N天）
-     */
-    @Modifying
-    @Query("DELETE FROM LoginLog ll WHERE ll.createdAt < :beforeDate")
-    void deleteByCreatedAtBefore(@Param("beforeDate") OffsetDateTime beforeDate);
-
     /**
      * 查询用户最近的登录记录
      */
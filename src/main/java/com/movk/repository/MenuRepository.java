@@ -86,4 +86,12 @@ public interface MenuRepository extends JpaRepository<Menu, UUID> {
         @Param("roleCodes") List<String> roleCodes,
         @Param("status") EnableStatus status
     );
+
+    /**
+     * 查询所有未删除菜单的权限码
+     */
+    @Query("SELECT DISTINCT m.permissionCode FROM Menu m " +
+           "WHERE m.permissionCode IS NOT NULL " +
+           "AND m.deleted = false")
+    List<String> findAllPermissionCodes();
 }
@@ -9,7 +9,6 @@ import com.movk.common.enums.BusinessStatus;
 import com.movk.entity.OperateLog;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -49,11 +48,4 @@ public interface OperateLogRepository extends JpaRepository<OperateLog, Long>, J
         @Param("startTime") OffsetDateTime startTime,
         @Param("endTime") OffsetDateTime endTime
     );
-
-    /**
-     * 清空操作日志（保留最近N天）
-     */
-    @Modifying
-    @Query("DELETE FROM OperateLog ol WHERE ol.createdAt < :beforeDate")
-    void deleteByCreatedAtBefore(@Param("beforeDate") OffsetDateTime beforeDate);
 }
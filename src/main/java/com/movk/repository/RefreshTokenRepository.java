@@ -1,6 +1,7 @@
 package com.movk.repository;
 
 import com.movk.entity.RefreshToken;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -99,6 +100,30 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
            "ORDER BY rt.issuedAt DESC")
     Page<RefreshToken> findAllActive(@Param("now") OffsetDateTime now, Pageable pageable);
 
+    /**
+     * 游标分页查询有效会话：首页（按 issuedAt, id 倒序）
+     */
+    @Query("SELECT rt FROM RefreshToken rt " +
+           "WHERE rt.revoked = false " +
+           "AND rt.expiresAt > :now " +
+           "ORDER BY rt.issuedAt DESC, rt.id DESC")
+    List<RefreshToken> findActiveFirst(@Param("now") OffsetDateTime now, Limit limit);
+
+    /**
+     * 游标分页查询有效会话：(issuedAt, id) 小于游标的下一页
+     * issuedAt &lt;= 游标时间 作为索引范围条件，(issuedAt &lt; t OR id &lt; x) 只在范围内过滤
+     */
+    @Query("SELECT rt FROM RefreshToken rt " +
+           "WHERE rt.revoked = false " +
+           "AND rt.expiresAt > :now " +
+           "AND rt.issuedAt <= :issuedAt " +
+           "AND (rt.issuedAt < :issuedAt OR rt.id < :id) " +
+           "ORDER BY rt.issuedAt DESC, rt.id DESC")
+    List<RefreshToken> findActiveAfter(@Param("now") OffsetDateTime now,
+                                       @Param("issuedAt") OffsetDateTime issuedAt,
+                                       @Param("id") UUID id,
+                                       Limit limit);
+
     /**
      * 统计所有有效会话数
      */
@@ -9,10 +9,12 @@ import com.movk.entity.SysFile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -64,4 +66,13 @@ public interface SysFileRepository extends JpaRepository<SysFile, UUID> {
      * 根据分类查询文件列表
      */
     List<SysFile> findByCategoryAndDeletedFalse(String category);
+
+    /**
+     * 条件逻辑删除：仅当文件尚未删除时更新，并发删除同一文件只有一方返回 1
+     *
+     * @return 更新的行数
+     */
+    @Modifying
+    @Query("UPDATE SysFile f SET f.deleted = true, f.deletedAt = :now WHERE f.id = :id AND f.deleted = false")
+    int markDeleted(@Param("id") UUID id, @Param("now") OffsetDateTime now);
 }
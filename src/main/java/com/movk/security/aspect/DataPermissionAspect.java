@@ -14,12 +14,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Method;
-
 /**
  * 数据权限切面
  * 拦截标注了 @DataPermission 注解的方法，设置数据权限上下文
@@ -32,12 +29,15 @@ import java.lang.reflect.Method;
 public class DataPermissionAspect {
 
     private final DataPermissionService dataPermissionService;
+    private final MethodMetadataCache methodMetadataCache;
 
     /**
      * 环绕通知：数据权限处理
      */
-    @Around("@annotation(dataPermission)")
-    public Object handleDataPermission(ProceedingJoinPoint joinPoint, DataPermission dataPermission) throws Throwable {
+    @Around("@annotation(com.movk.security.annotation.DataPermission)")
+    public Object handleDataPermission(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodMetadata metadata = methodMetadataCache.get(joinPoint);
+        DataPermission dataPermission = metadata.dataPermission();
         try {
             // 构建数据权限上下文
             DataPermissionContext context = dataPermissionService.buildContext(
@@ -51,10 +51,8 @@ public class DataPermissionAspect {
             DataPermissionContextHolder.setContext(context);
 
             if (log.isDebugEnabled()) {
-                Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
-                log.debug("数据权限上下文设置 - 方法: {}.{}, 数据范围: {}, 部门IDs: {}",
-                    method.getDeclaringClass().getSimpleName(),
-                    method.getName(),
+                log.debug("数据权限上下文设置 - 方法: {}, 数据范围: {}, 部门IDs: {}",
+                    metadata.displayName(),
                     context.getDataScope(),
                     context.getDataScopeDeptIds());
             }
@@ -5,8 +5,8 @@
 
 package com.movk.security.aspect;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.movk.base.filter.TraceIdFilter;
+import com.movk.base.log.JsonCapture;
 import com.movk.common.enums.BusinessStatus;
 import com.movk.entity.OperateLog;
 import com.movk.security.annotation.Log;
@@ -22,7 +22,6 @@ import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.MDC;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.core.Authentication;
@@ -33,12 +32,7 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * 操作日志切面
@@ -52,7 +46,8 @@ import java.util.stream.Collectors;
 public class LogAspect {
 
     private final OperateLogService operateLogService;
-    private final ObjectMapper objectMapper;
+    private final JsonCapture jsonCapture;
+    private final MethodMetadataCache methodMetadataCache;
 
     /**
      * 请求开始时间（线程本地变量）
@@ -105,20 +100,19 @@ public class LogAspect {
      */
     private void handleLog(JoinPoint joinPoint, Exception ex, Object result) {
         try {
-            // 获取 @Log 注解
-            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-            Method method = signature.getMethod();
-            Log logAnnotation = method.getAnnotation(Log.class);
+            // 获取 @Log 注解（按方法缓存）
+            MethodMetadata metadata = methodMetadataCache.get(joinPoint);
+            Log logAnnotation = metadata.log();
 
             if (logAnnotation == null) {
                 return;
             }
 
             log.debug("捕获操作日志 - module: {}, operation: {}, method: {}",
-                logAnnotation.module(), logAnnotation.operation(), method.getName());
+                logAnnotation.module(), logAnnotation.operation(), metadata.displayName());
 
             // 构建日志实体
-            OperateLog operateLog = buildOperateLog(joinPoint, logAnnotation, ex, result);
+            OperateLog operateLog = buildOperateLog(joinPoint, metadata, ex, result);
 
             // 异步保存日志
             operateLogService.saveLogAsync(operateLog);
@@ -133,9 +127,8 @@ public class LogAspect {
     /**
      * 构建操作日志实体
      */
-    private OperateLog buildOperateLog(JoinPoint joinPoint, Log logAnnotation, Exception ex, Object result) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
+    private OperateLog buildOperateLog(JoinPoint joinPoint, MethodMetadata metadata, Exception ex, Object result) {
+        Log logAnnotation = metadata.log();
 
         OperateLog operateLog = new OperateLog();
 
@@ -143,13 +136,13 @@ public class LogAspect {
         operateLog.setTraceId(MDC.get(TraceIdFilter.TRACE_ID_MDC_KEY));
         operateLog.setModule(logAnnotation.module());
         operateLog.setOperation(logAnnotation.operation().name());
-        operateLog.setMethod(method.getDeclaringClass().getName() + "." + method.getName());
+        operateLog.setMethod(metadata.qualifiedName());
 
         // 用户信息
         setUserInfo(operateLog);
 
         // 请求信息
-        setRequestInfo(operateLog, joinPoint, logAnnotation);
+        setRequestInfo(operateLog, joinPoint, metadata);
 
         // 响应信息
         if (logAnnotation.isSaveResponseData() && result != null) {
@@ -190,7 +183,7 @@ public class LogAspect {
     /**
      * 设置请求信息
      */
-    private void setRequestInfo(OperateLog operateLog, JoinPoint joinPoint, Log logAnnotation) {
+    private void setRequestInfo(OperateLog operateLog, JoinPoint joinPoint, MethodMetadata metadata) {
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         if (attributes == null) {
             return;
@@ -204,15 +197,15 @@ public class LogAspect {
         operateLog.setUserAgent(request.getHeader("User-Agent"));
 
         // 请求参数
-        if (logAnnotation.isSaveRequestData()) {
-            setRequestParams(operateLog, joinPoint, logAnnotation, request);
+        if (metadata.log().isSaveRequestData()) {
+            setRequestParams(operateLog, joinPoint, metadata, request);
         }
     }
 
     /**
      * 设置请求参数
      */
-    private void setRequestParams(OperateLog operateLog, JoinPoint joinPoint, Log logAnnotation, HttpServletRequest request) {
+    private void setRequestParams(OperateLog operateLog, JoinPoint joinPoint, MethodMetadata metadata, HttpServletRequest request) {
         try {
             // URL 参数
             String queryString = request.getQueryString();
@@ -220,37 +213,24 @@ public class LogAspect {
                 operateLog.setRequestParams(truncate(queryString, MAX_REQUEST_LENGTH));
             }
 
-            // 方法参数（作为 requestBody）
+            // 方法参数（作为 requestBody），流式写出，超出长度即停止
             Object[] args = joinPoint.getArgs();
             if (args != null && args.length > 0) {
-                Set<String> excludeNames = Arrays.stream(logAnnotation.excludeParamNames())
-                    .collect(Collectors.toSet());
-
-                String[] parameterNames = ((MethodSignature) joinPoint.getSignature()).getParameterNames();
-                Map<String, Object> paramMap = new HashMap<>();
+                Set<String> excludeNames = metadata.logExcludeNames();
+                String[] names = new String[args.length];
 
                 for (int i = 0; i < args.length; i++) {
-                    Object arg = args[i];
-                    String paramName = parameterNames != null && i < parameterNames.length ? parameterNames[i] : "arg" + i;
-
-                    // 跳过敏感参数
-                    if (excludeNames.contains(paramName)) {
-                        paramMap.put(paramName, "[FILTERED]");
-                        continue;
-                    }
-
-                    // 跳过无法序列化的类型
-                    if (isIgnoredType(arg)) {
-                        continue;
+                    String paramName = metadata.parameterName(i);
+                    // 敏感参数写为 [FILTERED]，无法序列化的类型跳过
+                    if (excludeNames.contains(paramName)
+                        || !(metadata.isIgnoredArg(i) || isIgnoredType(args[i]))) {
+                        names[i] = paramName;
                     }
-
-                    // 过滤对象中的敏感字段
-                    paramMap.put(paramName, filterSensitiveFields(arg, excludeNames));
                 }
 
-                if (!paramMap.isEmpty()) {
-                    String requestBody = objectMapper.writeValueAsString(paramMap);
-                    operateLog.setRequestBody(truncate(requestBody, MAX_REQUEST_LENGTH));
+                String requestBody = jsonCapture.captureArgs(names, args, excludeNames, MAX_REQUEST_LENGTH);
+                if (requestBody != null) {
+                    operateLog.setRequestBody(requestBody);
                 }
             }
         } catch (Exception e) {
@@ -264,45 +244,13 @@ public class LogAspect {
      */
     private void setResponseData(OperateLog operateLog, Object result) {
         try {
-            String responseJson = objectMapper.writeValueAsString(result);
-            operateLog.setResponseData(truncate(responseJson, MAX_RESPONSE_LENGTH));
+            operateLog.setResponseData(jsonCapture.capture(result, MAX_RESPONSE_LENGTH));
         } catch (Exception e) {
             log.debug("序列化响应数据失败: {}", e.getMessage());
             operateLog.setResponseData("[SERIALIZE_ERROR]");
         }
     }
 
-    /**
-     * 过滤敏感字段
-     */
-    private Object filterSensitiveFields(Object obj, Set<String> excludeNames) {
-        if (obj == null) {
-            return null;
-        }
-
-        // 对于基本类型和字符串，直接返回
-        if (obj instanceof String || obj.getClass().isPrimitive() || obj instanceof Number || obj instanceof Boolean) {
-            return obj;
-        }
-
-        try {
-            // 转换为 Map 后过滤
-            String json = objectMapper.writeValueAsString(obj);
-            @SuppressWarnings("unchecked")
-            Map<String, Object> map = objectMapper.readValue(json, Map.class);
-
-            for (String excludeName : excludeNames) {
-                if (map.containsKey(excludeName)) {
-                    map.put(excludeName, "[FILTERED]");
-                }
-            }
-
-            return map;
-        } catch (Exception e) {
-            return obj;
-        }
-    }
-
     /**
      * 判断是否为忽略类型（无法/无需序列化的类型）
      */
@@ -0,0 +1,54 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security.aspect;
+
+import com.movk.security.annotation.DataPermission;
+import com.movk.security.annotation.Log;
+import com.movk.security.annotation.RequiresPermission;
+import com.movk.security.model.PermissionBits;
+
+import java.util.Set;
+
+/**
+ * 切面方法元数据
+ * 由 MethodMetadataCache 针对每个方法解析一次，供权限、数据权限、操作日志切面共享
+ *
+ * @param qualifiedName       全限定方法名（类全名.方法名），用于操作日志
+ * @param displayName         简短方法名（类简名.方法名），用于调试日志
+ * @param requiresPermission  方法或类上的权限注解
+ * @param requiredPermissions 已编译的所需权限位图
+ * @param dataPermission      数据权限注解
+ * @param log                 操作日志注解
+ * @param logExcludeNames     操作日志脱敏字段
+ * @param parameterNames      参数名
+ * @param ignoredArgMask      按声明类型无需记录的参数下标位掩码（请求、响应、上传文件）
+ */
+public record MethodMetadata(
+    String qualifiedName,
+    String displayName,
+    RequiresPermission requiresPermission,
+    PermissionBits requiredPermissions,
+    DataPermission dataPermission,
+    Log log,
+    Set<String> logExcludeNames,
+    String[] parameterNames,
+    long ignoredArgMask
+) {
+
+    /**
+     * 获取参数名，无法解析时返回 argN
+     */
+    public String parameterName(int index) {
+        return parameterNames != null && index < parameterNames.length ? parameterNames[index] : "arg" + index;
+    }
+
+    /**
+     * 参数是否按声明类型忽略
+     */
+    public boolean isIgnoredArg(int index) {
+        return index < 64 && (ignoredArgMask & (1L << index)) != 0;
+    }
+}
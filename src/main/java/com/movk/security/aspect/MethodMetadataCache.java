@@ -0,0 +1,106 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security.aspect;
+
+import com.movk.security.annotation.DataPermission;
+import com.movk.security.annotation.Log;
+import com.movk.security.annotation.RequiresPermission;
+import com.movk.security.model.PermissionBits;
+import com.movk.security.service.PermissionRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 切面方法元数据缓存
+ * 注解、参数名、脱敏字段集合、忽略参数掩码等按方法解析一次后复用，避免每次调用重复反射与分配。
+ * 连接点给出的方法可能是接口方法（JDK 代理）或桥接方法（泛型实现），解析前先映射到目标类上最具体的实现方法，
+ * 因此缓存以 方法 + 目标类 为键：同一接口方法的不同实现各自解析
+ */
+@Component
+@RequiredArgsConstructor
+public class MethodMetadataCache {
+
+    private final PermissionRegistry permissionRegistry;
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<MethodClassKey, MethodMetadata> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 获取连接点对应方法的元数据
+     */
+    public MethodMetadata get(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object target = joinPoint.getTarget();
+        Class<?> targetClass = target != null ? AopProxyUtils.ultimateTargetClass(target) : method.getDeclaringClass();
+        MethodClassKey key = new MethodClassKey(method, targetClass);
+        MethodMetadata metadata = cache.get(key);
+        return metadata != null ? metadata : cache.computeIfAbsent(key, k -> build(method, targetClass));
+    }
+
+    private MethodMetadata build(Method invoked, Class<?> targetClass) {
+        // 接口方法 → 目标类实现方法，桥接方法 → 被桥接的实际方法
+        Method method = AopUtils.getMostSpecificMethod(invoked, targetClass);
+        Class<?> declaringClass = method.getDeclaringClass();
+
+        RequiresPermission requiresPermission = AnnotatedElementUtils.findMergedAnnotation(method, RequiresPermission.class);
+        if (requiresPermission == null) {
+            requiresPermission = AnnotatedElementUtils.findMergedAnnotation(targetClass, RequiresPermission.class);
+        }
+        PermissionBits requiredPermissions = requiresPermission != null
+            ? permissionRegistry.compile(requiresPermission.value())
+            : PermissionBits.EMPTY;
+
+        Log log = method.getAnnotation(Log.class);
+        Set<String> logExcludeNames = log != null ? Set.of(dedupe(log.excludeParamNames())) : Set.of();
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        long ignoredArgMask = 0L;
+        for (int i = 0; i < parameterTypes.length && i < 64; i++) {
+            if (isIgnoredType(parameterTypes[i])) {
+                ignoredArgMask |= 1L << i;
+            }
+        }
+
+        return new MethodMetadata(
+            declaringClass.getName() + "." + method.getName(),
+            declaringClass.getSimpleName() + "." + method.getName(),
+            requiresPermission,
+            requiredPermissions,
+            method.getAnnotation(DataPermission.class),
+            log,
+            logExcludeNames,
+            parameterNameDiscoverer.getParameterNames(method),
+            ignoredArgMask
+        );
+    }
+
+    private static boolean isIgnoredType(Class<?> type) {
+        return ServletRequest.class.isAssignableFrom(type)
+            || ServletResponse.class.isAssignableFrom(type)
+            || MultipartFile.class.isAssignableFrom(type)
+            || MultipartFile[].class.isAssignableFrom(type);
+    }
+
+    private static String[] dedupe(String[] names) {
+        return Arrays.stream(names).distinct().toArray(String[]::new);
+    }
+}
@@ -10,17 +10,15 @@ import com.movk.base.result.RCode;
 import com.movk.security.annotation.RequiresPermission;
 import com.movk.security.model.LoginUser;
 import com.movk.security.service.CurrentUserService;
-import com.movk.security.service.PermissionService;
+import com.movk.security.service.PermissionRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
 
@@ -36,7 +34,8 @@ import java.util.List;
 public class PermissionAspect {
 
     private final CurrentUserService currentUserService;
-    private final PermissionService permissionService;
+    private final PermissionRegistry permissionRegistry;
+    private final MethodMetadataCache methodMetadataCache;
 
     /**
      * 超级管理员角色编码
@@ -46,8 +45,8 @@ public class PermissionAspect {
     /**
      * 环绕通知：权限校验
      */
-    @Around("@annotation(requiresPermission)")
-    public Object checkPermission(ProceedingJoinPoint joinPoint, RequiresPermission requiresPermission) throws Throwable {
+    @Around("@annotation(com.movk.security.annotation.RequiresPermission)")
+    public Object checkPermission(ProceedingJoinPoint joinPoint) throws Throwable {
         // 获取当前登录用户
         LoginUser loginUser = currentUserService.getCurrentUser();
         List<String> userRoles = loginUser.getRoles();
@@ -57,27 +56,26 @@ public class PermissionAspect {
             return joinPoint.proceed();
         }
 
-        // 获取所需权限
-        String[] permissions = requiresPermission.value();
+        // 获取所需权限（注解解析与位图编译按方法缓存）
+        MethodMetadata metadata = methodMetadataCache.get(joinPoint);
+        RequiresPermission requiresPermission = metadata.requiresPermission();
         RequiresPermission.Logical logical = requiresPermission.logical();
 
         // 校验权限
-        boolean hasPermission = checkPermissions(userRoles, permissions, logical);
+        boolean hasPermission = permissionRegistry.check(userRoles, metadata.requiredPermissions(), logical);
 
         if (!hasPermission) {
             log.warn("权限校验失败 - 用户: {}, 需要权限: {}, 逻辑: {}",
-                loginUser.getUsername(), Arrays.toString(permissions), logical);
+                loginUser.getUsername(), Arrays.toString(requiresPermission.value()), logical);
             throw new BusinessException(RCode.FORBIDDEN, "没有操作权限，请联系管理员");
         }
 
         // 记录权限校验日志
         if (log.isDebugEnabled()) {
-            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
-            log.debug("权限校验通过 - 用户: {}, 方法: {}.{}, 权限: {}",
+            log.debug("权限校验通过 - 用户: {}, 方法: {}, 权限: {}",
                 loginUser.getUsername(),
-                method.getDeclaringClass().getSimpleName(),
-                method.getName(),
-                Arrays.toString(permissions));
+                metadata.displayName(),
+                Arrays.toString(requiresPermission.value()));
         }
 
         return joinPoint.proceed();
@@ -86,9 +84,9 @@ public class PermissionAspect {
     /**
      * 类级别权限校验（方法未标注注解时，检查类上的注解）
      */
-    @Around("@within(requiresPermission) && !@annotation(com.movk.security.annotation.RequiresPermission)")
-    public Object checkClassPermission(ProceedingJoinPoint joinPoint, RequiresPermission requiresPermission) throws Throwable {
-        return checkPermission(joinPoint, requiresPermission);
+    @Around("@within(com.movk.security.annotation.RequiresPermission) && !@annotation(com.movk.security.annotation.RequiresPermission)")
+    public Object checkClassPermission(ProceedingJoinPoint joinPoint) throws Throwable {
+        return checkPermission(joinPoint);
     }
 
     /**
@@ -97,29 +95,4 @@ public class PermissionAspect {
     private boolean isSuperAdmin(List<String> roles) {
         return roles != null && roles.contains(SUPER_ADMIN_ROLE);
     }
-
-    /**
-     * 校验用户是否拥有指定权限
-     *
-     * @param userRoles   用户角色列表
-     * @param permissions 所需权限列表
-     * @param logical     逻辑关系
-     * @return 是否有权限
-     */
-    private boolean checkPermissions(List<String> userRoles, String[] permissions, RequiresPermission.Logical logical) {
-        if (permissions == null || permissions.length == 0) {
-            return true;
-        }
-
-        // 获取用户所有权限
-        List<String> userPermissions = permissionService.getPermissionsByRoles(userRoles);
-
-        if (logical == RequiresPermission.Logical.AND) {
-            // AND 逻辑：必须拥有所有权限
-            return Arrays.stream(permissions).allMatch(userPermissions::contains);
-        } else {
-            // OR 逻辑：拥有任意一个权限即可
-            return Arrays.stream(permissions).anyMatch(userPermissions::contains);
-        }
-    }
 }
@@ -7,14 +7,19 @@ package com.movk.security.filter;
 
 import com.movk.base.config.JwtHeaderProperties;
 import com.movk.security.model.LoginUser;
+import com.movk.security.model.VerifiedClaims;
 import com.movk.security.service.JwtService;
+import com.movk.security.service.LoginUserCache;
 import com.movk.security.service.LoginUserDetailsService;
+import com.movk.security.service.TokenDenyList;
+import com.movk.security.service.VerifiedTokenCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -23,21 +28,39 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final LoginUserDetailsService userDetailsService;
+    private final LoginUserCache loginUserCache;
+    private final TokenDenyList tokenDenyList;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final JwtHeaderProperties jwtHeaderProperties;
 
+    /**
+     * 是否信任 Token 声明直接构建 LoginUser（不访问数据库）
+     * 开启后用户状态、角色变更需等 AccessToken 过期或通过强制下线（拒绝列表）生效。
+     * 拒绝列表在两种模式下都会检查：按用户或按会话强制下线后，对应的 AccessToken 立即失效
+     */
+    private final boolean claimsTrusted;
+
     public JwtAuthenticationFilter(JwtService jwtService, 
                                    LoginUserDetailsService userDetailsService,
-                                   JwtHeaderProperties jwtHeaderProperties) {
+                                   LoginUserCache loginUserCache,
+                                   TokenDenyList tokenDenyList,
+                                   VerifiedTokenCache verifiedTokenCache,
+                                   JwtHeaderProperties jwtHeaderProperties,
+                                   @Value("${security.auth.claims-trusted:false}") boolean claimsTrusted) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.loginUserCache = loginUserCache;
+        this.tokenDenyList = tokenDenyList;
+        this.verifiedTokenCache = verifiedTokenCache;
         this.jwtHeaderProperties = jwtHeaderProperties;
+        this.claimsTrusted = claimsTrusted;
     }
 
     @Override
@@ -48,14 +71,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String token = extractTokenFromRequest(request);
 
-            if (StringUtils.hasText(token) && jwtService.validateToken(token)) {
-                String username = jwtService.getUsernameFromToken(token);
-                List<String> roles = jwtService.getRolesFromToken(token);
-
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    if (userDetailsService.isUserValid(username)) {
-                        LoginUser loginUser = userDetailsService.buildLoginUser(username, roles);
+            VerifiedClaims claims = StringUtils.hasText(token) ? verifiedTokenCache.get(token, jwtService::verify) : null;
 
+            if (claims != null) {
+                if (claims.username() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    LoginUser loginUser = resolveLoginUser(claims);
+                    if (loginUser != null) {
                         UsernamePasswordAuthenticationToken authentication =
                                 new UsernamePasswordAuthenticationToken(
                                         loginUser,
@@ -76,6 +97,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 解析登录用户
+     * 已被强制下线的 Token 直接拒绝；声明信任模式下直接由 Token 构建，否则优先命中本地缓存，未命中时查询数据库并回填
+     */
+    private LoginUser resolveLoginUser(VerifiedClaims claims) {
+        UUID userId = claims.userId();
+        long tokenVersion = claims.issuedAt();
+
+        if (tokenDenyList.isRevoked(userId, claims.sessionId(), tokenVersion)) {
+            return null;
+        }
+
+        if (claimsTrusted) {
+            LoginUser claimsUser = claims.toLoginUser();
+            if (claimsUser != null) {
+                return claimsUser;
+            }
+        }
+
+        LoginUser loginUser = loginUserCache.get(userId, tokenVersion);
+        if (loginUser != null) {
+            return loginUser;
+        }
+
+        loginUser = userDetailsService.loadActiveLoginUser(claims.username(), claims.roles());
+        if (loginUser != null) {
+            loginUserCache.put(userId, tokenVersion, loginUser);
+        }
+        return loginUser;
+    }
+
     private String extractTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader(jwtHeaderProperties.getName());
 
@@ -0,0 +1,116 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security.model;
+
+import java.util.Arrays;
+
+/**
+ * 权限位图
+ * 以 PermissionRegistry 分配的稠密整数ID为位下标，不可变
+ */
+public final class PermissionBits {
+
+    public static final PermissionBits EMPTY = new PermissionBits(new long[0]);
+
+    private final long[] words;
+
+    private PermissionBits(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * 由权限ID构建位图
+     */
+    public static PermissionBits of(int[] ids) {
+        int max = -1;
+        for (int id : ids) {
+            max = Math.max(max, id);
+        }
+        if (max < 0) {
+            return EMPTY;
+        }
+        long[] words = new long[(max >>> 6) + 1];
+        for (int id : ids) {
+            words[id >>> 6] |= 1L << id;
+        }
+        return new PermissionBits(words);
+    }
+
+    /**
+     * 字数（每字 64 位）
+     */
+    public int wordCount() {
+        return words.length;
+    }
+
+    /**
+     * 获取第 index 个字，超出范围时返回 0
+     */
+    public long word(int index) {
+        return index < words.length ? words[index] : 0L;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 是否包含 other 的全部位
+     */
+    public boolean containsAll(PermissionBits other) {
+        for (int i = 0; i < other.words.length; i++) {
+            long required = other.words[i];
+            if ((word(i) & required) != required) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 是否与 other 存在交集
+     */
+    public boolean intersects(PermissionBits other) {
+        int n = Math.min(words.length, other.words.length);
+        for (int i = 0; i < n; i++) {
+            if ((words[i] & other.words[i]) != 0L) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PermissionBits other)) {
+            return false;
+        }
+        int n = Math.max(words.length, other.words.length);
+        for (int i = 0; i < n; i++) {
+            if (word(i) != other.word(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int end = words.length;
+        while (end > 0 && words[end - 1] == 0L) {
+            end--;
+        }
+        return Arrays.hashCode(Arrays.copyOf(words, end));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security.model;
+
+import com.movk.common.enums.DataScope;
+import com.movk.common.enums.UserStatus;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 已验证的 AccessToken 声明
+ * 由 JwtService 一次解析验签后构建，不可变，可在请求链路中安全复用
+ *
+ * @param username         用户名（subject）
+ * @param userId           用户ID
+ * @param nickname         昵称
+ * @param roles            角色编码列表
+ * @param issuedAt         签发时间（毫秒时间戳），用作 Token 版本号；旧版本 Token 未携带毫秒声明时取 iat 秒数
+ * @param expiresAt        过期时间（毫秒时间戳）
+ * @param deptId           部门ID
+ * @param dataScope        数据权限范围，旧版本 Token 未携带时为 null
+ * @param dataScopeDeptIds 自定义数据权限部门ID
+ * @param sessionId        所属会话（RefreshToken ID），旧版本 Token 未携带时为 null
+ */
+public record VerifiedClaims(
+    String username,
+    UUID userId,
+    String nickname,
+    List<String> roles,
+    long issuedAt,
+    long expiresAt,
+    UUID deptId,
+    DataScope dataScope,
+    Set<UUID> dataScopeDeptIds,
+    UUID sessionId
+) {
+
+    public VerifiedClaims {
+        roles = roles != null ? List.copyOf(roles) : List.of();
+        dataScopeDeptIds = dataScopeDeptIds != null ? Set.copyOf(dataScopeDeptIds) : null;
+    }
+
+    /**
+     * 是否携带完整的数据权限声明（可直接构建 LoginUser）
+     */
+    public boolean hasDataScope() {
+        return dataScope != null;
+    }
+
+    /**
+     * 仅根据声明构建 LoginUser（不访问数据库）
+     * 未携带数据权限声明时返回 null，由调用方回退到数据库查询
+     */
+    public LoginUser toLoginUser() {
+        if (!hasDataScope()) {
+            return null;
+        }
+        return LoginUser.builder()
+            .id(userId)
+            .username(username)
+            .nickname(nickname)
+            .roles(roles)
+            .status(UserStatus.ACTIVE)
+            .deptId(deptId)
+            .dataScope(dataScope)
+            .dataScopeDeptIds(dataScopeDeptIds)
+            .build();
+    }
+}
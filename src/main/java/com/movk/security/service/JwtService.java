@@ -1,24 +1,36 @@
 package com.movk.security.service;
 
+import com.movk.common.enums.DataScope;
 import com.movk.security.model.LoginUser;
+import com.movk.security.model.VerifiedClaims;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.security.Key;
 import java.util.*;
-import java.util.function.Function;
 
 /**
  * JWT 服务
  * 仅负责 AccessToken (JWT) 的生成和验证
  * RefreshToken 由 TokenService 通过数据库管理
+ * 签名密钥与解析器在启动时构建一次；通过 kid 头支持密钥轮换，
+ * 新 Token 使用当前密钥签发，jwt.previous-keys 中的旧密钥仅用于验证。
+ * Token 只通过 {@link #verify} 解析一次，声明从 VerifiedClaims 读取，不提供逐项重新解析的方法
  */
+@Slf4j
 @Service
 public class JwtService {
 
@@ -28,58 +40,138 @@ public class JwtService {
     @Value("${jwt.access-token.expiration:900}")
     private int accessTokenExpiration;
 
+    /**
+     * 当前签名密钥标识
+     */
+    @Value("${jwt.key-id:default}")
+    private String keyId;
+
+    /**
+     * 轮换前的旧密钥，格式：kid1:base64Secret1,kid2:base64Secret2
+     */
+    @Value("${jwt.previous-keys:}")
+    private String previousKeys;
+
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_USER_ID = "userId";
+    private static final String CLAIM_NICKNAME = "nickname";
+    private static final String CLAIM_DEPT_ID = "deptId";
+    private static final String CLAIM_DATA_SCOPE = "dataScope";
+    private static final String CLAIM_DATA_SCOPE_DEPTS = "dsDepts";
+    /**
+     * 毫秒级签发时间；标准 iat 只到秒，同一秒内撤销与签发无法区分先后
+     */
+    private static final String CLAIM_ISSUED_AT_MS = "iatMs";
+    /**
+     * 会话ID（RefreshToken ID），按会话强制下线时用于拒绝该会话的 AccessToken
+     */
+    private static final String CLAIM_SESSION_ID = "sid";
+
+    private SecretKey signingKey;
+    private Map<String, SecretKey> verificationKeys;
+    private JwtParser jwtParser;
+
     @PostConstruct
-    public void validateJwtSecret() {
+    public void init() {
+        signingKey = buildKey("jwt.secret", jwtSecret);
+
+        Map<String, SecretKey> keys = new HashMap<>();
+        keys.put(keyId, signingKey);
+        if (StringUtils.hasText(previousKeys)) {
+            for (String entry : previousKeys.split(",")) {
+                int idx = entry.indexOf(':');
+                if (idx <= 0) {
+                    throw new IllegalStateException("jwt.previous-keys 格式错误，应为 kid:base64Secret");
+                }
+                String kid = entry.substring(0, idx).trim();
+                keys.putIfAbsent(kid, buildKey("jwt.previous-keys[" + kid + "]", entry.substring(idx + 1).trim()));
+            }
+        }
+        verificationKeys = Map.copyOf(keys);
+
+        jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        String kid = header.getKeyId();
+                        // 未携带 kid 的旧 Token 使用当前密钥验证
+                        if (kid == null) {
+                            return signingKey;
+                        }
+                        SecretKey key = verificationKeys.get(kid);
+                        if (key == null) {
+                            throw new JwtException("未知的签名密钥: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        log.info("JWT 密钥初始化完成 - kid: {}, 验证密钥数: {}", keyId, verificationKeys.size());
+    }
+
+    private static SecretKey buildKey(String name, String base64Secret) {
         byte[] keyBytes;
         try {
-            keyBytes = Decoders.BASE64.decode(jwtSecret);
+            keyBytes = Decoders.BASE64.decode(base64Secret);
         } catch (IllegalArgumentException e) {
-            throw new IllegalStateException("jwt.secret 必须为 Base64 编码字符串", e);
+            throw new IllegalStateException(name + " 必须为 Base64 编码字符串", e);
         }
         if (keyBytes.length < 32) {
-            throw new IllegalStateException("jwt.secret 解码后长度不足 256 bit (32 bytes)");
+            throw new IllegalStateException(name + " 解码后长度不足 256 bit (32 bytes)");
         }
-    }
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
     /**
      * 生成 AccessToken
+     *
+     * @param sessionId 所属会话（RefreshToken ID）
      */
-    public String generateAccessToken(LoginUser loginUser) {
+    public String generateAccessToken(LoginUser loginUser, UUID sessionId) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("roles", loginUser.getRoles());
-        claims.put("userId", loginUser.getId().toString());
-        claims.put("nickname", loginUser.getNickname());
+        claims.put(CLAIM_ROLES, loginUser.getRoles());
+        claims.put(CLAIM_USER_ID, loginUser.getId().toString());
+        claims.put(CLAIM_NICKNAME, loginUser.getNickname());
+        if (loginUser.getDeptId() != null) {
+            claims.put(CLAIM_DEPT_ID, loginUser.getDeptId().toString());
+        }
+        if (loginUser.getDataScope() != null) {
+            claims.put(CLAIM_DATA_SCOPE, (int) loginUser.getDataScope().getCode());
+        }
+        if (loginUser.getDataScopeDeptIds() != null && !loginUser.getDataScopeDeptIds().isEmpty()) {
+            claims.put(CLAIM_DATA_SCOPE_DEPTS, encodeUuids(loginUser.getDataScopeDeptIds()));
+        }
+        if (sessionId != null) {
+            claims.put(CLAIM_SESSION_ID, sessionId.toString());
+        }
 
         Date now = new Date();
+        claims.put(CLAIM_ISSUED_AT_MS, now.getTime());
         Date expiryDate = new Date(now.getTime() + accessTokenExpiration * 1000L);
 
         return Jwts.builder()
+                .header().keyId(keyId).and()
                 .claims(claims)
                 .subject(loginUser.getUsername())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     /**
-     * 验证 AccessToken
+     * 验证 AccessToken 并一次性解析全部声明
+     *
+     * @return 已验证的声明，签名无效、已过期或格式错误时返回 null
      */
-    public boolean validateToken(String token) {
+    public VerifiedClaims verify(String token) {
+        Claims claims;
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return true;
+            claims = jwtParser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
+        return toVerifiedClaims(claims);
     }
 
     /**
@@ -89,41 +181,50 @@ public class JwtService {
         return accessTokenExpiration;
     }
 
-    public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
-    }
-
     @SuppressWarnings("unchecked")
-    public List<String> getRolesFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return (List<String>) claims.get("roles");
-    }
-
-    public UUID getUserIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        String userIdStr = (String) claims.get("userId");
-        return UUID.fromString(userIdStr);
+    private static VerifiedClaims toVerifiedClaims(Claims claims) {
+        String userId = (String) claims.get(CLAIM_USER_ID);
+        String deptId = (String) claims.get(CLAIM_DEPT_ID);
+        Object dataScopeCode = claims.get(CLAIM_DATA_SCOPE);
+        String dataScopeDepts = (String) claims.get(CLAIM_DATA_SCOPE_DEPTS);
+        Object issuedAtMillis = claims.get(CLAIM_ISSUED_AT_MS);
+        String sessionId = (String) claims.get(CLAIM_SESSION_ID);
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+
+        return new VerifiedClaims(
+                claims.getSubject(),
+                userId != null ? UUID.fromString(userId) : null,
+                (String) claims.get(CLAIM_NICKNAME),
+                (List<String>) claims.get(CLAIM_ROLES),
+                issuedAtMillis != null ? ((Number) issuedAtMillis).longValue()
+                        : issuedAt != null ? issuedAt.getTime() : 0L,
+                expiration != null ? expiration.getTime() : 0L,
+                deptId != null ? UUID.fromString(deptId) : null,
+                dataScopeCode != null ? DataScope.fromCode(((Number) dataScopeCode).shortValue()) : null,
+                dataScopeDepts != null ? decodeUuids(dataScopeDepts) : null,
+                sessionId != null ? UUID.fromString(sessionId) : null
+        );
     }
 
-    public String getNicknameFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return (String) claims.get("nickname");
-    }
-
-    public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
-    }
-
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+    /**
+     * 将部门ID集合压缩编码为 Base64URL（每个 UUID 16 字节，约为字符串形式的一半长度）
+     */
+    private static String encodeUuids(Set<UUID> ids) {
+        ByteBuffer buffer = ByteBuffer.allocate(ids.size() * 16);
+        for (UUID id : ids) {
+            buffer.putLong(id.getMostSignificantBits());
+            buffer.putLong(id.getLeastSignificantBits());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private static Set<UUID> decodeUuids(String encoded) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(encoded));
+        Set<UUID> ids = new HashSet<>();
+        while (buffer.remaining() >= 16) {
+            ids.add(new UUID(buffer.getLong(), buffer.getLong()));
+        }
+        return ids;
     }
 }
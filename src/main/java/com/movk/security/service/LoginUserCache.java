@@ -0,0 +1,98 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security.service;
+
+import com.movk.base.cache.LocalTtlCache;
+import com.movk.security.model.LoginUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 请求链路登录用户缓存
+ * 缓存 JwtAuthenticationFilter 构建的完整 LoginUser（角色、数据权限范围等），
+ * 以用户ID + Token 版本（签发时间）为键，避免每次请求都查询数据库。
+ * 用户、角色变更及强制下线时主动失效；TTL 较短，用于兜底多节点间的数据延迟。
+ */
+@Slf4j
+@Component
+public class LoginUserCache {
+
+    private final boolean enabled;
+    private final LocalTtlCache<Key, LoginUser> cache;
+
+    public LoginUserCache(@Value("${security.principal-cache.enabled:true}") boolean enabled,
+                          @Value("${security.principal-cache.ttl:30s}") Duration ttl,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this.enabled = enabled;
+        this.cache = new LocalTtlCache<>(maxSize, ttl, (key, value) -> key.userId());
+        log.info("登录用户缓存初始化 - enabled: {}, ttl: {}, maxSize: {}", enabled, ttl, maxSize);
+    }
+
+    /**
+     * 获取缓存的登录用户
+     *
+     * @param userId       用户ID
+     * @param tokenVersion Token 版本（毫秒级签发时间戳）
+     */
+    public LoginUser get(UUID userId, long tokenVersion) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.get(new Key(userId, tokenVersion));
+    }
+
+    /**
+     * 写入缓存
+     */
+    public void put(UUID userId, long tokenVersion, LoginUser loginUser) {
+        if (enabled) {
+            cache.put(new Key(userId, tokenVersion), loginUser);
+        }
+    }
+
+    /**
+     * 失效指定用户的所有缓存
+     * 处于事务中时，提交后再失效一次，防止并发请求在提交前回填旧数据
+     */
+    public void evictUser(UUID userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        cache.removeGroup(userId);
+        afterCommit(() -> cache.removeGroup(userId));
+    }
+
+    /**
+     * 失效全部缓存（角色数据权限变更等影响面较大的场景）
+     */
+    public void evictAll() {
+        if (!enabled) {
+            return;
+        }
+        cache.clear();
+        afterCommit(cache::clear);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private record Key(UUID userId, long tokenVersion) {
+    }
+}
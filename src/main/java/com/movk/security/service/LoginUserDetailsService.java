@@ -53,6 +53,20 @@ public class LoginUserDetailsService implements UserDetailsService {
         return buildLoginUser(user, roleEntities, roles);
     }
 
+    /**
+     * 构建有效用户的登录信息，用户不存在或非激活状态时返回 null
+     * 合并了 isUserValid 与 buildLoginUser 的用户查询
+     */
+    public LoginUser loadActiveLoginUser(String username, List<String> roles) {
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null || user.getStatus() != com.movk.common.enums.UserStatus.ACTIVE) {
+            return null;
+        }
+
+        List<Role> roleEntities = roleRepository.findRolesByUserId(user.getId());
+        return buildLoginUser(user, roleEntities, roles);
+    }
+
     private LoginUser buildLoginUser(User user, List<Role> roleEntities, List<String> roleCodes) {
         // 计算数据权限范围（取所有角色中最大的权限范围）
         DataScope dataScope = calculateDataScope(roleEntities);
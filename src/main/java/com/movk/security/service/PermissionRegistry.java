@@ -0,0 +1,160 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security.service;
+
+import com.movk.repository.MenuRepository;
+import com.movk.security.annotation.RequiresPermission;
+import com.movk.security.model.PermissionBits;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 权限注册表
+ * 将权限码驻留为稠密整数ID，角色授权预编译为位图，@RequiresPermission 所需权限按方法编译一次，
+ * 校验时只对所需位非零的字做按字位运算，位图比较本身不分配对象。
+ * 角色位图以 RolePermissionCache 返回的集合实例为版本：集合被失效重建后自动重新编译；
+ * 每次校验仍需经 RolePermissionCache（Spring 缓存代理）取得各角色的集合实例以确认版本，这部分开销不在此消除。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionRegistry {
+
+    /**
+     * 全部权限标识
+     */
+    private static final String ALL_PERMISSION = "*:*:*";
+
+    private final RolePermissionCache rolePermissionCache;
+    private final MenuRepository menuRepository;
+
+    private final Map<String, Integer> codeIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Map<String, RoleGrant> roleGrants = new ConcurrentHashMap<>();
+
+    /**
+     * 启动时预先驻留菜单中的全部权限码，使ID在位图中保持紧凑
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            menuRepository.findAllPermissionCodes().forEach(this::idOf);
+            log.info("权限注册表初始化完成 - 权限码数: {}", codeIds.size());
+        } catch (Exception e) {
+            log.warn("权限注册表预热失败，将按需驻留: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取权限码对应的ID，不存在时分配
+     */
+    public int idOf(String code) {
+        return codeIds.computeIfAbsent(code, c -> nextId.getAndIncrement());
+    }
+
+    /**
+     * 编译权限码为位图
+     */
+    public PermissionBits compile(String... codes) {
+        if (codes == null || codes.length == 0) {
+            return PermissionBits.EMPTY;
+        }
+        int[] ids = new int[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            ids[i] = idOf(codes[i]);
+        }
+        return PermissionBits.of(ids);
+    }
+
+    /**
+     * 校验角色是否满足所需权限
+     *
+     * @param roles    用户角色编码列表
+     * @param required 已编译的所需权限
+     * @param logical  逻辑关系
+     */
+    public boolean check(List<String> roles, PermissionBits required, RequiresPermission.Logical logical) {
+        if (required.isEmpty()) {
+            return true;
+        }
+        if (roles == null || roles.isEmpty()) {
+            return false;
+        }
+
+        int roleCount = roles.size();
+        if (logical == RequiresPermission.Logical.OR) {
+            // OR：任一角色与所需位存在交集
+            for (int i = 0; i < roleCount; i++) {
+                RoleGrant grant = grantOf(roles.get(i));
+                if (grant.all() || grant.bits().intersects(required)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (roleCount == 1) {
+            RoleGrant grant = grantOf(roles.get(0));
+            return grant.all() || grant.bits().containsAll(required);
+        }
+
+        // 多角色 AND：逐个所需字合并各角色的对应字，须覆盖全部所需位（所需权限通常只占一个字）
+        for (int w = 0; w < required.wordCount(); w++) {
+            long need = required.word(w);
+            if (need == 0L) {
+                continue;
+            }
+            long granted = 0L;
+            for (int i = 0; i < roleCount && (granted & need) != need; i++) {
+                RoleGrant grant = grantOf(roles.get(i));
+                if (grant.all()) {
+                    return true;
+                }
+                granted |= grant.bits().word(w);
+            }
+            if ((granted & need) != need) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private RoleGrant grantOf(String roleCode) {
+        Set<String> permissions = rolePermissionCache.getPermissions(roleCode);
+        RoleGrant grant = roleGrants.get(roleCode);
+        if (grant != null && grant.source() == permissions) {
+            return grant;
+        }
+
+        int[] ids = new int[permissions.size()];
+        int i = 0;
+        for (String code : permissions) {
+            ids[i++] = idOf(code);
+        }
+        grant = new RoleGrant(permissions, PermissionBits.of(ids), permissions.contains(ALL_PERMISSION));
+        roleGrants.put(roleCode, grant);
+        return grant;
+    }
+
+    /**
+     * 已编译的角色授权
+     *
+     * @param source 编译来源（权限码集合实例，用于判断是否需要重新编译）
+     * @param bits   授权位图
+     * @param all    是否拥有全部权限
+     */
+    private record RoleGrant(Set<String> source, PermissionBits bits, boolean all) {
+    }
+}
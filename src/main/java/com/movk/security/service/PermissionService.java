@@ -5,13 +5,9 @@
 
 package com.movk.security.service;
 
-import com.movk.base.config.CacheConfig;
-import com.movk.common.enums.EnableStatus;
-import com.movk.repository.MenuRepository;
 import com.movk.security.model.LoginUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
@@ -28,7 +24,7 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class PermissionService {
 
-    private final MenuRepository menuRepository;
+    private final RolePermissionCache rolePermissionCache;
     private final CurrentUserService currentUserService;
 
     /**
@@ -58,7 +54,7 @@ public class PermissionService {
             return true;
         }
 
-        List<String> permissions = getPermissionsByRoles(userRoles);
+        Set<String> permissions = getPermissionSet(userRoles);
         return permissions.contains(ALL_PERMISSION) || permissions.contains(permission);
     }
 
@@ -99,7 +95,7 @@ public class PermissionService {
                 return true;
             }
 
-            List<String> userPermissions = getPermissionsByRoles(userRoles);
+            Set<String> userPermissions = getPermissionSet(userRoles);
             if (userPermissions.contains(ALL_PERMISSION)) {
                 return true;
             }
@@ -136,7 +132,7 @@ public class PermissionService {
                 return true;
             }
 
-            List<String> userPermissions = getPermissionsByRoles(userRoles);
+            Set<String> userPermissions = getPermissionSet(userRoles);
             if (userPermissions.contains(ALL_PERMISSION)) {
                 return true;
             }
@@ -180,21 +176,36 @@ public class PermissionService {
      * @param userRoles 用户角色代码列表
      * @return 权限码列表
      */
-    @Cacheable(value = CacheConfig.USER_PERMISSIONS, key = "#userRoles.hashCode()", unless = "#result.isEmpty()")
     public List<String> getPermissionsByRoles(List<String> userRoles) {
+        return List.copyOf(getPermissionSet(userRoles));
+    }
+
+    /**
+     * 获取用户角色对应的权限码集合
+     * 按单个角色读取缓存后合并，用于权限校验时的常数时间查找
+     *
+     * @param userRoles 用户角色代码列表
+     * @return 不可变权限码集合
+     */
+    public Set<String> getPermissionSet(List<String> userRoles) {
         if (userRoles == null || userRoles.isEmpty()) {
-            return Collections.emptyList();
+            return Collections.emptySet();
         }
 
         // 超级管理员返回所有权限标识
         if (isSuperAdmin(userRoles)) {
-            return List.of(ALL_PERMISSION);
+            return Set.of(ALL_PERMISSION);
         }
 
-        return menuRepository.findPermissionCodesByRoleCodesAndStatus(
-            userRoles,
-            EnableStatus.ENABLED
-        );
+        if (userRoles.size() == 1) {
+            return Set.copyOf(rolePermissionCache.getPermissions(userRoles.get(0)));
+        }
+
+        Set<String> permissions = new HashSet<>();
+        for (String roleCode : userRoles) {
+            permissions.addAll(rolePermissionCache.getPermissions(roleCode));
+        }
+        return Set.copyOf(permissions);
     }
 
     /**
@@ -205,8 +216,7 @@ public class PermissionService {
     public Set<String> getCurrentUserPermissions() {
         try {
             LoginUser loginUser = currentUserService.getCurrentUser();
-            List<String> permissions = getPermissionsByRoles(loginUser.getRoles());
-            return new HashSet<>(permissions);
+            return new HashSet<>(getPermissionSet(loginUser.getRoles()));
         } catch (Exception e) {
             log.warn("获取当前用户权限失败: {}", e.getMessage());
             return Collections.emptySet();
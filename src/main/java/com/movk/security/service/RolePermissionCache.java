@@ -0,0 +1,80 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security.service;
+
+import com.movk.base.config.CacheConfig;
+import com.movk.common.enums.EnableStatus;
+import com.movk.repository.MenuRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 角色权限缓存
+ * 以单个角色编码为键缓存该角色的权限码集合，多角色用户在校验时合并；
+ * 角色菜单变更时仅失效对应角色。独立为 Bean 以保证缓存注解经过代理生效。
+ * 失效在调用时立即执行，处于事务中时提交后再执行一次：提交前并发的权限校验可能已按旧数据回填，
+ * 否则已移除的权限会在缓存有效期（1 小时）内继续被授予。
+ */
+@Component
+@RequiredArgsConstructor
+public class RolePermissionCache {
+
+    private final MenuRepository menuRepository;
+    private final CacheManager cacheManager;
+
+    /**
+     * 获取单个角色的权限码集合
+     *
+     * @param roleCode 角色编码
+     * @return 不可变权限码集合
+     */
+    @Cacheable(value = CacheConfig.USER_PERMISSIONS, key = "#roleCode", sync = true)
+    public Set<String> getPermissions(String roleCode) {
+        return Set.copyOf(menuRepository.findPermissionCodesByRoleCodesAndStatus(
+            List.of(roleCode),
+            EnableStatus.ENABLED
+        ));
+    }
+
+    /**
+     * 失效指定角色的权限缓存
+     */
+    public void evict(String roleCode) {
+        evictNowAndAfterCommit(cache -> cache.evict(roleCode));
+    }
+
+    /**
+     * 失效全部角色的权限缓存（菜单权限码、状态变更影响多个角色）
+     */
+    public void evictAll() {
+        evictNowAndAfterCommit(Cache::clear);
+    }
+
+    private void evictNowAndAfterCommit(Consumer<Cache> action) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_PERMISSIONS);
+        if (cache == null) {
+            return;
+        }
+        action.accept(cache);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.accept(cache);
+                }
+            });
+        }
+    }
+}
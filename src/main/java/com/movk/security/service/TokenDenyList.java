@@ -0,0 +1,210 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccessToken 拒绝列表
+ * 记录用户 Token 被整体撤销的时间点，签发时间早于该时间点的 AccessToken 视为失效；
+ * 按会话强制下线时记录会话ID，该会话签发的 AccessToken 在有效期内均视为失效。
+ * 本地内存判断（零 I/O），通过 Redis 发布订阅同步到其他节点，并在 Redis 中保留一份
+ * 与 AccessToken 有效期等长的副本用于节点启动时预热。
+ */
+@Slf4j
+@Component
+public class TokenDenyList implements MessageListener {
+
+    public static final String CHANNEL = "movk:auth:deny";
+    private static final String KEY_PREFIX = "movk:auth:deny:";
+    private static final String SESSION_KEY_PREFIX = "movk:auth:deny-session:";
+    private static final String SESSION_MESSAGE_PREFIX = "session:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final int accessTokenExpiration;
+
+    /**
+     * userId -> 撤销时间（毫秒时间戳）
+     */
+    private final Map<UUID, Long> revokedAt = new ConcurrentHashMap<>();
+
+    /**
+     * sessionId -> 记录到期时间（毫秒时间戳），此后该会话签发的 AccessToken 已自然过期
+     */
+    private final Map<UUID, Long> revokedSessions = new ConcurrentHashMap<>();
+
+    public TokenDenyList(StringRedisTemplate redisTemplate,
+                         RedisMessageListenerContainer listenerContainer,
+                         VerifiedTokenCache verifiedTokenCache,
+                         @Value("${jwt.access-token.expiration:900}") int accessTokenExpiration) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.accessTokenExpiration = accessTokenExpiration;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 撤销用户在当前时间之前签发的所有 AccessToken
+     */
+    public void revoke(UUID userId) {
+        long now = System.currentTimeMillis();
+        record(userId, now);
+        try {
+            String value = userId + ":" + now;
+            redisTemplate.opsForValue().set(KEY_PREFIX + userId, String.valueOf(now),
+                Duration.ofSeconds(accessTokenExpiration));
+            redisTemplate.convertAndSend(CHANNEL, value);
+        } catch (Exception e) {
+            log.warn("同步 Token 拒绝列表失败 - userId: {}, error: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 撤销指定会话签发的所有 AccessToken
+     */
+    public void revokeSession(UUID sessionId) {
+        revokedSessions.put(sessionId, System.currentTimeMillis() + accessTokenExpiration * 1000L);
+        try {
+            redisTemplate.opsForValue().set(SESSION_KEY_PREFIX + sessionId, "1",
+                Duration.ofSeconds(accessTokenExpiration));
+            redisTemplate.convertAndSend(CHANNEL, SESSION_MESSAGE_PREFIX + sessionId);
+        } catch (Exception e) {
+            log.warn("同步会话拒绝列表失败 - sessionId: {}, error: {}", sessionId, e.getMessage());
+        }
+    }
+
+    /**
+     * 判断 Token 是否已被撤销（用户整体撤销或所属会话被强制下线）
+     *
+     * @param sessionId Token 所属会话，旧版本 Token 未携带时为 null
+     */
+    public boolean isRevoked(UUID userId, UUID sessionId, long issuedAt) {
+        return isRevoked(userId, issuedAt) || (sessionId != null && revokedSessions.containsKey(sessionId));
+    }
+
+    /**
+     * 判断 Token 是否已被撤销
+     * 按毫秒比较：撤销前签发的 Token 均失效，撤销同一毫秒及之后签发的视为撤销之后签发（单点登录时先撤销再签发）
+     *
+     * @param userId   用户ID
+     * @param issuedAt Token 签发时间（毫秒时间戳）
+     */
+    public boolean isRevoked(UUID userId, long issuedAt) {
+        Long at = revokedAt.get(userId);
+        return at != null && issuedAt < at;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (body.startsWith(SESSION_MESSAGE_PREFIX)) {
+            try {
+                revokedSessions.put(UUID.fromString(body.substring(SESSION_MESSAGE_PREFIX.length())),
+                    System.currentTimeMillis() + accessTokenExpiration * 1000L);
+            } catch (IllegalArgumentException e) {
+                log.warn("无效的会话拒绝列表消息: {}", body);
+            }
+            return;
+        }
+        int idx = body.indexOf(':');
+        if (idx <= 0) {
+            return;
+        }
+        try {
+            record(UUID.fromString(body.substring(0, idx)), toMillis(Long.parseLong(body.substring(idx + 1))));
+        } catch (IllegalArgumentException e) {
+            log.warn("无效的 Token 拒绝列表消息: {}", body);
+        }
+    }
+
+    /**
+     * 启动时从 Redis 预热
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(500).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                String value = redisTemplate.opsForValue().get(key);
+                if (value != null) {
+                    record(UUID.fromString(key.substring(KEY_PREFIX.length())), toMillis(Long.parseLong(value)));
+                }
+            }
+            warmUpSessions();
+            log.info("Token 拒绝列表预热完成 - users: {}, sessions: {}", revokedAt.size(), revokedSessions.size());
+        } catch (Exception e) {
+            log.warn("Token 拒绝列表预热失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 会话记录的 Redis 键与 AccessToken 有效期等长，剩余 TTL 即本地记录的剩余时长
+     */
+    private void warmUpSessions() {
+        ScanOptions options = ScanOptions.scanOptions().match(SESSION_KEY_PREFIX + "*").count(500).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                Long ttl = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+                if (ttl != null && ttl > 0) {
+                    revokedSessions.put(UUID.fromString(key.substring(SESSION_KEY_PREFIX.length())),
+                        System.currentTimeMillis() + ttl);
+                }
+            }
+        }
+    }
+
+    /**
+     * 清理已超过 AccessToken 有效期的记录（此前签发的 Token 已自然过期）
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void prune() {
+        long now = System.currentTimeMillis();
+        long threshold = now - accessTokenExpiration * 1000L;
+        revokedAt.values().removeIf(at -> at < threshold);
+        revokedSessions.values().removeIf(expiresAt -> expiresAt < now);
+    }
+
+    /**
+     * 兼容旧版本写入的秒级时间戳（毫秒值远大于该阈值）
+     */
+    private static long toMillis(long at) {
+        return at < 10_000_000_000L ? at * 1000 : at;
+    }
+
+    private void record(UUID userId, long at) {
+        revokedAt.merge(userId, at, Math::max);
+        verifiedTokenCache.evictUser(userId);
+    }
+}
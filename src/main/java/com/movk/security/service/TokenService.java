@@ -34,6 +34,8 @@ public class TokenService {
     private final JwtService jwtService;
     private final RefreshTokenRepository refreshTokenRepository;
     private final LoginUserDetailsService userDetailsService;
+    private final LoginUserCache loginUserCache;
+    private final TokenDenyList tokenDenyList;
 
     @Value("${jwt.refresh-token.expiration:604800}")
     private int refreshTokenExpiration;
@@ -57,18 +59,18 @@ public class TokenService {
     public AuthTokensDTO generateTokenPair(LoginUser loginUser, boolean rememberMe) {
         // 单点登录：撤销其他会话
         if (singleLogin) {
-            revokeAllUserTokens(loginUser.getId(), "单点登录互踢");
+            revokeOtherSessions(loginUser.getId());
         } else if (maxSessions > 0) {
             enforceMaxSessions(loginUser.getId());
         }
 
-        // 生成 AccessToken (JWT)
-        String accessToken = jwtService.generateAccessToken(loginUser);
-
-        // 生成 RefreshToken (UUID)
+        // 生成 RefreshToken (UUID)，其 ID 作为会话ID写入 AccessToken
         int expiration = rememberMe ? rememberMeExpiration : refreshTokenExpiration;
         RefreshToken refreshToken = createRefreshToken(loginUser, expiration);
 
+        // 生成 AccessToken (JWT)
+        String accessToken = jwtService.generateAccessToken(loginUser, refreshToken.getId());
+
         log.debug("Token 生成成功 - userId: {}, username: {}, rememberMe: {}",
                 loginUser.getId(), loginUser.getUsername(), rememberMe);
 
@@ -99,7 +101,7 @@ public class TokenService {
 
         // 重新加载用户信息并生成新的 AccessToken
         LoginUser loginUser = (LoginUser) userDetailsService.loadUserByUsername(refreshToken.getUsername());
-        String newAccessToken = jwtService.generateAccessToken(loginUser);
+        String newAccessToken = jwtService.generateAccessToken(loginUser, refreshToken.getId());
 
         // 计算 RefreshToken 剩余有效期
         long refreshRemainingSeconds = refreshToken.getExpiresAt().toEpochSecond()
@@ -129,17 +131,50 @@ public class TokenService {
         });
     }
 
+    /**
+     * 撤销单个会话（按会话强制下线）
+     * RefreshToken 标记撤销，该会话已签发的 AccessToken 通过拒绝列表立即失效
+     *
+     * @return 会话不存在时返回 false
+     */
+    @Transactional
+    public boolean revokeSession(UUID tokenId, String reason) {
+        return refreshTokenRepository.findById(tokenId).map(token -> {
+            token.revoke(reason);
+            refreshTokenRepository.save(token);
+            loginUserCache.evictUser(token.getUserId());
+            tokenDenyList.revokeSession(token.getId());
+            log.info("会话已撤销 - userId: {}, sessionId: {}, reason: {}", token.getUserId(), tokenId, reason);
+            return true;
+        }).orElse(false);
+    }
+
     /**
      * 撤销用户所有 Token（踢出用户）
      */
     @Transactional
     public void revokeAllUserTokens(UUID userId, String reason) {
         int count = refreshTokenRepository.revokeAllByUserId(userId, OffsetDateTime.now(), reason);
+        loginUserCache.evictUser(userId);
+        tokenDenyList.revoke(userId);
         if (count > 0) {
             log.info("用户所有 Token 已撤销 - userId: {}, count: {}, reason: {}", userId, count, reason);
         }
     }
 
+    /**
+     * 单点登录互踢：仅在确有活跃会话被撤销时才写入拒绝列表并广播，
+     * 首次登录或会话均已过期时不产生 Redis 写入与发布
+     */
+    private void revokeOtherSessions(UUID userId) {
+        int count = refreshTokenRepository.revokeAllByUserId(userId, OffsetDateTime.now(), "单点登录互踢");
+        if (count > 0) {
+            loginUserCache.evictUser(userId);
+            tokenDenyList.revoke(userId);
+            log.info("单点登录互踢 - userId: {}, count: {}", userId, count);
+        }
+    }
+
     /**
      * 获取用户的活跃会话列表
      */
@@ -201,6 +236,7 @@ public class TokenService {
                 RefreshToken oldestSession = activeSessions.get(i);
                 oldestSession.revoke("超出最大会话数限制");
                 refreshTokenRepository.save(oldestSession);
+                tokenDenyList.revokeSession(oldestSession.getId());
             }
             log.info("超出最大会话数，撤销旧会话 - userId: {}, revoked: {}", userId, toRevoke);
         }
@@ -0,0 +1,104 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security.service;
+
+import com.movk.base.cache.LocalTtlCache;
+import com.movk.security.model.VerifiedClaims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 已验证 AccessToken 缓存
+ * 以 Token 的 SHA-256 摘要为键缓存验签结果，同一 Token 的重复请求跳过 HMAC 验签与声明解码。
+ * 条目随 Token 过期，用户 Token 被撤销时按用户清除；命中/未命中次数通过 Micrometer 暴露。
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private static final String METRIC_NAME = "movk.jwt.verified.cache";
+
+    private final boolean enabled;
+    private final LocalTtlCache<ByteBuffer, VerifiedClaims> cache;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public VerifiedTokenCache(@Value("${jwt.verified-cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.verified-cache.ttl:10m}") Duration ttl,
+                              @Value("${jwt.verified-cache.max-size:10000}") int maxSize,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = new LocalTtlCache<>(maxSize, ttl, (key, claims) -> claims.userId());
+        this.hitCounter = Counter.builder(METRIC_NAME + ".requests")
+            .tag("result", "hit")
+            .description("已验证 Token 缓存命中次数")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder(METRIC_NAME + ".requests")
+            .tag("result", "miss")
+            .description("已验证 Token 缓存未命中次数")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".size", cache, LocalTtlCache::size)
+            .description("已验证 Token 缓存条目数")
+            .register(meterRegistry);
+        log.info("已验证 Token 缓存初始化 - enabled: {}, ttl: {}, maxSize: {}", enabled, ttl, maxSize);
+    }
+
+    /**
+     * 获取已验证的声明，未命中时调用 verifier 验证并回填
+     *
+     * @param token    AccessToken
+     * @param verifier 验证函数，验证失败返回 null（失败结果不缓存）
+     */
+    public VerifiedClaims get(String token, Function<String, VerifiedClaims> verifier) {
+        if (!enabled) {
+            return verifier.apply(token);
+        }
+
+        ByteBuffer key = digest(token);
+        VerifiedClaims claims = cache.get(key);
+        if (claims != null && claims.expiresAt() > System.currentTimeMillis()) {
+            hitCounter.increment();
+            return claims;
+        }
+
+        missCounter.increment();
+        claims = verifier.apply(token);
+        if (claims != null) {
+            cache.put(key, claims, claims.expiresAt());
+        }
+        return claims;
+    }
+
+    /**
+     * 清除指定用户的所有缓存 Token
+     */
+    public void evictUser(UUID userId) {
+        if (enabled && userId != null) {
+            cache.removeGroup(userId);
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 算法不可用", e);
+        }
+    }
+}
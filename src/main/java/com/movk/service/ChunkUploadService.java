@@ -0,0 +1,57 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service;
+
+import com.movk.dto.file.ChunkUploadInitReq;
+import com.movk.dto.file.ChunkUploadResp;
+import com.movk.dto.file.FileUploadResp;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+/**
+ * 分片上传服务接口
+ * 协议：初始化会话 → 并发上传各分片（可乱序、可重试）→ 合并；中断后查询会话状态，只补传缺失的分片
+ */
+public interface ChunkUploadService {
+
+    /**
+     * 初始化上传会话并预分配暂存文件
+     */
+    ChunkUploadResp init(ChunkUploadInitReq req);
+
+    /**
+     * 写入分片：按分片号直接写到暂存文件对应位置，已接收的分片重复上传时忽略
+     *
+     * @param uploadId      会话 ID
+     * @param partNumber    分片号（从 1 开始）
+     * @param in            分片内容
+     * @param contentLength 请求声明的长度，未知时为 -1
+     */
+    void putPart(UUID uploadId, int partNumber, InputStream in, long contentLength);
+
+    /**
+     * 查询会话状态（含已接收分片）
+     */
+    ChunkUploadResp status(UUID uploadId);
+
+    /**
+     * 合并：校验分片齐全，计算剩余摘要并登记为文件
+     */
+    FileUploadResp complete(UUID uploadId);
+
+    /**
+     * 取消上传并删除暂存文件
+     */
+    void abort(UUID uploadId);
+
+    /**
+     * 清理过期会话
+     *
+     * @return 清理的会话数
+     */
+    int cleanupExpired();
+}
@@ -0,0 +1,66 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service;
+
+import com.movk.base.file.StagedFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 内容寻址文件存储服务
+ * 物理文件按 SHA-256 分目录保存（blobs/ab/cd/{sha256}），相同内容只保存一份；
+ * 每条 sys_file 元数据持有一个引用，引用计数归零后由后台 GC 删除物理文件。
+ * blob 写入主存储后端，已存在的 blob 留在原后端并继续被引用
+ */
+public interface FileBlobService {
+
+    /**
+     * blob 位置
+     *
+     * @param storageType 存储类型
+     * @param path        存储 key（相对路径）
+     */
+    record StoredBlob(String storageType, String path) {
+    }
+
+    /**
+     * 暂存目录：位于本地存储根目录下，本地存储时暂存文件可原子移动到 blob 路径
+     */
+    Path stagingDir();
+
+    /**
+     * 写入存储后端：先登记零引用的 blob 记录，对象已存在时丢弃暂存文件，否则写入（对象 key 由内容决定，重复写入幂等）
+     * 未被 acquire 的对象在 GC 宽限期后回收
+     * 耗时的对象写入不占用数据库事务，须在事务外调用，随后在保存 sys_file 的事务内调用 {@link #acquire}
+     *
+     * @param staged 暂存文件
+     * @return 写入的 blob 位置
+     */
+    StoredBlob upload(StagedFile staged) throws IOException;
+
+    /**
+     * 增加引用：须在 {@link #upload} 之后、保存 sys_file 的同一事务内调用
+     *
+     * @param staged 暂存文件
+     * @return blob 位置（以 sys_file_blob 记录为准）
+     */
+    StoredBlob acquire(StagedFile staged);
+
+    /**
+     * 释放一个引用（sys_file 删除时调用）
+     *
+     * @param sha256 blob 键
+     */
+    void release(String sha256);
+
+    /**
+     * 删除引用计数为零且超过宽限期的 blob
+     *
+     * @return 删除的 blob 数量
+     */
+    int collectGarbage();
+}
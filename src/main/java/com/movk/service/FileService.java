@@ -5,6 +5,9 @@
 
 package com.movk.service;
 
+import com.movk.base.file.StagedFile;
+import com.movk.dto.file.FileBatchUploadItem;
+import com.movk.dto.file.FileContent;
 import com.movk.dto.file.FileQueryReq;
 import com.movk.dto.file.FileResp;
 import com.movk.dto.file.FileUploadResp;
@@ -39,6 +42,28 @@ public interface FileService {
      */
     List<FileUploadResp> uploadBatch(MultipartFile[] files, String category);
 
+    /**
+     * 并发批量上传文件：各文件并发暂存并计算摘要，单个文件失败不影响其他文件，
+     * 成功的文件在同一事务内批量写入元数据
+     *
+     * @param files    文件数组
+     * @param category 文件分类
+     * @return 与入参顺序一致的逐个文件结果
+     */
+    List<FileBatchUploadItem> uploadBatchParallel(MultipartFile[] files, String category);
+
+    /**
+     * 登记已写入存储的文件：增加 blob 引用并保存元数据
+     * 调用前须已通过 {@link FileBlobService#upload} 写入存储，本方法只执行数据库操作
+     *
+     * @param staged       暂存文件（已计算摘要）
+     * @param originalName 原始文件名
+     * @param contentType  MIME 类型
+     * @param category     文件分类
+     * @return 上传结果
+     */
+    FileUploadResp register(StagedFile staged, String originalName, String contentType, String category);
+
     /**
      * 下载文件
      *
@@ -55,6 +80,14 @@ public interface FileService {
      */
     Resource downloadByStorageName(String storageName);
 
+    /**
+     * 获取下载所需的文件描述（单次查询，不访问磁盘）
+     *
+     * @param id 文件 ID
+     * @return 文件描述
+     */
+    FileContent getFileContent(UUID id);
+
     /**
      * 获取文件详情
      *
@@ -0,0 +1,28 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service;
+
+import com.movk.dto.file.FileContent;
+
+import java.util.UUID;
+
+/**
+ * 图片变体服务
+ * 按宽高与格式生成缩放后的图片（等比缩放至不超过指定宽高，不放大），生成一次后缓存在本地磁盘
+ */
+public interface ImageVariantService {
+
+    /**
+     * 获取图片变体
+     *
+     * @param fileId 文件 ID
+     * @param width  最大宽度，可为空（仅按高度缩放），向上取整到配置的尺寸档位
+     * @param height 最大高度，可为空（仅按宽度缩放），向上取整到配置的尺寸档位
+     * @param format 输出格式：jpeg / png，为空时按原图自动选择
+     * @return 变体内容；原文件不是可处理的图片时返回 null，由调用方输出原文件
+     */
+    FileContent getVariant(UUID fileId, Integer width, Integer height, String format);
+}
@@ -0,0 +1,41 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 日志分区维护服务接口
+ * 操作日志与登录日志按 UTC 月份范围分区，分区命名为 {父表}_pYYYYMM
+ */
+public interface LogPartitionService {
+
+    /**
+     * 操作日志表
+     */
+    String OPERATE_LOG = "sys_operate_log";
+
+    /**
+     * 登录日志表
+     */
+    String LOGIN_LOG = "sys_login_log";
+
+    /**
+     * 预先创建当月及未来若干月的分区
+     */
+    void ensurePartitions();
+
+    /**
+     * 清理指定时间之前的日志
+     * 整月早于截止时间的分区逐个 DETACH + DROP，截止月份分区与默认分区中剩余的过期行分批删除；
+     * 不应在外层事务中调用，否则分区锁会持有到外层事务结束
+     *
+     * @param table  日志表（{@link #OPERATE_LOG} 或 {@link #LOGIN_LOG}）
+     * @param before 截止时间
+     * @return 清理的行数（整月分区为统计信息估算值）
+     */
+    long dropBefore(String table, OffsetDateTime before);
+}
@@ -0,0 +1,60 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service;
+
+import com.movk.common.enums.BusinessStatus;
+import com.movk.dto.log.LoginLogStatResp;
+import com.movk.dto.log.OperateLogStatResp;
+import com.movk.entity.LoginLog;
+import com.movk.entity.OperateLog;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * 审计日志预聚合统计服务
+ * 日志批量入库后在内存中累加计数，定时合并写入统计表；统计查询只读统计表
+ */
+public interface LogStatService {
+
+    /**
+     * 累加已入库的操作日志（按小时、模块、状态）
+     */
+    void recordOperateLogs(List<OperateLog> logs);
+
+    /**
+     * 累加已入库的登录日志（按 10 分钟、登录 IP、状态）
+     */
+    void recordLoginLogs(List<LoginLog> logs);
+
+    /**
+     * 将内存中的计数合并写入统计表
+     */
+    void flush();
+
+    /**
+     * 查询操作日志小时统计
+     *
+     * @param startTime 开始时间
+     * @param endTime   结束时间
+     * @param module    模块（可选，精确匹配）
+     * @param status    状态（可选）
+     */
+    List<OperateLogStatResp> operateStats(OffsetDateTime startTime, OffsetDateTime endTime,
+                                          String module, BusinessStatus status);
+
+    /**
+     * 查询登录日志 10 分钟统计
+     *
+     * @param startTime 开始时间
+     * @param endTime   结束时间
+     * @param loginIp   登录 IP（可选，精确匹配）
+     * @param status    状态（可选）
+     * @param minCount  单个时段最少次数（用于筛选高频失败 IP）
+     */
+    List<LoginLogStatResp> loginStats(OffsetDateTime startTime, OffsetDateTime endTime,
+                                      String loginIp, BusinessStatus status, long minCount);
+}
@@ -5,12 +5,16 @@
 
 package com.movk.service;
 
+import com.movk.base.export.RowStreamWriter;
+import com.movk.base.result.CountMode;
+import com.movk.base.result.CursorPage;
 import com.movk.common.enums.BusinessStatus;
 import com.movk.common.enums.LoginType;
 import com.movk.entity.LoginLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -41,6 +45,19 @@ public interface LoginLogService {
     Page<LoginLog> listLoginLogs(String username, String loginIp, BusinessStatus status,
                                  OffsetDateTime startTime, OffsetDateTime endTime, Pageable pageable);
 
+    /**
+     * 游标分页查询登录日志（按 created_at, id 倒序，不使用 OFFSET）
+     *
+     * @param keyword   关键字（可选，匹配用户名、登录 IP，走 pg_trgm 索引）
+     * @param cursor    上一页返回的游标（首页为空）
+     * @param size      每页条数
+     * @param countMode 总数计算方式
+     * @return 游标分页结果
+     */
+    CursorPage<LoginLog> scrollLoginLogs(String username, String loginIp, BusinessStatus status,
+                                         OffsetDateTime startTime, OffsetDateTime endTime,
+                                         String keyword, String cursor, int size, CountMode countMode);
+
     /**
      * 根据 ID 查询登录日志详情
      */
@@ -52,11 +69,28 @@ public interface LoginLogService {
     LoginLog getLatestLoginByUsername(String username);
 
     /**
-     * 导出登录日志
+     * 导出登录日志，结果超过列表导出上限时抛出 BusinessException，提示改用流式导出
      */
     List<LoginLog> exportLogs(String username, String loginIp, BusinessStatus status,
                               OffsetDateTime startTime, OffsetDateTime endTime);
 
+    /**
+     * 流式导出是否会被行数上限截断（匹配行多于 limit 或配置上限），在写出第一个字节前调用
+     */
+    boolean isExportTruncated(String username, String loginIp, BusinessStatus status,
+                              OffsetDateTime startTime, OffsetDateTime endTime, Integer limit);
+
+    /**
+     * 流式导出登录日志（只进游标逐行写出，内存占用与行数无关）
+     *
+     * @param limit  最大行数（可选，超过配置上限时取上限）
+     * @param writer 行写入器
+     * @return 导出行数
+     */
+    long streamExport(String username, String loginIp, BusinessStatus status,
+                      OffsetDateTime startTime, OffsetDateTime endTime,
+                      Integer limit, RowStreamWriter writer) throws IOException;
+
     /**
      * 清理指定天数之前的日志
      */
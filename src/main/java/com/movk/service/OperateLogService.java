@@ -5,11 +5,15 @@
 
 package com.movk.service;
 
+import com.movk.base.export.RowStreamWriter;
+import com.movk.base.result.CountMode;
+import com.movk.base.result.CursorPage;
 import com.movk.common.enums.BusinessStatus;
 import com.movk.entity.OperateLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -20,7 +24,7 @@ import java.util.UUID;
 public interface OperateLogService {
 
     /**
-     * 异步保存操作日志
+     * 异步保存操作日志（提交到批量写入缓冲）
      */
     void saveLogAsync(OperateLog log);
 
@@ -40,6 +44,20 @@ public interface OperateLogService {
                                      BusinessStatus status, OffsetDateTime startTime,
                                      OffsetDateTime endTime, Pageable pageable);
 
+    /**
+     * 游标分页查询操作日志（按 created_at, id 倒序，不使用 OFFSET）
+     *
+     * @param keyword   关键字（可选，匹配模块、请求 URL、错误信息，走 pg_trgm 索引）
+     * @param cursor    上一页返回的游标（首页为空）
+     * @param size      每页条数
+     * @param countMode 总数计算方式
+     * @return 游标分页结果
+     */
+    CursorPage<OperateLog> scrollOperateLogs(UUID userId, String module, String operation,
+                                             BusinessStatus status, OffsetDateTime startTime,
+                                             OffsetDateTime endTime, String keyword, String cursor,
+                                             int size, CountMode countMode);
+
     /**
      * 根据 ID 查询操作日志详情
      */
@@ -59,7 +77,7 @@ public interface OperateLogService {
     int cleanLogs(int days);
 
     /**
-     * 导出操作日志
+     * 导出操作日志，结果超过列表导出上限时抛出 BusinessException，提示改用流式导出
      *
      * @param userId    用户 ID（可选）
      * @param module    模块（可选）
@@ -70,4 +88,21 @@ public interface OperateLogService {
      */
     List<OperateLog> exportLogs(UUID userId, String module, BusinessStatus status,
                                 OffsetDateTime startTime, OffsetDateTime endTime);
+
+    /**
+     * 流式导出是否会被行数上限截断（匹配行多于 limit 或配置上限），在写出第一个字节前调用
+     */
+    boolean isExportTruncated(UUID userId, String module, BusinessStatus status,
+                              OffsetDateTime startTime, OffsetDateTime endTime, Integer limit);
+
+    /**
+     * 流式导出操作日志（只进游标逐行写出，内存占用与行数无关）
+     *
+     * @param limit  最大行数（可选，超过配置上限时取上限）
+     * @param writer 行写入器
+     * @return 导出行数
+     */
+    long streamExport(UUID userId, String module, BusinessStatus status,
+                      OffsetDateTime startTime, OffsetDateTime endTime,
+                      Integer limit, RowStreamWriter writer) throws IOException;
 }
@@ -0,0 +1,340 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service.impl;
+
+import com.movk.base.config.FileProperties;
+import com.movk.base.exception.BusinessException;
+import com.movk.base.file.PartHasher;
+import com.movk.base.file.StagedFile;
+import com.movk.base.result.RCode;
+import com.movk.dto.file.ChunkUploadInitReq;
+import com.movk.dto.file.ChunkUploadResp;
+import com.movk.dto.file.FileUploadResp;
+import com.movk.security.service.CurrentUserService;
+import com.movk.service.ChunkUploadService;
+import com.movk.service.FileBlobService;
+import com.movk.service.FileService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分片上传服务实现
+ * <p>
+ * 初始化时在 blob 暂存目录下预分配与文件等长的暂存文件，各分片用 FileChannel 定位写入 (n-1) * partSize，
+ * 互不加锁，可并发；分片落盘（force）后才写入 sys_file_upload_part，因此数据库中记录的分片一定完整，
+ * 进程重启后会话与已接收分片均可恢复。摘要由内存中的 {@link PartHasher} 沿连续到达的分片增量计算，
+ * 合并时只需处理剩余部分；重启后实例丢失则在合并时从头计算。
+ * 暂存文件位于本节点的本地目录，同一会话的分片与合并请求须路由到同一节点（多节点部署时按 uploadId 做会话粘滞）。
+ */
+@Slf4j
+@Service
+public class ChunkUploadServiceImpl implements ChunkUploadService {
+
+    /**
+     * 客户端可指定的分片大小范围
+     */
+    static final int MIN_PART_SIZE = 1024 * 1024;
+    static final int MAX_PART_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * 单个会话最多分片数
+     */
+    static final int MAX_PART_COUNT = 10_000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String SESSION_SQL = "SELECT original_name, content_type, category, size, part_size, "
+        + "part_count, creator, expires_at FROM sys_file_upload WHERE id = ?";
+
+    private final FileProperties fileProperties;
+    private final FileService fileService;
+    private final FileBlobService fileBlobService;
+    private final CurrentUserService currentUserService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<UUID, PartHasher> hashers = new ConcurrentHashMap<>();
+
+    public ChunkUploadServiceImpl(FileProperties fileProperties, FileService fileService,
+                                  FileBlobService fileBlobService, CurrentUserService currentUserService,
+                                  JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.fileProperties = fileProperties;
+        this.fileService = fileService;
+        this.fileBlobService = fileBlobService;
+        this.currentUserService = currentUserService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ChunkUploadResp init(ChunkUploadInitReq req) {
+        String fileName = StringUtils.cleanPath(req.getFileName());
+        validate(fileName, req.getSize());
+
+        int partSize = req.getPartSize() == null ? fileProperties.getChunkPartSize() : req.getPartSize();
+        if (partSize < MIN_PART_SIZE || partSize > MAX_PART_SIZE) {
+            throw new BusinessException(RCode.BAD_REQUEST, "分片大小须在 1MB ~ 64MB 之间");
+        }
+        long partCount = (req.getSize() + partSize - 1) / partSize;
+        if (partCount > MAX_PART_COUNT) {
+            throw new BusinessException(RCode.BAD_REQUEST, "分片数超出限制，请增大分片大小");
+        }
+
+        UUID uploadId = UUID.randomUUID();
+        try {
+            Files.createDirectories(fileBlobService.stagingDir());
+            // 预分配：多数文件系统上为稀疏文件，不实际写零
+            try (RandomAccessFile file = new RandomAccessFile(dataPath(uploadId).toFile(), "rw")) {
+                file.setLength(req.getSize());
+            }
+        } catch (IOException e) {
+            log.error("分片上传初始化失败: {}", fileName, e);
+            throw new BusinessException(RCode.INTERNAL_ERROR, "分片上传初始化失败: " + e.getMessage());
+        }
+
+        OffsetDateTime expiresAt = OffsetDateTime.now().plus(fileProperties.getChunkExpire());
+        jdbcTemplate.update("INSERT INTO sys_file_upload (id, original_name, content_type, category, size, part_size, "
+                + "part_count, creator, expires_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            uploadId, fileName, req.getContentType(), req.getCategory(), req.getSize(), partSize, (int) partCount,
+            currentUserService.getCurrentUser().getId(), expiresAt);
+
+        return ChunkUploadResp.builder()
+            .uploadId(uploadId)
+            .fileName(fileName)
+            .size(req.getSize())
+            .partSize(partSize)
+            .partCount((int) partCount)
+            .receivedParts(List.of())
+            .expiresAt(expiresAt)
+            .build();
+    }
+
+    @Override
+    public void putPart(UUID uploadId, int partNumber, InputStream in, long contentLength) {
+        Session session = loadSession(uploadId);
+        if (partNumber < 1 || partNumber > session.partCount()) {
+            throw new BusinessException(RCode.BAD_REQUEST, "分片号须在 1 ~ " + session.partCount() + " 之间");
+        }
+        long expected = session.partLength(partNumber);
+        if (contentLength >= 0 && contentLength != expected) {
+            throw new BusinessException(RCode.BAD_REQUEST, "分片 " + partNumber + " 长度应为 " + expected);
+        }
+        if (receivedParts(uploadId).get(partNumber)) {
+            return;
+        }
+
+        Path dataPath = dataPath(uploadId);
+        try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.WRITE)) {
+            long written = writePart(channel, in, session.offset(partNumber), expected);
+            if (written != expected) {
+                throw new BusinessException(RCode.BAD_REQUEST,
+                    "分片 " + partNumber + " 长度应为 " + expected + "，实际 " + written);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            log.warn("分片写入失败: {} part {}", uploadId, partNumber, e);
+            throw new BusinessException(RCode.INTERNAL_ERROR, "分片写入失败: " + e.getMessage());
+        }
+        jdbcTemplate.update("INSERT INTO sys_file_upload_part (upload_id, part_number) VALUES (?, ?) "
+            + "ON CONFLICT DO NOTHING", uploadId, partNumber);
+
+        // 顺带推进摘要；失败不影响分片本身，合并时会重新推进
+        try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+            hasher(session).tryAdvance(channel, receivedParts(uploadId)::get);
+        } catch (IOException e) {
+            log.warn("分片摘要推进失败: {}", uploadId, e);
+            hashers.remove(uploadId);
+        }
+    }
+
+    @Override
+    public ChunkUploadResp status(UUID uploadId) {
+        Session session = loadSession(uploadId);
+        return ChunkUploadResp.builder()
+            .uploadId(uploadId)
+            .fileName(session.originalName())
+            .size(session.size())
+            .partSize(session.partSize())
+            .partCount(session.partCount())
+            .receivedParts(receivedParts(uploadId).stream().boxed().toList())
+            .expiresAt(session.expiresAt())
+            .build();
+    }
+
+    @Override
+    public FileUploadResp complete(UUID uploadId) {
+        Session session = loadSession(uploadId);
+        BitSet received = receivedParts(uploadId);
+        int missing = session.partCount() - received.cardinality();
+        if (missing > 0) {
+            throw new BusinessException(RCode.BAD_REQUEST, "还有 " + missing + " 个分片未上传");
+        }
+
+        Path dataPath = dataPath(uploadId);
+        PartHasher hasher = hasher(session);
+        // 已算出摘要时不再读取暂存文件：上次合并可能已把它移动到 blob 路径
+        String[] digests = hasher.digests();
+        if (digests == null) {
+            try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+                digests = hasher.finish(channel, received::get);
+            } catch (IOException e) {
+                hashers.remove(uploadId);
+                log.error("分片合并失败: {}", uploadId, e);
+                throw new BusinessException(RCode.INTERNAL_ERROR, "分片合并失败: " + e.getMessage());
+            }
+        }
+
+        // 写入存储在事务外完成（内容寻址，重试幂等）
+        StagedFile staged = StagedFile.of(dataPath, digests[0], digests[1], session.size());
+        try {
+            fileBlobService.upload(staged);
+        } catch (IOException e) {
+            log.error("分片合并失败: {}", uploadId, e);
+            throw new BusinessException(RCode.INTERNAL_ERROR, "分片合并失败: " + e.getMessage());
+        }
+
+        // 删除会话行即占有该会话，与文件登记同一事务；登记失败时会话保留，可重新合并
+        FileUploadResp resp = transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update("DELETE FROM sys_file_upload WHERE id = ?", uploadId) == 0) {
+                throw new BusinessException(RCode.NOT_FOUND, "上传会话不存在或已过期");
+            }
+            return fileService.register(staged, session.originalName(), session.contentType(), session.category());
+        });
+        hashers.remove(uploadId);
+        // 相同内容的 blob 已存在时暂存文件未被移动，此处删除
+        try {
+            staged.close();
+        } catch (IOException e) {
+            log.warn("删除分片暂存文件失败: {}", uploadId, e);
+        }
+        return resp;
+    }
+
+    @Override
+    public void abort(UUID uploadId) {
+        loadSession(uploadId);
+        discard(uploadId);
+    }
+
+    /**
+     * 每小时第 40 分钟清理过期会话
+     */
+    @Override
+    @Scheduled(cron = "${file.chunk.cleanup-cron:0 40 * * * ?}")
+    public int cleanupExpired() {
+        List<UUID> expired = jdbcTemplate.queryForList(
+            "SELECT id FROM sys_file_upload WHERE expires_at < ?", UUID.class, OffsetDateTime.now());
+        expired.forEach(this::discard);
+        if (!expired.isEmpty()) {
+            log.info("过期分片上传会话清理完成，共 {} 个", expired.size());
+        }
+        return expired.size();
+    }
+
+    private void discard(UUID uploadId) {
+        jdbcTemplate.update("DELETE FROM sys_file_upload WHERE id = ?", uploadId);
+        hashers.remove(uploadId);
+        try {
+            Files.deleteIfExists(dataPath(uploadId));
+        } catch (IOException e) {
+            log.warn("删除分片暂存文件失败: {}", uploadId, e);
+        }
+    }
+
+    /**
+     * 从输入流写入分片，至多写 expected + 1 字节（多出的 1 字节用于识别超长分片）
+     */
+    private static long writePart(FileChannel channel, InputStream in, long offset, long expected) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long written = 0;
+        int read;
+        while (written <= expected
+            && (read = in.read(buffer, 0, (int) Math.min(buffer.length, expected + 1 - written))) != -1) {
+            if (written + read > expected) {
+                return written + read;
+            }
+            ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+            while (chunk.hasRemaining()) {
+                written += channel.write(chunk, offset + written);
+            }
+        }
+        return written;
+    }
+
+    private PartHasher hasher(Session session) {
+        return hashers.computeIfAbsent(session.id(),
+            id -> new PartHasher(session.size(), session.partSize(), session.partCount()));
+    }
+
+    private BitSet receivedParts(UUID uploadId) {
+        BitSet received = new BitSet();
+        jdbcTemplate.queryForList("SELECT part_number FROM sys_file_upload_part WHERE upload_id = ?",
+            Integer.class, uploadId).forEach(received::set);
+        return received;
+    }
+
+    /**
+     * 加载会话：不存在、已过期或不属于当前用户时一律视为不存在
+     */
+    private Session loadSession(UUID uploadId) {
+        UUID userId = currentUserService.getCurrentUser().getId();
+        List<Session> sessions = jdbcTemplate.query(SESSION_SQL, (rs, rowNum) -> new Session(uploadId,
+            rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4), rs.getInt(5), rs.getInt(6),
+            rs.getObject(7, UUID.class), rs.getObject(8, OffsetDateTime.class)), uploadId);
+        if (sessions.isEmpty() || !sessions.get(0).creator().equals(userId)
+            || sessions.get(0).expiresAt().isBefore(OffsetDateTime.now())) {
+            throw new BusinessException(RCode.NOT_FOUND, "上传会话不存在或已过期");
+        }
+        return sessions.get(0);
+    }
+
+    private void validate(String fileName, long size) {
+        if (size > fileProperties.getChunkMaxSize()) {
+            throw new BusinessException(RCode.BAD_REQUEST, "文件大小超出分片上传限制");
+        }
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase();
+        if (!extension.isEmpty() && !fileProperties.getAllowedExtensions().contains(extension)) {
+            throw new BusinessException(RCode.BAD_REQUEST, "不支持的文件类型: " + extension);
+        }
+    }
+
+    private Path dataPath(UUID uploadId) {
+        return fileBlobService.stagingDir().resolve("upload-" + uploadId + ".part");
+    }
+
+    private record Session(UUID id, String originalName, String contentType, String category, long size,
+                           int partSize, int partCount, UUID creator, OffsetDateTime expiresAt) {
+
+        long offset(int partNumber) {
+            return (long) (partNumber - 1) * partSize;
+        }
+
+        long partLength(int partNumber) {
+            return Math.min(partSize, size - offset(partNumber));
+        }
+    }
+}
@@ -117,7 +117,7 @@ public class ConfigServiceImpl implements ConfigService {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.CONFIG, key = "#configKey")
+    @Cacheable(value = CacheConfig.CONFIG, key = "#configKey", sync = true)
     public String getConfigValue(String configKey) {
         return configRepository.findByConfigKeyAndDeletedFalse(configKey)
             .map(Config::getConfigValue)
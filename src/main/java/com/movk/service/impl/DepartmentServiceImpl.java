@@ -5,6 +5,7 @@
 
 package com.movk.service.impl;
 
+import com.movk.base.cache.CacheRefresher;
 import com.movk.base.config.CacheConfig;
 import com.movk.base.exception.BusinessException;
 import com.movk.base.result.RCode;
@@ -29,7 +30,7 @@ import java.util.stream.Collectors;
  */
 @Service
 @RequiredArgsConstructor
-public class DepartmentServiceImpl implements DepartmentService {
+public class DepartmentServiceImpl implements DepartmentService, CacheRefresher {
 
     private final DepartmentRepository departmentRepository;
     private final UserRepository userRepository;
@@ -127,8 +128,26 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.DEPT_TREE, key = "'all'")
+    @Cacheable(value = CacheConfig.DEPT_TREE, key = "'all'", sync = true)
     public List<DeptResp> getDepartmentTree() {
+        return loadDepartmentTree();
+    }
+
+    @Override
+    public String cacheName() {
+        return CacheConfig.DEPT_TREE;
+    }
+
+    /**
+     * 部门树缓存提前刷新（缓存仅有 'all' 一个键）
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Object reload(Object key) {
+        return loadDepartmentTree();
+    }
+
+    private List<DeptResp> loadDepartmentTree() {
         List<Department> allDepartments = departmentRepository.findByDeletedFalseOrderByOrderNumAsc();
         return buildDepartmentTree(allDepartments, null);
     }
@@ -5,6 +5,7 @@
 
 package com.movk.service.impl;
 
+import com.movk.base.cache.CacheRefresher;
 import com.movk.base.config.CacheConfig;
 import com.movk.common.enums.EnableStatus;
 import com.movk.dto.dict.*;
@@ -33,7 +34,7 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class DictServiceImpl implements DictService {
+public class DictServiceImpl implements DictService, CacheRefresher {
 
     private final DictTypeRepository dictTypeRepository;
     private final DictDataRepository dictDataRepository;
@@ -211,8 +212,25 @@ public class DictServiceImpl implements DictService {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.DICT_DATA, key = "#dictType")
+    @Cacheable(value = CacheConfig.DICT_DATA, key = "#dictType", sync = true)
     public List<DictDataResp> getDictDataByType(String dictType) {
+        return loadDictData(dictType);
+    }
+
+    @Override
+    public String cacheName() {
+        return CacheConfig.DICT_DATA;
+    }
+
+    /**
+     * 字典数据缓存提前刷新：只有 getDictDataByType 同步加载，提前刷新的键均为字典类型
+     */
+    @Override
+    public Object reload(Object key) {
+        return loadDictData(String.valueOf(key));
+    }
+
+    private List<DictDataResp> loadDictData(String dictType) {
         return dictDataRepository.findByDictTypeAndStatusAndDeletedFalseOrderByDictSortAsc(
                 dictType, EnableStatus.ENABLED
             )
@@ -0,0 +1,164 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service.impl;
+
+import com.movk.base.config.FileProperties;
+import com.movk.base.file.StagedFile;
+import com.movk.base.storage.FileStorage;
+import com.movk.base.storage.FileStorageRegistry;
+import com.movk.service.FileBlobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 内容寻址文件存储服务实现
+ * <p>
+ * 对象写入与引用计数分两步：upload 在事务外写入存储后端，acquire 在调用方事务内 INSERT ... ON CONFLICT 增加引用，
+ * 行锁只持有一条语句到事务提交，不覆盖对象写入。
+ * upload 在写入对象之前先登记 blob 记录：新内容插入 ref_count = 0、zero_since = 当前时间的记录，
+ * 已有的无引用记录刷新 zero_since，使其在宽限期内不会被 GC 选中；
+ * GC 正持有该行时登记语句等待其提交，随后按行已删除重新插入并写入对象。
+ * 因此只要 upload 到 acquire 提交之间不超过 GC 宽限期，引用存在时对象一定存在；
+ * 写入后登记失败或调用方事务回滚时，对象仍有零引用记录，宽限期后由 GC 一并删除，不会遗留无记录的对象。
+ */
+@Slf4j
+@Service
+public class FileBlobServiceImpl implements FileBlobService {
+
+    /**
+     * blob 根目录（相对 file.base-path）
+     */
+    static final String BLOB_ROOT = "blobs";
+
+    private static final String ACQUIRE_SQL = "INSERT INTO sys_file_blob (sha256, path, size, ref_count, storage_type) "
+        + "VALUES (?, ?, ?, 1, ?) "
+        + "ON CONFLICT (sha256) DO UPDATE SET ref_count = sys_file_blob.ref_count + 1, zero_since = NULL "
+        + "RETURNING storage_type, path";
+
+    private static final String REGISTER_SQL = "INSERT INTO sys_file_blob (sha256, path, size, ref_count, storage_type, zero_since) "
+        + "VALUES (?, ?, ?, 0, ?, NOW()) "
+        + "ON CONFLICT (sha256) DO UPDATE SET "
+        + "zero_since = CASE WHEN sys_file_blob.ref_count <= 0 THEN NOW() ELSE NULL END "
+        + "RETURNING storage_type, path";
+
+    private static final RowMapper<StoredBlob> BLOB_MAPPER =
+        (rs, rowNum) -> new StoredBlob(rs.getString(1), rs.getString(2));
+
+    private static final String RELEASE_SQL = "UPDATE sys_file_blob SET ref_count = ref_count - 1, "
+        + "zero_since = CASE WHEN ref_count <= 1 THEN NOW() ELSE NULL END WHERE sha256 = ?";
+
+    private final FileProperties fileProperties;
+    private final FileStorageRegistry storageRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${file.blob.gc-grace:1h}")
+    private Duration gcGrace;
+
+    @Value("${file.blob.gc-batch-size:500}")
+    private int gcBatchSize;
+
+    public FileBlobServiceImpl(FileProperties fileProperties, FileStorageRegistry storageRegistry,
+                               JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.fileProperties = fileProperties;
+        this.storageRegistry = storageRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Path stagingDir() {
+        return basePath().resolve(BLOB_ROOT).resolve(".staging");
+    }
+
+    @Override
+    public StoredBlob upload(StagedFile staged) throws IOException {
+        String sha256 = staged.getSha256();
+        // 先登记零引用记录（已有记录时推迟其回收）再写入对象，acquire 之前失败的对象由 GC 回收
+        StoredBlob blob = jdbcTemplate.queryForObject(REGISTER_SQL, BLOB_MAPPER,
+            sha256, blobPath(sha256), staged.getSize(), storageRegistry.primary().getType());
+        FileStorage storage = storageRegistry.get(blob.storageType());
+        if (storage.stat(blob.path()) == null) {
+            storage.put(blob.path(), staged);
+        }
+        return blob;
+    }
+
+    @Override
+    @Transactional
+    public StoredBlob acquire(StagedFile staged) {
+        String sha256 = staged.getSha256();
+        return jdbcTemplate.queryForObject(ACQUIRE_SQL, BLOB_MAPPER,
+            sha256, blobPath(sha256), staged.getSize(), storageRegistry.primary().getType());
+    }
+
+    @Override
+    @Transactional
+    public void release(String sha256) {
+        jdbcTemplate.update(RELEASE_SQL, sha256);
+    }
+
+    /**
+     * 每小时第 20 分钟回收无引用的 blob，按批处理，每批独立事务
+     */
+    @Override
+    @Scheduled(cron = "${file.blob.gc-cron:0 20 * * * ?}")
+    public int collectGarbage() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(gcGrace);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> collectBatch(cutoff));
+            total += deleted;
+        } while (deleted >= gcBatchSize);
+        if (total > 0) {
+            log.info("文件 blob 回收完成，共删除 {} 个", total);
+        }
+        return total;
+    }
+
+    private int collectBatch(OffsetDateTime cutoff) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT sha256, path, storage_type FROM sys_file_blob WHERE ref_count <= 0 AND zero_since < ? "
+                + "ORDER BY zero_since LIMIT ? FOR UPDATE SKIP LOCKED", cutoff, gcBatchSize);
+        for (Map<String, Object> row : rows) {
+            try {
+                storageRegistry.get((String) row.get("storage_type")).delete((String) row.get("path"));
+            } catch (IOException e) {
+                throw new UncheckedIOException("删除 blob 失败: " + row.get("sha256"), e);
+            }
+            jdbcTemplate.update("DELETE FROM sys_file_blob WHERE sha256 = ?", row.get("sha256"));
+        }
+        return rows.size();
+    }
+
+    /**
+     * blob 相对路径：blobs/ab/cd/{sha256}，两级 256 路分目录
+     */
+    static String blobPath(String sha256) {
+        return BLOB_ROOT + "/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+    }
+
+    private Path basePath() {
+        return Paths.get(fileProperties.getBasePath());
+    }
+}
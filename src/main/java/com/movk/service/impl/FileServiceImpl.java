@@ -7,124 +7,280 @@ package com.movk.service.impl;
 
 import com.movk.base.config.FileProperties;
 import com.movk.base.exception.BusinessException;
+import com.movk.base.file.StagedFile;
 import com.movk.base.result.RCode;
+import com.movk.base.storage.FileStorage;
+import com.movk.base.storage.FileStorageRegistry;
+import com.movk.dto.file.FileBatchUploadItem;
+import com.movk.dto.file.FileContent;
 import com.movk.dto.file.FileQueryReq;
 import com.movk.dto.file.FileResp;
 import com.movk.dto.file.FileUploadResp;
 import com.movk.entity.SysFile;
 import com.movk.repository.SysFileRepository;
+import com.movk.service.FileBlobService;
 import com.movk.service.FileService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.DigestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
-import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.time.LocalDate;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * 文件服务实现
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class FileServiceImpl implements FileService {
 
     private final FileProperties fileProperties;
     private final SysFileRepository sysFileRepository;
+    private final FileBlobService fileBlobService;
+    private final FileStorageRegistry storageRegistry;
+    private final Executor fileUploadExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public FileServiceImpl(FileProperties fileProperties, SysFileRepository sysFileRepository,
+                           FileBlobService fileBlobService, FileStorageRegistry storageRegistry,
+                           @Qualifier("fileUploadExecutor") Executor fileUploadExecutor,
+                           PlatformTransactionManager transactionManager) {
+        this.fileProperties = fileProperties;
+        this.sysFileRepository = sysFileRepository;
+        this.fileBlobService = fileBlobService;
+        this.storageRegistry = storageRegistry;
+        this.fileUploadExecutor = fileUploadExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Override
-    @Transactional
     public FileUploadResp upload(MultipartFile file, String category) {
         validateFile(file);
 
         String originalName = StringUtils.cleanPath(file.getOriginalFilename());
-        String extension = getExtension(originalName);
-        String storageName = UUID.randomUUID() + (extension.isEmpty() ? "" : "." + extension);
-        String relativePath = generateRelativePath(category, storageName);
-        Path targetPath = getAbsolutePath(relativePath);
 
-        try {
-            // 确保目录存在
-            Files.createDirectories(targetPath.getParent());
+        // 单次读取：边写暂存文件边计算摘要；相同内容的 blob 已存在时丢弃暂存文件，只新增元数据与引用
+        // 写入存储在事务外完成，事务内只增加引用并保存元数据
+        try (InputStream inputStream = file.getInputStream();
+             StagedFile staged = StagedFile.stage(inputStream, fileBlobService.stagingDir())) {
+            fileBlobService.upload(staged);
+            return transactionTemplate.execute(status ->
+                    register(staged, originalName, file.getContentType(), category));
+        } catch (IOException e) {
+            log.error("文件上传失败: {}", originalName, e);
+            throw new BusinessException(RCode.INTERNAL_ERROR, "文件上传失败: " + e.getMessage());
+        }
+    }
 
-            // 计算 MD5
-            String md5 = calculateMd5(file);
+    @Override
+    @Transactional
+    public FileUploadResp register(StagedFile staged, String originalName, String contentType, String category) {
+        SysFile sysFile = sysFileRepository.save(newFile(staged, originalName, contentType, category));
+        log.info("文件上传成功: {} -> {}", originalName, sysFile.getPath());
+        return buildUploadResp(sysFile);
+    }
 
-            // 检查是否存在相同 MD5 的文件（秒传）
-            var existingFile = sysFileRepository.findByMd5AndDeletedFalse(md5);
-            if (existingFile.isPresent()) {
-                SysFile existing = existingFile.get();
-                return buildUploadResp(existing);
+    /**
+     * 依次暂存并写入存储，全部成功后在一个事务内登记，任一文件失败则整批失败
+     */
+    @Override
+    public List<FileUploadResp> uploadBatch(MultipartFile[] files, String category) {
+        List<StagedFile> staged = new ArrayList<>(files.length);
+        try {
+            for (MultipartFile file : files) {
+                staged.add(stageAndUpload(file));
             }
+            return transactionTemplate.execute(status -> {
+                List<FileUploadResp> result = new ArrayList<>(files.length);
+                for (int i = 0; i < files.length; i++) {
+                    result.add(register(staged.get(i), StringUtils.cleanPath(files[i].getOriginalFilename()),
+                            files[i].getContentType(), category));
+                }
+                return result;
+            });
+        } finally {
+            staged.forEach(this::closeQuietly);
+        }
+    }
 
-            // 保存文件到磁盘
-            try (InputStream inputStream = file.getInputStream()) {
-                Files.copy(inputStream, targetPath, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * 第一阶段在 fileUploadExecutor 上并发暂存（读取、写盘、计算摘要）并写入存储，不占用数据库事务；
+     * 第二阶段在一个事务内依次增加 blob 引用并 saveAll，元数据按 hibernate.jdbc.batch_size 批量插入。
+     * 校验、写盘或写入存储失败的文件只标记自身失败；第二阶段事务失败时整体回滚（含已累加的 blob 引用计数），
+     * 本批全部标记失败
+     */
+    @Override
+    public List<FileBatchUploadItem> uploadBatchParallel(MultipartFile[] files, String category) {
+        List<CompletableFuture<StagedFile>> futures = Arrays.stream(files)
+                .map(file -> CompletableFuture.supplyAsync(() -> stageAndUpload(file), fileUploadExecutor))
+                .toList();
+
+        FileBatchUploadItem[] items = new FileBatchUploadItem[files.length];
+        List<StagedFile> staged = new ArrayList<>(files.length);
+        for (int i = 0; i < files.length; i++) {
+            try {
+                staged.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                staged.add(null);
+                items[i] = failure(files[i], e.getCause());
             }
+        }
 
-            // 保存文件元数据到数据库
-            SysFile sysFile = new SysFile();
-            sysFile.setOriginalName(originalName);
-            sysFile.setStorageName(storageName);
-            sysFile.setExtension(extension);
-            sysFile.setContentType(file.getContentType());
-            sysFile.setSize(file.getSize());
-            sysFile.setPath(relativePath);
-            sysFile.setMd5(md5);
-            sysFile.setStorageType(fileProperties.getStorageType());
-            sysFile.setCategory(category);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<SysFile> entities = new ArrayList<>();
+                List<Integer> indexes = new ArrayList<>();
+                for (int i = 0; i < files.length; i++) {
+                    if (staged.get(i) == null) {
+                        continue;
+                    }
+                    entities.add(newFile(staged.get(i), StringUtils.cleanPath(files[i].getOriginalFilename()),
+                            files[i].getContentType(), category));
+                    indexes.add(i);
+                }
+                List<SysFile> saved = sysFileRepository.saveAll(entities);
+                for (int j = 0; j < saved.size(); j++) {
+                    items[indexes.get(j)] = FileBatchUploadItem.builder()
+                            .originalName(saved.get(j).getOriginalName())
+                            .success(true)
+                            .file(buildUploadResp(saved.get(j)))
+                            .build();
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("批量上传写入元数据失败", e);
+            for (int i = 0; i < files.length; i++) {
+                if (staged.get(i) != null) {
+                    items[i] = failure(files[i], e);
+                }
+            }
+        } finally {
+            staged.stream().filter(Objects::nonNull).forEach(this::closeQuietly);
+        }
 
-            sysFile = sysFileRepository.save(sysFile);
+        log.info("并发批量上传完成，成功 {}/{}",
+                Arrays.stream(items).filter(FileBatchUploadItem::getSuccess).count(), files.length);
+        return Arrays.asList(items);
+    }
 
-            log.info("文件上传成功: {} -> {}", originalName, relativePath);
-            return buildUploadResp(sysFile);
+    /**
+     * 校验并暂存单个文件（读取、写盘、计算摘要一次完成）
+     */
+    private StagedFile stage(MultipartFile file) {
+        validateFile(file);
+        try (InputStream inputStream = file.getInputStream()) {
+            return StagedFile.stage(inputStream, fileBlobService.stagingDir());
+        } catch (IOException e) {
+            log.error("文件上传失败: {}", file.getOriginalFilename(), e);
+            throw new BusinessException(RCode.INTERNAL_ERROR, "文件上传失败: " + e.getMessage());
+        }
+    }
 
+    /**
+     * 暂存并写入存储（事务外），失败时删除暂存文件
+     */
+    private StagedFile stageAndUpload(MultipartFile file) {
+        StagedFile staged = stage(file);
+        try {
+            fileBlobService.upload(staged);
+            return staged;
         } catch (IOException e) {
-            log.error("文件上传失败: {}", originalName, e);
+            closeQuietly(staged);
+            log.error("文件上传失败: {}", file.getOriginalFilename(), e);
             throw new BusinessException(RCode.INTERNAL_ERROR, "文件上传失败: " + e.getMessage());
         }
     }
 
-    @Override
-    @Transactional
-    public List<FileUploadResp> uploadBatch(MultipartFile[] files, String category) {
-        return Arrays.stream(files)
-                .map(file -> upload(file, category))
-                .collect(Collectors.toList());
+    private static FileBatchUploadItem failure(MultipartFile file, Throwable error) {
+        return FileBatchUploadItem.builder()
+                .originalName(file.getOriginalFilename())
+                .success(false)
+                .error(error.getMessage())
+                .build();
+    }
+
+    private void closeQuietly(StagedFile staged) {
+        try {
+            staged.close();
+        } catch (IOException e) {
+            log.warn("删除暂存文件失败: {}", staged.getPath(), e);
+        }
+    }
+
+    /**
+     * 增加 blob 引用并构建（未保存的）元数据，须在事务内调用
+     */
+    private SysFile newFile(StagedFile staged, String originalName, String contentType, String category) {
+        String extension = getExtension(originalName);
+        String storageName = UUID.randomUUID() + (extension.isEmpty() ? "" : "." + extension);
+        FileBlobService.StoredBlob blob = fileBlobService.acquire(staged);
+
+        // 每次上传各自一条元数据，删除互不影响
+        SysFile sysFile = new SysFile();
+        sysFile.setOriginalName(originalName);
+        sysFile.setStorageName(storageName);
+        sysFile.setExtension(extension);
+        sysFile.setContentType(contentType);
+        sysFile.setSize(staged.getSize());
+        sysFile.setPath(blob.path());
+        sysFile.setMd5(staged.getMd5());
+        sysFile.setSha256(staged.getSha256());
+        sysFile.setStorageType(blob.storageType());
+        sysFile.setCategory(category);
+        return sysFile;
     }
 
     @Override
     public Resource download(UUID id) {
         SysFile sysFile = sysFileRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new BusinessException(RCode.NOT_FOUND, "文件不存在"));
-        return loadFileAsResource(sysFile.getPath());
+        return loadFileAsResource(sysFile);
     }
 
     @Override
     public Resource downloadByStorageName(String storageName) {
         SysFile sysFile = sysFileRepository.findByStorageNameAndDeletedFalse(storageName)
                 .orElseThrow(() -> new BusinessException(RCode.NOT_FOUND, "文件不存在"));
-        return loadFileAsResource(sysFile.getPath());
+        return loadFileAsResource(sysFile);
+    }
+
+    @Override
+    public FileContent getFileContent(UUID id) {
+        SysFile sysFile = sysFileRepository.findByIdAndDeletedFalse(id)
+                .orElseThrow(() -> new BusinessException(RCode.NOT_FOUND, "文件不存在"));
+        FileStorage storage = storageRegistry.get(sysFile.getStorageType());
+        return FileContent.builder()
+                .path(storage.localPath(sysFile.getPath()))
+                .storage(storage)
+                .key(sysFile.getPath())
+                .originalName(sysFile.getOriginalName())
+                .contentType(sysFile.getContentType())
+                .size(sysFile.getSize())
+                .md5(sysFile.getMd5())
+                .lastModified(sysFile.getCreatedAt())
+                .build();
     }
 
     @Override
@@ -151,13 +307,15 @@ public class FileServiceImpl implements FileService {
         SysFile sysFile = sysFileRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new BusinessException(RCode.NOT_FOUND, "文件不存在"));
 
-        // 逻辑删除
-        sysFile.setDeleted(true);
-        sysFile.setDeletedAt(OffsetDateTime.now());
-        sysFileRepository.save(sysFile);
+        // 条件逻辑删除：并发删除同一文件时只有更新成功的一方释放引用
+        if (sysFileRepository.markDeleted(id, OffsetDateTime.now()) != 1) {
+            throw new BusinessException(RCode.NOT_FOUND, "文件不存在");
+        }
 
-        // 物理删除文件（可选，根据业务需求决定是否立即删除）
-        // deletePhysicalFile(sysFile.getPath());
+        // 释放 blob 引用，物理文件在引用归零后由 GC 删除
+        if (sysFile.getSha256() != null) {
+            fileBlobService.release(sysFile.getSha256());
+        }
 
         log.info("文件删除成功: {}", sysFile.getOriginalName());
     }
@@ -167,12 +325,18 @@ public class FileServiceImpl implements FileService {
     public void deleteBatch(List<UUID> ids) {
         List<SysFile> files = sysFileRepository.findByIdInAndDeletedFalse(ids);
         OffsetDateTime now = OffsetDateTime.now();
-        files.forEach(file -> {
-            file.setDeleted(true);
-            file.setDeletedAt(now);
-        });
-        sysFileRepository.saveAll(files);
-        log.info("批量删除文件成功，数量: {}", files.size());
+        int deleted = 0;
+        for (SysFile file : files) {
+            // 已被并发删除的文件跳过，避免重复释放引用
+            if (sysFileRepository.markDeleted(file.getId(), now) != 1) {
+                continue;
+            }
+            deleted++;
+            if (file.getSha256() != null) {
+                fileBlobService.release(file.getSha256());
+            }
+        }
+        log.info("批量删除文件成功，数量: {}", deleted);
     }
 
     @Override
@@ -226,49 +390,15 @@ public class FileServiceImpl implements FileService {
     }
 
     /**
-     * 生成相对路径
-     */
-    private String generateRelativePath(String category, String storageName) {
-        StringBuilder path = new StringBuilder();
-
-        if (category != null && !category.isEmpty()) {
-            path.append(category).append("/");
-        }
-
-        if (fileProperties.getDatePathEnabled()) {
-            String datePath = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
-            path.append(datePath).append("/");
-        }
-
-        path.append(storageName);
-        return path.toString();
-    }
-
-    /**
-     * 获取绝对路径
+     * 加载文件资源：本地存储返回文件资源，远程存储返回流式资源
      */
-    private Path getAbsolutePath(String relativePath) {
-        return Paths.get(fileProperties.getBasePath()).resolve(relativePath).normalize();
-    }
-
-    /**
-     * 计算文件 MD5
-     */
-    private String calculateMd5(MultipartFile file) {
-        try (InputStream inputStream = file.getInputStream()) {
-            return DigestUtils.md5DigestAsHex(inputStream);
-        } catch (IOException e) {
-            log.warn("计算文件 MD5 失败", e);
-            return null;
-        }
-    }
-
-    /**
-     * 加载文件资源
-     */
-    private Resource loadFileAsResource(String relativePath) {
+    private Resource loadFileAsResource(SysFile sysFile) {
+        FileStorage storage = storageRegistry.get(sysFile.getStorageType());
+        Path filePath = storage.localPath(sysFile.getPath());
         try {
-            Path filePath = getAbsolutePath(relativePath);
+            if (filePath == null) {
+                return new InputStreamResource(storage.get(sysFile.getPath()));
+            }
             Resource resource = new UrlResource(filePath.toUri());
             if (resource.exists() && resource.isReadable()) {
                 return resource;
@@ -277,6 +407,11 @@ public class FileServiceImpl implements FileService {
             }
         } catch (MalformedURLException e) {
             throw new BusinessException(RCode.INTERNAL_ERROR, "文件路径错误");
+        } catch (NoSuchFileException e) {
+            throw new BusinessException(RCode.NOT_FOUND, "文件不存在或不可读");
+        } catch (IOException e) {
+            log.error("读取文件失败: {}", sysFile.getPath(), e);
+            throw new BusinessException(RCode.INTERNAL_ERROR, "读取文件失败: " + e.getMessage());
         }
     }
 
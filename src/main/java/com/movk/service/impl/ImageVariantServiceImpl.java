@@ -0,0 +1,350 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service.impl;
+
+import com.movk.base.config.FileProperties;
+import com.movk.base.exception.BusinessException;
+import com.movk.base.file.DiskLruCache;
+import com.movk.base.result.RCode;
+import com.movk.base.storage.FileStorage;
+import com.movk.base.storage.FileStorageRegistry;
+import com.movk.dto.file.FileContent;
+import com.movk.entity.SysFile;
+import com.movk.repository.SysFileRepository;
+import com.movk.service.ImageVariantService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 图片变体服务实现
+ * <ul>
+ *   <li>变体按 {原图 SHA-256}-{宽}x{高}.{格式} 命名，内容由原图与参数唯一决定，文件名即强 ETag，条件请求无需重新生成</li>
+ *   <li>请求的宽高向上取整到 file.preview.sizes 档位，每张图的变体数量有限，任意尺寸的请求不会占满生成线程池或冲刷缓存</li>
+ *   <li>变体保存在本地磁盘 LRU 缓存（file.preview.cache-dir），总大小超出上限时淘汰最久未访问的变体</li>
+ *   <li>生成在固定大小的 imageVariantExecutor 上执行，同一变体并发请求只生成一次；
+ *       队列满或等待超时返回服务繁忙，不会让突发请求占满请求线程</li>
+ *   <li>原图远大于目标尺寸时解码阶段即按整数倍抽样，再逐次减半缩放到目标尺寸</li>
+ * </ul>
+ * JDK ImageIO 不含 WebP 编码器，请求 webp 时按原图自动选择 JPEG / PNG
+ */
+@Slf4j
+@Service
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    /**
+     * 可解码的原图扩展名
+     */
+    private static final Set<String> SOURCE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+
+    private static final String JPEG = "jpeg";
+    private static final String PNG = "png";
+
+    private final SysFileRepository sysFileRepository;
+    private final FileStorageRegistry storageRegistry;
+    private final FileProperties.Preview preview;
+    private final Executor imageVariantExecutor;
+    private final DiskLruCache cache;
+    private final int[] sizes;
+    private final Map<String, CompletableFuture<Path>> inflight = new ConcurrentHashMap<>();
+
+    public ImageVariantServiceImpl(SysFileRepository sysFileRepository, FileStorageRegistry storageRegistry,
+                                   FileProperties fileProperties,
+                                   @Qualifier("imageVariantExecutor") Executor imageVariantExecutor) {
+        this.sysFileRepository = sysFileRepository;
+        this.storageRegistry = storageRegistry;
+        this.preview = fileProperties.getPreview();
+        this.imageVariantExecutor = imageVariantExecutor;
+        this.sizes = preview.getSizes() == null ? new int[0]
+            : preview.getSizes().stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        this.cache = new DiskLruCache(Paths.get(fileProperties.getBasePath()).resolve(preview.getCacheDir()),
+            preview.getCacheMaxSize());
+    }
+
+    @Override
+    public FileContent getVariant(UUID fileId, Integer width, Integer height, String format) {
+        validateDimension(width);
+        validateDimension(height);
+        if (width == null && height == null) {
+            throw new BusinessException(RCode.BAD_REQUEST, "宽度与高度至少指定一个");
+        }
+        width = snap(width);
+        height = snap(height);
+
+        SysFile sysFile = sysFileRepository.findByIdAndDeletedFalse(fileId)
+            .orElseThrow(() -> new BusinessException(RCode.NOT_FOUND, "文件不存在"));
+        String extension = sysFile.getExtension() == null ? "" : sysFile.getExtension().toLowerCase();
+        if (!SOURCE_EXTENSIONS.contains(extension)) {
+            return null;
+        }
+
+        String outputFormat = resolveFormat(format, extension);
+        String sourceId = sysFile.getSha256() != null ? sysFile.getSha256()
+            : sysFile.getMd5() != null ? sysFile.getMd5() : sysFile.getId().toString();
+        String name = sourceId + "-" + (width == null ? 0 : width) + "x" + (height == null ? 0 : height)
+            + "." + outputFormat;
+        String key = sourceId.substring(0, 2) + "/" + sourceId.substring(2, 4) + "/" + name;
+
+        Path path = cache.get(key);
+        if (path == null) {
+            path = awaitGeneration(key, sysFile, width, height, outputFormat);
+        }
+        long size;
+        try {
+            size = Files.size(path);
+        } catch (NoSuchFileException e) {
+            // 缓存文件已被淘汰并删除（超出删除宽限期），重新生成一次
+            path = awaitGeneration(key, sysFile, width, height, outputFormat);
+            size = sizeOf(path);
+        } catch (IOException e) {
+            throw new BusinessException(RCode.NOT_FOUND, "文件不存在或不可读");
+        }
+
+        String baseName = StringUtils.stripFilenameExtension(sysFile.getOriginalName());
+        return FileContent.builder()
+            .path(path)
+            .originalName(baseName + "." + outputFormat)
+            .contentType("image/" + outputFormat)
+            .size(size)
+            .md5(name)
+            .lastModified(sysFile.getCreatedAt())
+            .build();
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new BusinessException(RCode.NOT_FOUND, "文件不存在或不可读");
+        }
+    }
+
+    /**
+     * 同一变体只提交一次生成任务，其余请求等待同一结果
+     */
+    private Path awaitGeneration(String key, SysFile sysFile, Integer width, Integer height, String format) {
+        CompletableFuture<Path> future;
+        try {
+            future = inflight.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(
+                () -> generate(k, sysFile, width, height, format), imageVariantExecutor));
+        } catch (RejectedExecutionException e) {
+            throw new BusinessException(RCode.SERVICE_UNAVAILABLE, "图片处理繁忙，请稍后重试");
+        }
+        future.whenComplete((path, error) -> inflight.remove(key, future));
+
+        try {
+            return future.get(preview.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 生成继续进行，完成后写入缓存
+            throw new BusinessException(RCode.SERVICE_UNAVAILABLE, "图片处理繁忙，请稍后重试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(RCode.SERVICE_UNAVAILABLE, "图片处理被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BusinessException businessException) {
+                throw businessException;
+            }
+            log.error("生成图片变体失败: {}", key, e.getCause());
+            throw new BusinessException(RCode.INTERNAL_ERROR, "生成图片预览失败");
+        }
+    }
+
+    private Path generate(String key, SysFile sysFile, Integer width, Integer height, String format) {
+        Path cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            BufferedImage source = decode(sysFile, width, height);
+            int[] size = targetSize(source.getWidth(), source.getHeight(), width, height);
+            BufferedImage variant = resize(source, size[0], size[1], PNG.equals(format));
+
+            Path temp = Files.createTempFile(cache.tempDir(), "variant-", ".tmp");
+            try {
+                encode(variant, format, temp);
+                return cache.put(key, temp);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 解码原图：先读尺寸校验像素数，原图远大于目标尺寸时按整数倍抽样解码，减少解码耗时与内存
+     */
+    private BufferedImage decode(SysFile sysFile, Integer width, Integer height) throws IOException {
+        FileStorage storage = storageRegistry.get(sysFile.getStorageType());
+        Path local = storage.localPath(sysFile.getPath());
+        try (InputStream in = local == null ? storage.get(sysFile.getPath()) : null;
+             ImageInputStream input = ImageIO.createImageInputStream(local != null ? local.toFile() : in)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new BusinessException(RCode.BAD_REQUEST, "无法识别的图片格式");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > preview.getMaxSourcePixels()) {
+                    throw new BusinessException(RCode.BAD_REQUEST, "图片尺寸过大，无法生成预览");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int[] size = targetSize(sourceWidth, sourceHeight, width, height);
+                // 保留至少 2 倍于目标的像素，供后续平滑缩放
+                int subsampling = Math.min(sourceWidth / size[0], sourceHeight / size[1]) / 2;
+                if (subsampling >= 2) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void encode(BufferedImage image, String format, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (JPEG.equals(format)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(preview.getJpegQuality());
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * 等比缩放至不超过指定宽高，不放大
+     */
+    static int[] targetSize(int sourceWidth, int sourceHeight, Integer width, Integer height) {
+        double scale = 1.0;
+        if (width != null) {
+            scale = Math.min(scale, (double) width / sourceWidth);
+        }
+        if (height != null) {
+            scale = Math.min(scale, (double) height / sourceHeight);
+        }
+        return new int[]{
+            Math.max(1, (int) Math.round(sourceWidth * scale)),
+            Math.max(1, (int) Math.round(sourceHeight * scale))
+        };
+    }
+
+    /**
+     * 逐次减半缩放到目标尺寸：单次大比例双线性缩放会丢失细节产生锯齿
+     */
+    static BufferedImage resize(BufferedImage source, int width, int height, boolean alpha) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            if (currentWidth < width * 2 || currentHeight < height * 2) {
+                currentWidth = width;
+                currentHeight = height;
+            }
+            current = draw(current, currentWidth, currentHeight, alpha);
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean alpha) {
+        BufferedImage target = new BufferedImage(width, height,
+            alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            if (!alpha) {
+                // JPEG 不支持透明，透明区域填充白色
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * 输出格式：未指定或 webp 时，PNG / GIF 原图输出 PNG（保留透明），其余输出 JPEG
+     */
+    private static String resolveFormat(String format, String sourceExtension) {
+        if (!StringUtils.hasText(format) || "webp".equalsIgnoreCase(format) || "auto".equalsIgnoreCase(format)) {
+            return PNG.equals(sourceExtension) || "gif".equals(sourceExtension) ? PNG : JPEG;
+        }
+        String normalized = format.toLowerCase();
+        if ("jpg".equals(normalized) || JPEG.equals(normalized)) {
+            return JPEG;
+        }
+        if (PNG.equals(normalized)) {
+            return PNG;
+        }
+        throw new BusinessException(RCode.BAD_REQUEST, "不支持的图片格式: " + format);
+    }
+
+    /**
+     * 向上取整到最近的尺寸档位，超过最大档位取最大档位
+     */
+    private Integer snap(Integer value) {
+        if (value == null || sizes.length == 0) {
+            return value;
+        }
+        for (int size : sizes) {
+            if (size >= value) {
+                return size;
+            }
+        }
+        return sizes[sizes.length - 1];
+    }
+
+    private void validateDimension(Integer value) {
+        if (value != null && (value < 1 || value > preview.getMaxDimension())) {
+            throw new BusinessException(RCode.BAD_REQUEST, "宽高须在 1 ~ " + preview.getMaxDimension() + " 之间");
+        }
+    }
+}
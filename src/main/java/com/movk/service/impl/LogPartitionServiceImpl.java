@@ -0,0 +1,151 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service.impl;
+
+import com.movk.service.LogPartitionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 日志分区维护服务实现
+ * 清理不在外层事务中执行：每个分区的 DETACH + DROP 各自一个短事务，ACCESS EXCLUSIVE 锁只覆盖目录操作；
+ * 行数取自 pg_class.reltuples 估算值，不做全表 count；剩余过期行分批删除，每批自动提交
+ */
+@Slf4j
+@Service
+public class LogPartitionServiceImpl implements LogPartitionService {
+
+    private static final Set<String> TABLES = Set.of(OPERATE_LOG, LOGIN_LOG);
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * 剩余过期行每批删除的行数
+     */
+    public static final int DELETE_BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${log.partition.months-ahead:3}")
+    private int monthsAhead;
+
+    /**
+     * DETACH 等待锁的上限，超时则跳过该分区留待下次清理，避免排在长查询之后阻塞日志写入
+     */
+    @Value("${log.partition.lock-timeout:5s}")
+    private String lockTimeout = "5s";
+
+    public LogPartitionServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 启动时补齐分区
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        ensurePartitions();
+    }
+
+    /**
+     * 每天凌晨 0:10 补齐未来分区
+     */
+    @Override
+    @Scheduled(cron = "${log.partition.maintain-cron:0 10 0 * * ?}")
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (String table : TABLES) {
+            for (int i = 0; i <= monthsAhead; i++) {
+                LocalDate month = current.plusMonths(i).atDay(1);
+                try {
+                    jdbcTemplate.queryForObject("SELECT movk_create_month_partition(?, ?)", String.class, table, month);
+                } catch (DataAccessException e) {
+                    log.warn("日志分区创建失败 - table: {}, month: {}, error: {}", table, month, e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public long dropBefore(String table, OffsetDateTime before) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Unsupported log table: " + table);
+        }
+
+        YearMonth cutoff = YearMonth.from(before.withOffsetSameInstant(ZoneOffset.UTC));
+        List<String> partitions = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = ?::regclass ORDER BY c.relname",
+            String.class, table);
+
+        long dropped = 0;
+        for (String partition : partitions) {
+            YearMonth month = partitionMonth(table, partition);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+            // 加锁前读取统计信息中的估算行数，仅用于返回值与日志
+            Long rows = jdbcTemplate.queryForObject(
+                "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = ?::regclass", Long.class, partition);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeout + "'");
+                    jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                });
+            } catch (DataAccessException e) {
+                log.warn("日志分区删除失败，留待下次清理 - table: {}, partition: {}, error: {}",
+                    table, partition, e.getMessage());
+                continue;
+            }
+            dropped += rows != null ? rows : 0;
+            log.info("日志分区已删除 - table: {}, partition: {}, rows: ~{}", table, partition, rows);
+        }
+
+        // 截止月份分区与默认分区中的剩余过期行（分区裁剪后只涉及这两个分区），分批删除避免长事务
+        String deleteSql = "DELETE FROM " + table + " WHERE (id, created_at) IN (SELECT id, created_at FROM "
+            + table + " WHERE created_at < ? LIMIT " + DELETE_BATCH_SIZE + ")";
+        long deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(deleteSql, before);
+            deleted += batch;
+        } while (batch >= DELETE_BATCH_SIZE);
+        return dropped + deleted;
+    }
+
+    /**
+     * 解析分区对应的月份，非月份分区（如默认分区）返回 null
+     */
+    private static YearMonth partitionMonth(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix) || partition.length() != prefix.length() + 6) {
+            return null;
+        }
+        String suffix = partition.substring(prefix.length());
+        if (!suffix.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        return YearMonth.parse(suffix, SUFFIX);
+    }
+}
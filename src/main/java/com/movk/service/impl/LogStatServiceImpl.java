@@ -0,0 +1,202 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service.impl;
+
+import com.movk.common.enums.BusinessStatus;
+import com.movk.dto.log.LoginLogStatResp;
+import com.movk.dto.log.OperateLogStatResp;
+import com.movk.entity.LoginLog;
+import com.movk.entity.OperateLog;
+import com.movk.service.LogStatService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 审计日志预聚合统计服务实现
+ * 计数按 (时段, 维度, 状态) 在 ConcurrentHashMap 中以不可变值 merge 累加，
+ * 刷写时逐键 remove 取出，与并发累加互不丢失；写库失败时将取出的计数合并回内存等待下次刷写
+ */
+@Slf4j
+@Service
+public class LogStatServiceImpl implements LogStatService {
+
+    private static final long LOGIN_BUCKET_SECONDS = 600;
+
+    private static final String OPERATE_UPSERT = "INSERT INTO sys_operate_log_stat (bucket, module, status, count, total_time) "
+        + "VALUES (?, ?, ?, ?, ?) ON CONFLICT (bucket, module, status) DO UPDATE SET "
+        + "count = sys_operate_log_stat.count + EXCLUDED.count, "
+        + "total_time = sys_operate_log_stat.total_time + EXCLUDED.total_time";
+
+    private static final String LOGIN_UPSERT = "INSERT INTO sys_login_log_stat (bucket, login_ip, status, count) "
+        + "VALUES (?, ?, ?, ?) ON CONFLICT (bucket, login_ip, status) DO UPDATE SET "
+        + "count = sys_login_log_stat.count + EXCLUDED.count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<OperateKey, Tally> operateTallies = new ConcurrentHashMap<>();
+    private final Map<LoginKey, Long> loginTallies = new ConcurrentHashMap<>();
+
+    public LogStatServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    record OperateKey(OffsetDateTime bucket, String module, short status) {
+    }
+
+    record LoginKey(OffsetDateTime bucket, String loginIp, short status) {
+    }
+
+    record Tally(long count, long totalTime) {
+        Tally plus(Tally other) {
+            return new Tally(count + other.count, totalTime + other.totalTime);
+        }
+    }
+
+    @Override
+    public void recordOperateLogs(List<OperateLog> logs) {
+        for (OperateLog log : logs) {
+            OperateKey key = new OperateKey(hourBucket(log.getCreatedAt()), nullToEmpty(log.getModule()),
+                log.getStatus().getCode());
+            long time = log.getOperationTime() != null ? log.getOperationTime() : 0L;
+            operateTallies.merge(key, new Tally(1, time), Tally::plus);
+        }
+    }
+
+    @Override
+    public void recordLoginLogs(List<LoginLog> logs) {
+        for (LoginLog log : logs) {
+            LoginKey key = new LoginKey(tenMinuteBucket(log.getCreatedAt()), nullToEmpty(log.getLoginIp()),
+                log.getStatus().getCode());
+            loginTallies.merge(key, 1L, Long::sum);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${log.stat.flush-interval:10s}")
+    public void flush() {
+        Map<OperateKey, Tally> operates = drain(operateTallies);
+        Map<LoginKey, Long> logins = drain(loginTallies);
+        if (operates.isEmpty() && logins.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!operates.isEmpty()) {
+                    List<Object[]> args = new ArrayList<>(operates.size());
+                    operates.forEach((k, v) -> args.add(new Object[]{k.bucket(), k.module(), k.status(), v.count(), v.totalTime()}));
+                    jdbcTemplate.batchUpdate(OPERATE_UPSERT, args);
+                }
+                if (!logins.isEmpty()) {
+                    List<Object[]> args = new ArrayList<>(logins.size());
+                    logins.forEach((k, v) -> args.add(new Object[]{k.bucket(), k.loginIp(), k.status(), v}));
+                    jdbcTemplate.batchUpdate(LOGIN_UPSERT, args);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("日志统计写入失败，计数保留至下次刷写 - error: {}", e.getMessage());
+            operates.forEach((k, v) -> operateTallies.merge(k, v, Tally::plus));
+            logins.forEach((k, v) -> loginTallies.merge(k, v, Long::sum));
+        }
+    }
+
+    /**
+     * 停机前写出剩余计数
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @Override
+    public List<OperateLogStatResp> operateStats(OffsetDateTime startTime, OffsetDateTime endTime,
+                                                 String module, BusinessStatus status) {
+        StringBuilder sql = new StringBuilder("SELECT bucket, module, status, count, total_time "
+            + "FROM sys_operate_log_stat WHERE bucket >= ? AND bucket <= ?");
+        List<Object> args = new ArrayList<>(List.of(hourBucket(startTime), endTime));
+        if (StringUtils.hasText(module)) {
+            sql.append(" AND module = ?");
+            args.add(module);
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.getCode());
+        }
+        sql.append(" ORDER BY bucket, module, status");
+
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> {
+            long count = rs.getLong(4);
+            return new OperateLogStatResp(rs.getObject(1, OffsetDateTime.class), rs.getString(2),
+                BusinessStatus.fromCode(rs.getShort(3)), count, count == 0 ? 0 : rs.getLong(5) / count);
+        }, args.toArray());
+    }
+
+    @Override
+    public List<LoginLogStatResp> loginStats(OffsetDateTime startTime, OffsetDateTime endTime,
+                                             String loginIp, BusinessStatus status, long minCount) {
+        StringBuilder sql = new StringBuilder("SELECT bucket, login_ip, status, count "
+            + "FROM sys_login_log_stat WHERE bucket >= ? AND bucket <= ? AND count >= ?");
+        List<Object> args = new ArrayList<>(List.of(tenMinuteBucket(startTime), endTime, minCount));
+        if (StringUtils.hasText(loginIp)) {
+            sql.append(" AND login_ip = ?");
+            args.add(loginIp);
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.getCode());
+        }
+        sql.append(" ORDER BY bucket, count DESC");
+
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> new LoginLogStatResp(
+            rs.getObject(1, OffsetDateTime.class), rs.getString(2),
+            BusinessStatus.fromCode(rs.getShort(3)), rs.getLong(4)), args.toArray());
+    }
+
+    /**
+     * 逐键取出当前计数
+     */
+    private static <K, V> Map<K, V> drain(Map<K, V> tallies) {
+        Map<K, V> drained = new HashMap<>();
+        for (K key : tallies.keySet()) {
+            V value = tallies.remove(key);
+            if (value != null) {
+                drained.put(key, value);
+            }
+        }
+        return drained;
+    }
+
+    static OffsetDateTime hourBucket(OffsetDateTime time) {
+        return time.toInstant().truncatedTo(ChronoUnit.HOURS).atOffset(ZoneOffset.UTC);
+    }
+
+    static OffsetDateTime tenMinuteBucket(OffsetDateTime time) {
+        long epoch = time.toEpochSecond();
+        return Instant.ofEpochSecond(Math.floorDiv(epoch, LOGIN_BUCKET_SECONDS) * LOGIN_BUCKET_SECONDS)
+            .atOffset(ZoneOffset.UTC);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
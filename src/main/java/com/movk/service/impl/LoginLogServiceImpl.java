@@ -6,10 +6,20 @@
 package com.movk.service.impl;
 
 import com.movk.base.filter.TraceIdFilter;
+import com.movk.base.exception.BusinessException;
+import com.movk.base.export.RowStreamWriter;
+import com.movk.base.log.BatchLogBuffer;
+import com.movk.base.result.CountMode;
+import com.movk.base.result.CursorPage;
+import com.movk.base.result.RCode;
+import com.movk.base.result.SeekCursor;
 import com.movk.common.enums.BusinessStatus;
 import com.movk.common.enums.LoginType;
 import com.movk.entity.LoginLog;
 import com.movk.repository.LoginLogRepository;
+import com.movk.repository.LogExportRepository;
+import com.movk.repository.LogSearchSpecs;
+import com.movk.service.LogPartitionService;
 import com.movk.service.LoginLogService;
 import eu.bitwalker.useragentutils.UserAgent;
 import jakarta.persistence.criteria.Predicate;
@@ -17,17 +27,20 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.io.IOException;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -41,27 +54,30 @@ import java.util.UUID;
 public class LoginLogServiceImpl implements LoginLogService {
 
     private final LoginLogRepository loginLogRepository;
+    private final LogPartitionService logPartitionService;
+    private final BatchLogBuffer<LoginLog> loginLogBuffer;
+    private final LogExportRepository logExportRepository;
+
+    /**
+     * 列表导出最大行数（大批量导出请使用流式导出）
+     */
+    @Value("${log.export.max-list-rows:10000}")
+    private int maxListRows;
 
-    @Async("asyncExecutor")
     @Override
-    @Transactional
     public void recordLoginSuccess(String username, UUID userId, LoginType loginType, String message) {
         LoginLog loginLog = buildLoginLog(username, loginType, BusinessStatus.SUCCESS, message);
         loginLog.setUserId(userId);
         saveLog(loginLog);
     }
 
-    @Async("asyncExecutor")
     @Override
-    @Transactional
     public void recordLoginFailure(String username, LoginType loginType, String message) {
         LoginLog loginLog = buildLoginLog(username, loginType, BusinessStatus.FAILURE, message);
         saveLog(loginLog);
     }
 
-    @Async("asyncExecutor")
     @Override
-    @Transactional
     public void recordLogout(String username, UUID userId) {
         LoginLog loginLog = buildLoginLog(username, LoginType.LOGOUT, BusinessStatus.SUCCESS, "用户登出成功");
         loginLog.setUserId(userId);
@@ -72,30 +88,33 @@ public class LoginLogServiceImpl implements LoginLogService {
     @Transactional(readOnly = true)
     public Page<LoginLog> listLoginLogs(String username, String loginIp, BusinessStatus status,
                                         OffsetDateTime startTime, OffsetDateTime endTime, Pageable pageable) {
-        Specification<LoginLog> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
+        Specification<LoginLog> spec = filterSpec(username, loginIp, status, startTime, endTime).and(newestFirst());
 
-            if (StringUtils.hasText(username)) {
-                predicates.add(cb.like(root.get("username"), "%" + username + "%"));
-            }
-            if (StringUtils.hasText(loginIp)) {
-                predicates.add(cb.like(root.get("loginIp"), "%" + loginIp + "%"));
-            }
-            if (status != null) {
-                predicates.add(cb.equal(root.get("status"), status));
-            }
-            if (startTime != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), startTime));
-            }
-            if (endTime != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), endTime));
-            }
+        return loginLogRepository.findAll(spec, pageable);
+    }
 
-            query.orderBy(cb.desc(root.get("createdAt")));
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<LoginLog> scrollLoginLogs(String username, String loginIp, BusinessStatus status,
+                                                OffsetDateTime startTime, OffsetDateTime endTime,
+                                                String keyword, String cursor, int size, CountMode countMode) {
+        SeekCursor seek = SeekCursor.decode(cursor);
+        Specification<LoginLog> filter = filterSpec(username, loginIp, status, startTime, endTime);
+        filter = filter.and(LogSearchSpecs.keyword(keyword, "username", "loginIp"));
+        // 沿 (created_at, id) 倒序索引定位游标位置，深翻页无需跳过前面的行
+        Specification<LoginLog> spec = filter.and(LogSearchSpecs.before(seek));
 
-        return loginLogRepository.findAll(spec, pageable);
+        List<LoginLog> rows = loginLogRepository.findBy(spec, q -> q
+            .sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+            .limit(size + 1)
+            .all());
+        Long total = switch (countMode) {
+            case NONE -> null;
+            case ESTIMATE -> logExportRepository.estimateLoginLogs(username, loginIp, status, startTime, endTime, keyword);
+            case EXACT -> loginLogRepository.count(filter);
+        };
+        return CursorPage.of(rows, size, row -> new SeekCursor(row.getCreatedAt(), String.valueOf(row.getId())),
+            total, countMode == CountMode.ESTIMATE);
     }
 
     @Override
@@ -114,46 +133,51 @@ public class LoginLogServiceImpl implements LoginLogService {
     @Transactional(readOnly = true)
     public List<LoginLog> exportLogs(String username, String loginIp, BusinessStatus status,
                                      OffsetDateTime startTime, OffsetDateTime endTime) {
-        Specification<LoginLog> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
+        Specification<LoginLog> spec = filterSpec(username, loginIp, status, startTime, endTime).and(newestFirst());
 
-            if (StringUtils.hasText(username)) {
-                predicates.add(cb.like(root.get("username"), "%" + username + "%"));
-            }
-            if (StringUtils.hasText(loginIp)) {
-                predicates.add(cb.like(root.get("loginIp"), "%" + loginIp + "%"));
-            }
-            if (status != null) {
-                predicates.add(cb.equal(root.get("status"), status));
-            }
-            if (startTime != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), startTime));
-            }
-            if (endTime != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), endTime));
-            }
+        // 多取一行判断是否超出上限，超出时直接拒绝，不返回被截断的结果
+        List<LoginLog> rows = loginLogRepository.findBy(spec, q -> q.limit(maxListRows + 1).all());
+        if (rows.size() > maxListRows) {
+            throw new BusinessException(RCode.BAD_REQUEST,
+                "导出结果超过 " + maxListRows + " 行，请缩小查询范围或使用 /export/stream 流式导出");
+        }
+        return rows;
+    }
 
-            query.orderBy(cb.desc(root.get("createdAt")));
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isExportTruncated(String username, String loginIp, BusinessStatus status,
+                                     OffsetDateTime startTime, OffsetDateTime endTime, Integer limit) {
+        return logExportRepository.loginLogsExceed(username, loginIp, status, startTime, endTime, limit);
+    }
 
-        return loginLogRepository.findAll(spec);
+    @Override
+    @Transactional(readOnly = true)
+    public long streamExport(String username, String loginIp, BusinessStatus status,
+                             OffsetDateTime startTime, OffsetDateTime endTime,
+                             Integer limit, RowStreamWriter writer) throws IOException {
+        try {
+            logExportRepository.streamLoginLogs(username, loginIp, status, startTime, endTime, limit, writer::writeRow);
+        } catch (LogExportRepository.ExportAbortedException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+        return writer.getRows();
     }
 
     @Override
-    @Transactional
     public int cleanLogs(int days) {
         OffsetDateTime beforeDate = OffsetDateTime.now().minusDays(days);
-        long countBefore = loginLogRepository.count();
-        loginLogRepository.deleteByCreatedAtBefore(beforeDate);
-        long countAfter = loginLogRepository.count();
-        int deleted = (int) (countBefore - countAfter);
+        // 按分区清理：整月过期分区直接删除，不再逐行 DELETE；不在外层事务中执行，避免长时间持有分区锁
+        int deleted = (int) Math.min(logPartitionService.dropBefore(LogPartitionService.LOGIN_LOG, beforeDate), Integer.MAX_VALUE);
         log.info("清理登录日志完成，共清理 {} 条记录（{}天前）", deleted, days);
         return deleted;
     }
 
     /**
-     * 构建登录日志
+     * 构建登录日志（在请求线程上执行，以便读取请求信息）
      */
     private LoginLog buildLoginLog(String username, LoginType loginType, BusinessStatus status, String message) {
         LoginLog loginLog = new LoginLog();
@@ -162,6 +186,7 @@ public class LoginLogServiceImpl implements LoginLogService {
         loginLog.setLoginType(loginType);
         loginLog.setStatus(status);
         loginLog.setMessage(message);
+        loginLog.setCreatedAt(OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS));
 
         // 获取请求信息
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -180,15 +205,10 @@ public class LoginLogServiceImpl implements LoginLogService {
     }
 
     /**
-     * 保存日志
+     * 保存日志（提交到缓冲，由后台线程批量写库）
      */
     private void saveLog(LoginLog loginLog) {
-        try {
-            loginLogRepository.save(loginLog);
-            log.debug("登录日志保存成功 - username: {}, status: {}", loginLog.getUsername(), loginLog.getStatus());
-        } catch (Exception e) {
-            log.error("登录日志保存失败 - username: {}, error: {}", loginLog.getUsername(), e.getMessage(), e);
-        }
+        loginLogBuffer.offer(loginLog);
     }
 
     /**
@@ -216,4 +236,41 @@ public class LoginLogServiceImpl implements LoginLogService {
 
         return request.getRemoteAddr();
     }
+
+    /**
+     * 列表、游标分页与导出共用的过滤条件（各参数为空时不参与过滤）
+     */
+    private static Specification<LoginLog> filterSpec(String username, String loginIp, BusinessStatus status,
+                                                      OffsetDateTime startTime, OffsetDateTime endTime) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (StringUtils.hasText(username)) {
+                predicates.add(cb.like(root.get("username"), "%" + username + "%"));
+            }
+            if (StringUtils.hasText(loginIp)) {
+                predicates.add(cb.like(root.get("loginIp"), "%" + loginIp + "%"));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (startTime != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), startTime));
+            }
+            if (endTime != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), endTime));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * 按创建时间倒序
+     */
+    private static Specification<LoginLog> newestFirst() {
+        return (root, query, cb) -> {
+            query.orderBy(cb.desc(root.get("createdAt")));
+            return null;
+        };
+    }
 }
@@ -15,6 +15,7 @@ import com.movk.entity.Menu;
 import com.movk.entity.Role;
 import com.movk.repository.MenuRepository;
 import com.movk.repository.RoleRepository;
+import com.movk.security.service.RolePermissionCache;
 import com.movk.service.MenuService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
@@ -35,6 +36,7 @@ public class MenuServiceImpl implements MenuService {
 
     private final MenuRepository menuRepository;
     private final RoleRepository roleRepository;
+    private final RolePermissionCache rolePermissionCache;
 
     @Override
     @Transactional
@@ -84,6 +86,8 @@ public class MenuServiceImpl implements MenuService {
         menu.setRemark(req.remark());
 
         menuRepository.save(menu);
+        // 菜单权限码或状态影响所有持有该菜单的角色
+        rolePermissionCache.evictAll();
     }
 
     @Override
@@ -101,6 +105,8 @@ public class MenuServiceImpl implements MenuService {
         menu.setDeleted(true);
         menu.setDeletedAt(OffsetDateTime.now());
         menuRepository.save(menu);
+        // 菜单权限码或状态影响所有持有该菜单的角色
+        rolePermissionCache.evictAll();
     }
 
     @Override
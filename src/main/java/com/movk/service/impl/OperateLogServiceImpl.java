@@ -5,22 +5,35 @@
 
 package com.movk.service.impl;
 
+import com.movk.base.exception.BusinessException;
+import com.movk.base.export.RowStreamWriter;
+import com.movk.base.log.BatchLogBuffer;
+import com.movk.base.result.CountMode;
+import com.movk.base.result.CursorPage;
+import com.movk.base.result.RCode;
+import com.movk.base.result.SeekCursor;
 import com.movk.common.enums.BusinessStatus;
 import com.movk.entity.OperateLog;
 import com.movk.repository.OperateLogRepository;
+import com.movk.repository.LogExportRepository;
+import com.movk.repository.LogSearchSpecs;
+import com.movk.service.LogPartitionService;
 import com.movk.service.OperateLogService;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -34,20 +47,23 @@ import java.util.UUID;
 public class OperateLogServiceImpl implements OperateLogService {
 
     private final OperateLogRepository operateLogRepository;
+    private final LogPartitionService logPartitionService;
+    private final BatchLogBuffer<OperateLog> operateLogBuffer;
+    private final LogExportRepository logExportRepository;
+
+    /**
+     * 列表导出最大行数（大批量导出请使用流式导出）
+     */
+    @Value("${log.export.max-list-rows:10000}")
+    private int maxListRows;
 
-    @Async("asyncExecutor")
     @Override
-    @Transactional
     public void saveLogAsync(OperateLog operateLog) {
-        try {
-            operateLogRepository.save(operateLog);
-            log.info("操作日志保存成功 - traceId: {}, userId: {}, username: {}, module: {}, operation: {}, url: {}",
-                operateLog.getTraceId(), operateLog.getUserId(), operateLog.getUsername(),
-                operateLog.getModule(), operateLog.getOperation(), operateLog.getRequestUrl());
-        } catch (Exception e) {
-            log.error("操作日志保存失败 - traceId: {}, error: {}",
-                operateLog.getTraceId(), e.getMessage(), e);
+        // 记录发生时间，由缓冲线程批量写库
+        if (operateLog.getCreatedAt() == null) {
+            operateLog.setCreatedAt(OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS));
         }
+        operateLogBuffer.offer(operateLog);
     }
 
     @Override
@@ -55,33 +71,35 @@ public class OperateLogServiceImpl implements OperateLogService {
     public Page<OperateLog> listOperateLogs(UUID userId, String module, String operation,
                                             BusinessStatus status, OffsetDateTime startTime,
                                             OffsetDateTime endTime, Pageable pageable) {
-        Specification<OperateLog> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
+        Specification<OperateLog> spec = filterSpec(userId, module, operation, status, startTime, endTime)
+            .and(newestFirst());
 
-            if (userId != null) {
-                predicates.add(cb.equal(root.get("userId"), userId));
-            }
-            if (StringUtils.hasText(module)) {
-                predicates.add(cb.like(root.get("module"), "%" + module + "%"));
-            }
-            if (StringUtils.hasText(operation)) {
-                predicates.add(cb.equal(root.get("operation"), operation));
-            }
-            if (status != null) {
-                predicates.add(cb.equal(root.get("status"), status));
-            }
-            if (startTime != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), startTime));
-            }
-            if (endTime != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), endTime));
-            }
+        return operateLogRepository.findAll(spec, pageable);
+    }
 
-            query.orderBy(cb.desc(root.get("createdAt")));
-            return cb.and(predicates.toArray(new Predicate[0]));
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OperateLog> scrollOperateLogs(UUID userId, String module, String operation,
+                                                    BusinessStatus status, OffsetDateTime startTime,
+                                                    OffsetDateTime endTime, String keyword, String cursor,
+                                                    int size, CountMode countMode) {
+        SeekCursor seek = SeekCursor.decode(cursor);
+        Specification<OperateLog> filter = filterSpec(userId, module, operation, status, startTime, endTime);
+        filter = filter.and(LogSearchSpecs.keyword(keyword, "module", "requestUrl", "errorMsg"));
+        // 沿 (created_at, id) 倒序索引定位游标位置，深翻页无需跳过前面的行
+        Specification<OperateLog> spec = filter.and(LogSearchSpecs.before(seek));
+
+        List<OperateLog> rows = operateLogRepository.findBy(spec, q -> q
+            .sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+            .limit(size + 1)
+            .all());
+        Long total = switch (countMode) {
+            case NONE -> null;
+            case ESTIMATE -> logExportRepository.estimateOperateLogs(userId, module, operation, status, startTime, endTime, keyword);
+            case EXACT -> operateLogRepository.count(filter);
         };
-
-        return operateLogRepository.findAll(spec, pageable);
+        return CursorPage.of(rows, size, row -> new SeekCursor(row.getCreatedAt(), String.valueOf(row.getId())),
+            total, countMode == CountMode.ESTIMATE);
     }
 
     @Override
@@ -97,13 +115,10 @@ public class OperateLogServiceImpl implements OperateLogService {
     }
 
     @Override
-    @Transactional
     public int cleanLogs(int days) {
         OffsetDateTime beforeDate = OffsetDateTime.now().minusDays(days);
-        long countBefore = operateLogRepository.count();
-        operateLogRepository.deleteByCreatedAtBefore(beforeDate);
-        long countAfter = operateLogRepository.count();
-        int deleted = (int) (countBefore - countAfter);
+        // 按分区清理：整月过期分区直接删除，不再逐行 DELETE；不在外层事务中执行，避免长时间持有分区锁
+        int deleted = (int) Math.min(logPartitionService.dropBefore(LogPartitionService.OPERATE_LOG, beforeDate), Integer.MAX_VALUE);
         log.info("清理操作日志完成，共清理 {} 条记录（{}天前）", deleted, days);
         return deleted;
     }
@@ -112,7 +127,48 @@ public class OperateLogServiceImpl implements OperateLogService {
     @Transactional(readOnly = true)
     public List<OperateLog> exportLogs(UUID userId, String module, BusinessStatus status,
                                        OffsetDateTime startTime, OffsetDateTime endTime) {
-        Specification<OperateLog> spec = (root, query, cb) -> {
+        Specification<OperateLog> spec = filterSpec(userId, module, null, status, startTime, endTime)
+            .and(newestFirst());
+
+        // 多取一行判断是否超出上限，超出时直接拒绝，不返回被截断的结果
+        List<OperateLog> rows = operateLogRepository.findBy(spec, q -> q.limit(maxListRows + 1).all());
+        if (rows.size() > maxListRows) {
+            throw new BusinessException(RCode.BAD_REQUEST,
+                "导出结果超过 " + maxListRows + " 行，请缩小查询范围或使用 /export/stream 流式导出");
+        }
+        return rows;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isExportTruncated(UUID userId, String module, BusinessStatus status,
+                                     OffsetDateTime startTime, OffsetDateTime endTime, Integer limit) {
+        return logExportRepository.operateLogsExceed(userId, module, status, startTime, endTime, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamExport(UUID userId, String module, BusinessStatus status,
+                             OffsetDateTime startTime, OffsetDateTime endTime,
+                             Integer limit, RowStreamWriter writer) throws IOException {
+        try {
+            logExportRepository.streamOperateLogs(userId, module, status, startTime, endTime, limit, writer::writeRow);
+        } catch (LogExportRepository.ExportAbortedException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+        return writer.getRows();
+    }
+
+    /**
+     * 列表、游标分页与导出共用的过滤条件（各参数为空时不参与过滤）
+     */
+    private static Specification<OperateLog> filterSpec(UUID userId, String module, String operation,
+                                                        BusinessStatus status, OffsetDateTime startTime,
+                                                        OffsetDateTime endTime) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (userId != null) {
@@ -121,6 +177,9 @@ public class OperateLogServiceImpl implements OperateLogService {
             if (StringUtils.hasText(module)) {
                 predicates.add(cb.like(root.get("module"), "%" + module + "%"));
             }
+            if (StringUtils.hasText(operation)) {
+                predicates.add(cb.equal(root.get("operation"), operation));
+            }
             if (status != null) {
                 predicates.add(cb.equal(root.get("status"), status));
             }
@@ -130,11 +189,17 @@ public class OperateLogServiceImpl implements OperateLogService {
             if (endTime != null) {
                 predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), endTime));
             }
-
-            query.orderBy(cb.desc(root.get("createdAt")));
             return cb.and(predicates.toArray(new Predicate[0]));
         };
+    }
 
-        return operateLogRepository.findAll(spec);
+    /**
+     * 按创建时间倒序
+     */
+    private static Specification<OperateLog> newestFirst() {
+        return (root, query, cb) -> {
+            query.orderBy(cb.desc(root.get("createdAt")));
+            return null;
+        };
     }
 }
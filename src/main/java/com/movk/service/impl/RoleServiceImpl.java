@@ -19,10 +19,11 @@ import com.movk.repository.MenuRepository;
 import com.movk.repository.RoleMenuRepository;
 import com.movk.repository.RoleRepository;
 import com.movk.repository.UserRoleRepository;
+import com.movk.security.service.LoginUserCache;
+import com.movk.security.service.RolePermissionCache;
 import com.movk.service.RoleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -48,6 +49,8 @@ public class RoleServiceImpl implements RoleService {
     private final MenuRepository menuRepository;
     private final DepartmentRepository departmentRepository;
     private final UserRoleRepository userRoleRepository;
+    private final LoginUserCache loginUserCache;
+    private final RolePermissionCache rolePermissionCache;
 
     @Override
     @Transactional
@@ -106,6 +109,9 @@ public class RoleServiceImpl implements RoleService {
 
         roleRepository.save(role);
 
+        // 角色的数据权限范围会影响已登录用户的 LoginUser
+        loginUserCache.evictAll();
+
         if (req.menuIds() != null) {
             assignMenus(role.getId(), req.menuIds());
         }
@@ -130,6 +136,9 @@ public class RoleServiceImpl implements RoleService {
         role.setDeleted(true);
         role.setDeletedAt(OffsetDateTime.now());
         roleRepository.save(role);
+
+        loginUserCache.evictAll();
+        rolePermissionCache.evict(role.getCode());
     }
 
     @Override
@@ -259,14 +268,10 @@ public class RoleServiceImpl implements RoleService {
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheConfig.USER_PERMISSIONS, allEntries = true),
-        @CacheEvict(value = CacheConfig.USER_MENUS, allEntries = true)
-    })
+    @CacheEvict(value = CacheConfig.USER_MENUS, allEntries = true)
     public void assignMenus(UUID roleId, Iterable<UUID> menuIds) {
-        if (!roleRepository.existsById(roleId)) {
-            throw new BusinessException(RCode.NOT_FOUND, "角色不存在");
-        }
+        Role role = roleRepository.findById(roleId)
+            .orElseThrow(() -> new BusinessException(RCode.NOT_FOUND, "角色不存在"));
 
         roleMenuRepository.deleteByRoleId(roleId);
 
@@ -282,6 +287,9 @@ public class RoleServiceImpl implements RoleService {
 
             roleMenuRepository.save(roleMenu);
         }
+
+        // 仅失效该角色的权限缓存
+        rolePermissionCache.evict(role.getCode());
     }
 
     @Override
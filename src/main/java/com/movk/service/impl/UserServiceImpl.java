@@ -10,6 +10,7 @@ import com.movk.base.result.RCode;
 import com.movk.dto.user.*;
 import com.movk.entity.*;
 import com.movk.repository.*;
+import com.movk.security.service.LoginUserCache;
 import com.movk.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -38,6 +39,7 @@ public class UserServiceImpl implements UserService {
     private final UserRoleRepository userRoleRepository;
     private final UserPostRepository userPostRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LoginUserCache loginUserCache;
 
     @Override
     @Transactional
@@ -106,6 +108,8 @@ public class UserServiceImpl implements UserService {
         if (req.postIds() != null) {
             assignPosts(user.getId(), req.postIds());
         }
+
+        loginUserCache.evictUser(user.getId());
     }
 
     @Override
@@ -117,6 +121,8 @@ public class UserServiceImpl implements UserService {
         user.setDeleted(true);
         user.setDeletedAt(OffsetDateTime.now());
         userRepository.save(user);
+
+        loginUserCache.evictUser(userId);
     }
 
     @Override
@@ -138,6 +144,8 @@ public class UserServiceImpl implements UserService {
         });
 
         userRepository.saveAll(users);
+
+        idList.forEach(loginUserCache::evictUser);
     }
 
     @Override
@@ -309,6 +317,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userRoleRepository.deleteByUserId(userId);
+        loginUserCache.evictUser(userId);
 
         List<UUID> roleIdList = new ArrayList<>();
         roleIds.forEach(roleIdList::add);
@@ -378,6 +387,8 @@ public class UserServiceImpl implements UserService {
 
         user.setPassword(passwordEncoder.encode(req.newPassword()));
         userRepository.save(user);
+
+        loginUserCache.evictUser(user.getId());
     }
 
     @Override
@@ -388,6 +399,8 @@ public class UserServiceImpl implements UserService {
 
         user.setPassword(passwordEncoder.encode(req.newPassword()));
         userRepository.save(user);
+
+        loginUserCache.evictUser(user.getId());
     }
 
     @Override
@@ -0,0 +1,4 @@
+-- blob 所在存储后端：新 blob 写入 file.storage-type 指定的主存储，GC 按该列删除对应后端的对象
+-- Author: yixuanmiao
+
+ALTER TABLE sys_file_blob ADD COLUMN storage_type VARCHAR(20) NOT NULL DEFAULT 'local';
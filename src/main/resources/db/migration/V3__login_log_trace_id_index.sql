@@ -0,0 +1,4 @@
+-- 登录日志 traceId 索引（溢写日志回放按 traceId 去重）
+-- Author: yixuanmiao
+
+CREATE INDEX IF NOT EXISTS idx_login_log_trace_id ON sys_login_log(trace_id);
@@ -0,0 +1,142 @@
+-- 操作日志、登录日志按月范围分区（分区边界按 UTC 月份）
+-- 保留清理改为整分区 DETACH + DROP，不再逐行 DELETE
+--
+-- 存量数据不复制：原表原地挂载为历史分区，范围 [MINVALUE, 下月 1 日)，按当月命名为 {父表}_pYYYYMM，
+-- 当月结束后随过期月份由保留清理整表删除。先加 NOT VALID 的范围约束再 VALIDATE，ATTACH 时据此跳过扫描；
+-- 原有索引与分区表索引定义一致，ATTACH 直接挂接，不重建。
+-- 唯一需要构建的是 (id, created_at) 唯一索引（分区表主键要求包含分区键），本迁移在同一事务中执行，
+-- 构建与 VALIDATE 扫描期间原表持有 ACCESS EXCLUSIVE 锁，日志写入会等待。
+-- 存量较大时请在维护窗口内执行，或提前在线预建索引，迁移将直接复用：
+--   CREATE UNIQUE INDEX CONCURRENTLY sys_operate_log_id_created_at_key ON sys_operate_log(id, created_at);
+--   CREATE UNIQUE INDEX CONCURRENTLY sys_login_log_id_created_at_key ON sys_login_log(id, created_at);
+-- Author: yixuanmiao
+
+-- 创建指定月份的分区（已存在时忽略），分区命名：{父表}_pYYYYMM
+CREATE OR REPLACE FUNCTION movk_create_month_partition(parent TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    range_start DATE := date_trunc('month', month_start)::DATE;
+    partition_name TEXT := parent || '_p' || to_char(range_start, 'YYYYMM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, parent,
+        range_start::TIMESTAMP AT TIME ZONE 'UTC',
+        (range_start + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC');
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 原表改名为 {父表}_legacy，主键换成 (id, created_at) 并加上 NOT VALID 的范围约束后校验（迁移内部使用，结束时删除）
+CREATE FUNCTION movk_prepare_legacy_log_table(parent TEXT) RETURNS VOID AS $$
+DECLARE
+    legacy TEXT := parent || '_legacy';
+    key_index TEXT := parent || '_id_created_at_key';
+    range_end TIMESTAMPTZ := (date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '1 month') AT TIME ZONE 'UTC';
+BEGIN
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', parent, legacy);
+    EXECUTE format('CREATE UNIQUE INDEX IF NOT EXISTS %I ON %I(id, created_at)', key_index, legacy);
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', legacy, parent || '_pkey');
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY USING INDEX %I',
+        legacy, legacy || '_pkey', key_index);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (created_at < %L) NOT VALID',
+        legacy, legacy || '_range', range_end);
+    EXECUTE format('ALTER TABLE %I VALIDATE CONSTRAINT %I', legacy, legacy || '_range');
+END;
+$$ LANGUAGE plpgsql;
+
+-- 将原表挂载为历史分区并按当月改名，随后补齐未来分区
+CREATE FUNCTION movk_attach_legacy_log_table(parent TEXT) RETURNS VOID AS $$
+DECLARE
+    legacy TEXT := parent || '_legacy';
+    current_month DATE := date_trunc('month', NOW() AT TIME ZONE 'UTC')::DATE;
+    range_end TIMESTAMPTZ := (current_month + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC';
+    m DATE;
+BEGIN
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (MINVALUE) TO (%L)',
+        parent, legacy, range_end);
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', legacy, legacy || '_range');
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', legacy, parent || '_p' || to_char(current_month, 'YYYYMM'));
+    FOR m IN SELECT generate_series(current_month + INTERVAL '1 month', current_month + INTERVAL '3 months',
+        INTERVAL '1 month')::DATE
+    LOOP
+        PERFORM movk_create_month_partition(parent, m);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 1. 操作日志
+ALTER INDEX idx_operate_log_user_id RENAME TO sys_operate_log_legacy_user_id_idx;
+ALTER INDEX idx_operate_log_trace_id RENAME TO sys_operate_log_legacy_trace_id_idx;
+ALTER INDEX idx_operate_log_time_range RENAME TO sys_operate_log_legacy_time_range_idx;
+ALTER INDEX idx_operate_log_filter RENAME TO sys_operate_log_legacy_filter_idx;
+SELECT movk_prepare_legacy_log_table('sys_operate_log');
+
+CREATE TABLE sys_operate_log (
+    id                  BIGINT NOT NULL DEFAULT nextval('sys_operate_log_id_seq'),
+    trace_id            VARCHAR(64),
+    user_id             UUID,
+    username            VARCHAR(50),
+    module              VARCHAR(50),
+    operation           VARCHAR(50),
+    method              VARCHAR(200),
+    request_method      VARCHAR(10),
+    request_url         VARCHAR(500),
+    request_params      TEXT,
+    request_body        TEXT,
+    response_data       TEXT,
+    user_ip             VARCHAR(50),
+    user_agent          VARCHAR(500),
+    operation_time      INT,
+    status              SMALLINT NOT NULL,
+    error_msg           TEXT,
+    created_at          TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE sys_operate_log_id_seq OWNED BY sys_operate_log.id;
+CREATE TABLE sys_operate_log_default PARTITION OF sys_operate_log DEFAULT;
+
+-- 父表索引在挂载前创建（此时只有空的默认分区），挂载时原表同定义的索引直接挂接
+CREATE INDEX idx_operate_log_user_id ON sys_operate_log(user_id);
+CREATE INDEX idx_operate_log_trace_id ON sys_operate_log(trace_id);
+CREATE INDEX idx_operate_log_time_range ON sys_operate_log(created_at DESC, user_id);
+CREATE INDEX idx_operate_log_filter ON sys_operate_log(module, status, created_at DESC);
+
+SELECT movk_attach_legacy_log_table('sys_operate_log');
+
+-- 2. 登录日志
+ALTER INDEX idx_login_log_user_id RENAME TO sys_login_log_legacy_user_id_idx;
+ALTER INDEX idx_login_log_trace_id RENAME TO sys_login_log_legacy_trace_id_idx;
+ALTER INDEX idx_login_log_time_range RENAME TO sys_login_log_legacy_time_range_idx;
+ALTER INDEX idx_login_log_filter RENAME TO sys_login_log_legacy_filter_idx;
+SELECT movk_prepare_legacy_log_table('sys_login_log');
+
+CREATE TABLE sys_login_log (
+    id                  BIGINT NOT NULL DEFAULT nextval('sys_login_log_id_seq'),
+    trace_id            VARCHAR(64),
+    user_id             UUID,
+    username            VARCHAR(50) NOT NULL,
+    login_type          SMALLINT NOT NULL,
+    login_ip            VARCHAR(50),
+    login_location      VARCHAR(100),
+    browser             VARCHAR(50),
+    os                  VARCHAR(50),
+    user_agent          VARCHAR(500),
+    status              SMALLINT NOT NULL,
+    message             VARCHAR(500),
+    created_at          TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE sys_login_log_id_seq OWNED BY sys_login_log.id;
+CREATE TABLE sys_login_log_default PARTITION OF sys_login_log DEFAULT;
+
+CREATE INDEX idx_login_log_user_id ON sys_login_log(user_id);
+CREATE INDEX idx_login_log_trace_id ON sys_login_log(trace_id);
+CREATE INDEX idx_login_log_time_range ON sys_login_log(created_at DESC, user_id);
+CREATE INDEX idx_login_log_filter ON sys_login_log(username, status, created_at DESC);
+
+SELECT movk_attach_legacy_log_table('sys_login_log');
+
+DROP FUNCTION movk_prepare_legacy_log_table(TEXT);
+DROP FUNCTION movk_attach_legacy_log_table(TEXT);
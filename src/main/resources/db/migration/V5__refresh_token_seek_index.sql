@@ -0,0 +1,6 @@
+-- 在线会话游标分页索引：按 (issued_at, id) 倒序定位，仅索引未撤销的会话
+-- Author: yixuanmiao
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_issued_at
+    ON sys_refresh_token(issued_at DESC, id DESC)
+    WHERE revoked = FALSE;
@@ -0,0 +1,37 @@
+-- 审计日志预聚合统计表：由日志批量写入链路增量累加，统计接口直接读取，不再扫描明细表
+-- 时间桶按 UTC 对齐
+-- Author: yixuanmiao
+
+-- 1. 操作日志：按小时、模块、状态统计
+CREATE TABLE sys_operate_log_stat (
+    bucket              TIMESTAMPTZ NOT NULL,
+    module              VARCHAR(50) NOT NULL DEFAULT '',
+    status              SMALLINT NOT NULL,
+    count               BIGINT NOT NULL DEFAULT 0,
+    total_time          BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket, module, status)
+);
+
+-- 2. 登录日志：按 10 分钟、登录 IP、状态统计
+CREATE TABLE sys_login_log_stat (
+    bucket              TIMESTAMPTZ NOT NULL,
+    login_ip            VARCHAR(50) NOT NULL DEFAULT '',
+    status              SMALLINT NOT NULL,
+    count               BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket, login_ip, status)
+);
+
+CREATE INDEX idx_login_log_stat_status ON sys_login_log_stat(status, bucket DESC);
+
+-- 3. 回填已有日志
+INSERT INTO sys_operate_log_stat (bucket, module, status, count, total_time)
+SELECT date_trunc('hour', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC',
+       COALESCE(module, ''), status, COUNT(*), COALESCE(SUM(operation_time), 0)
+FROM sys_operate_log
+GROUP BY 1, 2, 3;
+
+INSERT INTO sys_login_log_stat (bucket, login_ip, status, count)
+SELECT to_timestamp(floor(extract(EPOCH FROM created_at) / 600) * 600),
+       COALESCE(login_ip, ''), status, COUNT(*)
+FROM sys_login_log
+GROUP BY 1, 2, 3;
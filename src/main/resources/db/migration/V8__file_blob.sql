@@ -0,0 +1,18 @@
+-- 内容寻址文件存储：相同内容（SHA-256）只保存一份物理文件，sys_file 每次上传各占一行元数据并引用 blob
+-- 引用计数归零后由后台 GC 在宽限期后删除物理文件
+-- Author: yixuanmiao
+
+CREATE TABLE sys_file_blob (
+    sha256          VARCHAR(64) PRIMARY KEY,
+    path            VARCHAR(500) NOT NULL,
+    size            BIGINT NOT NULL,
+    ref_count       INT NOT NULL DEFAULT 0,
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    zero_since      TIMESTAMPTZ
+);
+
+CREATE INDEX idx_file_blob_zero_since ON sys_file_blob(zero_since) WHERE ref_count <= 0;
+
+-- 历史文件没有 sha256，仍按原路径独立存储
+ALTER TABLE sys_file ADD COLUMN sha256 VARCHAR(64);
+CREATE INDEX idx_file_sha256 ON sys_file(sha256) WHERE NOT deleted;
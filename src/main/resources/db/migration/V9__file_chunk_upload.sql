@@ -0,0 +1,24 @@
+-- 分片上传会话：分片按位置写入预分配的暂存文件，已落盘的分片记录在 sys_file_upload_part，中断后可查询并续传缺失分片
+-- 过期会话由后台任务清理（级联删除分片记录并删除暂存文件）
+-- Author: yixuanmiao
+
+CREATE TABLE sys_file_upload (
+    id              UUID PRIMARY KEY,
+    original_name   VARCHAR(255) NOT NULL,
+    content_type    VARCHAR(100),
+    category        VARCHAR(50),
+    size            BIGINT NOT NULL,
+    part_size       INT NOT NULL,
+    part_count      INT NOT NULL,
+    creator         UUID NOT NULL,
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    expires_at      TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_file_upload_expires_at ON sys_file_upload(expires_at);
+
+CREATE TABLE sys_file_upload_part (
+    upload_id       UUID NOT NULL REFERENCES sys_file_upload(id) ON DELETE CASCADE,
+    part_number     INT NOT NULL,
+    PRIMARY KEY (upload_id, part_number)
+);
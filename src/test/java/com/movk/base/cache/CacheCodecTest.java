@@ -0,0 +1,99 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.movk.common.enums.EnableStatus;
+import com.movk.dto.dept.DeptResp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 缓存编解码单元测试
+ */
+@DisplayName("缓存编解码单元测试")
+class CacheCodecTest {
+
+    private List<DeptResp> deptTree;
+    private RedisSerializer<Object> typedCodec;
+
+    @BeforeEach
+    void setUp() {
+        deptTree = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            List<DeptResp> children = new ArrayList<>();
+            for (int j = 0; j < 5; j++) {
+                children.add(dept("部门" + i + "-" + j, List.of()));
+            }
+            deptTree.add(dept("部门" + i, children));
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE);
+        typedCodec = new TypedJsonRedisSerializer(mapper,
+            TypeFactory.defaultInstance().constructCollectionType(List.class, DeptResp.class));
+    }
+
+    private static DeptResp dept(String name, List<DeptResp> children) {
+        OffsetDateTime now = OffsetDateTime.parse("2026-10-17T10:00:00+08:00");
+        return new DeptResp(UUID.randomUUID(), null, name, "code", 1, null, null,
+            null, null, EnableStatus.ENABLED, now, now, children);
+    }
+
+    @Test
+    @DisplayName("固定类型编解码往返一致且不含类型标签")
+    void typedCodecShouldRoundTrip() {
+        byte[] bytes = typedCodec.serialize(deptTree);
+
+        assertThat(new String(bytes)).doesNotContain("@class");
+        assertThat(typedCodec.deserialize(bytes)).isEqualTo(deptTree);
+    }
+
+    @Test
+    @DisplayName("固定类型编解码体积小于默认类型编解码")
+    void typedCodecShouldBeSmallerThanDefaultTyping() {
+        GenericJackson2JsonRedisSerializer defaultCodec = new GenericJackson2JsonRedisSerializer();
+        defaultCodec.configure(mapper -> mapper.registerModule(new JavaTimeModule()));
+
+        int defaultSize = defaultCodec.serialize(deptTree).length;
+        int typedSize = typedCodec.serialize(deptTree).length;
+        int compressedSize = new GzipRedisSerializer(typedCodec, 1024).serialize(deptTree).length;
+
+        assertThat(typedSize).isLessThan(defaultSize);
+        assertThat(compressedSize).isLessThan(typedSize / 2);
+    }
+
+    @Test
+    @DisplayName("压缩编解码仅压缩超过阈值的数据并兼容未压缩数据")
+    void gzipCodecShouldCompressAboveThreshold() {
+        GzipRedisSerializer gzip = new GzipRedisSerializer(typedCodec, 1024);
+        List<DeptResp> small = List.of(dept("小", List.of()));
+
+        byte[] smallBytes = gzip.serialize(small);
+        byte[] largeBytes = gzip.serialize(deptTree);
+
+        assertThat(smallBytes).isEqualTo(typedCodec.serialize(small));
+        assertThat(largeBytes[0]).isEqualTo((byte) 0x1f);
+        assertThat(gzip.deserialize(smallBytes)).isEqualTo(small);
+        assertThat(gzip.deserialize(largeBytes)).isEqualTo(deptTree);
+    }
+}
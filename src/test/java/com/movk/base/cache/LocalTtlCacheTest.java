@@ -0,0 +1,102 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 进程内 TTL 缓存单元测试
+ */
+@DisplayName("LocalTtlCache 单元测试")
+class LocalTtlCacheTest {
+
+    @Test
+    @DisplayName("到期条目读取时返回 null 并被清除")
+    void shouldExpireEntries() {
+        LocalTtlCache<String, String> cache = new LocalTtlCache<>(10, Duration.ofMinutes(1));
+        cache.put("k", "v", System.currentTimeMillis() - 1);
+
+        assertThat(cache.get("k")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("超过上限时淘汰最久未访问的条目")
+    void shouldEvictLeastRecentlyAccessed() throws InterruptedException {
+        LocalTtlCache<Integer, Integer> cache = new LocalTtlCache<>(10, Duration.ofMinutes(1));
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+        Thread.sleep(5);
+        cache.get(0);
+        cache.put(10, 10);
+
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(cache.get(0)).isZero();
+        assertThat(cache.get(10)).isEqualTo(10);
+        assertThat(cache.get(1)).isNull();
+    }
+
+    @Test
+    @DisplayName("并发读写时不超出上限且读取不阻塞")
+    void shouldStayBoundedUnderConcurrency() throws Exception {
+        LocalTtlCache<Integer, Integer> cache = new LocalTtlCache<>(1000, Duration.ofMinutes(1));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t * 10_000;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10_000; i++) {
+                        cache.put(offset + i, i);
+                        cache.get(offset + i / 2);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // 淘汰由单个线程批量进行，其余写入方不等待，允许短暂超出
+        assertThat(cache.size()).isLessThanOrEqualTo(1000 + 8);
+    }
+
+    @Test
+    @DisplayName("按分组移除只影响该分组，覆盖写入后分组随之变更")
+    void shouldRemoveByGroup() {
+        LocalTtlCache<Integer, String> cache = new LocalTtlCache<>(10, Duration.ofMinutes(1), (key, value) -> value);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "a");
+        cache.put(3, "b");
+
+        assertThat(cache.removeGroup("a")).isEqualTo(1);
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.get(2)).isEqualTo("b");
+        assertThat(cache.get(3)).isEqualTo("b");
+        assertThat(cache.removeGroup("b")).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.cache;
+
+import com.movk.base.cache.TwoLevelCacheManager.LocalSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 二级缓存管理器单元测试
+ */
+@DisplayName("TwoLevelCacheManager 单元测试")
+class TwoLevelCacheManagerTest {
+
+    private ConcurrentMapCacheManager remoteManager;
+    private StringRedisTemplate redisTemplate;
+    private TwoLevelCacheManager manager;
+
+    @BeforeEach
+    void setUp() {
+        remoteManager = new ConcurrentMapCacheManager();
+        redisTemplate = mock(StringRedisTemplate.class);
+        manager = new TwoLevelCacheManager(remoteManager,
+            Map.of("dict", new LocalSpec(100, Duration.ofMinutes(1))), redisTemplate, null, null);
+    }
+
+    @Test
+    @DisplayName("未配置 L1 的缓存直接使用 L2")
+    void shouldPassThroughWithoutLocalSpec() {
+        assertThat(manager.getCache("other")).isNotInstanceOf(TwoLevelCache.class);
+        assertThat(manager.getCache("dict")).isInstanceOf(TwoLevelCache.class);
+    }
+
+    @Test
+    @DisplayName("L2 回填后命中 L1")
+    void shouldServeFromLocalAfterFill() {
+        Cache cache = manager.getCache("dict");
+        remoteManager.getCache("dict").put("k", "v1");
+
+        assertThat(cache.get("k").get()).isEqualTo("v1");
+
+        // 直接修改 L2 不影响已回填的 L1
+        remoteManager.getCache("dict").put("k", "v2");
+        assertThat(cache.get("k").get()).isEqualTo("v1");
+    }
+
+    @Test
+    @DisplayName("失效时清除两级并广播")
+    void evictShouldClearBothLevelsAndPublish() {
+        Cache cache = manager.getCache("dict");
+        cache.put("k", "v1");
+
+        cache.evict("k");
+
+        assertThat(cache.get("k")).isNull();
+        // 写入与失效各广播一次
+        verify(redisTemplate, times(2)).convertAndSend(eq(TwoLevelCacheManager.CHANNEL), endsWith("|E|dict|k"));
+    }
+
+    @Test
+    @DisplayName("收到其他节点的失效消息时仅清除 L1")
+    void remoteEvictMessageShouldClearLocal() {
+        Cache cache = manager.getCache("dict");
+        remoteManager.getCache("dict").put("k", "v1");
+        cache.get("k");
+        remoteManager.getCache("dict").put("k", "v2");
+
+        manager.onMessage(message("other-node|E|dict|k"), null);
+
+        assertThat(cache.get("k").get()).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("收到其他节点的清空消息时清空 L1")
+    void remoteClearMessageShouldClearLocal() {
+        Cache cache = manager.getCache("dict");
+        remoteManager.getCache("dict").put("k", "v1");
+        cache.get("k");
+        remoteManager.getCache("dict").put("k", "v2");
+
+        manager.onMessage(message("other-node|C|dict|"), null);
+
+        assertThat(cache.get("k").get()).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("并发未命中时同一键只回源一次")
+    void concurrentMissShouldLoadOnce() throws Exception {
+        Cache cache = manager.getCache("dict");
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get("k", () -> {
+                        loadCount.incrementAndGet();
+                        Thread.sleep(100);
+                        return "loaded";
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(remoteManager.getCache("dict").get("k").get()).isEqualTo("loaded");
+    }
+
+    @Test
+    @DisplayName("回源异常时抛出且不缓存")
+    void loaderFailureShouldNotCache() {
+        Cache cache = manager.getCache("dict");
+
+        assertThatThrownBy(() -> cache.get("k", () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(Cache.ValueRetrievalException.class);
+        assertThat(cache.get("k")).isNull();
+    }
+
+    @Test
+    @DisplayName("读取 L2 期间收到失效广播时不回填旧值")
+    void invalidationDuringRemoteReadShouldSkipLocalFill() {
+        AtomicInteger remoteReads = new AtomicInteger();
+        TwoLevelCache[] holder = new TwoLevelCache[1];
+        ConcurrentMapCache remote = new ConcurrentMapCache("dict") {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper wrapper = super.get(key);
+                if (remoteReads.incrementAndGet() == 1) {
+                    // 旧值已读出，其他节点更新 L2 并广播失效
+                    super.put(key, "v2");
+                    holder[0].evictLocal(TwoLevelCache.localKey(key));
+                }
+                return wrapper;
+            }
+        };
+        remote.put("k", "v1");
+        TwoLevelCache cache = new TwoLevelCache("dict", remote, new LocalTtlCache<>(100, Duration.ofMinutes(1)),
+            null, manager);
+        holder[0] = cache;
+
+        assertThat(cache.get("k").get()).isEqualTo("v1");
+        assertThat(cache.get("k").get()).isEqualTo("v2");
+        assertThat(remoteReads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("其他节点持有回源锁时等待其加载完成通知，不自行回源")
+    @SuppressWarnings("unchecked")
+    void lockLoserShouldWaitForLoadedNotification() throws Exception {
+        ValueOperations<String, String> ops = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(ops);
+        when(ops.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        Cache cache = manager.getCache("dict");
+        AtomicInteger loadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            long start = System.nanoTime();
+            Future<String> result = pool.submit(() -> cache.get("k", () -> {
+                loadCount.incrementAndGet();
+                return "self";
+            }));
+            Thread.sleep(100);
+            remoteManager.getCache("dict").put("k", "remote");
+            manager.onMessage(message("other-node|L|dict|k"), null);
+
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("remote");
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .isLessThan(TwoLevelCacheManager.LOCK_WAIT_MILLIS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loadCount).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("提前刷新通过所属服务的加载器回源，线程池已满时跳过且不在请求线程执行")
+    @SuppressWarnings("unchecked")
+    void shouldRefreshAheadThroughRefresher() {
+        ValueOperations<String, String> ops = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(ops);
+        when(ops.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        List<Runnable> submitted = new ArrayList<>();
+        AtomicBoolean saturated = new AtomicBoolean(true);
+        Executor executor = task -> {
+            if (saturated.get()) {
+                throw new RejectedExecutionException("full");
+            }
+            submitted.add(task);
+        };
+        AtomicInteger reloads = new AtomicInteger();
+        CacheRefresher refresher = new CacheRefresher() {
+            @Override
+            public String cacheName() {
+                return "dict";
+            }
+
+            @Override
+            public Object reload(Object key) {
+                reloads.incrementAndGet();
+                return "fresh";
+            }
+        };
+        TwoLevelCacheManager refreshing = new TwoLevelCacheManager(remoteManager,
+            Map.of("dict", new LocalSpec(100, Duration.ofMinutes(1), Duration.ofMinutes(5))), redisTemplate,
+            executor, () -> List.of(refresher)) {
+            @Override
+            long remainingTtlMillis(Cache remote, String localKey) {
+                return 1_000;
+            }
+        };
+        remoteManager.getCache("dict").put("k", "stale");
+        TwoLevelCache cache = (TwoLevelCache) refreshing.getCache("dict");
+        AtomicInteger callerLoads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            callerLoads.incrementAndGet();
+            return "caller";
+        };
+
+        // 线程池已满：跳过刷新，请求线程直接返回 L2 中的值
+        assertThat(cache.get("k", loader)).isEqualTo("stale");
+        assertThat(submitted).isEmpty();
+
+        // 刷新中标记已清除，下次 L1 未命中时重新提交
+        saturated.set(false);
+        cache.evictLocal("k");
+        assertThat(cache.get("k", loader)).isEqualTo("stale");
+        assertThat(submitted).hasSize(1);
+        submitted.get(0).run();
+
+        assertThat(reloads).hasValue(1);
+        assertThat(callerLoads).hasValue(0);
+        assertThat(remoteManager.getCache("dict").get("k").get()).isEqualTo("fresh");
+        assertThat(cache.get("k").get()).isEqualTo("fresh");
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TwoLevelCacheManager.CHANNEL.getBytes(StandardCharsets.UTF_8),
+            body.getBytes(StandardCharsets.UTF_8));
+    }
+}
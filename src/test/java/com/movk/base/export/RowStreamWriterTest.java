@@ -0,0 +1,113 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.export;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 行式流式导出写入器单元测试
+ */
+@DisplayName("RowStreamWriter 单元测试")
+class RowStreamWriterTest {
+
+    private static final String[] COLUMNS = {"id", "name", "note"};
+
+    @Test
+    @DisplayName("CSV 输出表头并按 RFC 4180 转义，公式前缀加单引号")
+    void shouldEscapeCsv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RowStreamWriter writer = new RowStreamWriter(out, ExportFormat.CSV, COLUMNS)) {
+            writer.writeRow(new Object[]{1L, "a,b", "say \"hi\""});
+            writer.writeRow(new Object[]{2L, "=SUM(A1)", null});
+            assertThat(writer.getRows()).isEqualTo(2);
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "id,name,note\r\n"
+                + "1,\"a,b\",\"say \"\"hi\"\"\"\r\n"
+                + "2,\"'=SUM(A1)\",\r\n");
+    }
+
+    @Test
+    @DisplayName("以制表符或回车开头的值同样加单引号前缀")
+    void shouldEscapeLeadingTabAndCarriageReturn() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RowStreamWriter writer = new RowStreamWriter(out, ExportFormat.CSV, COLUMNS)) {
+            writer.writeRow(new Object[]{1L, "\t=1+1", "\r=cmd"});
+            writer.writeRow(new Object[]{2L, "a\tb", "-1"});
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "id,name,note\r\n"
+                + "1,\"'\t=1+1\",\"'\r=cmd\"\r\n"
+                + "2,a\tb,\"'-1\"\r\n");
+    }
+
+    @Test
+    @DisplayName("NDJSON 每行一个 JSON 对象")
+    void shouldWriteNdjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RowStreamWriter writer = new RowStreamWriter(out, ExportFormat.NDJSON, COLUMNS)) {
+            writer.writeRow(new Object[]{1L, "a\nb", null});
+            writer.writeRow(new Object[]{2L, "c", true});
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "{\"id\":1,\"name\":\"a\\nb\",\"note\":null}\n"
+                + "{\"id\":2,\"name\":\"c\",\"note\":true}\n");
+    }
+
+    @Test
+    @DisplayName("gzip 下载设置文件名并输出可解压内容")
+    void shouldGzipDownload() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        OutputStream out = RowStreamWriter.openDownload(response, "operate-log", ExportFormat.CSV, true, false);
+        try (RowStreamWriter writer = new RowStreamWriter(out, ExportFormat.CSV, COLUMNS)) {
+            writer.writeRow(new Object[]{1L, "a", "b"});
+        }
+
+        assertThat(response.getContentType()).isEqualTo("application/gzip");
+        assertThat(response.getHeader(RowStreamWriter.TRUNCATED_HEADER)).isEqualTo("false");
+        assertThat(response.getHeader("Content-Disposition")).matches("attachment; filename=\"operate-log-\\d{8}\\.csv\\.gz\"");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id,name,note\r\n1,a,b\r\n");
+        }
+    }
+
+    @Test
+    @DisplayName("导出中途失败：响应未提交时清空缓冲与下载响应头，已提交时抛出 StreamAbortedException")
+    void shouldAbortExport() throws IOException {
+        MockHttpServletResponse pending = new MockHttpServletResponse();
+        OutputStream out = RowStreamWriter.openDownload(pending, "operate-log", ExportFormat.CSV, false, true);
+        new RowStreamWriter(out, ExportFormat.CSV, COLUMNS).writeRow(new Object[]{1L, "a", "b"});
+
+        RowStreamWriter.abort(pending, new IllegalStateException("cursor failed"));
+
+        assertThat(pending.getHeader("Content-Disposition")).isNull();
+        assertThat(pending.getHeader(RowStreamWriter.TRUNCATED_HEADER)).isNull();
+        assertThat(pending.getContentAsByteArray()).isEmpty();
+
+        MockHttpServletResponse committed = new MockHttpServletResponse();
+        committed.setCommitted(true);
+        IllegalStateException cause = new IllegalStateException("cursor failed");
+
+        assertThatThrownBy(() -> RowStreamWriter.abort(committed, cause))
+            .isInstanceOf(StreamAbortedException.class)
+            .hasCause(cause);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.file;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 磁盘 LRU 缓存单元测试
+ */
+@DisplayName("DiskLruCache 单元测试")
+class DiskLruCacheTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("总大小超出上限时淘汰最久未访问的条目")
+    void shouldEvictLeastRecentlyUsed() throws IOException {
+        DiskLruCache cache = new DiskLruCache(root, 300, Duration.ZERO);
+        cache.put("a/1", temp(cache, 100));
+        cache.put("a/2", temp(cache, 100));
+        cache.put("a/3", temp(cache, 100));
+
+        // 访问 1 后 2 成为最久未访问
+        assertThat(cache.get("a/1")).isNotNull();
+        cache.put("a/4", temp(cache, 100));
+
+        assertThat(cache.get("a/2")).isNull();
+        assertThat(root.resolve("a/2")).doesNotExist();
+        assertThat(cache.get("a/1")).isNotNull();
+        assertThat(cache.get("a/4")).isNotNull();
+        assertThat(cache.size()).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("淘汰的文件在宽限期内仍可读取，期间重新写入同一 key 时不被删除")
+    void shouldDeferDeletionOfEvictedFiles() throws Exception {
+        DiskLruCache cache = new DiskLruCache(root, 200, Duration.ofMillis(200));
+        Path reader = cache.put("k1", temp(cache, 100));
+        cache.put("k2", temp(cache, 100));
+        cache.put("k3", temp(cache, 100));
+
+        // k1 已移出索引，但先前返回的路径仍可打开
+        assertThat(cache.get("k1")).isNull();
+        assertThat(Files.size(reader)).isEqualTo(100);
+
+        // 宽限期内重新写入 k1（淘汰 k2），k1 的延迟删除被取消
+        cache.put("k1", temp(cache, 100));
+        Thread.sleep(250);
+        cache.put("k4", temp(cache, 100));
+
+        assertThat(root.resolve("k2")).doesNotExist();
+        assertThat(root.resolve("k1")).exists();
+        assertThat(cache.get("k1")).isNotNull();
+        // k3 刚被淘汰，仍在宽限期内
+        assertThat(root.resolve("k3")).exists();
+        assertThat(cache.size()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("单个条目超过上限时仍保留刚写入的条目")
+    void shouldKeepNewestEntryWhenLargerThanLimit() throws IOException {
+        DiskLruCache cache = new DiskLruCache(root, 100);
+        cache.put("small", temp(cache, 50));
+        cache.put("large", temp(cache, 200));
+
+        assertThat(cache.get("small")).isNull();
+        assertThat(cache.get("large")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("重启后按最后修改时间重建索引并清理残留临时文件")
+    void shouldRebuildIndexFromDisk() throws IOException {
+        DiskLruCache cache = new DiskLruCache(root, 1000);
+        cache.put("x/old", temp(cache, 100));
+        cache.put("x/new", temp(cache, 100));
+        Files.setLastModifiedTime(root.resolve("x/old"), FileTime.fromMillis(1_000));
+        Files.setLastModifiedTime(root.resolve("x/new"), FileTime.fromMillis(2_000));
+        Path stale = temp(cache, 10);
+
+        DiskLruCache reopened = new DiskLruCache(root, 150);
+
+        assertThat(stale).doesNotExist();
+        assertThat(reopened.size()).isEqualTo(100);
+        assertThat(reopened.get("x/old")).isNull();
+        assertThat(reopened.get("x/new")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("拒绝越出缓存目录的 key")
+    void shouldRejectKeyOutsideRoot() throws IOException {
+        DiskLruCache cache = new DiskLruCache(root, 1000);
+        Path source = temp(cache, 10);
+
+        assertThatThrownBy(() -> cache.put("../escape", source)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Path temp(DiskLruCache cache, int size) throws IOException {
+        return Files.write(Files.createTempFile(cache.tempDir(), "test-", ".tmp"), new byte[size]);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.file;
+
+import com.movk.dto.file.FileContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 文件响应输出单元测试
+ */
+@DisplayName("FileResponseWriter 单元测试")
+class FileResponseWriterTest {
+
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    @TempDir
+    Path dir;
+
+    private FileContent content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path path = dir.resolve("file.txt");
+        Files.writeString(path, "0123456789");
+        content = FileContent.builder()
+            .path(path)
+            .originalName("说明 文档.txt")
+            .contentType("text/plain")
+            .size(10)
+            .md5("abc123")
+            .lastModified(OffsetDateTime.of(2026, 10, 1, 0, 0, 0, 0, ZoneOffset.UTC))
+            .build();
+    }
+
+    @Test
+    @DisplayName("完整下载输出内容、ETag 与 Last-Modified")
+    void shouldWriteFullContent() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileResponseWriter.write(get(), response, content, true, CACHE_CONTROL);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+        assertThat(response.getHeader("ETag")).isEqualTo("\"abc123\"");
+        assertThat(response.getDateHeader("Last-Modified")).isEqualTo(content.getLastModified().toInstant().toEpochMilli());
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(response.getHeader("Content-Disposition")).startsWith("attachment; filename=\"%E8%AF%B4%E6%98%8E%20");
+    }
+
+    @Test
+    @DisplayName("If-None-Match 命中返回 304，不读取文件")
+    void shouldReturnNotModified() throws IOException {
+        Files.delete(content.getPath());
+        MockHttpServletRequest request = get();
+        request.addHeader("If-None-Match", "\"abc123\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileResponseWriter.write(request, response, content, true, CACHE_CONTROL);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("单段 Range 返回 206 与 Content-Range")
+    void shouldWritePartialContent() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileResponseWriter.write(request, response, content, false, CACHE_CONTROL);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("2345");
+    }
+
+    @Test
+    @DisplayName("越界 Range 返回 416，If-Range 不匹配时返回完整内容")
+    void shouldHandleUnsatisfiableAndStaleRange() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=20-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileResponseWriter.write(request, response, content, false, CACHE_CONTROL);
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */10");
+
+        MockHttpServletRequest stale = get();
+        stale.addHeader("Range", "bytes=2-5");
+        stale.addHeader("If-Range", "\"other\"");
+        MockHttpServletResponse full = new MockHttpServletResponse();
+        FileResponseWriter.write(stale, full, content, false, CACHE_CONTROL);
+        assertThat(full.getStatus()).isEqualTo(200);
+        assertThat(full.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    @DisplayName("容器支持 sendfile 时交由容器输出")
+    void shouldDelegateToSendfile() throws IOException {
+        MockHttpServletRequest request = get();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileResponseWriter.write(request, response, content, false, CACHE_CONTROL);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(7L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(10L);
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/files/download/1");
+    }
+}
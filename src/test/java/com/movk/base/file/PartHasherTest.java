@@ -0,0 +1,79 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.file;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 分片增量摘要单元测试
+ */
+@DisplayName("PartHasher 单元测试")
+class PartHasherTest {
+
+    private static final int PART_SIZE = 100 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("分片乱序到达时只推进连续前缀，最终摘要与整体计算一致")
+    void shouldMatchWholeFileDigestWhenPartsArriveOutOfOrder() throws IOException, NoSuchAlgorithmException {
+        byte[] content = new byte[PART_SIZE * 3 + 17];
+        new Random(7).nextBytes(content);
+        Path file = Files.write(dir.resolve("data"), content);
+        PartHasher hasher = new PartHasher(content.length, PART_SIZE, 4);
+        BitSet received = new BitSet();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            received.set(3);
+            hasher.tryAdvance(channel, received::get);
+            assertThat(hasher.getHashedBytes()).isZero();
+
+            received.set(1);
+            hasher.tryAdvance(channel, received::get);
+            assertThat(hasher.getHashedBytes()).isEqualTo(PART_SIZE);
+
+            received.set(4);
+            received.set(2);
+            String[] digests = hasher.finish(channel, received::get);
+
+            HexFormat hex = HexFormat.of();
+            assertThat(digests[0]).isEqualTo(hex.formatHex(MessageDigest.getInstance("MD5").digest(content)));
+            assertThat(digests[1]).isEqualTo(hex.formatHex(MessageDigest.getInstance("SHA-256").digest(content)));
+            // 重复调用（合并失败后重试）返回相同摘要，而非空输入的摘要
+            assertThat(hasher.finish(channel, received::get)).containsExactly(digests);
+        }
+    }
+
+    @Test
+    @DisplayName("存在未到达的分片时无法合并")
+    void shouldRejectFinishWithMissingPart() throws IOException {
+        Path file = Files.write(dir.resolve("data"), new byte[PART_SIZE * 2]);
+        PartHasher hasher = new PartHasher(PART_SIZE * 2, PART_SIZE, 2);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThatThrownBy(() -> hasher.finish(channel, part -> part == 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1/2");
+        }
+    }
+}
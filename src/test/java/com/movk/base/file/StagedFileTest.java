@@ -0,0 +1,68 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.file;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 暂存文件单元测试
+ */
+@DisplayName("StagedFile 单元测试")
+class StagedFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("单次读取写入临时文件并计算 MD5，移动后保留内容")
+    void shouldHashWhileWritingAndMove() throws Exception {
+        byte[] data = new byte[300 * 1024 + 17];
+        new Random(42).nextBytes(data);
+        Path target = dir.resolve("a/b/file.bin");
+
+        try (StagedFile staged = StagedFile.stage(new ByteArrayInputStream(data), target.getParent())) {
+            assertThat(staged.getMd5()).isEqualTo(DigestUtils.md5DigestAsHex(data));
+            assertThat(staged.getSha256()).isEqualTo(HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(data)));
+            assertThat(staged.getSize()).isEqualTo(data.length);
+            assertThat(staged.getPath().getParent()).isEqualTo(target.getParent());
+            staged.moveTo(target);
+        }
+
+        assertThat(Files.readAllBytes(target)).isEqualTo(data);
+        assertThat(fileCount(target.getParent())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("未移动时关闭即删除临时文件")
+    void shouldDeleteTempFileWhenNotMoved() throws IOException {
+        try (StagedFile staged = StagedFile.stage(new ByteArrayInputStream(new byte[]{1, 2, 3}), dir)) {
+            assertThat(Files.exists(staged.getPath())).isTrue();
+        }
+
+        assertThat(fileCount(dir)).isZero();
+    }
+
+    private static long fileCount(Path path) throws IOException {
+        try (Stream<Path> files = Files.list(path)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movk.base.log.BatchLogBuffer.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批量日志缓冲单元测试
+ */
+@DisplayName("BatchLogBuffer 单元测试")
+class BatchLogBufferTest {
+
+    @TempDir
+    Path spillDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Entry>> batches = new CopyOnWriteArrayList<>();
+    private final List<Entry> replayed = new CopyOnWriteArrayList<>();
+    private BatchLogBuffer<Entry> buffer;
+
+    record Entry(int seq) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("达到批量大小时合并为一批写入")
+    void shouldFlushBySize() throws Exception {
+        buffer = create(OverflowPolicy.DROP_OLDEST, 100, 10, Duration.ofMinutes(1), this::record);
+        for (int i = 0; i < 10; i++) {
+            buffer.offer(new Entry(i));
+        }
+        buffer.start();
+
+        awaitWritten(10);
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).extracting(Entry::seq).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    @DisplayName("未满一批时按时间间隔写入")
+    void shouldFlushByInterval() throws Exception {
+        buffer = create(OverflowPolicy.DROP_OLDEST, 100, 50, Duration.ofMillis(50), this::record);
+        buffer.start();
+        buffer.offer(new Entry(1));
+        buffer.offer(new Entry(2));
+
+        awaitWritten(2);
+        assertThat(meterRegistry.get("movk.log.buffer.flush").timer().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("队列满时丢弃最旧记录并计数")
+    void shouldDropOldestWhenFull() {
+        buffer = create(OverflowPolicy.DROP_OLDEST, 3, 10, Duration.ofMillis(50), this::record);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(new Entry(i));
+        }
+
+        assertThat(buffer.depth()).isEqualTo(3);
+        assertThat(meterRegistry.get("movk.log.buffer.dropped").counter().count()).isEqualTo(2.0);
+
+        buffer.start();
+        buffer.stop();
+        assertThat(written()).extracting(Entry::seq).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    @DisplayName("溢出记录由溢写线程写入溢写日志，启动后按顺序回放")
+    void shouldSpillAndReplay() throws Exception {
+        buffer = create(OverflowPolicy.SPILL, 3, 10, Duration.ofMillis(50), this::record);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(new Entry(i));
+        }
+        // 调用线程只入溢出队列，不直接追加溢写日志
+        assertThat(buffer.hasSpillPending()).isFalse();
+
+        buffer.start();
+
+        awaitWritten(5);
+        assertThat(written()).extracting(Entry::seq).containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+        // 溢写日志非空时新批次排在其后，先溢出的记录先回放
+        assertThat(replayed).extracting(Entry::seq).startsWith(3, 4);
+        assertThat(meterRegistry.get("movk.log.buffer.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("溢出队列也满时丢弃并计数")
+    void shouldDropWhenOverflowQueueIsFull() {
+        buffer = create(OverflowPolicy.SPILL, 2, 10, Duration.ofMillis(50), this::record);
+        for (int i = 0; i < 6; i++) {
+            buffer.offer(new Entry(i));
+        }
+
+        assertThat(meterRegistry.get("movk.log.buffer.dropped").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("溢写日志达到大小上限时丢弃超出部分并计数")
+    void shouldRejectSpillBeyondMaxSize() throws Exception {
+        buffer = create(OverflowPolicy.SPILL, 100, 10, Duration.ofMillis(50), batch -> {
+            throw new IllegalStateException("db down");
+        });
+        buffer.start();
+        // 分批提交，让溢写线程跟上，使记录进入溢写日志而不是在溢出队列处丢弃
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 100; i++) {
+                buffer.offer(new Entry(round * 100 + i));
+            }
+            Thread.sleep(50);
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("movk.log.buffer.spill.rejected").counter().count() == 0
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        double spilled = meterRegistry.get("movk.log.buffer.spilled").counter().count();
+        double rejected = meterRegistry.get("movk.log.buffer.spill.rejected").counter().count();
+        assertThat(rejected).isPositive();
+        assertThat(spilled).isLessThan(1000);
+        assertThat(meterRegistry.get("movk.log.buffer.dropped").counter().count()).isGreaterThanOrEqualTo(rejected);
+    }
+
+    @Test
+    @DisplayName("SPILL 策略下写库失败的批次溢写后重试")
+    void shouldRetryFailedBatchFromSpill() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        buffer = create(OverflowPolicy.SPILL, 100, 10, Duration.ofMillis(50), batch -> {
+            if (failing.getAndSet(false)) {
+                throw new IllegalStateException("db down");
+            }
+            record(batch);
+        });
+        buffer.start();
+        buffer.offer(new Entry(7));
+
+        awaitWritten(1);
+        assertThat(written()).extracting(Entry::seq).containsExactly(7);
+        assertThat(replayed).extracting(Entry::seq).containsExactly(7);
+        assertThat(buffer.hasSpillPending()).isFalse();
+        assertThat(meterRegistry.get("movk.log.buffer.spilled").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("默认 DROP_OLDEST 策略下写库失败的批次同样进入溢写日志，恢复后回放")
+    void shouldJournalFailedBatchUnderDefaultPolicy() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        buffer = create(OverflowPolicy.DROP_OLDEST, 100, 10, Duration.ofMillis(50), batch -> {
+            if (failing.get()) {
+                throw new IllegalStateException("db down");
+            }
+            record(batch);
+        });
+        buffer.start();
+        buffer.offer(new Entry(1));
+        buffer.offer(new Entry(2));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!buffer.hasSpillPending() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(buffer.hasSpillPending()).isTrue();
+        assertThat(meterRegistry.get("movk.log.buffer.spilled").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("movk.log.buffer.dropped").counter().count()).isZero();
+
+        failing.set(false);
+        awaitWritten(2);
+        assertThat(replayed).extracting(Entry::seq).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("停止时写出剩余记录")
+    void shouldDrainOnStop() {
+        buffer = create(OverflowPolicy.BLOCK, 100, 10, Duration.ofMinutes(1), this::record);
+        buffer.start();
+        for (int i = 0; i < 25; i++) {
+            buffer.offer(new Entry(i));
+        }
+        buffer.stop();
+
+        assertThat(written()).hasSize(25);
+        assertThat(meterRegistry.get("movk.log.buffer.written").counter().count()).isEqualTo(25.0);
+    }
+
+    private BatchLogBuffer<Entry> create(OverflowPolicy policy, int capacity, int batchSize,
+                                         Duration flushInterval, Consumer<List<Entry>> writer) {
+        BatchLogBuffer.Options options = new BatchLogBuffer.Options(capacity, batchSize, flushInterval,
+            policy, Duration.ofMillis(10), spillDir, 4096, 4096);
+        Consumer<List<Entry>> replayWriter = batch -> {
+            writer.accept(batch);
+            replayed.addAll(batch);
+        };
+        return new BatchLogBuffer<>("test", options, writer, replayWriter, new ObjectMapper(), Entry.class, meterRegistry);
+    }
+
+    private void record(List<Entry> batch) {
+        batches.add(List.copyOf(batch));
+    }
+
+    private List<Entry> written() {
+        List<Entry> all = new ArrayList<>();
+        batches.forEach(all::addAll);
+        return all;
+    }
+
+    private void awaitWritten(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (written().size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(written()).hasSize(count);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movk.dto.user.UserCreateReq;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 日志 JSON 采集单元测试
+ */
+@DisplayName("JsonCapture 单元测试")
+class JsonCaptureTest {
+
+    private final JsonCapture capture = new JsonCapture(new ObjectMapper());
+
+    @Test
+    @DisplayName("参数按声明顺序写出并脱敏对象内字段")
+    void shouldFilterExcludedFields() {
+        UserCreateReq req = new UserCreateReq("alice", "secret", "Alice", null, null, null, null, null,
+            null, null, null, null);
+
+        String json = capture.captureArgs(new String[]{"req", "confirmPassword"},
+            new Object[]{req, "secret"}, Set.of("password", "confirmPassword"), 2000);
+
+        assertThat(json)
+            .startsWith("{\"req\":{\"username\":\"alice\",\"password\":\"[FILTERED]\"")
+            .endsWith(",\"confirmPassword\":\"[FILTERED]\"}")
+            .doesNotContain("secret");
+    }
+
+    @Test
+    @DisplayName("跳过参数名为 null 的参数，Map 中的同名键同样脱敏")
+    void shouldSkipIgnoredArgsAndFilterMaps() {
+        String json = capture.captureArgs(new String[]{null, "body"},
+            new Object[]{new Object(), Map.of("password", "secret")}, Set.of("password"), 2000);
+
+        assertThat(json).isEqualTo("{\"body\":{\"password\":\"[FILTERED]\"}}");
+        assertThat(capture.captureArgs(new String[]{null}, new Object[]{"x"}, Set.of(), 2000)).isNull();
+    }
+
+    @Test
+    @DisplayName("超出长度上限时截断并提前停止序列化")
+    void shouldStopAtBudget() {
+        AtomicInteger visited = new AtomicInteger();
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            rows.add(new Row(i, visited));
+        }
+
+        String json = capture.capture(rows, 2000);
+
+        assertThat(json).hasSize(2000 + JsonCapture.TRUNCATED.length()).endsWith(JsonCapture.TRUNCATED);
+        assertThat(visited.get()).isLessThan(1_000);
+    }
+
+    @Test
+    @DisplayName("未超出上限时输出完整 JSON")
+    void shouldWriteFullJsonWithinBudget() {
+        assertThat(capture.capture(Map.of("total", 1), 2000)).isEqualTo("{\"total\":1}");
+    }
+
+    static class Row {
+        private final int id;
+        private final AtomicInteger visited;
+
+        Row(int id, AtomicInteger visited) {
+            this.id = id;
+            this.visited = visited;
+        }
+
+        public int getId() {
+            visited.incrementAndGet();
+            return id;
+        }
+
+        public String getName() {
+            return "row-" + id;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.log;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 本地溢写日志单元测试
+ */
+@DisplayName("SpillJournal 单元测试")
+class SpillJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("按追加顺序读取，确认后不再返回")
+    void shouldReadInOrderAndCommit() throws IOException {
+        SpillJournal journal = new SpillJournal(dir, 4096, 1 << 20);
+        journal.append(records("a", "b", "c"));
+
+        SpillJournal.Batch first = journal.peek(2);
+        assertThat(texts(first)).containsExactly("a", "b");
+        // 未确认时重复读取返回相同内容
+        assertThat(texts(journal.peek(2))).containsExactly("a", "b");
+
+        journal.commit(first.end());
+        SpillJournal.Batch second = journal.peek(10);
+        assertThat(texts(second)).containsExactly("c");
+
+        journal.commit(second.end());
+        assertThat(journal.hasPending()).isFalse();
+    }
+
+    @Test
+    @DisplayName("重新打开后从 checkpoint 继续回放")
+    void shouldResumeFromCheckpointAfterReopen() throws IOException {
+        SpillJournal journal = new SpillJournal(dir, 4096, 1 << 20);
+        journal.append(records("a", "b", "c"));
+        journal.commit(journal.peek(1).end());
+        journal.close();
+
+        SpillJournal reopened = new SpillJournal(dir, 4096, 1 << 20);
+        assertThat(reopened.hasPending()).isTrue();
+        assertThat(texts(reopened.peek(10))).containsExactly("b", "c");
+
+        reopened.append(records("d"));
+        assertThat(texts(reopened.peek(10))).containsExactly("b", "c", "d");
+    }
+
+    @Test
+    @DisplayName("跨段顺序读取并删除已确认的段")
+    void shouldRollSegmentsAndDeleteConsumed() throws IOException {
+        SpillJournal journal = new SpillJournal(dir, 64, 1 << 20);
+        for (int i = 0; i < 10; i++) {
+            journal.append(records("record-" + i));
+        }
+        assertThat(segmentCount()).isGreaterThan(1);
+
+        SpillJournal.Batch batch = journal.peek(100);
+        assertThat(texts(batch)).hasSize(10).startsWith("record-0").endsWith("record-9");
+
+        journal.commit(batch.end());
+        assertThat(journal.hasPending()).isFalse();
+        assertThat(segmentCount()).isEqualTo(1);
+        assertThat(journal.mappedBytes()).isEqualTo(64);
+    }
+
+    @Test
+    @DisplayName("达到大小上限时拒绝追加，回放释放空间后恢复")
+    void shouldRejectAppendBeyondMaxBytes() throws IOException {
+        SpillJournal journal = new SpillJournal(dir, 64, 128);
+        int appended = 0;
+        for (int i = 0; i < 20; i++) {
+            appended += journal.append(records("record-" + i));
+        }
+        assertThat(appended).isBetween(1, 19);
+        assertThat(journal.mappedBytes()).isLessThanOrEqualTo(128);
+        assertThat(journal.append(records("overflow"))).isZero();
+
+        SpillJournal.Batch batch = journal.peek(100);
+        assertThat(batch.records()).hasSize(appended);
+        journal.commit(batch.end());
+
+        assertThat(journal.append(records("after-replay"))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("未写完的帧在重新打开时被忽略并被后续追加覆盖")
+    void shouldIgnoreTornFrame() throws IOException {
+        SpillJournal journal = new SpillJournal(dir, 4096, 1 << 20);
+        journal.append(records("a"));
+        journal.close();
+
+        // 模拟崩溃：写入长度但内容与校验和不匹配的帧
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(p -> p.getFileName().toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+        byte[] data = Files.readAllBytes(segment);
+        int offset = 8 + 1;
+        data[offset + 3] = 5;
+        Files.write(segment, data);
+
+        SpillJournal reopened = new SpillJournal(dir, 4096, 1 << 20);
+        assertThat(texts(reopened.peek(10))).containsExactly("a");
+
+        reopened.append(records("b"));
+        assertThat(texts(reopened.peek(10))).containsExactly("a", "b");
+    }
+
+    private static List<byte[]> records(String... values) {
+        return Stream.of(values).map(v -> v.getBytes(StandardCharsets.UTF_8)).toList();
+    }
+
+    private static List<String> texts(SpillJournal.Batch batch) {
+        return batch.records().stream().map(r -> new String(r, StandardCharsets.UTF_8)).toList();
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".seg")).count();
+        }
+    }
+}
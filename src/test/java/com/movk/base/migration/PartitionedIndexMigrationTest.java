@@ -0,0 +1,84 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.migration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 分区表在线建索引迁移单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PartitionedIndexMigration 单元测试")
+class PartitionedIndexMigrationTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final LogSeekIndexMigration migration = new LogSeekIndexMigration();
+
+    @Test
+    @DisplayName("父表 ON ONLY 建索引，逐分区 CONCURRENTLY 建索引后挂接，不在事务中执行")
+    void shouldBuildIndexPerPartition() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT c.relname"), eq(String.class), eq("sys_operate_log")))
+            .thenReturn(List.of("sys_operate_log_default", "sys_operate_log_p202610"));
+
+        migration.migrate(jdbcTemplate);
+
+        assertThat(migration.canExecuteInTransaction()).isFalse();
+        assertThat(migration.getVersion().getVersion()).isEqualTo("11");
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute(
+            "CREATE INDEX IF NOT EXISTS idx_operate_log_seek ON ONLY sys_operate_log (created_at DESC, id DESC)");
+        order.verify(jdbcTemplate).execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_operate_log_seek_default "
+            + "ON sys_operate_log_default (created_at DESC, id DESC)");
+        order.verify(jdbcTemplate).execute("ALTER INDEX idx_operate_log_seek ATTACH PARTITION idx_operate_log_seek_default");
+        order.verify(jdbcTemplate).execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_operate_log_seek_p202610 "
+            + "ON sys_operate_log_p202610 (created_at DESC, id DESC)");
+        order.verify(jdbcTemplate).execute("ALTER INDEX idx_operate_log_seek ATTACH PARTITION idx_operate_log_seek_p202610");
+        order.verify(jdbcTemplate).execute(
+            "CREATE INDEX IF NOT EXISTS idx_login_log_seek ON ONLY sys_login_log (created_at DESC, id DESC)");
+        verify(jdbcTemplate, never()).execute(startsWith("DROP INDEX"));
+    }
+
+    @Test
+    @DisplayName("重跑时跳过已挂接的分区，删除上次中断留下的无效索引后重建")
+    void shouldResumeInterruptedBuild() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT c.relname"), eq(String.class), eq("sys_operate_log")))
+            .thenReturn(List.of("sys_operate_log_p202609", "sys_operate_log_p202610"));
+        lenient().when(jdbcTemplate.queryForList(startsWith("SELECT 1 FROM pg_inherits"), eq(Integer.class),
+            eq("idx_operate_log_seek"), eq("sys_operate_log_p202609"))).thenReturn(List.of(1));
+        lenient().when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq("idx_operate_log_seek_p202610")))
+            .thenReturn(List.of(false));
+
+        migration.migrate(jdbcTemplate);
+
+        verify(jdbcTemplate, never()).execute(
+            startsWith("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_operate_log_seek_p202609"));
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("DROP INDEX CONCURRENTLY IF EXISTS idx_operate_log_seek_p202610");
+        order.verify(jdbcTemplate).execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_operate_log_seek_p202610 "
+            + "ON sys_operate_log_p202610 (created_at DESC, id DESC)");
+        order.verify(jdbcTemplate).execute("ALTER INDEX idx_operate_log_seek ATTACH PARTITION idx_operate_log_seek_p202610");
+    }
+}
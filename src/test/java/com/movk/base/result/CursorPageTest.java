@@ -0,0 +1,59 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.base.result;
+
+import com.movk.base.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 游标分页单元测试
+ */
+@DisplayName("CursorPage 单元测试")
+class CursorPageTest {
+
+    private static final OffsetDateTime TIME = OffsetDateTime.of(2026, 10, 17, 8, 30, 0, 123_456_000, ZoneOffset.ofHours(8));
+
+    @Test
+    @DisplayName("游标编码后可还原为同一时刻与 ID")
+    void shouldRoundTripCursor() {
+        SeekCursor decoded = SeekCursor.decode(new SeekCursor(TIME, "42").encode());
+
+        assertThat(decoded.time().toInstant()).isEqualTo(TIME.toInstant());
+        assertThat(decoded.longId()).isEqualTo(42L);
+        assertThat(SeekCursor.decode(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("非法游标返回业务异常")
+    void shouldRejectInvalidCursor() {
+        assertThatThrownBy(() -> SeekCursor.decode("not-a-cursor"))
+            .isInstanceOf(BusinessException.class)
+            .extracting("code").isEqualTo(RCode.BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("多取一行时截断并以最后一行生成下一页游标")
+    void shouldSliceAndEmitNextCursor() {
+        List<Integer> rows = List.of(5, 4, 3);
+
+        CursorPage<Integer> page = CursorPage.of(rows, 2, i -> new SeekCursor(TIME, String.valueOf(i)), null, false);
+        assertThat(page.getItems()).containsExactly(5, 4);
+        assertThat(SeekCursor.decode(page.getNextCursor()).id()).isEqualTo("4");
+
+        CursorPage<Integer> last = CursorPage.of(List.of(1), 2, i -> new SeekCursor(TIME, String.valueOf(i)), 7L, true);
+        assertThat(last.getNextCursor()).isNull();
+        assertThat(last.map(String::valueOf).getItems()).containsExactly("1");
+        assertThat(last.getTotal()).isEqualTo(7L);
+    }
+}
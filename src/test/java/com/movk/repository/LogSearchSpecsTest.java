@@ -0,0 +1,84 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.repository;
+
+import com.movk.base.exception.BusinessException;
+import com.movk.base.result.SeekCursor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 日志查询条件单元测试
+ */
+@DisplayName("LogSearchSpecs 单元测试")
+class LogSearchSpecsTest {
+
+    @Test
+    @DisplayName("转义通配符并两端加 %")
+    void shouldEscapeWildcards() {
+        assertThat(LogSearchSpecs.containsPattern(" /api/v1 ")).isEqualTo("%/api/v1%");
+        assertThat(LogSearchSpecs.containsPattern("100%_ok\\")).isEqualTo("%100\\%\\_ok\\\\%");
+    }
+
+    @Test
+    @DisplayName("空关键字不附加条件，不足 3 个字符时拒绝")
+    void shouldRejectShortKeyword() {
+        assertThat(LogSearchSpecs.containsPattern(null)).isNull();
+        assertThat(LogSearchSpecs.containsPattern("  ")).isNull();
+        assertThatThrownBy(() -> LogSearchSpecs.containsPattern("ab"))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("3");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("游标条件以 created_at <= t 为前导范围条件，时间相同时按 id 续读")
+    void shouldBuildSargableSeekPredicate() {
+        OffsetDateTime time = OffsetDateTime.of(2026, 10, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        Root<Object> root = mock(Root.class);
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        Path<OffsetDateTime> createdAt = mock(Path.class);
+        Path<Long> id = mock(Path.class);
+        Predicate atOrBefore = mock(Predicate.class);
+        Predicate strictlyBefore = mock(Predicate.class);
+        Predicate idBefore = mock(Predicate.class);
+        Predicate tieBreak = mock(Predicate.class);
+        Predicate seek = mock(Predicate.class);
+        when(root.<OffsetDateTime>get("createdAt")).thenReturn(createdAt);
+        when(root.<Long>get("id")).thenReturn(id);
+        when(cb.lessThanOrEqualTo(createdAt, time)).thenReturn(atOrBefore);
+        when(cb.lessThan(createdAt, time)).thenReturn(strictlyBefore);
+        when(cb.lessThan(id, 42L)).thenReturn(idBefore);
+        when(cb.or(strictlyBefore, idBefore)).thenReturn(tieBreak);
+        when(cb.and(atOrBefore, tieBreak)).thenReturn(seek);
+
+        assertThat(LogSearchSpecs.before(new SeekCursor(time, "42")).toPredicate(root, null, cb)).isSameAs(seek);
+        verify(cb).lessThanOrEqualTo(createdAt, time);
+    }
+
+    @Test
+    @DisplayName("无游标时不附加条件")
+    void shouldSkipSeekWithoutCursor() {
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+
+        assertThat(LogSearchSpecs.before(null).toPredicate(null, null, cb)).isNull();
+        verifyNoInteractions(cb);
+    }
+}
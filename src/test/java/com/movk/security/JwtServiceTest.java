@@ -0,0 +1,124 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security;
+
+import com.movk.common.enums.DataScope;
+import com.movk.security.model.LoginUser;
+import com.movk.security.model.VerifiedClaims;
+import com.movk.security.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JWT 服务单元测试
+ */
+@DisplayName("JwtService 单元测试")
+class JwtServiceTest {
+
+    private static final String OLD_SECRET = secret('a');
+    private static final String NEW_SECRET = secret('b');
+
+    private LoginUser loginUser;
+
+    @BeforeEach
+    void setUp() {
+        loginUser = LoginUser.builder()
+            .id(UUID.randomUUID())
+            .username("user")
+            .nickname("用户")
+            .roles(List.of("user"))
+            .deptId(UUID.randomUUID())
+            .dataScope(DataScope.CUSTOM)
+            .dataScopeDeptIds(Set.of(UUID.randomUUID(), UUID.randomUUID()))
+            .build();
+    }
+
+    private static String secret(char c) {
+        return Base64.getEncoder().encodeToString(String.valueOf(c).repeat(32).getBytes());
+    }
+
+    private static JwtService jwtService(String secret, String keyId, String previousKeys) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "jwtSecret", secret);
+        ReflectionTestUtils.setField(service, "accessTokenExpiration", 900);
+        ReflectionTestUtils.setField(service, "keyId", keyId);
+        ReflectionTestUtils.setField(service, "previousKeys", previousKeys);
+        service.init();
+        return service;
+    }
+
+    @Nested
+    @DisplayName("一次解析验证测试")
+    class VerifyTests {
+
+        @Test
+        @DisplayName("一次解析返回完整声明")
+        void shouldReturnAllClaims() {
+            JwtService service = jwtService(NEW_SECRET, "k1", "");
+            UUID sessionId = UUID.randomUUID();
+            long before = System.currentTimeMillis();
+            String token = service.generateAccessToken(loginUser, sessionId);
+            long after = System.currentTimeMillis();
+
+            VerifiedClaims claims = service.verify(token);
+
+            assertThat(claims).isNotNull();
+            assertThat(claims.username()).isEqualTo("user");
+            assertThat(claims.userId()).isEqualTo(loginUser.getId());
+            assertThat(claims.roles()).containsExactly("user");
+            assertThat(claims.dataScope()).isEqualTo(DataScope.CUSTOM);
+            assertThat(claims.dataScopeDeptIds()).isEqualTo(loginUser.getDataScopeDeptIds());
+            // 毫秒级签发时间，不截断到秒
+            assertThat(claims.issuedAt()).isBetween(before, after);
+            assertThat(claims.sessionId()).isEqualTo(sessionId);
+        }
+
+        @Test
+        @DisplayName("篡改的 Token 验证失败")
+        void shouldRejectTamperedToken() {
+            JwtService service = jwtService(NEW_SECRET, "k1", "");
+            String token = service.generateAccessToken(loginUser, null);
+
+            assertThat(service.verify(token.substring(0, token.length() - 2) + "xx")).isNull();
+            assertThat(service.verify("invalid")).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("密钥轮换测试")
+    class KeyRotationTests {
+
+        @Test
+        @DisplayName("轮换后旧密钥签发的 Token 仍可验证")
+        void shouldVerifyTokenSignedWithPreviousKey() {
+            String token = jwtService(OLD_SECRET, "k1", "").generateAccessToken(loginUser, null);
+
+            JwtService rotated = jwtService(NEW_SECRET, "k2", "k1:" + OLD_SECRET);
+
+            assertThat(rotated.verify(token)).isNotNull();
+        }
+
+        @Test
+        @DisplayName("旧密钥移除后 Token 验证失败")
+        void shouldRejectTokenWithUnknownKeyId() {
+            String token = jwtService(OLD_SECRET, "k1", "").generateAccessToken(loginUser, null);
+
+            JwtService rotated = jwtService(NEW_SECRET, "k2", "");
+
+            assertThat(rotated.verify(token)).isNull();
+        }
+    }
+}
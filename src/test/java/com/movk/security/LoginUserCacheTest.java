@@ -0,0 +1,91 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security;
+
+import com.movk.security.model.LoginUser;
+import com.movk.security.service.LoginUserCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 登录用户缓存单元测试
+ */
+@DisplayName("LoginUserCache 单元测试")
+class LoginUserCacheTest {
+
+    private LoginUserCache cache;
+    private UUID userId;
+    private LoginUser loginUser;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LoginUserCache(true, Duration.ofMinutes(1), 2);
+        userId = UUID.randomUUID();
+        loginUser = LoginUser.builder()
+            .id(userId)
+            .username("user")
+            .roles(List.of("user"))
+            .build();
+    }
+
+    @Test
+    @DisplayName("相同 Token 版本命中缓存")
+    void shouldHitWithSameTokenVersion() {
+        cache.put(userId, 100L, loginUser);
+
+        assertThat(cache.get(userId, 100L)).isSameAs(loginUser);
+    }
+
+    @Test
+    @DisplayName("Token 版本不同时不命中")
+    void shouldMissWithDifferentTokenVersion() {
+        cache.put(userId, 100L, loginUser);
+
+        assertThat(cache.get(userId, 101L)).isNull();
+    }
+
+    @Test
+    @DisplayName("按用户失效时移除该用户所有版本")
+    void evictUserShouldRemoveAllVersions() {
+        UUID otherId = UUID.randomUUID();
+        cache.put(userId, 100L, loginUser);
+        cache.put(otherId, 100L, loginUser);
+
+        cache.evictUser(userId);
+
+        assertThat(cache.get(userId, 100L)).isNull();
+        assertThat(cache.get(otherId, 100L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("超出容量时淘汰最久未访问的条目")
+    void shouldEvictLeastRecentlyUsed() {
+        cache.put(userId, 1L, loginUser);
+        cache.put(userId, 2L, loginUser);
+        cache.get(userId, 1L);
+        cache.put(userId, 3L, loginUser);
+
+        assertThat(cache.get(userId, 1L)).isNotNull();
+        assertThat(cache.get(userId, 2L)).isNull();
+        assertThat(cache.get(userId, 3L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("禁用时不缓存")
+    void disabledCacheShouldNotStore() {
+        LoginUserCache disabled = new LoginUserCache(false, Duration.ofMinutes(1), 10);
+        disabled.put(userId, 100L, loginUser);
+
+        assertThat(disabled.get(userId, 100L)).isNull();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security;
+
+import com.movk.security.annotation.Log;
+import com.movk.security.annotation.RequiresPermission;
+import com.movk.security.aspect.MethodMetadata;
+import com.movk.security.aspect.MethodMetadataCache;
+import com.movk.security.model.PermissionBits;
+import com.movk.security.service.PermissionRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 切面方法元数据缓存单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MethodMetadataCache 单元测试")
+class MethodMetadataCacheTest {
+
+    @Mock
+    private PermissionRegistry permissionRegistry;
+
+    private MethodMetadataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(permissionRegistry.compile(any())).thenReturn(PermissionBits.EMPTY);
+        cache = new MethodMetadataCache(permissionRegistry);
+    }
+
+    @Test
+    @DisplayName("同一方法只解析一次，返回同一实例")
+    void shouldReturnSameInstancePerMethod() throws NoSuchMethodException {
+        Method method = UserController.class.getMethod("delete", String.class);
+        UserController target = new UserController();
+
+        MethodMetadata first = cache.get(joinPoint(method, target));
+        MethodMetadata second = cache.get(joinPoint(method, target));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.qualifiedName()).isEqualTo(UserController.class.getName() + ".delete");
+        assertThat(first.requiresPermission().value()).containsExactly("system:user:delete");
+        verify(permissionRegistry, times(1)).compile(any());
+    }
+
+    @Test
+    @DisplayName("接口方法与桥接方法映射到目标类的实现方法，不同实现各自解析")
+    void shouldResolveInterfaceAndBridgeMethods() throws NoSuchMethodException {
+        Method interfaceMethod = Handler.class.getMethod("handle", Object.class);
+        Method bridgeMethod = StringHandler.class.getMethod("handle", Object.class);
+        assertThat(bridgeMethod.isBridge()).isTrue();
+
+        MethodMetadata viaInterface = cache.get(joinPoint(interfaceMethod, new StringHandler()));
+        MethodMetadata viaBridge = cache.get(joinPoint(bridgeMethod, new StringHandler()));
+        MethodMetadata otherImpl = cache.get(joinPoint(interfaceMethod, new PlainHandler()));
+
+        for (MethodMetadata metadata : new MethodMetadata[]{viaInterface, viaBridge}) {
+            assertThat(metadata.log()).isNotNull();
+            assertThat(metadata.log().module()).isEqualTo("handler");
+            assertThat(metadata.requiresPermission().value()).containsExactly("handler:run");
+            assertThat(metadata.parameterName(0)).isEqualTo("value");
+        }
+        assertThat(otherImpl.log()).isNull();
+        assertThat(otherImpl.requiresPermission()).isNull();
+    }
+
+    @Test
+    @DisplayName("脱敏字段去重为集合，未标注 @Log 时为空集合")
+    void shouldBuildExcludeNameSet() throws NoSuchMethodException {
+        MethodMetadata logged = cache.get(joinPoint(
+            UserController.class.getMethod("login", String.class, String.class), new UserController()));
+        MethodMetadata plain = cache.get(joinPoint(
+            UserController.class.getMethod("delete", String.class), new UserController()));
+
+        assertThat(logged.logExcludeNames()).containsExactlyInAnyOrder("password", "token");
+        assertThat(plain.logExcludeNames()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("请求、响应、上传文件参数按声明类型计入忽略掩码")
+    void shouldMaskIgnoredArgumentTypes() throws NoSuchMethodException {
+        MethodMetadata metadata = cache.get(joinPoint(UserController.class.getMethod("upload",
+            HttpServletRequest.class, String.class, MultipartFile.class, MultipartFile[].class,
+            HttpServletResponse.class), new UserController()));
+
+        assertThat(metadata.isIgnoredArg(0)).isTrue();
+        assertThat(metadata.isIgnoredArg(1)).isFalse();
+        assertThat(metadata.isIgnoredArg(2)).isTrue();
+        assertThat(metadata.isIgnoredArg(3)).isTrue();
+        assertThat(metadata.isIgnoredArg(4)).isTrue();
+        assertThat(metadata.isIgnoredArg(5)).isFalse();
+        assertThat(metadata.isIgnoredArg(64)).isFalse();
+        assertThat(metadata.parameterName(1)).isEqualTo("name");
+        assertThat(metadata.parameterName(7)).isEqualTo("arg7");
+    }
+
+    private static JoinPoint joinPoint(Method method, Object target) {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        JoinPoint joinPoint = mock(JoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getTarget()).thenReturn(target);
+        return joinPoint;
+    }
+
+    interface Handler<T> {
+
+        void handle(T value);
+    }
+
+    static class StringHandler implements Handler<String> {
+
+        @Override
+        @Log(module = "handler")
+        @RequiresPermission("handler:run")
+        public void handle(String value) {
+        }
+    }
+
+    static class PlainHandler implements Handler<Object> {
+
+        @Override
+        public void handle(Object value) {
+        }
+    }
+
+    static class UserController {
+
+        @RequiresPermission("system:user:delete")
+        public void delete(String id) {
+        }
+
+        @Log(module = "auth", excludeParamNames = {"password", "token", "password"})
+        public void login(String username, String password) {
+        }
+
+        public void upload(HttpServletRequest request, String name, MultipartFile file, MultipartFile[] files,
+                           HttpServletResponse response) {
+        }
+    }
+}
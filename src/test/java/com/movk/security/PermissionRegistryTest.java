@@ -0,0 +1,107 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security;
+
+import com.movk.repository.MenuRepository;
+import com.movk.security.annotation.RequiresPermission.Logical;
+import com.movk.security.model.PermissionBits;
+import com.movk.security.service.PermissionRegistry;
+import com.movk.security.service.RolePermissionCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * 权限注册表单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PermissionRegistry 单元测试")
+class PermissionRegistryTest {
+
+    @Mock
+    private RolePermissionCache rolePermissionCache;
+
+    @Mock
+    private MenuRepository menuRepository;
+
+    private PermissionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new PermissionRegistry(rolePermissionCache, menuRepository);
+    }
+
+    @Test
+    @DisplayName("OR 逻辑拥有任一权限即通过")
+    void orShouldPassWithAnyPermission() {
+        when(rolePermissionCache.getPermissions("user")).thenReturn(Set.of("system:user:list"));
+        PermissionBits required = registry.compile("system:user:list", "system:role:list");
+
+        assertThat(registry.check(List.of("user"), required, Logical.OR)).isTrue();
+        assertThat(registry.check(List.of("user"), registry.compile("system:role:list"), Logical.OR)).isFalse();
+    }
+
+    @Test
+    @DisplayName("AND 逻辑合并多个角色的授权")
+    void andShouldUseUnionOfRoles() {
+        when(rolePermissionCache.getPermissions("user")).thenReturn(Set.of("system:user:list"));
+        when(rolePermissionCache.getPermissions("auditor")).thenReturn(Set.of("monitor:log:list"));
+        PermissionBits required = registry.compile("system:user:list", "monitor:log:list");
+
+        assertThat(registry.check(List.of("user"), required, Logical.AND)).isFalse();
+        assertThat(registry.check(List.of("user", "auditor"), required, Logical.AND)).isTrue();
+    }
+
+    @Test
+    @DisplayName("超过 64 个权限码时跨字校验")
+    void shouldCheckAcrossWords() {
+        Set<String> granted = new HashSet<>();
+        for (int i = 0; i < 600; i++) {
+            granted.add("module:res:" + i);
+        }
+        when(rolePermissionCache.getPermissions("user")).thenReturn(granted);
+
+        assertThat(registry.check(List.of("user"), registry.compile("module:res:0", "module:res:599"), Logical.AND))
+            .isTrue();
+        assertThat(registry.check(List.of("user"), registry.compile("module:res:599", "other:res:1"), Logical.AND))
+            .isFalse();
+    }
+
+    @Test
+    @DisplayName("角色权限集合变化后重新编译")
+    void shouldRecompileWhenRolePermissionsChange() {
+        PermissionBits required = registry.compile("system:user:delete");
+        when(rolePermissionCache.getPermissions("user")).thenReturn(Set.of("system:user:list"));
+        assertThat(registry.check(List.of("user"), required, Logical.OR)).isFalse();
+
+        when(rolePermissionCache.getPermissions("user")).thenReturn(Set.of("system:user:list", "system:user:delete"));
+        assertThat(registry.check(List.of("user"), required, Logical.OR)).isTrue();
+    }
+
+    @Test
+    @DisplayName("拥有全部权限标识的角色通过任意校验")
+    void wildcardRoleShouldPass() {
+        when(rolePermissionCache.getPermissions("ops")).thenReturn(Set.of("*:*:*"));
+
+        assertThat(registry.check(List.of("ops"), registry.compile("a:b:c", "d:e:f"), Logical.AND)).isTrue();
+    }
+
+    @Test
+    @DisplayName("未声明权限时直接通过")
+    void emptyRequirementShouldPass() {
+        assertThat(registry.check(List.of(), registry.compile(), Logical.AND)).isTrue();
+    }
+}
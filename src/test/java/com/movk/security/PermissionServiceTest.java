@@ -11,14 +11,15 @@ import com.movk.repository.MenuRepository;
 import com.movk.security.model.LoginUser;
 import com.movk.security.service.CurrentUserService;
 import com.movk.security.service.PermissionService;
+import com.movk.security.service.RolePermissionCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import java.util.List;
 import java.util.Set;
@@ -42,7 +43,6 @@ class PermissionServiceTest {
     @Mock
     private CurrentUserService currentUserService;
 
-    @InjectMocks
     private PermissionService permissionService;
 
     private LoginUser adminUser;
@@ -50,6 +50,9 @@ class PermissionServiceTest {
 
     @BeforeEach
     void setUp() {
+        permissionService = new PermissionService(new RolePermissionCache(menuRepository, new ConcurrentMapCacheManager()),
+            currentUserService);
+
         // 超级管理员用户
         adminUser = LoginUser.builder()
             .id(UUID.randomUUID())
@@ -118,6 +121,24 @@ class PermissionServiceTest {
             assertThat(result).isFalse();
         }
 
+        @Test
+        @DisplayName("多角色用户合并各角色权限")
+        void multiRoleUserShouldHaveUnionOfPermissions() {
+            // Given
+            when(menuRepository.findPermissionCodesByRoleCodesAndStatus(
+                List.of("user"), EnableStatus.ENABLED
+            )).thenReturn(List.of("system:user:list"));
+            when(menuRepository.findPermissionCodesByRoleCodesAndStatus(
+                List.of("auditor"), EnableStatus.ENABLED
+            )).thenReturn(List.of("monitor:log:list"));
+
+            // When
+            Set<String> permissions = permissionService.getPermissionSet(List.of("user", "auditor"));
+
+            // Then
+            assertThat(permissions).containsExactlyInAnyOrder("system:user:list", "monitor:log:list");
+        }
+
         @Test
         @DisplayName("空角色列表应该返回 false")
         void emptyRolesShouldReturnFalse() {
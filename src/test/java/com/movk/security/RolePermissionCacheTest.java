@@ -0,0 +1,73 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security;
+
+import com.movk.base.config.CacheConfig;
+import com.movk.repository.MenuRepository;
+import com.movk.security.service.RolePermissionCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 角色权限缓存失效单元测试
+ */
+@DisplayName("RolePermissionCache 失效单元测试")
+class RolePermissionCacheTest {
+
+    private Cache cache;
+    private RolePermissionCache rolePermissionCache;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.USER_PERMISSIONS);
+        cache = cacheManager.getCache(CacheConfig.USER_PERMISSIONS);
+        rolePermissionCache = new RolePermissionCache(mock(MenuRepository.class), cacheManager);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("事务提交后再次失效，提交前并发回填的旧权限不会保留")
+    void shouldEvictAgainAfterCommit() {
+        cache.put("user", Set.of("system:user:delete"));
+
+        rolePermissionCache.evict("user");
+        assertThat(cache.get("user")).isNull();
+
+        // 提交前并发的权限校验按旧数据回填
+        cache.put("user", Set.of("system:user:delete"));
+        cache.put("other", Set.of("system:user:list"));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.get("user")).isNull();
+        assertThat(cache.get("other")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("全部失效同样在提交后再执行一次")
+    void shouldClearAgainAfterCommit() {
+        rolePermissionCache.evictAll();
+        cache.put("user", Set.of("system:user:delete"));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.get("user")).isNull();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security;
+
+import com.movk.security.service.TokenDenyList;
+import com.movk.security.service.VerifiedTokenCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+
+/**
+ * AccessToken 拒绝列表单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenDenyList 单元测试")
+class TokenDenyListTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private TokenDenyList denyList;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        denyList = new TokenDenyList(redisTemplate, listenerContainer, verifiedTokenCache, 900);
+    }
+
+    @Test
+    @DisplayName("撤销按毫秒比较：同一秒内先于撤销签发的 Token 失效，撤销之后签发的有效")
+    void shouldCompareIssueTimeInMillis() throws InterruptedException {
+        long before = System.currentTimeMillis();
+        Thread.sleep(2);
+        denyList.revoke(userId);
+        Thread.sleep(2);
+        long after = System.currentTimeMillis();
+
+        assertThat(denyList.isRevoked(userId, before)).isTrue();
+        assertThat(denyList.isRevoked(userId, after)).isFalse();
+        assertThat(denyList.isRevoked(UUID.randomUUID(), before)).isFalse();
+    }
+
+    @Test
+    @DisplayName("兼容旧节点广播的秒级撤销时间")
+    void shouldAcceptLegacySecondTimestamps() {
+        long seconds = System.currentTimeMillis() / 1000;
+        denyList.onMessage(new DefaultMessage(TokenDenyList.CHANNEL.getBytes(StandardCharsets.UTF_8),
+            (userId + ":" + seconds).getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(denyList.isRevoked(userId, seconds * 1000 - 1)).isTrue();
+        assertThat(denyList.isRevoked(userId, seconds * 1000)).isFalse();
+    }
+
+    @Test
+    @DisplayName("按会话撤销只拒绝该会话的 Token，并广播到其他节点")
+    void shouldRevokeSingleSession() {
+        UUID session = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+
+        denyList.revokeSession(session);
+
+        assertThat(denyList.isRevoked(userId, session, now)).isTrue();
+        assertThat(denyList.isRevoked(userId, UUID.randomUUID(), now)).isFalse();
+        assertThat(denyList.isRevoked(userId, null, now)).isFalse();
+        verify(redisTemplate).convertAndSend(TokenDenyList.CHANNEL, "session:" + session);
+    }
+
+    @Test
+    @DisplayName("收到其他节点的会话撤销消息后拒绝该会话")
+    void shouldRecordSessionFromMessage() {
+        UUID session = UUID.randomUUID();
+        denyList.onMessage(new DefaultMessage(TokenDenyList.CHANNEL.getBytes(StandardCharsets.UTF_8),
+            ("session:" + session).getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(denyList.isRevoked(userId, session, System.currentTimeMillis())).isTrue();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.security;
+
+import com.movk.security.model.VerifiedClaims;
+import com.movk.security.service.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 已验证 Token 缓存单元测试
+ */
+@DisplayName("VerifiedTokenCache 单元测试")
+class VerifiedTokenCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+    private UUID userId;
+    private AtomicInteger verifyCount;
+    private Function<String, VerifiedClaims> verifier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(true, Duration.ofMinutes(1), 100, meterRegistry);
+        userId = UUID.randomUUID();
+        verifyCount = new AtomicInteger();
+        verifier = token -> {
+            verifyCount.incrementAndGet();
+            return new VerifiedClaims("user", userId, null, List.of("user"), 1L,
+                System.currentTimeMillis() + 60_000, null, null, null, null);
+        };
+    }
+
+    @Test
+    @DisplayName("相同 Token 重复请求跳过验签")
+    void shouldSkipVerificationOnHit() {
+        VerifiedClaims first = cache.get("token", verifier);
+        VerifiedClaims second = cache.get("token", verifier);
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifyCount.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("movk.jwt.verified.cache.requests").tag("result", "hit").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("验证失败的 Token 不缓存")
+    void shouldNotCacheFailedVerification() {
+        cache.get("bad", token -> {
+            verifyCount.incrementAndGet();
+            return null;
+        });
+        cache.get("bad", token -> {
+            verifyCount.incrementAndGet();
+            return null;
+        });
+
+        assertThat(verifyCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("撤销用户后重新验签")
+    void evictUserShouldForceVerification() {
+        cache.get("token", verifier);
+
+        cache.evictUser(userId);
+        cache.get("token", verifier);
+
+        assertThat(verifyCount.get()).isEqualTo(2);
+    }
+}
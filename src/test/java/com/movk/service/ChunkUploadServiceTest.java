@@ -0,0 +1,253 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service;
+
+import com.movk.base.config.FileProperties;
+import com.movk.base.exception.BusinessException;
+import com.movk.base.file.StagedFile;
+import com.movk.base.result.RCode;
+import com.movk.dto.file.ChunkUploadInitReq;
+import com.movk.dto.file.ChunkUploadResp;
+import com.movk.dto.file.FileUploadResp;
+import com.movk.security.model.LoginUser;
+import com.movk.security.service.CurrentUserService;
+import com.movk.service.impl.ChunkUploadServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 分片上传服务单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChunkUploadService 单元测试")
+class ChunkUploadServiceTest {
+
+    private static final int PART_SIZE = 1024 * 1024;
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    @TempDir
+    Path stagingDir;
+
+    @Mock
+    private FileService fileService;
+
+    @Mock
+    private FileBlobService fileBlobService;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ChunkUploadServiceImpl chunkUploadService;
+
+    /**
+     * 模拟 sys_file_upload_part
+     */
+    private final Set<Integer> parts = ConcurrentHashMap.newKeySet();
+
+    private Object[] sessionRow;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(fileBlobService.stagingDir()).thenReturn(stagingDir);
+        when(currentUserService.getCurrentUser()).thenReturn(LoginUser.builder().id(USER_ID).build());
+
+        when(jdbcTemplate.update(startsWith("INSERT INTO sys_file_upload "), any(Object[].class))).thenAnswer(inv -> {
+            sessionRow = Arrays.copyOfRange(inv.getArguments(), 1, inv.getArguments().length);
+            return 1;
+        });
+        lenient().when(jdbcTemplate.query(startsWith("SELECT original_name"), any(RowMapper.class), any(UUID.class)))
+            .thenAnswer(inv -> List.of(((RowMapper<Object>) inv.getArgument(1)).mapRow(sessionResultSet(), 0)));
+        lenient().when(jdbcTemplate.queryForList(startsWith("SELECT part_number"), eq(Integer.class), any(UUID.class)))
+            .thenAnswer(inv -> new ArrayList<>(parts));
+        lenient().when(jdbcTemplate.update(startsWith("INSERT INTO sys_file_upload_part"), any(UUID.class), any(Integer.class)))
+            .thenAnswer(inv -> parts.add(inv.getArgument(2)) ? 1 : 0);
+
+        FileProperties properties = new FileProperties();
+        chunkUploadService = new ChunkUploadServiceImpl(properties, fileService, fileBlobService, currentUserService,
+            jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    @DisplayName("分片并发乱序写入预分配文件，合并后摘要与原文件一致")
+    void shouldAssemblePartsWrittenConcurrently() throws Exception {
+        byte[] content = new byte[PART_SIZE * 3 + 123];
+        new Random(42).nextBytes(content);
+        ChunkUploadResp session = chunkUploadService.init(initReq("movie.zip", content.length));
+        assertThat(session.getPartCount()).isEqualTo(4);
+        assertThat(Files.size(stagingDir.resolve("upload-" + session.getUploadId() + ".part"))).isEqualTo(content.length);
+
+        CompletableFuture.allOf(IntStream.of(4, 2, 3, 1)
+            .mapToObj(n -> CompletableFuture.runAsync(() -> put(session.getUploadId(), n, content)))
+            .toArray(CompletableFuture[]::new)).join();
+        // 重复上传已接收的分片被忽略
+        chunkUploadService.putPart(session.getUploadId(), 2, new ByteArrayInputStream(new byte[PART_SIZE]), PART_SIZE);
+
+        when(jdbcTemplate.update(startsWith("DELETE FROM sys_file_upload"), any(UUID.class))).thenReturn(1);
+        when(fileService.register(any(StagedFile.class), eq("movie.zip"), eq("application/zip"), eq("video")))
+            .thenAnswer(inv -> {
+                StagedFile staged = inv.getArgument(0);
+                assertThat(Files.readAllBytes(staged.getPath())).isEqualTo(content);
+                return FileUploadResp.builder().md5(staged.getMd5()).originalName(staged.getSha256()).build();
+            });
+
+        FileUploadResp resp = chunkUploadService.complete(session.getUploadId());
+
+        HexFormat hex = HexFormat.of();
+        assertThat(resp.getMd5()).isEqualTo(hex.formatHex(MessageDigest.getInstance("MD5").digest(content)));
+        assertThat(resp.getOriginalName()).isEqualTo(hex.formatHex(MessageDigest.getInstance("SHA-256").digest(content)));
+        assertThat(stagingDir.resolve("upload-" + session.getUploadId() + ".part")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("写入存储后登记失败，重新合并时摘要仍与原文件一致且不再读取已移走的暂存文件")
+    void shouldKeepDigestsWhenCompleteIsRetried() throws Exception {
+        byte[] content = new byte[PART_SIZE + 77];
+        new Random(7).nextBytes(content);
+        ChunkUploadResp session = chunkUploadService.init(initReq("movie.zip", content.length));
+        put(session.getUploadId(), 1, content);
+        put(session.getUploadId(), 2, content);
+
+        // 模拟本地存储：首次写入把暂存文件移动到 blob 路径，对象已存在时跳过
+        Path blob = stagingDir.resolve("blob");
+        when(fileBlobService.upload(any(StagedFile.class))).thenAnswer(inv -> {
+            if (!Files.exists(blob)) {
+                ((StagedFile) inv.getArgument(0)).moveTo(blob);
+            }
+            return new FileBlobService.StoredBlob("local", "blob");
+        });
+        when(jdbcTemplate.update(startsWith("DELETE FROM sys_file_upload"), any(UUID.class))).thenReturn(1);
+        when(fileService.register(any(StagedFile.class), eq("movie.zip"), eq("application/zip"), eq("video")))
+            .thenThrow(new QueryTimeoutException("db down"))
+            .thenAnswer(inv -> {
+                StagedFile staged = inv.getArgument(0);
+                return FileUploadResp.builder().md5(staged.getMd5()).originalName(staged.getSha256()).build();
+            });
+
+        assertThatThrownBy(() -> chunkUploadService.complete(session.getUploadId()))
+            .isInstanceOf(QueryTimeoutException.class);
+        assertThat(stagingDir.resolve("upload-" + session.getUploadId() + ".part")).doesNotExist();
+        FileUploadResp resp = chunkUploadService.complete(session.getUploadId());
+
+        HexFormat hex = HexFormat.of();
+        assertThat(resp.getMd5()).isEqualTo(hex.formatHex(MessageDigest.getInstance("MD5").digest(content)));
+        assertThat(resp.getOriginalName()).isEqualTo(hex.formatHex(MessageDigest.getInstance("SHA-256").digest(content)));
+    }
+
+    @Test
+    @DisplayName("分片长度不符时拒绝且不记录，缺少分片时不能合并")
+    void shouldRejectWrongLengthAndIncompleteUpload() {
+        ChunkUploadResp session = chunkUploadService.init(initReq("a.txt", PART_SIZE + 10L));
+
+        assertThatThrownBy(() -> chunkUploadService.putPart(session.getUploadId(), 2,
+            new ByteArrayInputStream(new byte[11]), -1))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("长度应为 10");
+        assertThatThrownBy(() -> chunkUploadService.putPart(session.getUploadId(), 3,
+            new ByteArrayInputStream(new byte[0]), 0))
+            .isInstanceOf(BusinessException.class);
+        assertThat(parts).isEmpty();
+
+        chunkUploadService.putPart(session.getUploadId(), 2, new ByteArrayInputStream(new byte[10]), 10);
+        assertThat(chunkUploadService.status(session.getUploadId()).getReceivedParts()).containsExactly(2);
+        assertThatThrownBy(() -> chunkUploadService.complete(session.getUploadId()))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("1 个分片未上传");
+    }
+
+    @Test
+    @DisplayName("其他用户的会话视为不存在，不支持的扩展名在初始化时拒绝")
+    void shouldHideOtherUsersSession() throws Exception {
+        ChunkUploadResp session = chunkUploadService.init(initReq("a.txt", 10L));
+        when(currentUserService.getCurrentUser()).thenReturn(LoginUser.builder().id(UUID.randomUUID()).build());
+
+        assertThatThrownBy(() -> chunkUploadService.status(session.getUploadId()))
+            .isInstanceOf(BusinessException.class)
+            .extracting("code").isEqualTo(RCode.NOT_FOUND);
+        assertThatThrownBy(() -> chunkUploadService.init(initReq("run.exe", 10L)))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("exe");
+        verify(fileService, never()).register(any(), anyString(), any(), any());
+    }
+
+    private void put(UUID uploadId, int partNumber, byte[] content) {
+        int offset = (partNumber - 1) * PART_SIZE;
+        int length = Math.min(PART_SIZE, content.length - offset);
+        chunkUploadService.putPart(uploadId, partNumber, new ByteArrayInputStream(content, offset, length), length);
+    }
+
+    private static ChunkUploadInitReq initReq(String fileName, long size) {
+        ChunkUploadInitReq req = new ChunkUploadInitReq();
+        req.setFileName(fileName);
+        req.setSize(size);
+        req.setContentType("application/zip");
+        req.setCategory("video");
+        req.setPartSize(PART_SIZE);
+        return req;
+    }
+
+    /**
+     * 按 init 写入的参数构造会话行（列顺序与查询一致）
+     */
+    private ResultSet sessionResultSet() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        lenient().when(rs.getString(1)).thenReturn((String) sessionRow[1]);
+        lenient().when(rs.getString(2)).thenReturn((String) sessionRow[2]);
+        lenient().when(rs.getString(3)).thenReturn((String) sessionRow[3]);
+        lenient().when(rs.getLong(4)).thenReturn((Long) sessionRow[4]);
+        lenient().when(rs.getInt(5)).thenReturn((Integer) sessionRow[5]);
+        lenient().when(rs.getInt(6)).thenReturn((Integer) sessionRow[6]);
+        lenient().when(rs.getObject(7, UUID.class)).thenReturn((UUID) sessionRow[7]);
+        lenient().when(rs.getObject(8, OffsetDateTime.class)).thenReturn((OffsetDateTime) sessionRow[8]);
+        return rs;
+    }
+}
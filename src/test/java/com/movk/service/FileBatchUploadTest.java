@@ -0,0 +1,234 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service;
+
+import com.movk.base.config.FileProperties;
+import com.movk.base.file.StagedFile;
+import com.movk.base.storage.FileStorageRegistry;
+import com.movk.base.storage.LocalFileStorage;
+import com.movk.dto.file.FileBatchUploadItem;
+import com.movk.dto.file.FileUploadResp;
+import com.movk.entity.SysFile;
+import com.movk.repository.SysFileRepository;
+import com.movk.service.impl.FileServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 并发批量上传单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FileService 并发批量上传单元测试")
+class FileBatchUploadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FileBatchUploadTest.class);
+
+    private static final int FILE_COUNT = 16;
+    private static final int FILE_SIZE = 2 * 1024 * 1024;
+
+    /**
+     * 模拟读取上传临时文件的 I/O 延迟（每个文件）
+     */
+    private static final long READ_LATENCY_MILLIS = 25;
+
+    @TempDir
+    Path basePath;
+
+    @Mock
+    private SysFileRepository sysFileRepository;
+
+    @Mock
+    private FileBlobService fileBlobService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ThreadPoolTaskExecutor executor;
+
+    /**
+     * 正处于读取延迟中的文件数及其峰值
+     */
+    private final AtomicInteger inFlightReads = new AtomicInteger();
+    private final AtomicInteger peakReads = new AtomicInteger();
+
+    private FileServiceImpl fileService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(fileBlobService.stagingDir()).thenReturn(basePath);
+        lenient().when(fileBlobService.acquire(any(StagedFile.class)))
+            .thenAnswer(inv -> new FileBlobService.StoredBlob("local", "blobs/" + ((StagedFile) inv.getArgument(0)).getSha256()));
+        lenient().when(sysFileRepository.save(any(SysFile.class))).thenAnswer(inv -> withId(inv.getArgument(0)));
+        lenient().when(sysFileRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<SysFile> files = inv.getArgument(0);
+            files.forEach(FileBatchUploadTest::withId);
+            return files;
+        });
+
+        FileProperties properties = new FileProperties();
+        properties.setBasePath(basePath.toString());
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getBatchConcurrency());
+        executor.setMaxPoolSize(properties.getBatchConcurrency());
+        executor.initialize();
+        FileStorageRegistry registry = new FileStorageRegistry(List.of(new LocalFileStorage(properties)), properties);
+        fileService = new FileServiceImpl(properties, sysFileRepository, fileBlobService, registry, executor,
+            transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("单个文件失败不影响其他文件，结果与入参顺序一致，元数据一次批量保存")
+    void shouldIsolateFailuresAndSaveOnce() {
+        MultipartFile[] files = {
+            file("a.txt", new byte[]{1}), file("bad.exe", new byte[]{2}), file("c.txt", new byte[]{3})
+        };
+
+        List<FileBatchUploadItem> items = fileService.uploadBatchParallel(files, "doc");
+
+        assertThat(items).extracting(FileBatchUploadItem::getOriginalName).containsExactly("a.txt", "bad.exe", "c.txt");
+        assertThat(items).extracting(FileBatchUploadItem::getSuccess).containsExactly(true, false, true);
+        assertThat(items.get(1).getError()).contains("exe");
+        assertThat(items.get(0).getFile().getId()).isNotNull();
+        verify(sysFileRepository, times(1)).saveAll(anyList());
+        assertThat(basePath.toFile().list()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("写入存储在事务外完成，失败的文件只标记自身失败且不增加引用")
+    void shouldIsolateStorageFailures() throws IOException {
+        when(fileBlobService.upload(any(StagedFile.class))).thenAnswer(inv -> {
+            if (((StagedFile) inv.getArgument(0)).getSize() == 2) {
+                throw new IOException("disk full");
+            }
+            return null;
+        });
+        MultipartFile[] files = {file("a.txt", new byte[]{1}), file("b.txt", new byte[]{2, 2})};
+
+        List<FileBatchUploadItem> items = fileService.uploadBatchParallel(files, null);
+
+        assertThat(items).extracting(FileBatchUploadItem::getSuccess).containsExactly(true, false);
+        assertThat(items.get(1).getError()).contains("disk full");
+        verify(fileBlobService, times(1)).acquire(any(StagedFile.class));
+        assertThat(basePath.toFile().list()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("登记事务失败时整体回滚，本批全部标记失败")
+    void shouldRollBackWhenRegistrationFails() {
+        when(sysFileRepository.saveAll(anyList())).thenThrow(new QueryTimeoutException("db down"));
+        MultipartFile[] files = {file("a.txt", new byte[]{1}), file("b.txt", new byte[]{2})};
+
+        List<FileBatchUploadItem> items = fileService.uploadBatchParallel(files, null);
+
+        assertThat(items).extracting(FileBatchUploadItem::getSuccess).containsExactly(false, false);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        assertThat(basePath.toFile().list()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("并发批量上传同时读取多个文件，结果与顺序上传一致")
+    void shouldReadFilesConcurrently() {
+        Random random = new Random(1);
+        MultipartFile[] files = IntStream.range(0, FILE_COUNT).mapToObj(i -> {
+            byte[] content = new byte[FILE_SIZE];
+            random.nextBytes(content);
+            return file("f" + i + ".zip", content);
+        }).toArray(MultipartFile[]::new);
+
+        long start = System.nanoTime();
+        List<FileUploadResp> sequential = fileService.uploadBatch(files, null);
+        long sequentialMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertThat(peakReads).hasValue(1);
+
+        peakReads.set(0);
+        start = System.nanoTime();
+        List<FileBatchUploadItem> parallel = fileService.uploadBatchParallel(files, null);
+        long parallelMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // 耗时受机器负载影响，只记录供对比，不作断言
+        log.info("批量上传 {} 个 {} MB 文件 - 顺序: {} ms, 并发({} 线程): {} ms", FILE_COUNT, FILE_SIZE / 1024 / 1024,
+            sequentialMillis, executor.getCorePoolSize(), parallelMillis);
+
+        assertThat(parallel).allMatch(FileBatchUploadItem::getSuccess);
+        assertThat(parallel).extracting(item -> item.getFile().getMd5())
+            .containsExactlyElementsOf(sequential.stream().map(FileUploadResp::getMd5).toList());
+        // 读取延迟期间其他文件的读取同时进行，不依赖耗时比较
+        assertThat(peakReads.get()).isGreaterThan(1).isLessThanOrEqualTo(executor.getCorePoolSize());
+    }
+
+    private static SysFile withId(SysFile file) {
+        file.setId(UUID.randomUUID());
+        return file;
+    }
+
+    private MultipartFile file(String name, byte[] content) {
+        return new MockMultipartFile("files", name, "application/octet-stream", content) {
+            @Override
+            public InputStream getInputStream() {
+                return new FilterInputStream(new ByteArrayInputStream(content)) {
+                    private boolean delayed;
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        if (!delayed) {
+                            delayed = true;
+                            peakReads.accumulateAndGet(inFlightReads.incrementAndGet(), Math::max);
+                            try {
+                                Thread.sleep(READ_LATENCY_MILLIS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            } finally {
+                                inFlightReads.decrementAndGet();
+                            }
+                        }
+                        return super.read(b, off, len);
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service;
+
+import com.movk.base.config.FileProperties;
+import com.movk.base.file.StagedFile;
+import com.movk.base.storage.FileStorageRegistry;
+import com.movk.base.storage.LocalFileStorage;
+import com.movk.service.impl.FileBlobServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 内容寻址文件存储服务单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FileBlobService 单元测试")
+class FileBlobServiceTest {
+
+    private static final String REGISTER_SQL = "INSERT INTO sys_file_blob (sha256, path, size, ref_count, storage_type, zero_since)";
+
+    @TempDir
+    Path basePath;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FileBlobServiceImpl fileBlobService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        FileProperties properties = new FileProperties();
+        properties.setBasePath(basePath.toString());
+        FileStorageRegistry registry = new FileStorageRegistry(List.of(new LocalFileStorage(properties)), properties);
+        fileBlobService = new FileBlobServiceImpl(properties, registry, jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(fileBlobService, "gcGrace", Duration.ofHours(1));
+        ReflectionTestUtils.setField(fileBlobService, "gcBatchSize", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("新内容先登记零引用记录再移动到按哈希分目录的 blob 路径，引用在之后单独增加")
+    void shouldMoveNewBlobIntoShardedPath() throws IOException {
+        returnStoredPath();
+        List<Boolean> existedAtRegister = new ArrayList<>();
+        when(jdbcTemplate.queryForObject(startsWith(REGISTER_SQL), any(RowMapper.class), any(), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                existedAtRegister.add(Files.exists(basePath.resolve((String) invocation.getArgument(3))));
+                return new FileBlobService.StoredBlob(invocation.getArgument(5), invocation.getArgument(3));
+            });
+
+        String path;
+        try (StagedFile staged = stage("hello")) {
+            FileBlobService.StoredBlob uploaded = fileBlobService.upload(staged);
+            FileBlobService.StoredBlob blob = fileBlobService.acquire(staged);
+            assertThat(blob).isEqualTo(uploaded);
+            assertThat(blob.storageType()).isEqualTo("local");
+            path = blob.path();
+        }
+
+        String sha256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+        assertThat(path).isEqualTo("blobs/2c/f2/" + sha256);
+        assertThat(Files.readString(basePath.resolve(path))).isEqualTo("hello");
+        assertThat(stagingFiles()).isZero();
+        // 写入对象之前已登记零引用记录
+        assertThat(existedAtRegister).containsExactly(false);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("已有 blob 记录时写入该记录所在位置")
+    void shouldUploadToExistingBlobLocation() throws IOException {
+        when(jdbcTemplate.queryForObject(startsWith(REGISTER_SQL), any(RowMapper.class), any(), any(), any(), any()))
+            .thenReturn(new FileBlobService.StoredBlob("local", "legacy/hello"));
+
+        try (StagedFile staged = stage("hello")) {
+            assertThat(fileBlobService.upload(staged).path()).isEqualTo("legacy/hello");
+        }
+
+        assertThat(Files.readString(basePath.resolve("legacy/hello"))).isEqualTo("hello");
+    }
+
+    @Test
+    @DisplayName("已存在的 blob 只增加引用，丢弃暂存文件")
+    void shouldDiscardStagedFileWhenBlobExists() throws IOException {
+        returnStoredPath();
+        try (StagedFile first = stage("hello")) {
+            fileBlobService.upload(first);
+            fileBlobService.acquire(first);
+        }
+        Path blob = basePath.resolve("blobs/2c/f2/2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824");
+        long modified = Files.getLastModifiedTime(blob).toMillis();
+
+        try (StagedFile second = stage("hello")) {
+            fileBlobService.upload(second);
+            fileBlobService.acquire(second);
+        }
+
+        assertThat(Files.getLastModifiedTime(blob).toMillis()).isEqualTo(modified);
+        assertThat(stagingFiles()).isZero();
+    }
+
+    @Test
+    @DisplayName("GC 按批删除无引用的 blob 文件与记录")
+    void shouldCollectUnreferencedBlobs() throws IOException {
+        Path a = Files.createDirectories(basePath.resolve("blobs/aa/aa")).resolve("aaaa");
+        Path b = Files.createDirectories(basePath.resolve("blobs/bb/bb")).resolve("bbbb");
+        Files.writeString(a, "a");
+        Files.writeString(b, "b");
+        when(jdbcTemplate.queryForList(startsWith("SELECT sha256, path, storage_type FROM sys_file_blob"), any(OffsetDateTime.class), eq(2)))
+            .thenReturn(List.of(
+                Map.of("sha256", "aaaa", "path", "blobs/aa/aa/aaaa", "storage_type", "local"),
+                Map.of("sha256", "bbbb", "path", "blobs/bb/bb/bbbb", "storage_type", "local")))
+            .thenReturn(List.of());
+
+        int deleted = fileBlobService.collectGarbage();
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(a).doesNotExist();
+        assertThat(b).doesNotExist();
+        verify(jdbcTemplate).update("DELETE FROM sys_file_blob WHERE sha256 = ?", "aaaa");
+        verify(jdbcTemplate).update("DELETE FROM sys_file_blob WHERE sha256 = ?", "bbbb");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void returnStoredPath() {
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(), any(), any(), any()))
+            .thenAnswer(invocation -> new FileBlobService.StoredBlob(invocation.getArgument(5), invocation.getArgument(3)));
+    }
+
+    private StagedFile stage(String content) throws IOException {
+        return StagedFile.stage(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+            fileBlobService.stagingDir());
+    }
+
+    private long stagingFiles() throws IOException {
+        try (var files = Files.list(fileBlobService.stagingDir())) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service;
+
+import com.movk.base.config.FileProperties;
+import com.movk.base.exception.BusinessException;
+import com.movk.base.storage.FileStorageRegistry;
+import com.movk.base.storage.LocalFileStorage;
+import com.movk.entity.SysFile;
+import com.movk.repository.SysFileRepository;
+import com.movk.service.impl.FileServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 文件删除并发单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FileService 删除单元测试")
+class FileDeleteTest {
+
+    private static final int THREADS = 4;
+
+    @TempDir
+    Path basePath;
+
+    @Mock
+    private SysFileRepository sysFileRepository;
+
+    @Mock
+    private FileBlobService fileBlobService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FileServiceImpl fileService;
+
+    /**
+     * 模拟 sys_file.deleted 列：markDeleted 只在未删除时返回 1，与条件 UPDATE 语义一致
+     */
+    private final Map<UUID, Boolean> deleted = new ConcurrentHashMap<>();
+
+    private final List<SysFile> files = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            SysFile file = new SysFile();
+            file.setId(UUID.randomUUID());
+            file.setOriginalName("f" + i + ".txt");
+            file.setSha256("sha-" + i);
+            files.add(file);
+            deleted.put(file.getId(), false);
+        }
+        // 查询看到的是读取时刻的快照：并发删除方都能查到未删除的文件
+        lenient().when(sysFileRepository.findByIdAndDeletedFalse(any(UUID.class))).thenAnswer(inv -> files.stream()
+            .filter(f -> f.getId().equals(inv.getArgument(0)) && !deleted.get(f.getId()))
+            .findFirst());
+        lenient().when(sysFileRepository.findByIdInAndDeletedFalse(anyList())).thenAnswer(inv -> files.stream()
+            .filter(f -> ((List<?>) inv.getArgument(0)).contains(f.getId()) && !deleted.get(f.getId()))
+            .toList());
+        lenient().when(sysFileRepository.markDeleted(any(UUID.class), any())).thenAnswer(inv ->
+            deleted.replace(inv.getArgument(0), false, true) ? 1 : 0);
+
+        FileProperties properties = new FileProperties();
+        properties.setBasePath(basePath.toString());
+        FileStorageRegistry registry = new FileStorageRegistry(List.of(new LocalFileStorage(properties)), properties);
+        fileService = new FileServiceImpl(properties, sysFileRepository, fileBlobService, registry, Runnable::run,
+            transactionManager);
+    }
+
+    @Test
+    @DisplayName("并发删除同一文件只释放一次引用，其余请求返回文件不存在")
+    void shouldReleaseOnceUnderConcurrentDelete() throws Exception {
+        SysFile target = files.get(0);
+        // 所有线程先完成查询再同时更新，复现“都查到未删除”的竞态窗口
+        CyclicBarrier afterLookup = new CyclicBarrier(THREADS);
+        lenient().when(sysFileRepository.findByIdAndDeletedFalse(target.getId())).thenAnswer(inv -> {
+            afterLookup.await(5, TimeUnit.SECONDS);
+            return Optional.of(target);
+        });
+
+        AtomicInteger notFound = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        fileService.delete(target.getId());
+                    } catch (BusinessException e) {
+                        notFound.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(fileBlobService, times(1)).release("sha-0");
+        assertThat(notFound).hasValue(THREADS - 1);
+    }
+
+    @Test
+    @DisplayName("批量删除跳过已被并发删除的文件，不重复释放引用")
+    void shouldSkipAlreadyDeletedInBatch() {
+        List<UUID> ids = files.stream().map(SysFile::getId).toList();
+        // 批量查询之后、更新之前，其中一个文件被单独删除
+        lenient().when(sysFileRepository.findByIdInAndDeletedFalse(anyList())).thenAnswer(inv -> {
+            List<SysFile> snapshot = List.copyOf(files);
+            fileService.delete(files.get(1).getId());
+            return snapshot;
+        });
+
+        fileService.deleteBatch(ids);
+
+        verify(fileBlobService, times(1)).release("sha-0");
+        verify(fileBlobService, times(1)).release("sha-1");
+        verify(fileBlobService, times(1)).release("sha-2");
+        assertThat(deleted).containsValues(true, true, true).doesNotContainValue(false);
+    }
+
+    @Test
+    @DisplayName("删除已删除的文件返回文件不存在")
+    void shouldRejectDeletedFile() {
+        fileService.delete(files.get(2).getId());
+
+        assertThatThrownBy(() -> fileService.delete(files.get(2).getId()))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("不存在");
+        verify(fileBlobService, times(1)).release("sha-2");
+    }
+}
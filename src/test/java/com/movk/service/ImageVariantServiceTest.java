@@ -0,0 +1,186 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service;
+
+import com.movk.base.config.FileProperties;
+import com.movk.base.exception.BusinessException;
+import com.movk.base.storage.FileStorageRegistry;
+import com.movk.base.storage.LocalFileStorage;
+import com.movk.dto.file.FileContent;
+import com.movk.entity.SysFile;
+import com.movk.repository.SysFileRepository;
+import com.movk.service.impl.ImageVariantServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * 图片变体服务单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageVariantService 单元测试")
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path basePath;
+
+    @Mock
+    private SysFileRepository sysFileRepository;
+
+    private final AtomicInteger tasks = new AtomicInteger();
+
+    private FileProperties properties;
+
+    private FileStorageRegistry registry;
+
+    private SysFile image;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new FileProperties();
+        properties.setBasePath(basePath.toString());
+        registry = new FileStorageRegistry(List.of(new LocalFileStorage(properties)), properties);
+
+        BufferedImage source = new BufferedImage(800, 400, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = source.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 400, 400);
+        graphics.dispose();
+        Path path = basePath.resolve("blobs/ab/cd/abcd.png");
+        Files.createDirectories(path.getParent());
+        ImageIO.write(source, "png", path.toFile());
+
+        image = file("photo.png", "png", "blobs/ab/cd/abcd.png");
+        lenient().when(sysFileRepository.findByIdAndDeletedFalse(image.getId())).thenReturn(Optional.of(image));
+    }
+
+    @Test
+    @DisplayName("等比缩放到指定尺寸内，二次请求命中缓存不再生成")
+    void shouldResizeOnceAndServeFromCache() throws IOException {
+        ImageVariantService service = service(countingExecutor());
+
+        FileContent first = service.getVariant(image.getId(), 256, 256, "jpg");
+        FileContent second = service.getVariant(image.getId(), 256, 256, "jpg");
+
+        BufferedImage variant = ImageIO.read(first.getPath().toFile());
+        assertThat(variant.getWidth()).isEqualTo(256);
+        assertThat(variant.getHeight()).isEqualTo(128);
+        assertThat(first.getContentType()).isEqualTo("image/jpeg");
+        assertThat(first.getOriginalName()).isEqualTo("photo.jpeg");
+        assertThat(first.getMd5()).isEqualTo(image.getSha256() + "-256x256.jpeg");
+        assertThat(first.getSize()).isEqualTo(Files.size(first.getPath()));
+        assertThat(second.getPath()).isEqualTo(first.getPath());
+        assertThat(tasks).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("任意宽高向上取整到尺寸档位，相近尺寸共用同一变体")
+    void shouldSnapDimensionsToConfiguredSizes() {
+        ImageVariantService service = service(countingExecutor());
+
+        FileContent first = service.getVariant(image.getId(), 130, null, "jpg");
+        FileContent second = service.getVariant(image.getId(), 255, null, "jpg");
+        FileContent largest = service.getVariant(image.getId(), 2047, 1500, "jpg");
+
+        assertThat(first.getMd5()).isEqualTo(image.getSha256() + "-256x0.jpeg");
+        assertThat(second.getPath()).isEqualTo(first.getPath());
+        assertThat(largest.getMd5()).isEqualTo(image.getSha256() + "-2048x2048.jpeg");
+        assertThat(tasks).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("webp 回退为按原图选择格式，PNG 原图保留透明通道且不放大")
+    void shouldFallBackFromWebpAndNeverUpscale() throws IOException {
+        FileContent content = service(countingExecutor()).getVariant(image.getId(), 2000, null, "webp");
+
+        BufferedImage variant = ImageIO.read(content.getPath().toFile());
+        assertThat(content.getContentType()).isEqualTo("image/png");
+        assertThat(variant.getWidth()).isEqualTo(800);
+        assertThat(variant.getColorModel().hasAlpha()).isTrue();
+    }
+
+    @Test
+    @DisplayName("非图片文件返回 null，由调用方回退为原文件")
+    void shouldReturnNullForNonImage() {
+        SysFile pdf = file("doc.pdf", "pdf", "blobs/ef/01/ef01.pdf");
+        when(sysFileRepository.findByIdAndDeletedFalse(pdf.getId())).thenReturn(Optional.of(pdf));
+
+        assertThat(service(countingExecutor()).getVariant(pdf.getId(), 100, null, null)).isNull();
+        assertThat(tasks).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("拒绝非法尺寸与不支持的格式")
+    void shouldRejectInvalidParameters() {
+        ImageVariantService service = service(countingExecutor());
+
+        assertThatThrownBy(() -> service.getVariant(image.getId(), 0, null, null))
+            .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> service.getVariant(image.getId(), 100000, null, null))
+            .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> service.getVariant(image.getId(), 100, 100, "tiff"))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("tiff");
+    }
+
+    @Test
+    @DisplayName("生成线程池饱和时快速失败，不阻塞请求线程")
+    void shouldFailFastWhenPoolIsSaturated() {
+        Executor saturated = command -> {
+            throw new RejectedExecutionException("full");
+        };
+
+        assertThatThrownBy(() -> service(saturated).getVariant(image.getId(), 100, 100, null))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("繁忙");
+    }
+
+    private ImageVariantService service(Executor executor) {
+        return new ImageVariantServiceImpl(sysFileRepository, registry, properties, executor);
+    }
+
+    private Executor countingExecutor() {
+        return command -> {
+            tasks.incrementAndGet();
+            command.run();
+        };
+    }
+
+    private static SysFile file(String name, String extension, String path) {
+        SysFile file = new SysFile();
+        file.setId(UUID.randomUUID());
+        file.setOriginalName(name);
+        file.setExtension(extension);
+        file.setPath(path);
+        file.setSha256("abcd" + "0".repeat(60));
+        file.setCreatedAt(OffsetDateTime.now());
+        return file;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service;
+
+import com.movk.service.impl.LogPartitionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 日志分区维护服务单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LogPartitionService 单元测试")
+class LogPartitionServiceTest {
+
+    private static final String ESTIMATE_SQL = "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = ?::regclass";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LogPartitionServiceImpl logPartitionService;
+
+    private final OffsetDateTime before = OffsetDateTime.of(2026, 9, 15, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any(TransactionDefinition.class)))
+            .thenAnswer(invocation -> new SimpleTransactionStatus());
+        logPartitionService = new LogPartitionServiceImpl(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    @DisplayName("整月过期的分区各自在短事务中 DETACH 后删除，行数取统计估算值，不做全表 count")
+    void shouldDropExpiredPartitions() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("sys_operate_log"))).thenReturn(List.of(
+            "sys_operate_log_default", "sys_operate_log_p202607", "sys_operate_log_p202608", "sys_operate_log_p202609"));
+        when(jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class, "sys_operate_log_p202607")).thenReturn(100L);
+        when(jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class, "sys_operate_log_p202608")).thenReturn(200L);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(5);
+
+        long dropped = logPartitionService.dropBefore(LogPartitionService.OPERATE_LOG, before);
+
+        assertThat(dropped).isEqualTo(305L);
+        InOrder order = inOrder(transactionManager, jdbcTemplate);
+        order.verify(transactionManager).getTransaction(any(TransactionDefinition.class));
+        order.verify(jdbcTemplate).execute("SET LOCAL lock_timeout = '5s'");
+        order.verify(jdbcTemplate).execute("ALTER TABLE sys_operate_log DETACH PARTITION sys_operate_log_p202607");
+        order.verify(jdbcTemplate).execute("DROP TABLE sys_operate_log_p202607");
+        order.verify(transactionManager).commit(any());
+        order.verify(transactionManager).getTransaction(any(TransactionDefinition.class));
+        order.verify(jdbcTemplate).execute("ALTER TABLE sys_operate_log DETACH PARTITION sys_operate_log_p202608");
+        order.verify(transactionManager).commit(any());
+        verify(jdbcTemplate, never()).queryForObject(eq("SELECT count(*) FROM sys_operate_log_p202607"), eq(Long.class));
+        verify(jdbcTemplate, never()).execute("DROP TABLE sys_operate_log_p202609");
+        verify(jdbcTemplate, never()).execute("DROP TABLE sys_operate_log_default");
+    }
+
+    @Test
+    @DisplayName("剩余过期行分批删除，直到不足一批")
+    void shouldDeleteRemainingRowsInBatches() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("sys_login_log"))).thenReturn(List.of(
+            "sys_login_log_default", "sys_login_log_p202609"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+            .thenReturn(LogPartitionServiceImpl.DELETE_BATCH_SIZE, LogPartitionServiceImpl.DELETE_BATCH_SIZE, 7);
+
+        long deleted = logPartitionService.dropBefore(LogPartitionService.LOGIN_LOG, before);
+
+        assertThat(deleted).isEqualTo(2L * LogPartitionServiceImpl.DELETE_BATCH_SIZE + 7);
+        verify(jdbcTemplate, times(3)).update(
+            eq("DELETE FROM sys_login_log WHERE (id, created_at) IN (SELECT id, created_at FROM sys_login_log "
+                + "WHERE created_at < ? LIMIT " + LogPartitionServiceImpl.DELETE_BATCH_SIZE + ")"),
+            any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("获取锁超时的分区回滚并跳过，不影响其余分区")
+    void shouldSkipPartitionWhenLockTimesOut() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("sys_operate_log"))).thenReturn(List.of(
+            "sys_operate_log_p202607", "sys_operate_log_p202608"));
+        when(jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class, "sys_operate_log_p202607")).thenReturn(100L);
+        when(jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class, "sys_operate_log_p202608")).thenReturn(200L);
+        lenient().doThrow(new CannotAcquireLockException("lock timeout"))
+            .when(jdbcTemplate).execute("ALTER TABLE sys_operate_log DETACH PARTITION sys_operate_log_p202607");
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(0);
+
+        long dropped = logPartitionService.dropBefore(LogPartitionService.OPERATE_LOG, before);
+
+        assertThat(dropped).isEqualTo(200L);
+        verify(transactionManager).rollback(any());
+        verify(jdbcTemplate, never()).execute("DROP TABLE sys_operate_log_p202607");
+        verify(jdbcTemplate).execute("DROP TABLE sys_operate_log_p202608");
+    }
+
+    @Test
+    @DisplayName("拒绝非日志表")
+    void shouldRejectUnknownTable() {
+        assertThatThrownBy(() -> logPartitionService.dropBefore("sys_user", OffsetDateTime.now()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * @Author yixuanmiao
+ * @Date 2026/10/17
+ */
+
+package com.movk.service;
+
+import com.movk.common.enums.BusinessStatus;
+import com.movk.entity.LoginLog;
+import com.movk.entity.OperateLog;
+import com.movk.service.impl.LogStatServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 审计日志预聚合统计服务单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LogStatService 单元测试")
+class LogStatServiceTest {
+
+    private static final OffsetDateTime TIME = OffsetDateTime.of(2026, 10, 17, 9, 37, 12, 0, ZoneOffset.ofHours(8));
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LogStatServiceImpl logStatService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        logStatService = new LogStatServiceImpl(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    @DisplayName("同一小时、模块、状态的操作日志合并为一行，按 UTC 整点分桶")
+    @SuppressWarnings("unchecked")
+    void shouldAggregateOperateLogsByHour() {
+        logStatService.recordOperateLogs(List.of(
+            operateLog("用户管理", BusinessStatus.SUCCESS, 10, TIME),
+            operateLog("用户管理", BusinessStatus.SUCCESS, 30, TIME.plusMinutes(20)),
+            operateLog(null, BusinessStatus.FAILURE, null, TIME)));
+
+        logStatService.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO sys_operate_log_stat"), captor.capture());
+        assertThat(captor.getValue()).hasSize(2).anySatisfy(row -> assertThat(row).containsExactly(
+            OffsetDateTime.of(2026, 10, 17, 1, 0, 0, 0, ZoneOffset.UTC), "用户管理", (short) 1, 2L, 40L));
+        assertThat(captor.getValue()).anySatisfy(row -> assertThat(row[1]).isEqualTo(""));
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO sys_login_log_stat"), anyList());
+    }
+
+    @Test
+    @DisplayName("登录日志按 10 分钟、IP、状态分桶")
+    @SuppressWarnings("unchecked")
+    void shouldAggregateLoginLogsByTenMinutes() {
+        logStatService.recordLoginLogs(List.of(
+            loginLog("10.0.0.1", BusinessStatus.FAILURE, TIME),
+            loginLog("10.0.0.1", BusinessStatus.FAILURE, TIME.plusMinutes(2)),
+            loginLog("10.0.0.1", BusinessStatus.FAILURE, TIME.plusMinutes(3))));
+
+        logStatService.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO sys_login_log_stat"), captor.capture());
+        assertThat(captor.getValue()).extracting(row -> row[0]).containsExactlyInAnyOrder(
+            OffsetDateTime.of(2026, 10, 17, 1, 30, 0, 0, ZoneOffset.UTC),
+            OffsetDateTime.of(2026, 10, 17, 1, 40, 0, 0, ZoneOffset.UTC));
+        assertThat(captor.getValue()).extracting(row -> row[3]).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("写库失败时计数保留，下次刷写合并写出")
+    @SuppressWarnings("unchecked")
+    void shouldKeepTalliesWhenFlushFails() {
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO sys_login_log_stat"), anyList()))
+            .thenThrow(new QueryTimeoutException("db down"))
+            .thenReturn(new int[]{1});
+
+        logStatService.recordLoginLogs(List.of(loginLog("10.0.0.2", BusinessStatus.FAILURE, TIME)));
+        logStatService.flush();
+        logStatService.recordLoginLogs(List.of(loginLog("10.0.0.2", BusinessStatus.FAILURE, TIME)));
+        logStatService.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT INTO sys_login_log_stat"), captor.capture());
+        assertThat(captor.getAllValues().get(1)).singleElement().satisfies(row -> assertThat(row[3]).isEqualTo(2L));
+
+        logStatService.flush();
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT INTO sys_login_log_stat"), anyList());
+    }
+
+    private static OperateLog operateLog(String module, BusinessStatus status, Integer time, OffsetDateTime createdAt) {
+        OperateLog log = new OperateLog();
+        log.setModule(module);
+        log.setStatus(status);
+        log.setOperationTime(time);
+        log.setCreatedAt(createdAt);
+        return log;
+    }
+
+    private static LoginLog loginLog(String ip, BusinessStatus status, OffsetDateTime createdAt) {
+        LoginLog log = new LoginLog();
+        log.setLoginIp(ip);
+        log.setStatus(status);
+        log.setCreatedAt(createdAt);
+        return log;
+    }
+}